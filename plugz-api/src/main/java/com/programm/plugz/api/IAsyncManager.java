@@ -25,6 +25,15 @@ public interface IAsyncManager {
      */
     void runAsyncTask(Runnable task, Runnable onTaskFinished, long delay, boolean vip, boolean weakThread);
 
+    /**
+     * Tells if tasks run on their own virtual thread instead of a limited pool of platform threads.
+     * In that case blocking inside of a task is cheap and callers can use a thread per unit of work.
+     * @return true if the manager runs in virtual thread mode.
+     */
+    default boolean usesVirtualThreads(){
+        return false;
+    }
+
     default void notifyCurrentNewThread(){
         String name = Thread.currentThread().getName();
         notifyNewThread(name);
@@ -26,6 +26,12 @@ public interface IInstanceManager {
 
     MagicMethod buildMagicMethod(Object instance, Method method);
 
+    /**
+     * Registers an interceptor which wraps every invocation of the method done by the instance manager.
+     * Multiple interceptors of a method are called in the order they were registered.
+     */
+    void registerMethodInterceptor(Method method, IMethodInterceptor interceptor);
+
     void waitForField(Class<?> type, Object instance, Field field, AutoWaitType waitType);
 
 }
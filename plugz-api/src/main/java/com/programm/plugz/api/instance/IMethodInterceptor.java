@@ -0,0 +1,25 @@
+package com.programm.plugz.api.instance;
+
+import com.programm.plugz.api.MagicInstanceException;
+
+import java.lang.reflect.Method;
+
+/**
+ * Wraps the invocation of a method which is called through the instance manager (lifecycle-, scheduled-, mapped- or async methods).
+ * Async methods are intercepted on the thread they run on.
+ */
+public interface IMethodInterceptor {
+
+    /**
+     * @param instance the instance the method is called on or null for static methods.
+     * @param method the intercepted method.
+     * @param invocation runs the actual method (or the next interceptor) when proceeding.
+     * @return the value which should be returned from the method call.
+     */
+    Object intercept(Object instance, Method method, Invocation invocation) throws MagicInstanceException;
+
+    interface Invocation {
+        Object proceed() throws MagicInstanceException;
+    }
+
+}
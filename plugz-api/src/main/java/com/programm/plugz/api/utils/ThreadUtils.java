@@ -0,0 +1,89 @@
+package com.programm.plugz.api.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Access to virtual threads without requiring a java version which ships them at compile time.
+ * The methods are looked up reflectively once, so on older runtimes {@link #isVirtualThreadSupported()} will simply return false.
+ */
+public class ThreadUtils {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_UNSTARTED;
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderUnstarted = null;
+        Method newVirtualThreadPerTaskExecutor = null;
+
+        try {
+            Class<?> builderCls = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builderCls.getMethod("name", String.class);
+            builderUnstarted = builderCls.getMethod("unstarted", Runnable.class);
+            newVirtualThreadPerTaskExecutor = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+
+            //Virtual threads are a preview feature on some versions and will throw if preview is not enabled
+            ofVirtual.invoke(null);
+        }
+        catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException e){
+            ofVirtual = null;
+        }
+
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_UNSTARTED = builderUnstarted;
+        NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = newVirtualThreadPerTaskExecutor;
+    }
+
+    public static boolean isVirtualThreadSupported(){
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates a new unstarted virtual thread.
+     * @param name the name of the thread.
+     * @param task the task the thread will run.
+     * @return the unstarted virtual thread.
+     * @throws UnsupportedOperationException if the runtime does not support virtual threads.
+     */
+    public static Thread newVirtualThread(String name, Runnable task){
+        if(!isVirtualThreadSupported()) throw new UnsupportedOperationException("Virtual threads are not supported by this runtime!");
+
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = BUILDER_NAME.invoke(builder, name);
+            return (Thread) BUILDER_UNSTARTED.invoke(builder, task);
+        }
+        catch (IllegalAccessException | InvocationTargetException e){
+            throw new UnsupportedOperationException("Failed to create virtual thread!", e);
+        }
+    }
+
+    public static Thread startVirtualThread(String name, Runnable task){
+        Thread thread = newVirtualThread(name, task);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * @return an executor which starts a new virtual thread for each task.
+     * @throws UnsupportedOperationException if the runtime does not support virtual threads.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(){
+        if(!isVirtualThreadSupported()) throw new UnsupportedOperationException("Virtual threads are not supported by this runtime!");
+
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        }
+        catch (IllegalAccessException | InvocationTargetException e){
+            throw new UnsupportedOperationException("Failed to create virtual thread executor!", e);
+        }
+    }
+
+}
@@ -53,6 +53,11 @@ public class ClassAnalyzer {
         public int modifiers() {
             return field.getModifiers();
         }
+
+        @Override
+        public Member member() {
+            return field;
+        }
     }
 
     @RequiredArgsConstructor
@@ -81,6 +86,11 @@ public class ClassAnalyzer {
         public int modifiers() {
             return method.getModifiers();
         }
+
+        @Override
+        public Member member() {
+            return method;
+        }
     }
 
     @RequiredArgsConstructor
@@ -106,6 +116,11 @@ public class ClassAnalyzer {
         public int modifiers() {
             return field.getModifiers();
         }
+
+        @Override
+        public Member member() {
+            return field;
+        }
     }
 
     @RequiredArgsConstructor
@@ -131,6 +146,11 @@ public class ClassAnalyzer {
         public int modifiers() {
             return method.getModifiers();
         }
+
+        @Override
+        public Member member() {
+            return method;
+        }
     }
 
     private static String nameToStd(String s){
@@ -1,6 +1,7 @@
 package com.programm.plugz.cls.analyzer;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
 
 public interface IClassPropertySetter {
 
@@ -8,4 +9,9 @@ public interface IClassPropertySetter {
 
     int modifiers();
 
+    /**
+     * @return the field or method used to set the property.
+     */
+    Member member();
+
 }
@@ -3,8 +3,6 @@ package com.programm.plugz.codegen;
 import lombok.RequiredArgsConstructor;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -28,17 +26,11 @@ public class GeneratedCodeHelper {
         }
     }
 
-    private static final Map<Class<?>, Map<Method, ProxyMethod>> PROXY_METHOD_HANDLE_MAP = new HashMap<>();
-
+    /**
+     * The super call is bound to the calling proxy instance, so the wrapped method can not be shared between instances.
+     */
     public static ProxyMethod wrapMethod(Class<?> superClass, Method method, Function<Object[], Object> superCall) {
-        Map<Method, ProxyMethod> proxyMethodMap = PROXY_METHOD_HANDLE_MAP.computeIfAbsent(superClass, k -> new HashMap<>());
-        ProxyMethod methodHandle = proxyMethodMap.get(method);
-
-        if(methodHandle != null) return methodHandle;
-
-        methodHandle =  new ProxyMethodImpl(method.getName(), superCall);
-        proxyMethodMap.put(method, methodHandle);
-        return methodHandle;
+        return new ProxyMethodImpl(method.getName(), superCall);
     }
 
 }
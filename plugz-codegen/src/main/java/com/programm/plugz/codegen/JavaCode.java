@@ -62,6 +62,22 @@ public class JavaCode {
         }
     }
 
+    /**
+     * Creates a temporary directory to generate classes into, which is deleted when the jvm shuts down.
+     * Multiple calls with the same name return the same directory.
+     * @param name the name of the directory.
+     * @return the directory.
+     * @throws JavaCodeGenerationException if the directory could not be created.
+     */
+    public static File createTmpDirectory(String name) throws JavaCodeGenerationException {
+        try {
+            return TmpFileManager.createTmpDirectory(name, true);
+        }
+        catch (IOException e){
+            throw new JavaCodeGenerationException("Failed to create temporary directory [" + name + "]!", e);
+        }
+    }
+
     /**
      * Creates a temp file and writes source code to it provided by the setup consumer.
      * @param parentFolder the folder to put the source file into.
@@ -324,6 +324,27 @@ public class ProxyFactory {
         return result;
     }
 
+    /**
+     * @param proxy some object.
+     * @return the method handler of a proxy instance created by this factory or null if the object is not such a proxy.
+     */
+    public static ProxyMethodHandler getProxyHandler(Object proxy){
+        Field handlerField;
+        try {
+            handlerField = proxy.getClass().getField(PROXY_FIELD_HANDLER);
+        }
+        catch (NoSuchFieldException e){
+            return null;
+        }
+
+        try {
+            return handlerField.get(proxy) instanceof ProxyMethodHandler handler ? handler : null;
+        }
+        catch (IllegalAccessException e){
+            throw new IllegalStateException("INVALID STATE: The generated field [" + PROXY_FIELD_HANDLER + "] should be accessible!", e);
+        }
+    }
+
     private static Object createAndSetupProxyHandler(Class<?> cls, Constructor<?> constructor, ProxyMethodHandler methodHandler, Object... args) throws ProxyClassCreationException {
         Object proxyInstance;
         try {
@@ -0,0 +1,491 @@
+package com.programm.plugz.files.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single pass json parser working directly on UTF-8 bytes.
+ * It can be used as pull parser with {@link #nextToken()} and the getters for the value of the current token,
+ * or to build a {@link JsonNode} tree with {@link #readTree()} and {@link #readDocument()}.
+ *
+ * Strings are decoded with all escape sequences, integers are kept as long and only numbers with a fraction or an exponent
+ * (or which do not fit into a long) are parsed as double.
+ */
+public class JsonReader {
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private final byte[] data;
+    private final int end;
+    private int pos;
+
+    //States of the nested objects and arrays
+    private int[] stack = new int[16];
+    private int depth = 1;
+
+    //Value of the current token
+    private JsonToken token;
+    private String string;
+    private long longValue;
+    private double doubleValue;
+    private boolean integral;
+    private boolean booleanValue;
+
+    //Reused to decode strings with escape sequences
+    private byte[] scratch = new byte[64];
+    private int scratchLength;
+
+    public JsonReader(String s) {
+        this(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public JsonReader(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public JsonReader(byte[] data, int offset, int length) {
+        this.data = data;
+        this.pos = offset;
+        this.end = offset + length;
+        this.stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Reads the next token.
+     * Names of object entries are returned as {@link JsonToken#NAME} followed by the token of their value.
+     * @return the next token or {@link JsonToken#END_DOCUMENT} if the document was read completely.
+     * @throws JsonParseException if the json is invalid.
+     */
+    public JsonToken nextToken() throws JsonParseException {
+        skipWhitespace();
+
+        switch (stack[depth - 1]) {
+            case EMPTY_DOCUMENT -> {
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                return readValue();
+            }
+            case NONEMPTY_DOCUMENT -> {
+                if(pos < end) throw error("Unexpected content after the end of the document");
+                return token = JsonToken.END_DOCUMENT;
+            }
+            case EMPTY_ARRAY -> {
+                if(peek() == ']') return close(JsonToken.END_ARRAY);
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                return readValue();
+            }
+            case NONEMPTY_ARRAY -> {
+                byte c = peek();
+                if(c == ']') return close(JsonToken.END_ARRAY);
+                if(c != ',') throw error("Array values must be separated by a comma");
+                pos++;
+                return readValue();
+            }
+            case EMPTY_OBJECT -> {
+                if(peek() == '}') return close(JsonToken.END_OBJECT);
+                return readName();
+            }
+            case NONEMPTY_OBJECT -> {
+                byte c = peek();
+                if(c == '}') return close(JsonToken.END_OBJECT);
+                if(c != ',') throw error("Objects key-value pairs must be separated by a comma");
+                pos++;
+                skipWhitespace();
+                return readName();
+            }
+            case DANGLING_NAME -> {
+                if(peek() != ':') throw error("Object keys and values must be separated by a colon");
+                pos++;
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                return readValue();
+            }
+            default -> throw new IllegalStateException("INVALID STATE: Unknown parser state [" + stack[depth - 1] + "]!");
+        }
+    }
+
+    public JsonToken currentToken() {
+        return token;
+    }
+
+    /**
+     * @return the name for {@link JsonToken#NAME}, the string for {@link JsonToken#STRING} or the text of a number or boolean.
+     */
+    public String getString() {
+        return switch (token) {
+            case NAME, STRING -> string;
+            case NUMBER -> integral ? Long.toString(longValue) : Double.toString(doubleValue);
+            case BOOLEAN -> Boolean.toString(booleanValue);
+            default -> null;
+        };
+    }
+
+    /**
+     * @return true if the current number has no fraction or exponent and fits into a long.
+     */
+    public boolean isIntegral() {
+        checkToken(JsonToken.NUMBER);
+        return integral;
+    }
+
+    public long getLong() {
+        checkToken(JsonToken.NUMBER);
+        return integral ? longValue : (long) doubleValue;
+    }
+
+    public double getDouble() {
+        checkToken(JsonToken.NUMBER);
+        return integral ? longValue : doubleValue;
+    }
+
+    public boolean getBoolean() {
+        checkToken(JsonToken.BOOLEAN);
+        return booleanValue;
+    }
+
+    /**
+     * @return the value of the current token as String, Long, Double, Boolean or null.
+     */
+    public Object getValue() {
+        return switch (token) {
+            case NAME, STRING -> string;
+            case NUMBER -> integral ? (Object) longValue : (Object) doubleValue;
+            case BOOLEAN -> booleanValue;
+            default -> null;
+        };
+    }
+
+    /**
+     * Skips the next value including all its nested values.
+     */
+    public void skipValue() throws JsonParseException {
+        int nested = 0;
+        do {
+            switch (nextToken()) {
+                case BEGIN_OBJECT, BEGIN_ARRAY -> nested++;
+                case END_OBJECT, END_ARRAY -> nested--;
+                case END_DOCUMENT -> throw error("Unexpected end of document");
+            }
+        }
+        while(nested > 0);
+    }
+
+    /**
+     * Reads the next value as node tree.
+     */
+    public JsonNode readTree() throws JsonParseException {
+        return readTree(nextToken());
+    }
+
+    /**
+     * Reads the whole document as node tree and makes sure nothing follows it.
+     */
+    public JsonNode readDocument() throws JsonParseException {
+        JsonNode node = readTree();
+        if(nextToken() != JsonToken.END_DOCUMENT) throw error("Unexpected content after the end of the document");
+        return node;
+    }
+
+    /**
+     * Reads the value starting at the current token as node tree.
+     */
+    public JsonNode currentTree() throws JsonParseException {
+        return readTree(token);
+    }
+
+    private JsonNode readTree(JsonToken token) throws JsonParseException {
+        switch (token) {
+            case BEGIN_OBJECT -> {
+                Map<String, JsonNode> children = new HashMap<>();
+                while(nextToken() != JsonToken.END_OBJECT){
+                    String name = string;
+                    children.put(name, readTree(nextToken()));
+                }
+                return new JsonObjectNode(children);
+            }
+            case BEGIN_ARRAY -> {
+                List<JsonNode> children = new ArrayList<>();
+                JsonToken next;
+                while((next = nextToken()) != JsonToken.END_ARRAY){
+                    children.add(readTree(next));
+                }
+                return new JsonArrayNode(children);
+            }
+            case STRING, NUMBER, BOOLEAN, NULL -> {
+                return new JsonValueNode(getValue());
+            }
+            default -> throw error("Unexpected token [" + token + "]");
+        }
+    }
+
+    private JsonToken readName() throws JsonParseException {
+        if(peek() != '"') throw error("Objects must start with a key - string");
+        string = readString();
+        stack[depth - 1] = DANGLING_NAME;
+        return token = JsonToken.NAME;
+    }
+
+    private JsonToken readValue() throws JsonParseException {
+        skipWhitespace();
+        byte c = peek();
+
+        switch (c) {
+            case '{' -> {
+                pos++;
+                push(EMPTY_OBJECT);
+                return token = JsonToken.BEGIN_OBJECT;
+            }
+            case '[' -> {
+                pos++;
+                push(EMPTY_ARRAY);
+                return token = JsonToken.BEGIN_ARRAY;
+            }
+            case '"' -> {
+                string = readString();
+                return token = JsonToken.STRING;
+            }
+            case 't' -> {
+                readLiteral("true");
+                booleanValue = true;
+                return token = JsonToken.BOOLEAN;
+            }
+            case 'f' -> {
+                readLiteral("false");
+                booleanValue = false;
+                return token = JsonToken.BOOLEAN;
+            }
+            case 'n' -> {
+                readLiteral("null");
+                return token = JsonToken.NULL;
+            }
+            default -> {
+                if(c != '-' && !isDigit(c)) throw error("Invalid begin of value [" + (char) c + "]");
+                readNumber();
+                return token = JsonToken.NUMBER;
+            }
+        }
+    }
+
+    private JsonToken close(JsonToken closeToken){
+        pos++;
+        depth--;
+        return token = closeToken;
+    }
+
+    private void push(int state){
+        if(depth == stack.length) stack = Arrays.copyOf(stack, depth * 2);
+        stack[depth++] = state;
+    }
+
+    private String readString() throws JsonParseException {
+        int start = ++pos;
+
+        //Fast path: strings without escape sequences are decoded directly from the input
+        while(pos < end){
+            byte b = data[pos];
+            if(b == '"'){
+                String s = new String(data, start, pos - start, StandardCharsets.UTF_8);
+                pos++;
+                return s;
+            }
+            if(b == '\\') return readEscapedString(start);
+            if(b >= 0 && b < 0x20) throw error("Unescaped control character in string");
+            pos++;
+        }
+
+        throw error("String does not end with a quotation");
+    }
+
+    private String readEscapedString(int start) throws JsonParseException {
+        scratchLength = 0;
+        putScratch(data, start, pos - start);
+
+        while(pos < end){
+            byte b = data[pos++];
+
+            if(b == '"'){
+                return new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+            }
+            else if(b == '\\'){
+                if(pos == end) break;
+                byte escaped = data[pos++];
+
+                switch (escaped) {
+                    case '"', '\\', '/' -> putScratch(escaped);
+                    case 'b' -> putScratch((byte) '\b');
+                    case 'f' -> putScratch((byte) '\f');
+                    case 'n' -> putScratch((byte) '\n');
+                    case 'r' -> putScratch((byte) '\r');
+                    case 't' -> putScratch((byte) '\t');
+                    case 'u' -> putCodePoint(readUnicodeEscape());
+                    default -> throw error("Invalid escape sequence [\\" + (char) escaped + "]");
+                }
+            }
+            else if(b >= 0 && b < 0x20){
+                throw error("Unescaped control character in string");
+            }
+            else {
+                putScratch(b);
+            }
+        }
+
+        throw error("String does not end with a quotation");
+    }
+
+    private int readUnicodeEscape() throws JsonParseException {
+        int c = readHex4();
+
+        //Surrogate pairs are written as two escape sequences
+        if(Character.isHighSurrogate((char) c) && pos + 6 <= end && data[pos] == '\\' && data[pos + 1] == 'u'){
+            int mark = pos;
+            pos += 2;
+            int low = readHex4();
+            if(Character.isLowSurrogate((char) low)) return Character.toCodePoint((char) c, (char) low);
+            pos = mark;
+        }
+
+        return c;
+    }
+
+    private int readHex4() throws JsonParseException {
+        if(pos + 4 > end) throw error("Unicode escape sequence is too short");
+
+        int value = 0;
+        for(int i=0;i<4;i++){
+            int digit = Character.digit(data[pos++], 16);
+            if(digit == -1) throw error("Invalid unicode escape sequence");
+            value = (value << 4) | digit;
+        }
+
+        return value;
+    }
+
+    private void putCodePoint(int cp){
+        if(cp < 0x80){
+            putScratch((byte) cp);
+        }
+        else if(cp < 0x800){
+            putScratch((byte) (0xC0 | (cp >> 6)));
+            putScratch((byte) (0x80 | (cp & 0x3F)));
+        }
+        else if(cp < 0x10000){
+            putScratch((byte) (0xE0 | (cp >> 12)));
+            putScratch((byte) (0x80 | ((cp >> 6) & 0x3F)));
+            putScratch((byte) (0x80 | (cp & 0x3F)));
+        }
+        else {
+            putScratch((byte) (0xF0 | (cp >> 18)));
+            putScratch((byte) (0x80 | ((cp >> 12) & 0x3F)));
+            putScratch((byte) (0x80 | ((cp >> 6) & 0x3F)));
+            putScratch((byte) (0x80 | (cp & 0x3F)));
+        }
+    }
+
+    private void putScratch(byte b){
+        if(scratchLength == scratch.length) scratch = Arrays.copyOf(scratch, scratchLength * 2);
+        scratch[scratchLength++] = b;
+    }
+
+    private void putScratch(byte[] bytes, int off, int len){
+        if(scratchLength + len > scratch.length) scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, scratchLength + len));
+        System.arraycopy(bytes, off, scratch, scratchLength, len);
+        scratchLength += len;
+    }
+
+    private void readNumber() throws JsonParseException {
+        int start = pos;
+        boolean negative = data[pos] == '-';
+        if(negative) pos++;
+
+        if(pos == end || !isDigit(data[pos])) throw error("Invalid number");
+
+        //Accumulated negative so Long.MIN_VALUE fits
+        long value = 0;
+        boolean overflow = false;
+
+        if(data[pos] == '0'){
+            pos++;
+        }
+        else {
+            while(pos < end && isDigit(data[pos])){
+                int digit = data[pos] - '0';
+                if(value < (Long.MIN_VALUE + digit) / 10) overflow = true;
+                else value = value * 10 - digit;
+                pos++;
+            }
+        }
+
+        boolean decimal = false;
+
+        if(pos < end && data[pos] == '.'){
+            pos++;
+            if(pos == end || !isDigit(data[pos])) throw error("Invalid number");
+            while(pos < end && isDigit(data[pos])) pos++;
+            decimal = true;
+        }
+
+        if(pos < end && (data[pos] == 'e' || data[pos] == 'E')){
+            pos++;
+            if(pos < end && (data[pos] == '+' || data[pos] == '-')) pos++;
+            if(pos == end || !isDigit(data[pos])) throw error("Invalid number");
+            while(pos < end && isDigit(data[pos])) pos++;
+            decimal = true;
+        }
+
+        if(!negative && value == Long.MIN_VALUE) overflow = true;
+
+        if(decimal || overflow){
+            integral = false;
+            doubleValue = Double.parseDouble(new String(data, start, pos - start, StandardCharsets.ISO_8859_1));
+        }
+        else {
+            integral = true;
+            longValue = negative ? value : -value;
+        }
+    }
+
+    private void readLiteral(String literal) throws JsonParseException {
+        int len = literal.length();
+        if(pos + len > end) throw error("Invalid literal");
+
+        for(int i=0;i<len;i++){
+            if(data[pos + i] != literal.charAt(i)) throw error("Invalid literal");
+        }
+
+        pos += len;
+    }
+
+    private byte peek() throws JsonParseException {
+        if(pos >= end) throw error("Unexpected end of document");
+        return data[pos];
+    }
+
+    private void skipWhitespace(){
+        while(pos < end){
+            byte b = data[pos];
+            if(b != ' ' && b != '\n' && b != '\r' && b != '\t') return;
+            pos++;
+        }
+    }
+
+    private void checkToken(JsonToken expected){
+        if(token != expected) throw new IllegalStateException("Current token is [" + token + "] and not [" + expected + "]!");
+    }
+
+    private JsonParseException error(String message){
+        return new JsonParseException(message + " at position [" + pos + "]!");
+    }
+
+    private static boolean isDigit(byte b){
+        return b >= '0' && b <= '9';
+    }
+
+}
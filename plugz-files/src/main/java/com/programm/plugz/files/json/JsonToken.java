@@ -0,0 +1,19 @@
+package com.programm.plugz.files.json;
+
+/**
+ * The tokens returned by {@link JsonReader#nextToken()}.
+ */
+public enum JsonToken {
+
+    BEGIN_OBJECT,
+    END_OBJECT,
+    BEGIN_ARRAY,
+    END_ARRAY,
+    NAME,
+    STRING,
+    NUMBER,
+    BOOLEAN,
+    NULL,
+    END_DOCUMENT
+
+}
@@ -0,0 +1,330 @@
+package com.programm.plugz.files.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming json generator which encodes directly to UTF-8 bytes.
+ * The output is collected in an internal buffer which is written to the underlying stream when full or on {@link #flush()}.
+ * A writer can be reused for multiple documents by calling {@link #reset(OutputStream)}.
+ */
+public class JsonWriter {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final byte[] TRUE = { 't', 'r', 'u', 'e' };
+    private static final byte[] FALSE = { 'f', 'a', 'l', 's', 'e' };
+    private static final byte[] NULL = { 'n', 'u', 'l', 'l' };
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private OutputStream out;
+    private final byte[] buffer;
+    private int pos;
+
+    //Per nesting level: if a value was already written, so the next one needs a comma
+    private boolean[] hasValues = new boolean[16];
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public JsonWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(16, bufferSize)];
+    }
+
+    /**
+     * Resets the writer so the buffer can be reused to write a new document to another stream.
+     */
+    public JsonWriter reset(OutputStream out){
+        this.out = out;
+        this.pos = 0;
+        this.depth = 0;
+        this.afterName = false;
+        return this;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        writeByte('{');
+        push();
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        depth--;
+        writeByte('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        writeByte('[');
+        push();
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        depth--;
+        writeByte(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        beforeValue();
+        writeString(name);
+        writeByte(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a name which was already encoded by {@link #encodeName(String)}.
+     * Useful to avoid encoding the same property names again and again.
+     */
+    public JsonWriter encodedName(byte[] encodedName) throws IOException {
+        beforeValue();
+        writeBytes(encodedName, 0, encodedName.length);
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        if(value == null) return nullValue();
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        writeAscii(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(double value) throws IOException {
+        if(Double.isNaN(value) || Double.isInfinite(value)) return nullValue();
+        beforeValue();
+        writeAscii(Double.toString(value));
+        return this;
+    }
+
+    /**
+     * Floats are written with their own shortest representation, as widening them to double would add digits (0.1f -> 0.10000000149011612).
+     */
+    public JsonWriter value(float value) throws IOException {
+        if(Float.isNaN(value) || Float.isInfinite(value)) return nullValue();
+        beforeValue();
+        writeAscii(Float.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        writeBytes(value ? TRUE : FALSE);
+        return this;
+    }
+
+    public JsonWriter value(char value) throws IOException {
+        return value(String.valueOf(value));
+    }
+
+    /**
+     * Writes a boxed primitive, a string or a big number value.
+     * Big numbers are written with all their digits; other numbers which are not integral are written as double.
+     */
+    public JsonWriter value(Object value) throws IOException {
+        if(value == null) return nullValue();
+        if(value instanceof String s) return value(s);
+        if(value instanceof Boolean b) return value(b.booleanValue());
+        if(value instanceof Character c) return value(c.charValue());
+        if(value instanceof Float f) return value(f.floatValue());
+        if(value instanceof Double d) return value(d.doubleValue());
+        if(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof AtomicInteger || value instanceof AtomicLong) return value(((Number) value).longValue());
+        if(value instanceof BigDecimal || value instanceof BigInteger){
+            beforeValue();
+            writeAscii(value.toString());
+            return this;
+        }
+        if(value instanceof Number n) return value(n.doubleValue());
+        return value(value.toString());
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        writeBytes(NULL);
+        return this;
+    }
+
+    /**
+     * Writes a whole json node tree.
+     */
+    public JsonWriter node(JsonNode node) throws IOException {
+        if(node instanceof JsonValueNode valueNode){
+            value(valueNode.get());
+        }
+        else if(node instanceof JsonArrayNode arrayNode){
+            beginArray();
+            for(int i=0;i<arrayNode.size();i++){
+                node(arrayNode.get(i));
+            }
+            endArray();
+        }
+        else if(node instanceof JsonObjectNode objectNode){
+            beginObject();
+            for(Map.Entry<String, JsonNode> entry : objectNode.objectChildren().entrySet()){
+                name(entry.getKey());
+                node(entry.getValue());
+            }
+            endObject();
+        }
+        else {
+            nullValue();
+        }
+
+        return this;
+    }
+
+    public void flush() throws IOException {
+        if(pos > 0){
+            out.write(buffer, 0, pos);
+            pos = 0;
+        }
+        out.flush();
+    }
+
+    /**
+     * Encodes a name as quoted json string followed by a colon.
+     * @see #encodedName(byte[])
+     */
+    public static byte[] encodeName(String name){
+        JsonWriter writer = new JsonWriter(null, name.length() * 6 + 3);
+        try {
+            writer.writeString(name);
+            writer.writeByte(':');
+        }
+        catch (IOException e){
+            throw new IllegalStateException("INVALID STATE: Buffer is large enough for any name.", e);
+        }
+        return Arrays.copyOf(writer.buffer, writer.pos);
+    }
+
+    private void push(){
+        if(depth == hasValues.length) hasValues = Arrays.copyOf(hasValues, depth * 2);
+        hasValues[depth++] = false;
+    }
+
+    private void beforeValue() throws IOException {
+        if(afterName){
+            afterName = false;
+            return;
+        }
+
+        if(depth > 0){
+            if(hasValues[depth - 1]) writeByte(',');
+            hasValues[depth - 1] = true;
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        writeByte('"');
+
+        int len = s.length();
+        for(int i=0;i<len;i++){
+            char c = s.charAt(i);
+
+            if(c < 0x80){
+                if(c == '"' || c == '\\'){
+                    writeByte('\\');
+                    writeByte(c);
+                }
+                else if(c < 0x20){
+                    writeControlChar(c);
+                }
+                else {
+                    writeByte(c);
+                }
+            }
+            else if(c < 0x800){
+                writeByte(0xC0 | (c >> 6));
+                writeByte(0x80 | (c & 0x3F));
+            }
+            else if(Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))){
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                writeByte(0xF0 | (cp >> 18));
+                writeByte(0x80 | ((cp >> 12) & 0x3F));
+                writeByte(0x80 | ((cp >> 6) & 0x3F));
+                writeByte(0x80 | (cp & 0x3F));
+            }
+            else {
+                writeByte(0xE0 | (c >> 12));
+                writeByte(0x80 | ((c >> 6) & 0x3F));
+                writeByte(0x80 | (c & 0x3F));
+            }
+        }
+
+        writeByte('"');
+    }
+
+    private void writeControlChar(char c) throws IOException {
+        writeByte('\\');
+        switch (c) {
+            case '\n' -> writeByte('n');
+            case '\r' -> writeByte('r');
+            case '\t' -> writeByte('t');
+            case '\b' -> writeByte('b');
+            case '\f' -> writeByte('f');
+            default -> {
+                writeByte('u');
+                writeByte('0');
+                writeByte('0');
+                writeByte(HEX[c >> 4]);
+                writeByte(HEX[c & 0xF]);
+            }
+        }
+    }
+
+    private void writeAscii(String s) throws IOException {
+        int len = s.length();
+        for(int i=0;i<len;i++){
+            writeByte(s.charAt(i));
+        }
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    private void writeBytes(byte[] bytes, int off, int len) throws IOException {
+        if(len > buffer.length - pos){
+            flushBuffer();
+            if(len > buffer.length){
+                out.write(bytes, off, len);
+                return;
+            }
+        }
+
+        System.arraycopy(bytes, off, buffer, pos, len);
+        pos += len;
+    }
+
+    private void writeByte(int b) throws IOException {
+        if(pos == buffer.length) flushBuffer();
+        buffer[pos++] = (byte) b;
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, pos);
+        pos = 0;
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.programm.plugz.files.json;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonReaderTest {
+
+    @Test
+    @DisplayName("Json-Reader [Tokens]")
+    public void testTokens() throws JsonParseException {
+        JsonReader reader = new JsonReader(" {\"a\" : [1, -2.5, true, null], \"b\": {}} ");
+
+        assertEquals(JsonToken.BEGIN_OBJECT, reader.nextToken());
+        assertEquals(JsonToken.NAME, reader.nextToken());
+        assertEquals("a", reader.getString());
+        assertEquals(JsonToken.BEGIN_ARRAY, reader.nextToken());
+        assertEquals(JsonToken.NUMBER, reader.nextToken());
+        assertTrue(reader.isIntegral());
+        assertEquals(1, reader.getLong());
+        assertEquals(JsonToken.NUMBER, reader.nextToken());
+        assertFalse(reader.isIntegral());
+        assertEquals(-2.5, reader.getDouble());
+        assertEquals(JsonToken.BOOLEAN, reader.nextToken());
+        assertTrue(reader.getBoolean());
+        assertEquals(JsonToken.NULL, reader.nextToken());
+        assertNull(reader.getValue());
+        assertEquals(JsonToken.END_ARRAY, reader.nextToken());
+        assertEquals(JsonToken.NAME, reader.nextToken());
+        assertEquals("b", reader.getString());
+        assertEquals(JsonToken.BEGIN_OBJECT, reader.nextToken());
+        assertEquals(JsonToken.END_OBJECT, reader.nextToken());
+        assertEquals(JsonToken.END_OBJECT, reader.nextToken());
+        assertEquals(JsonToken.END_DOCUMENT, reader.nextToken());
+    }
+
+    @Test
+    @DisplayName("Json-Reader [Integers stay exact]")
+    public void testIntegers() throws JsonParseException {
+        assertEquals(Long.MAX_VALUE, readValue(Long.toString(Long.MAX_VALUE)));
+        assertEquals(Long.MIN_VALUE, readValue(Long.toString(Long.MIN_VALUE)));
+        assertEquals(9007199254740993L, readValue("9007199254740993"));
+        assertEquals(0L, readValue("0"));
+
+        //Numbers which do not fit into a long fall back to double
+        assertEquals(9223372036854775808.0, readValue("9223372036854775808"));
+        assertEquals(1e3, readValue("1e3"));
+    }
+
+    @Test
+    @DisplayName("Json-Reader [String escapes]")
+    public void testEscapes() throws JsonParseException {
+        assertEquals("a\"b\\c/d\b\f\n\r\t", readValue("\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\""));
+        assertEquals("\u00E4\u20AC", readValue("\"\\u00e4\\u20AC\""));
+        assertEquals("\uD83D\uDE00", readValue("\"\\uD83D\\uDE00\""));
+        assertEquals("\u00E4\u20AC\uD83D\uDE00", readValue("\"\u00E4\u20AC\uD83D\uDE00\""));
+    }
+
+    @Test
+    @DisplayName("Json-Reader [Skip values]")
+    public void testSkip() throws JsonParseException {
+        JsonReader reader = new JsonReader("{\"skip\":{\"x\":[1,{\"y\":[]}]},\"keep\":2}");
+        assertEquals(JsonToken.BEGIN_OBJECT, reader.nextToken());
+        assertEquals(JsonToken.NAME, reader.nextToken());
+        reader.skipValue();
+        assertEquals(JsonToken.NAME, reader.nextToken());
+        assertEquals("keep", reader.getString());
+        assertEquals(JsonToken.NUMBER, reader.nextToken());
+        assertEquals(2, reader.getLong());
+    }
+
+    @Test
+    @DisplayName("Json-Reader [Node tree]")
+    public void testTree() throws JsonParseException, IOException {
+        String json = "{\"name\":\"plugz\",\"list\":[1,2.5,false,null,{\"a\":\"b\"}]}";
+
+        JsonObjectNode node = (JsonObjectNode) JsonBuilder.fromInputStream(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("plugz", node.get("name").value());
+
+        JsonArrayNode list = (JsonArrayNode) node.get("list");
+        assertEquals(5, list.size());
+        assertEquals(1L, ((JsonValueNode) list.get(0)).get());
+        assertEquals(2.5, ((JsonValueNode) list.get(1)).get());
+        assertEquals(false, ((JsonValueNode) list.get(2)).get());
+        assertNull(((JsonValueNode) list.get(3)).get());
+        assertEquals("b", ((JsonObjectNode) list.get(4)).get("a").value());
+    }
+
+    @Test
+    @DisplayName("Json-Reader [Invalid documents]")
+    public void testInvalid() {
+        assertThrows(JsonParseException.class, () -> JsonBuilder.fromString("{\"a\":1"));
+        assertThrows(JsonParseException.class, () -> JsonBuilder.fromString("{\"a\" 1}"));
+        assertThrows(JsonParseException.class, () -> JsonBuilder.fromString("[1 2]"));
+        assertThrows(JsonParseException.class, () -> JsonBuilder.fromString("[01]"));
+        assertThrows(JsonParseException.class, () -> JsonBuilder.fromString("\"a\\x\""));
+        assertThrows(JsonParseException.class, () -> JsonBuilder.fromString("\"a\nb\""));
+        assertThrows(JsonParseException.class, () -> JsonBuilder.fromString("tru"));
+        assertThrows(JsonParseException.class, () -> JsonBuilder.fromString("{} {}"));
+    }
+
+    private static Object readValue(String json) throws JsonParseException {
+        JsonReader reader = new JsonReader(json);
+        reader.nextToken();
+        return reader.getValue();
+    }
+}
@@ -0,0 +1,68 @@
+package com.programm.plugz.files.json;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonWriterTest {
+
+    private interface WriteAction {
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    private static String write(WriteAction action) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        //Small buffer so the tests also cover flushing in between
+        JsonWriter writer = new JsonWriter(out, 16);
+        action.write(writer);
+        writer.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Json-Writer [Objects and arrays]")
+    public void testStructure() throws IOException {
+        String json = write(w -> w.beginObject()
+                .name("name").value("plugz")
+                .name("list").beginArray().value(1).value(true).nullValue().beginObject().endObject().endArray()
+                .name("empty").beginArray().endArray()
+                .endObject());
+
+        assertEquals("{\"name\":\"plugz\",\"list\":[1,true,null,{}],\"empty\":[]}", json);
+    }
+
+    @Test
+    @DisplayName("Json-Writer [Escaped strings]")
+    public void testEscapes() throws IOException {
+        assertEquals("\"a\\\"b\\\\c\\nd\\u0001\"", write(w -> w.value("a\"b\\c\nd\u0001")));
+        assertEquals("\"\u00E4\u00F6\u20AC\"", write(w -> w.value("\u00E4\u00F6\u20AC")));
+        assertEquals("\"x\":", new String(JsonWriter.encodeName("x"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Json-Writer [Floats keep their shortest representation]")
+    public void testFloats() throws IOException {
+        assertEquals("0.1", write(w -> w.value(0.1f)));
+        assertEquals("0.1", write(w -> w.value((Object) 0.1f)));
+        assertEquals("0.1", write(w -> w.value((Object) 0.1d)));
+        assertEquals("null", write(w -> w.value(Float.NaN)));
+        assertEquals("null", write(w -> w.value((Object) Double.POSITIVE_INFINITY)));
+    }
+
+    @Test
+    @DisplayName("Json-Writer [Big numbers keep all digits]")
+    public void testBigNumbers() throws IOException {
+        assertEquals("12345678901234567890.123456789", write(w -> w.value((Object) new BigDecimal("12345678901234567890.123456789"))));
+        assertEquals("123456789012345678901234567890", write(w -> w.value((Object) new BigInteger("123456789012345678901234567890"))));
+        assertEquals("[42,2.5]", write(w -> w.beginArray().value((Object) new AtomicInteger(42)).value((Object) 2.5).endArray()));
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.programm.plugz.index;
+
+import com.programm.plugz.inject.ClassIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.*;
+
+/**
+ * Writes the {@link ClassIndex} of all compiled classes to {@value ClassIndex#RESOURCE}.
+ * Every class is listed under its super classes and interfaces and under the runtime annotations of itself and its super types.
+ * Add the plugz-index artifact to the annotation processor path of a module to let the scanner skip reading all its classes.
+ * Incremental builds only compile some of the classes, so the index of the previous compilation is merged with the compiled classes.
+ * Classes deleted since then stay listed until the next clean build, which the scanner ignores as they can not be loaded.
+ */
+@SupportedAnnotationTypes("*")
+public class PlugzIndexProcessor extends AbstractProcessor {
+
+    private final Map<String, Set<String>> classesByKey = new HashMap<>();
+    private final Set<String> compiledTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if(roundEnv.processingOver()){
+            writeIndex();
+            return false;
+        }
+
+        for(Element element : roundEnv.getRootElements()){
+            if(element instanceof TypeElement type) indexType(type);
+        }
+
+        //Other processors may still process the annotations
+        return false;
+    }
+
+    private void indexType(TypeElement type){
+        String className = binaryName(type);
+        compiledTypes.add(className);
+
+        Set<String> keys = new HashSet<>();
+        collectKeys(type, keys, new HashSet<>());
+        for(String key : keys){
+            classesByKey.computeIfAbsent(key, k -> new HashSet<>()).add(className);
+        }
+
+        for(Element enclosed : type.getEnclosedElements()){
+            if(enclosed instanceof TypeElement member) indexType(member);
+        }
+    }
+
+    private void collectKeys(TypeElement type, Set<String> keys, Set<String> visited){
+        if(!visited.add(binaryName(type))) return;
+
+        for(AnnotationMirror annotation : type.getAnnotationMirrors()){
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            Retention retention = annotationType.getAnnotation(Retention.class);
+            if(retention != null && retention.value() == RetentionPolicy.RUNTIME){
+                keys.add(ClassIndex.annotationKey(binaryName(annotationType)));
+            }
+        }
+
+        for(TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type.asType())){
+            if(supertype.getKind() != TypeKind.DECLARED) continue;
+
+            TypeElement superElement = (TypeElement) ((DeclaredType) supertype).asElement();
+            String superName = binaryName(superElement);
+            if(superName.equals(Object.class.getName())) continue;
+
+            keys.add(ClassIndex.supertypeKey(superName));
+            collectKeys(superElement, keys, visited);
+        }
+    }
+
+    private String binaryName(TypeElement type){
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    /**
+     * Adds the entries of the index written by the previous compilation, except for the classes compiled again.
+     */
+    private void mergePreviousIndex(){
+        ClassIndex previous;
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ClassIndex.RESOURCE);
+            try (InputStream in = file.openInputStream()) {
+                previous = ClassIndex.read(in);
+            }
+        }
+        catch (FileNotFoundException | NoSuchFileException e){
+            return;
+        }
+        catch (IOException e){
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Ignoring unreadable plugz class index of the previous build: " + e.getMessage());
+            return;
+        }
+
+        for(String key : previous.keys()){
+            for(String className : previous.classes(key)){
+                if(isCompiled(className)) continue;
+                classesByKey.computeIfAbsent(key, k -> new HashSet<>()).add(className);
+            }
+        }
+    }
+
+    //Nested classes removed from a compiled class are dropped with their outer class
+    private boolean isCompiled(String className){
+        if(compiledTypes.contains(className)) return true;
+
+        int nested = className.indexOf('$', className.lastIndexOf('.') + 1);
+        return nested != -1 && compiledTypes.contains(className.substring(0, nested));
+    }
+
+    private void writeIndex(){
+        mergePreviousIndex();
+
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ClassIndex.RESOURCE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                ClassIndex.write(writer, classesByKey);
+            }
+        }
+        catch (IOException e){
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write plugz class index: " + e.getMessage());
+        }
+    }
+
+}
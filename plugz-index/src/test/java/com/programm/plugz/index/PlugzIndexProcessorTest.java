@@ -0,0 +1,87 @@
+package com.programm.plugz.index;
+
+import com.programm.plugz.inject.ClassIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlugzIndexProcessorTest {
+
+    private static Path source(Path dir, String name, String content) throws IOException {
+        Path file = dir.resolve(name + ".java");
+        Files.writeString(file, "package example;\n" + content);
+        return file;
+    }
+
+    private static ClassIndex compile(Path out, List<Path> sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            List<String> options = List.of("-d", out.toString(), "-classpath", out.toString());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, fileManager.getJavaFileObjectsFromPaths(sources));
+            task.setProcessors(List.of(new PlugzIndexProcessor()));
+            assertTrue(task.call());
+        }
+
+        try (InputStream in = Files.newInputStream(out.resolve(ClassIndex.RESOURCE))) {
+            return ClassIndex.read(in);
+        }
+    }
+
+    @Test
+    @DisplayName("Index-Processor [Supertypes and runtime annotations]")
+    public void testIndex() throws IOException {
+        Path src = Files.createTempDirectory("plugz-index-src");
+        Path out = Files.createTempDirectory("plugz-index-out");
+
+        List<Path> sources = List.of(
+                source(src, "Marker", "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME) public @interface Marker {}"),
+                source(src, "Hidden", "public @interface Hidden {}"),
+                source(src, "Base", "@Marker @Hidden public abstract class Base implements Runnable {}"),
+                source(src, "Impl", "public class Impl extends Base { public void run() {} public static class Inner extends Impl {} }"));
+
+        ClassIndex index = compile(out, sources);
+
+        assertEquals(List.of("example.Base", "example.Impl", "example.Impl$Inner"), index.classes(ClassIndex.annotationKey("example.Marker")));
+        assertEquals(List.of("example.Impl", "example.Impl$Inner"), index.classes(ClassIndex.supertypeKey("example.Base")));
+        assertEquals(List.of("example.Base", "example.Impl", "example.Impl$Inner"), index.classes(ClassIndex.supertypeKey(Runnable.class.getName())));
+        assertEquals(List.of("example.Impl$Inner"), index.classes(ClassIndex.supertypeKey("example.Impl")));
+
+        //Annotations without runtime retention can not be found by the scanner
+        assertEquals(List.of(), index.classes(ClassIndex.annotationKey("example.Hidden")));
+        assertEquals(List.of(), index.classes(ClassIndex.supertypeKey(Object.class.getName())));
+    }
+
+    @Test
+    @DisplayName("Index-Processor [Incremental compilations merge the previous index]")
+    public void testIncremental() throws IOException {
+        Path src = Files.createTempDirectory("plugz-index-src");
+        Path out = Files.createTempDirectory("plugz-index-out");
+
+        compile(out, List.of(
+                source(src, "Marker", "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME) public @interface Marker {}"),
+                source(src, "Base", "@Marker public abstract class Base implements Runnable {}"),
+                source(src, "Impl", "public class Impl extends Base { public void run() {} public static class Inner extends Impl {} }")));
+
+        //Only the changed classes are compiled again, against the classes of the first compilation
+        Files.delete(src.resolve("Impl.java"));
+        ClassIndex index = compile(out, List.of(
+                source(src, "Impl", "public class Impl implements Runnable { public void run() {} }"),
+                source(src, "Extra", "@Marker public class Extra {}")));
+
+        assertEquals(List.of("example.Base", "example.Extra"), index.classes(ClassIndex.annotationKey("example.Marker")));
+        assertEquals(List.of(), index.classes(ClassIndex.supertypeKey("example.Base")));
+        assertEquals(List.of("example.Base", "example.Impl"), index.classes(ClassIndex.supertypeKey(Runnable.class.getName())));
+        assertEquals(List.of(), index.classes(ClassIndex.supertypeKey("example.Impl")));
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.programm.plugz.inject;
+
+import java.util.List;
+
+/**
+ * The header of a class file: its name, super types and runtime visible annotations.
+ * All names are binary names as returned by {@link Class#getName()}.
+ */
+public final class ClassFileInfo {
+
+    private static final int ACC_INTERFACE = 0x0200;
+
+    public final String name;
+    /** The super class or null for interfaces and {@link Object} - like {@link Class#getSuperclass()} */
+    public final String superName;
+    public final List<String> interfaces;
+    public final List<String> annotations;
+    public final int access;
+
+    public ClassFileInfo(String name, String superName, List<String> interfaces, List<String> annotations, int access) {
+        this.name = name;
+        this.superName = (access & ACC_INTERFACE) != 0 ? null : superName;
+        this.interfaces = interfaces;
+        this.annotations = annotations;
+        this.access = access;
+    }
+
+    public boolean isInterface(){
+        return (access & ACC_INTERFACE) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,163 @@
+package com.programm.plugz.inject;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads the header of a class file without loading the class.
+ * Only the constant pool, the super types and the RuntimeVisibleAnnotations attribute of the class are interpreted.
+ * Fields and methods are skipped.
+ */
+class ClassFileReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELD_REF = 9;
+    private static final int CONSTANT_METHOD_REF = 10;
+    private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    public static ClassFileInfo read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+
+        if(data.readInt() != MAGIC) throw new IOException("Not a class file!");
+        data.readUnsignedShort(); //minor version
+        data.readUnsignedShort(); //major version
+
+        //Utf8 constants hold their string, class constants the index of their name
+        int poolSize = data.readUnsignedShort();
+        Object[] pool = new Object[poolSize];
+        for(int i=1;i<poolSize;i++){
+            int tag = data.readUnsignedByte();
+            switch (tag) {
+                case CONSTANT_UTF8 -> pool[i] = data.readUTF();
+                case CONSTANT_CLASS -> pool[i] = data.readUnsignedShort();
+                case CONSTANT_STRING, CONSTANT_METHOD_TYPE, CONSTANT_MODULE, CONSTANT_PACKAGE -> skip(data, 2);
+                case CONSTANT_METHOD_HANDLE -> skip(data, 3);
+                case CONSTANT_INTEGER, CONSTANT_FLOAT, CONSTANT_FIELD_REF, CONSTANT_METHOD_REF, CONSTANT_INTERFACE_METHOD_REF,
+                        CONSTANT_NAME_AND_TYPE, CONSTANT_DYNAMIC, CONSTANT_INVOKE_DYNAMIC -> skip(data, 4);
+                case CONSTANT_LONG, CONSTANT_DOUBLE -> {
+                    skip(data, 8);
+                    //Takes up two entries
+                    i++;
+                }
+                default -> throw new IOException("Invalid constant pool tag [" + tag + "] at index [" + i + "]!");
+            }
+        }
+
+        int access = data.readUnsignedShort();
+        String name = className(pool, data.readUnsignedShort());
+        int superIndex = data.readUnsignedShort();
+        String superName = superIndex == 0 ? null : className(pool, superIndex);
+
+        int interfaceCount = data.readUnsignedShort();
+        List<String> interfaces = new ArrayList<>(interfaceCount);
+        for(int i=0;i<interfaceCount;i++){
+            interfaces.add(className(pool, data.readUnsignedShort()));
+        }
+
+        skipMembers(data);
+        skipMembers(data);
+
+        List<String> annotations = Collections.emptyList();
+        int attributeCount = data.readUnsignedShort();
+        for(int i=0;i<attributeCount;i++){
+            String attributeName = utf8(pool, data.readUnsignedShort());
+            int length = data.readInt();
+
+            if(attributeName.equals(RUNTIME_VISIBLE_ANNOTATIONS)){
+                int annotationCount = data.readUnsignedShort();
+                annotations = new ArrayList<>(annotationCount);
+                for(int o=0;o<annotationCount;o++){
+                    annotations.add(descriptorToName(utf8(pool, data.readUnsignedShort())));
+                    skipElementValuePairs(data);
+                }
+            }
+            else {
+                skip(data, length);
+            }
+        }
+
+        return new ClassFileInfo(name, superName, interfaces, annotations, access);
+    }
+
+    private static void skipMembers(DataInputStream data) throws IOException {
+        int count = data.readUnsignedShort();
+        for(int i=0;i<count;i++){
+            //access flags, name and descriptor
+            skip(data, 6);
+
+            int attributeCount = data.readUnsignedShort();
+            for(int o=0;o<attributeCount;o++){
+                skip(data, 2);
+                skip(data, data.readInt());
+            }
+        }
+    }
+
+    private static void skipElementValuePairs(DataInputStream data) throws IOException {
+        int pairs = data.readUnsignedShort();
+        for(int i=0;i<pairs;i++){
+            skip(data, 2);
+            skipElementValue(data);
+        }
+    }
+
+    private static void skipElementValue(DataInputStream data) throws IOException {
+        int tag = data.readUnsignedByte();
+        switch (tag) {
+            case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c' -> skip(data, 2);
+            case 'e' -> skip(data, 4);
+            case '@' -> {
+                skip(data, 2);
+                skipElementValuePairs(data);
+            }
+            case '[' -> {
+                int count = data.readUnsignedShort();
+                for(int i=0;i<count;i++) skipElementValue(data);
+            }
+            default -> throw new IOException("Invalid annotation element value tag [" + (char) tag + "]!");
+        }
+    }
+
+    private static void skip(DataInputStream data, int bytes) throws IOException {
+        while(bytes > 0){
+            int skipped = data.skipBytes(bytes);
+            if(skipped <= 0) throw new EOFException();
+            bytes -= skipped;
+        }
+    }
+
+    private static String utf8(Object[] pool, int index) throws IOException {
+        if(index <= 0 || index >= pool.length || !(pool[index] instanceof String s)) throw new IOException("Invalid utf8 constant index [" + index + "]!");
+        return s;
+    }
+
+    private static String className(Object[] pool, int index) throws IOException {
+        if(index <= 0 || index >= pool.length || !(pool[index] instanceof Integer nameIndex)) throw new IOException("Invalid class constant index [" + index + "]!");
+        return utf8(pool, nameIndex).replace('/', '.');
+    }
+
+    private static String descriptorToName(String descriptor){
+        //Lcom/example/Type;
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.programm.plugz.inject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the {@link ClassFileInfo} of super types by reading their class file through a class loader without loading the class.
+ * The checks mirror the ones in {@link ClassScanUtils} but return null if some super type could not be resolved.
+ * In that case the class must be loaded to decide.
+ */
+class ClassFileResolver {
+
+    private static final String OBJECT = Object.class.getName();
+
+    private final ClassLoader classLoader;
+    private final Map<String, ClassFileInfo> infos = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> unresolvable = new ConcurrentHashMap<>();
+
+    public ClassFileResolver(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    public void add(ClassFileInfo info){
+        infos.putIfAbsent(info.name, info);
+    }
+
+    /**
+     * @return the info of the class or null if its class file could not be found or read.
+     */
+    public ClassFileInfo resolve(String name){
+        ClassFileInfo info = infos.get(name);
+        if(info != null || unresolvable.containsKey(name)) return info;
+
+        try (InputStream in = classLoader.getResourceAsStream(name.replace('.', '/') + ".class")) {
+            if(in != null) {
+                info = ClassFileReader.read(in);
+                add(info);
+                return info;
+            }
+        }
+        catch (IOException ignore){}
+
+        unresolvable.put(name, true);
+        return null;
+    }
+
+    /**
+     * @see ClassScanUtils#implementsClass(Class, Class, int)
+     */
+    public Boolean implementsClass(ClassFileInfo info, String toImplement, int generations){
+        if(info.name.equals(OBJECT)) return false;
+
+        boolean unknown = false;
+        for(String i : info.interfaces){
+            if(i.equals(toImplement)) return true;
+
+            if(generations != 0){
+                Boolean result = implementsClass(i, toImplement, generations - 1);
+                if(result == null) unknown = true;
+                else if(result) return true;
+            }
+        }
+
+        if(info.superName != null){
+            if(info.superName.equals(toImplement)) return true;
+
+            if(generations != 0){
+                Boolean result = implementsClass(info.superName, toImplement, generations - 1);
+                if(result == null) unknown = true;
+                else if(result) return true;
+            }
+        }
+
+        return unknown ? null : false;
+    }
+
+    private Boolean implementsClass(String name, String toImplement, int generations){
+        ClassFileInfo info = resolve(name);
+        if(info == null) return null;
+        return implementsClass(info, toImplement, generations);
+    }
+
+    /**
+     * @param inherited if the annotation is annotated with {@link java.lang.annotation.Inherited} and so also present on subclasses.
+     * @see ClassScanUtils#annotatedWith(Class, Class, boolean, boolean, int)
+     */
+    public Boolean annotatedWith(ClassFileInfo info, String annotatedBy, boolean inherited, boolean searchInInterfaces, boolean searchInSuperclass, int generations){
+        if(info.name.equals(OBJECT)) return false;
+
+        Boolean present = annotationPresent(info, annotatedBy, inherited);
+        if(present == Boolean.TRUE) return true;
+
+        boolean unknown = present == null;
+        if(generations != 0) {
+            if (searchInInterfaces) {
+                for (String i : info.interfaces) {
+                    Boolean result = annotatedWith(i, annotatedBy, inherited, searchInInterfaces, searchInSuperclass, generations - 1);
+                    if (result == null) unknown = true;
+                    else if (result) return true;
+                }
+            }
+
+            if (searchInSuperclass && info.superName != null) {
+                Boolean result = annotatedWith(info.superName, annotatedBy, inherited, searchInInterfaces, searchInSuperclass, generations - 1);
+                if (result == null) unknown = true;
+                else if (result) return true;
+            }
+        }
+
+        return unknown ? null : false;
+    }
+
+    private Boolean annotatedWith(String name, String annotatedBy, boolean inherited, boolean searchInInterfaces, boolean searchInSuperclass, int generations){
+        ClassFileInfo info = resolve(name);
+        if(info == null) return null;
+        return annotatedWith(info, annotatedBy, inherited, searchInInterfaces, searchInSuperclass, generations);
+    }
+
+    /**
+     * Like {@link Class#isAnnotationPresent(Class)} inherited annotations of super classes are present as well.
+     */
+    private Boolean annotationPresent(ClassFileInfo info, String annotatedBy, boolean inherited){
+        if(info.annotations.contains(annotatedBy)) return true;
+        if(!inherited || info.superName == null) return false;
+
+        ClassFileInfo superInfo = resolve(info.superName);
+        if(superInfo == null) return null;
+        return annotationPresent(superInfo, annotatedBy, true);
+    }
+
+}
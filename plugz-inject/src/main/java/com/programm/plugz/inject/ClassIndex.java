@@ -0,0 +1,138 @@
+package com.programm.plugz.inject;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * An index of the classes of one url written at compile time by the plugz-index annotation processor.
+ * Classes are listed under every runtime annotation present on the class or any of its super types
+ * and under every super class and interface they extend or implement.
+ * The index is a superset of the matches of a criteria so the {@link UrlClassScanner} only loads the listed classes and tests them as usual.
+ *
+ * <pre>
+ * plugz-index 1
+ * &#64;com.programm.plugz.api.Service
+ * com.example.MyService
+ * :com.programm.plugz.api.ISubsystem
+ * com.example.MySubsystem
+ * </pre>
+ */
+public class ClassIndex {
+
+    public static final String RESOURCE = "META-INF/plugz/index";
+    private static final String HEADER = "plugz-index 1";
+    private static final char ANNOTATION_PREFIX = '@';
+    private static final char SUPERTYPE_PREFIX = ':';
+
+    public static String annotationKey(String annotationName){
+        return ANNOTATION_PREFIX + annotationName;
+    }
+
+    public static String supertypeKey(String typeName){
+        return SUPERTYPE_PREFIX + typeName;
+    }
+
+    /**
+     * Reads the index of a jar or class folder.
+     * @return the index or null if the url has no index.
+     * @throws IOException if the index exists but could not be read.
+     */
+    public static ClassIndex find(URL url) throws IOException {
+        String urlFile = url.getFile();
+
+        if(urlFile.endsWith(".jar")){
+            File file = UrlClassScanner.fileOf(url);
+            if(!file.isFile()) return null;
+
+            try (ZipFile zip = new ZipFile(file)) {
+                ZipEntry entry = zip.getEntry(RESOURCE);
+                if(entry == null) return null;
+
+                try (InputStream in = zip.getInputStream(entry)) {
+                    return read(in);
+                }
+            }
+        }
+        else if(url.getProtocol().equals("file")){
+            File file = new File(UrlClassScanner.fileOf(url), RESOURCE);
+            if(!file.isFile()) return null;
+
+            try (InputStream in = new FileInputStream(file)) {
+                return read(in);
+            }
+        }
+
+        return null;
+    }
+
+    public static ClassIndex read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        String header = reader.readLine();
+        if(!HEADER.equals(header)) throw new IOException("Invalid class index header: [" + header + "]!");
+
+        Map<String, List<String>> classesByKey = new HashMap<>();
+        List<String> current = null;
+
+        for(String line = reader.readLine(); line != null; line = reader.readLine()){
+            if(line.isEmpty()) continue;
+
+            char first = line.charAt(0);
+            if(first == ANNOTATION_PREFIX || first == SUPERTYPE_PREFIX){
+                current = classesByKey.computeIfAbsent(line, k -> new ArrayList<>());
+            }
+            else {
+                if(current == null) throw new IOException("Class [" + line + "] listed before any key in class index!");
+                current.add(line);
+            }
+        }
+
+        return new ClassIndex(classesByKey);
+    }
+
+    /**
+     * Writes the index sorted by keys and class names so the same classes always produce the same file.
+     */
+    public static void write(Writer out, Map<String, ? extends Collection<String>> classesByKey) throws IOException {
+        BufferedWriter writer = new BufferedWriter(out);
+        writer.write(HEADER);
+        writer.newLine();
+
+        for(String key : new TreeSet<>(classesByKey.keySet())){
+            writer.write(key);
+            writer.newLine();
+
+            for(String cls : new TreeSet<>(classesByKey.get(key))){
+                writer.write(cls);
+                writer.newLine();
+            }
+        }
+
+        writer.flush();
+    }
+
+    private final Map<String, List<String>> classesByKey;
+
+    private ClassIndex(Map<String, List<String>> classesByKey) {
+        this.classesByKey = classesByKey;
+    }
+
+    /**
+     * @return the keys of the index.
+     */
+    public Set<String> keys(){
+        return Collections.unmodifiableSet(classesByKey.keySet());
+    }
+
+    /**
+     * @return the names of the classes listed under the key.
+     */
+    public List<String> classes(String key){
+        return classesByKey.getOrDefault(key, Collections.emptyList());
+    }
+
+}
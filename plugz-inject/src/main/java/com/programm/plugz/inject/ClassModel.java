@@ -0,0 +1,66 @@
+package com.programm.plugz.inject;
+
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The headers of all classes of the urls scanned by a {@link UrlClassScanner}.
+ * A scanner using the model records every url it reads and answers later scans of the same urls from the model without reading them again.
+ * Urls which were narrowed down by a {@link ClassIndex} or could not be read completely are not recorded.
+ */
+public class ClassModel {
+
+    private static class UrlClasses {
+        private final String entryPoint;
+        private final List<ClassFileInfo> classes;
+
+        public UrlClasses(String entryPoint, List<ClassFileInfo> classes) {
+            this.entryPoint = entryPoint;
+            this.classes = classes;
+        }
+    }
+
+    private final Map<URL, UrlClasses> classesByUrl = new ConcurrentHashMap<>();
+
+    void add(URL url, String entryPoint, List<ClassFileInfo> classes){
+        classesByUrl.put(url, new UrlClasses(entryPoint, Collections.unmodifiableList(classes)));
+    }
+
+    /**
+     * @return the classes of the url in the order they were found or null if the url was not recorded with the same entry point.
+     */
+    List<ClassFileInfo> classes(URL url, String entryPoint){
+        UrlClasses urlClasses = classesByUrl.get(url);
+        if(urlClasses == null || !Objects.equals(urlClasses.entryPoint, entryPoint)) return null;
+        return urlClasses.classes;
+    }
+
+    /**
+     * @return all recorded classes.
+     */
+    public List<ClassFileInfo> classes(){
+        List<ClassFileInfo> classes = new ArrayList<>();
+        for(UrlClasses urlClasses : classesByUrl.values()){
+            classes.addAll(urlClasses.classes);
+        }
+        return classes;
+    }
+
+    public boolean contains(URL url){
+        return classesByUrl.containsKey(url);
+    }
+
+    public int size(){
+        int size = 0;
+        for(UrlClasses urlClasses : classesByUrl.values()){
+            size += urlClasses.classes.size();
+        }
+        return size;
+    }
+
+    public void clear(){
+        classesByUrl.clear();
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.programm.plugz.inject;
 
 import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -12,6 +13,16 @@ import java.util.function.Consumer;
  */
 public class ScanCriteria {
 
+    /**
+     * A class criteria which can also be tested on the header of the class file before the class is loaded.
+     */
+    private interface IClassFileCriteria extends IClassCriteria {
+        /**
+         * @return if the class passed or null if the class must be loaded to decide.
+         */
+        Boolean test(URL url, ClassFileInfo info, ClassFileResolver resolver);
+    }
+
     private static class PackageCriteria implements INameCriteria {
         private final URL forURL;
         private final String[] packageNames;
@@ -73,7 +84,7 @@ public class ScanCriteria {
     }
 
 
-    private static class ClassCriteria implements IClassCriteria {
+    private static class ClassCriteria implements IClassFileCriteria {
         private final URL forURL;
         private final Class<?>[] classes;
         private final boolean blacklisted;
@@ -94,9 +105,20 @@ public class ScanCriteria {
 
             return blacklisted;
         }
+
+        @Override
+        public Boolean test(URL url, ClassFileInfo info, ClassFileResolver resolver) {
+            if(forURL != null && forURL != url) return true;
+
+            for(Class<?> c : classes){
+                if(info.name.equals(c.getName())) return !blacklisted;
+            }
+
+            return blacklisted;
+        }
     }
 
-    private static class ClassImplementsCriteria implements IClassCriteria {
+    private static class ClassImplementsCriteria implements IClassFileCriteria {
         private final URL forURL;
         private final Class<?> toImplement;
         private final int generations;
@@ -112,9 +134,15 @@ public class ScanCriteria {
             if(forURL != null && forURL != url) return true;
             return ClassScanUtils.implementsClass(cls, toImplement, generations);
         }
+
+        @Override
+        public Boolean test(URL url, ClassFileInfo info, ClassFileResolver resolver) {
+            if(forURL != null && forURL != url) return true;
+            return resolver.implementsClass(info, toImplement.getName(), generations);
+        }
     }
 
-    private static class AnnotatedClassCriteria implements IClassCriteria {
+    private static class AnnotatedClassCriteria implements IClassFileCriteria {
         private final URL forURL;
         private final Class<? extends Annotation> annotatedBy;
         private final boolean searchInInterfaces;
@@ -136,10 +164,20 @@ public class ScanCriteria {
             if(forURL != null && forURL != url) return true;
             return ClassScanUtils.annotatedWith(cls, annotatedBy, searchInInterfaces, searchInSuperclass, generations) != blacklisted;
         }
+
+        @Override
+        public Boolean test(URL url, ClassFileInfo info, ClassFileResolver resolver) {
+            if(forURL != null && forURL != url) return true;
+
+            boolean inherited = annotatedBy.isAnnotationPresent(Inherited.class);
+            Boolean annotated = resolver.annotatedWith(info, annotatedBy.getName(), inherited, searchInInterfaces, searchInSuperclass, generations);
+            return annotated == null ? null : annotated != blacklisted;
+        }
     }
 
     /**
      * Creates the {@link ScanCriteria} with a callback which will be called when a class passed all the underlying criteria.
+     * The callback is always called on the thread which started the scan even if the {@link UrlClassScanner} scans in parallel.
      * @param name the debug name of the criteria.
      * @param onSuccessCallback the callback.
      * @return an instance of the {@link ScanCriteria} class for more method chaining.
@@ -190,10 +228,41 @@ public class ScanCriteria {
         return true;
     }
 
+    /**
+     * Tests the class criteria on the header of the class file.
+     * @return if the class passed or null if some criteria could not be decided and the class must be loaded to test it with {@link #testClass(URL, Class)}.
+     */
+    Boolean testClassFile(URL url, ClassFileInfo info, ClassFileResolver resolver){
+        boolean unknown = false;
+        for(IClassCriteria criteria : classCriteriaList){
+            Boolean result = criteria instanceof IClassFileCriteria fileCriteria ? fileCriteria.test(url, info, resolver) : null;
+            if(result == null) unknown = true;
+            else if(!result) return false;
+        }
+
+        return unknown ? null : true;
+    }
+
     void onSuccess(Class<?> cls){
         this.onSuccessCallback.accept(cls);
     }
 
+    /**
+     * @return the key of the {@link ClassIndex} listing all classes which could match this criteria or null if every class could match.
+     */
+    String indexKey(){
+        for(IClassCriteria criteria : classCriteriaList){
+            if(criteria instanceof AnnotatedClassCriteria annotated && annotated.forURL == null && !annotated.blacklisted){
+                return ClassIndex.annotationKey(annotated.annotatedBy.getName());
+            }
+            else if(criteria instanceof ClassImplementsCriteria implementing && implementing.forURL == null){
+                return ClassIndex.supertypeKey(implementing.toImplement.getName());
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Creates a criteria which permits only the specific urls.
      * @param urls the urls.
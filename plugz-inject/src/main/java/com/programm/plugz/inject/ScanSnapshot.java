@@ -0,0 +1,37 @@
+package com.programm.plugz.inject;
+
+import java.util.*;
+
+/**
+ * The classes found for every {@link ScanCriteria} by name.
+ * A {@link UrlClassScanner} using a snapshot which contains all of its criteria does not scan but loads the recorded classes.
+ * Otherwise it scans as usual and records the found classes for each criteria.
+ */
+public class ScanSnapshot {
+
+    private final Map<String, List<String>> classesByCriteria = new LinkedHashMap<>();
+
+    /**
+     * @return the names of the classes found for the criteria or null if the criteria was not recorded.
+     */
+    public List<String> classes(String criteriaName){
+        return classesByCriteria.get(criteriaName);
+    }
+
+    public Set<String> criteria(){
+        return Collections.unmodifiableSet(classesByCriteria.keySet());
+    }
+
+    public void put(String criteriaName, List<String> classNames){
+        classesByCriteria.put(criteriaName, new ArrayList<>(classNames));
+    }
+
+    public boolean contains(String criteriaName){
+        return classesByCriteria.containsKey(criteriaName);
+    }
+
+    public void clear(){
+        classesByCriteria.clear();
+    }
+
+}
@@ -5,17 +5,81 @@ import com.programm.ioutils.log.api.Logger;
 import com.programm.ioutils.log.api.NullLogger;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 @Logger("Plugz Scanner")
 public class UrlClassScanner {
 
+    /**
+     * Receives the classes which matched a criteria.
+     * Matches of parallel scan tasks are collected and handed to the criteria in a fixed order after the tasks completed.
+     */
+    private interface MatchSink {
+        void matched(ScanCriteria criteria, Class<?> cls);
+    }
+
+    private static class Matches implements MatchSink {
+        private final List<ScanCriteria> criteria = new ArrayList<>();
+        private final List<Class<?>> classes = new ArrayList<>();
+
+        @Override
+        public void matched(ScanCriteria criteria, Class<?> cls) {
+            this.criteria.add(criteria);
+            this.classes.add(cls);
+        }
+
+        public void replay(MatchSink sink){
+            for(int i=0;i<criteria.size();i++){
+                sink.matched(criteria.get(i), classes.get(i));
+            }
+        }
+    }
+
+    private interface ClassFileSource {
+        InputStream open() throws IOException;
+    }
+
+    private static class ClassEntry {
+        private final String name;
+        private final ClassFileSource source;
+        /** Set once the header was read or if the entry comes from the {@link ClassModel} */
+        private ClassFileInfo info;
+
+        public ClassEntry(String name, ClassFileSource source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        public ClassEntry(ClassFileInfo info) {
+            this.name = info.name;
+            this.source = null;
+            this.info = info;
+        }
+    }
+
+    private static final MatchSink ON_SUCCESS = ScanCriteria::onSuccess;
+    private static final int CHUNK_SIZE = 256;
+
     private ILogger log = new NullLogger();
     private boolean autoResetConfig;
+    private boolean useIndex = true;
+    private boolean readClassFiles = true;
+    private int parallelism = 1;
+    private ClassFileResolver resolver;
+    private ForkJoinPool pool;
+    private ClassModel model;
+    private ScanSnapshot snapshot;
     private final Set<URL> searchUrls = new HashSet<>();
     private final Set<Class<?>> searchClasses = new HashSet<>();
     private final List<ScanCriteria> criteriaList = new ArrayList<>();
@@ -34,63 +98,295 @@ public class UrlClassScanner {
                 return;
             }
 
-            boolean init = false;
-            for(URL url : searchUrls) {
-                String urlFile = url.getFile();
+            if (snapshot != null && replaySnapshot()) {
+                return;
+            }
 
-                if (init && log.level() == ILogger.LEVEL_TRACE) log.trace("");
-                init = true;
+            Map<String, List<String>> recordedClasses = snapshot != null ? new LinkedHashMap<>() : null;
+            MatchSink sink = recordedClasses != null ? recordingSink(recordedClasses) : ON_SUCCESS;
 
-                if (urlFile.endsWith(".jar")) {
-                    log.debug("# Scanning url as jar         : [{}]...", url);
-                    searchInJar(url);
-                }
-                else if (url.getProtocol().equals("file")) {
-                    log.debug("# Scanning url as class folder: [{}]...", url);
-                    File file = new File(urlFile);
-                    searchInFolder(url, file);
-                }
-                else {
-                    throw new ScanException("Could not scan url: [" + url + "]: Invalid url type!");
+            ClassLoader classLoader = UrlClassScanner.class.getClassLoader();
+            resolver = new ClassFileResolver(classLoader != null ? classLoader : ClassLoader.getSystemClassLoader());
+            if(model != null){
+                for(ClassFileInfo info : model.classes()) resolver.add(info);
+            }
+
+            if(parallelism > 1) {
+                scanUrlsParallel(sink);
+            }
+            else {
+                boolean init = false;
+                for (URL url : searchUrls) {
+                    if (init && log.level() == ILogger.LEVEL_TRACE) log.trace("");
+                    init = true;
+
+                    scanUrl(url, sink);
                 }
             }
 
-            init = false;
+            boolean init = false;
             for(Class<?> cls : searchClasses){
                 URL classOrigin = cls.getResource("/");
 
                 if(init && log.level() == ILogger.LEVEL_TRACE) log.trace("");
                 init = true;
 
-                loadAndScanClassFromName(classOrigin, cls.getName(), cls);
+                loadAndScanClassFromName(classOrigin, cls.getName(), cls, sink);
             }
+
+            if(recordedClasses != null) recordedClasses.forEach(snapshot::put);
         }
         finally {
+            resolver = null;
             if(autoResetConfig) clearConfig();
         }
     }
 
+    /**
+     * Loads the classes recorded in the {@link ScanSnapshot} and passes them to the criteria.
+     * @return false if some criteria is not part of the snapshot or a recorded class could not be loaded so the urls must be scanned.
+     */
+    private boolean replaySnapshot() {
+        List<List<Class<?>>> classesByCriteria = new ArrayList<>();
+        for(ScanCriteria criteria : criteriaList){
+            List<String> classNames = snapshot.classes(criteria.name);
+            if(classNames == null) return false;
+
+            List<Class<?>> classes = new ArrayList<>(classNames.size());
+            for(String className : classNames){
+                Class<?> cls = loadClass(className);
+                if(cls == null) return false;
+                classes.add(cls);
+            }
 
+            classesByCriteria.add(classes);
+        }
 
+        log.debug("# Replaying [{}] criteria from scan snapshot...", criteriaList.size());
+        for(int i=0;i<criteriaList.size();i++){
+            ScanCriteria criteria = criteriaList.get(i);
+            for(Class<?> cls : classesByCriteria.get(i)){
+                log.trace("###       {} matched the criteria [" + criteria.name + "]!", cls);
+                criteria.onSuccess(cls);
+            }
+        }
+
+        return true;
+    }
 
-    private void searchInJar(URL url) throws ScanException {
+    /**
+     * Passes the matches to the criteria and records their names which are put into the {@link ScanSnapshot} once the scan succeeded.
+     * Only the first criteria of a name is recorded as criteria with the same name are expected to match the same classes.
+     */
+    private MatchSink recordingSink(Map<String, List<String>> recordedClasses){
+        Map<String, ScanCriteria> recordedCriteria = new HashMap<>();
+        for(ScanCriteria criteria : criteriaList){
+            if(recordedCriteria.putIfAbsent(criteria.name, criteria) == null){
+                recordedClasses.put(criteria.name, new ArrayList<>());
+            }
+        }
+
+        return (criteria, cls) -> {
+            if(recordedCriteria.get(criteria.name) == criteria){
+                recordedClasses.get(criteria.name).add(cls.getName());
+            }
+
+            criteria.onSuccess(cls);
+        };
+    }
+
+    /**
+     * Scans every url in its own task and the entries of jars and folders in chunks of {@value CHUNK_SIZE} classes.
+     * The criteria are notified on the calling thread after all tasks completed in the same order as a sequential scan would.
+     */
+    private void scanUrlsParallel(MatchSink sink) throws ScanException {
+        pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<Matches>> tasks = new ArrayList<>();
+            for(URL url : searchUrls){
+                tasks.add(pool.submit(() -> {
+                    Matches matches = new Matches();
+                    scanUrl(url, matches);
+                    return matches;
+                }));
+            }
+
+            for(ForkJoinTask<Matches> task : tasks){
+                task.get().replay(sink);
+            }
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new ScanException("Interrupted while scanning urls!", e);
+        }
+        catch (ExecutionException e){
+            //Checked exceptions of the tasks are wrapped into runtime exceptions by the pool
+            for(Throwable cause = e.getCause(); cause != null; cause = cause.getCause()){
+                if(cause instanceof ScanException se) throw se;
+            }
+
+            throw new ScanException("Failed to scan urls!", e.getCause());
+        }
+        finally {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+
+    private void scanUrl(URL url, MatchSink sink) throws ScanException {
+        if (model != null && searchInModel(url, sink)) {
+            return;
+        }
+
+        if (useIndex && searchInIndex(url, sink)) {
+            return;
+        }
+
+        if (url.getFile().endsWith(".jar")) {
+            log.debug("# Scanning url as jar         : [{}]...", url);
+            searchInJar(url, sink);
+        }
+        else if (url.getProtocol().equals("file")) {
+            log.debug("# Scanning url as class folder: [{}]...", url);
+            searchInFolder(url, fileOf(url), sink);
+        }
+        else {
+            throw new ScanException("Could not scan url: [" + url + "]: Invalid url type!");
+        }
+    }
+
+    /**
+     * @return the local file of a file url decoding escaped characters like spaces.
+     */
+    static File fileOf(URL url){
+        try {
+            return new File(url.toURI());
+        }
+        catch (URISyntaxException | IllegalArgumentException e){
+            return new File(url.getFile());
+        }
+    }
+
+
+
+
+    /**
+     * Tests the criteria on the class headers recorded in the {@link ClassModel} without reading the url.
+     * @return false if the url is not part of the model.
+     */
+    private boolean searchInModel(URL url, MatchSink sink) {
+        List<ClassFileInfo> classes = model.classes(url, entryPointMap.get(url));
+        if(classes == null) return false;
+        log.debug("# Scanning url by class model : [{}]...", url);
+
+        List<ClassEntry> classEntries = new ArrayList<>(classes.size());
+        for(ClassFileInfo info : classes){
+            classEntries.add(new ClassEntry(info));
+        }
+
+        scanEntries(url, classEntries, sink);
+        return true;
+    }
+
+    /**
+     * Records the headers of all entries of a completely read url in the {@link ClassModel}.
+     */
+    private void recordModel(URL url, List<ClassEntry> entries){
+        List<ClassFileInfo> classes = new ArrayList<>(entries.size());
+        for(ClassEntry entry : entries){
+            //Some class file could not be read so the model would be incomplete
+            if(entry.info == null) return;
+            classes.add(entry.info);
+        }
+
+        model.add(url, entryPointMap.get(url), classes);
+    }
+
+    /**
+     * Only loads the classes listed in the {@link ClassIndex} of the url for the keys of the criteria.
+     * @return false if the url has no index or a criteria can not be narrowed down by the index so the url must be scanned completely.
+     */
+    private boolean searchInIndex(URL url, MatchSink sink) throws ScanException {
+        Set<String> keys = new LinkedHashSet<>();
+        for(ScanCriteria criteria : criteriaList){
+            String key = criteria.indexKey();
+            if(key == null) return false;
+            keys.add(key);
+        }
+
+        ClassIndex index;
+        try {
+            index = ClassIndex.find(url);
+        }
+        catch (IOException e){
+            throw new ScanException("Could not read class index of url: [" + url + "]!", e);
+        }
+
+        if(index == null) return false;
+        log.debug("# Scanning url by class index : [{}]...", url);
+
+        boolean jar = url.getFile().endsWith(".jar");
         String pathRegix = entryPointMap.get(url);
 
-        try (ZipInputStream zip = new ZipInputStream(url.openStream())) {
-            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
-                if (!entry.isDirectory()) {
-                    String name = entry.getName();
-                    if(pathRegix != null && !name.startsWith(pathRegix)){
-                        continue;
-                    }
+        //Sorted so the order of the found classes does not depend on the order of the criteria
+        Set<String> candidates = new TreeSet<>();
+        for(String key : keys){
+            candidates.addAll(index.classes(key));
+        }
+
+        for(String name : candidates){
+            if(pathRegix != null){
+                String path = jar ? name.replace('.', '/') : name;
+                if(!path.startsWith(pathRegix)) continue;
+            }
 
-                    if(!name.endsWith(".class")) continue;
+            loadAndScanClassFromName(url, name, null, sink);
+        }
 
-                    name = name.substring(0, name.length() - ".class".length());
-                    name = name.replaceAll("/", ".");
+        return true;
+    }
 
-                    loadAndScanClassFromName(url, name, null);
-                }
+    private void searchInJar(URL url, MatchSink sink) throws ScanException {
+        if(!url.getProtocol().equals("file")){
+            searchInJarStream(url, sink);
+            return;
+        }
+
+        String pathRegix = entryPointMap.get(url);
+
+        //Random access only reads the central directory and the class files which are actually needed
+        try (ZipFile zip = new ZipFile(fileOf(url))) {
+            List<ClassEntry> classEntries = new ArrayList<>();
+
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while(entries.hasMoreElements()){
+                ZipEntry entry = entries.nextElement();
+                String name = jarEntryClassName(entry, pathRegix);
+                if(name == null) continue;
+
+                classEntries.add(new ClassEntry(name, () -> zip.getInputStream(entry)));
+            }
+
+            scanEntries(url, classEntries, sink);
+            if(model != null && readClassFiles) recordModel(url, classEntries);
+        }
+        catch (IOException e){
+            throw new ScanException("Could not read jar file for url: [" + url + "]!", e);
+        }
+    }
+
+    /**
+     * Fallback for jars which are not a local file.
+     */
+    private void searchInJarStream(URL url, MatchSink sink) throws ScanException {
+        String pathRegix = entryPointMap.get(url);
+
+        try (ZipInputStream zip = new ZipInputStream(url.openStream())) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                String name = jarEntryClassName(entry, pathRegix);
+                if(name == null) continue;
+
+                loadAndScanClassFromName(url, name, null, sink);
             }
         }
         catch (IOException e){
@@ -98,8 +394,20 @@ public class UrlClassScanner {
         }
     }
 
-    private void searchInFolder(URL url, File file) throws ScanException {
+    private String jarEntryClassName(ZipEntry entry, String pathRegix){
+        if(entry.isDirectory()) return null;
+
+        String name = entry.getName();
+        if(pathRegix != null && !name.startsWith(pathRegix)) return null;
+        if(!name.endsWith(".class")) return null;
+
+        name = name.substring(0, name.length() - ".class".length());
+        return name.replace('/', '.');
+    }
+
+    private void searchInFolder(URL url, File file, MatchSink sink) {
         String pathRegix = entryPointMap.get(url);
+        List<ClassEntry> classEntries = new ArrayList<>();
 
         String rootFolderPath = file.getAbsolutePath();
         Queue<File> toBeScanned = new ArrayDeque<>();
@@ -117,10 +425,14 @@ public class UrlClassScanner {
                 if(name.endsWith(".class")){
                     String fullName = getFullNameFromAbsolutePath(curFile.getAbsolutePath(), rootFolderPath);
                     if(pathRegix != null && !fullName.startsWith(pathRegix)) continue;
-                    loadAndScanClassFromName(url, fullName, null);
+
+                    classEntries.add(new ClassEntry(fullName, () -> new FileInputStream(curFile)));
                 }
             }
         }
+
+        scanEntries(url, classEntries, sink);
+        if(model != null && readClassFiles) recordModel(url, classEntries);
     }
 
     private String getFullNameFromAbsolutePath(String path, String rootFolder){
@@ -129,7 +441,108 @@ public class UrlClassScanner {
         return path.replaceAll("/", ".");
     }
 
-    private void loadAndScanClassFromName(URL url, String clsName, Class<?> cls){
+    /**
+     * Scans the entries of one url. In a parallel scan bigger urls are split into chunks which are scanned in their own tasks.
+     */
+    private void scanEntries(URL url, List<ClassEntry> entries, MatchSink sink){
+        if(pool == null || entries.size() <= CHUNK_SIZE){
+            for(ClassEntry entry : entries){
+                scanEntry(url, entry, sink);
+            }
+            return;
+        }
+
+        List<ForkJoinTask<Matches>> tasks = new ArrayList<>();
+        for(int start=0;start<entries.size();start+=CHUNK_SIZE){
+            List<ClassEntry> chunk = entries.subList(start, Math.min(start + CHUNK_SIZE, entries.size()));
+            tasks.add(ForkJoinTask.adapt(() -> {
+                Matches matches = new Matches();
+                for(ClassEntry entry : chunk){
+                    scanEntry(url, entry, matches);
+                }
+                return matches;
+            }));
+        }
+
+        for(ForkJoinTask<Matches> task : ForkJoinTask.invokeAll(tasks)){
+            task.join().replay(sink);
+        }
+    }
+
+    private void scanEntry(URL url, ClassEntry entry, MatchSink sink){
+        if(readClassFiles || entry.info != null){
+            scanClassFile(url, entry, sink);
+        }
+        else {
+            loadAndScanClassFromName(url, entry.name, null, sink);
+        }
+    }
+
+    /**
+     * Tests the criteria on the header of the class file and only loads the class if some criteria matched.
+     * Criteria which can not be decided from the header (e.g. because a super type could not be found) are tested on the loaded class.
+     */
+    private void scanClassFile(URL url, ClassEntry entry, MatchSink sink){
+        String clsName = entry.name;
+        Boolean[] results = new Boolean[criteriaList.size()];
+        boolean success = false;
+
+        //A recorded model needs the headers of all classes
+        if(model != null && !readClassFile(entry)){
+            loadAndScanClassFromName(url, clsName, null, sink);
+            return;
+        }
+
+        for(int i=0;i<criteriaList.size();i++){
+            ScanCriteria criteria = criteriaList.get(i);
+            if(!criteria.testName(url, clsName)) {
+                results[i] = false;
+                continue;
+            }
+
+            if(!readClassFile(entry)){
+                loadAndScanClassFromName(url, clsName, null, sink);
+                return;
+            }
+
+            results[i] = criteria.testClassFile(url, entry.info, resolver);
+            if(results[i] != Boolean.FALSE) success = true;
+        }
+
+        if(!success) return;
+
+        Class<?> cls = loadClass(clsName);
+        if(cls == null) return;
+
+        log.trace("### Found class: [{}]", cls);
+
+        for(int i=0;i<criteriaList.size();i++){
+            ScanCriteria criteria = criteriaList.get(i);
+            if(results[i] == Boolean.TRUE || (results[i] == null && criteria.testClass(url, cls))){
+                log.trace("###       {} matched the criteria [" + criteria.name + "]!", cls);
+                sink.matched(criteria, cls);
+            }
+        }
+    }
+
+    /**
+     * @return false if the header of the entry could not be read.
+     */
+    private boolean readClassFile(ClassEntry entry){
+        if(entry.info != null) return true;
+
+        try (InputStream in = entry.source.open()) {
+            entry.info = ClassFileReader.read(in);
+            resolver.add(entry.info);
+            return true;
+        }
+        catch (IOException e){
+            log.debug("# Could not read class file of [{}]: {}", entry.name, e.getMessage());
+            return false;
+        }
+    }
+
+    private void loadAndScanClassFromName(URL url, String clsName, Class<?> cls, MatchSink sink){
         List<Boolean> criteriaNameTestResult = new ArrayList<>();
 
         boolean success = criteriaList.isEmpty();
@@ -146,16 +559,8 @@ public class UrlClassScanner {
         if(!success) return;
 
         if(cls == null){
-            try {
-                cls = Class.forName(clsName);
-            }
-            catch (ClassNotFoundException e){
-                log.logException("# Something went wrong: Class [" + clsName + "] could not be found!", e);
-                return;
-            }
-            catch (NoClassDefFoundError e){
-                return;
-            }
+            cls = loadClass(clsName);
+            if(cls == null) return;
         }
 
         log.trace("### Found class: [{}]", cls);
@@ -165,12 +570,29 @@ public class UrlClassScanner {
             if(criteria.testClass(url, cls)){
                 if(criteriaNameTestResult.get(i)){
                     log.trace("###       {} matched the criteria [" + criteria.name + "]!", cls);
-                    criteria.onSuccess(cls);
+                    sink.matched(criteria, cls);
                 }
             }
         }
     }
 
+    /**
+     * Loads the class without initializing it. Static initializers only run once the class is used,
+     * never on the threads of a parallel scan.
+     */
+    private Class<?> loadClass(String clsName){
+        try {
+            return Class.forName(clsName, false, UrlClassScanner.class.getClassLoader());
+        }
+        catch (ClassNotFoundException e){
+            log.logException("# Something went wrong: Class [" + clsName + "] could not be found!", e);
+            return null;
+        }
+        catch (NoClassDefFoundError e){
+            return null;
+        }
+    }
+
     public UrlClassScanner clearCriterias(){
         this.criteriaList.clear();
         return this;
@@ -181,6 +603,8 @@ public class UrlClassScanner {
         this.searchClasses.clear();
         this.criteriaList.clear();
         this.entryPointMap.clear();
+        this.model = null;
+        this.snapshot = null;
         return this;
     }
 
@@ -225,6 +649,53 @@ public class UrlClassScanner {
         return this;
     }
 
+    /**
+     * Sets if urls containing a {@link ClassIndex} should only load the classes listed in the index. Enabled by default.
+     */
+    public UrlClassScanner useIndex(boolean useIndex){
+        this.useIndex = useIndex;
+        return this;
+    }
+
+    /**
+     * Sets if the criteria should be tested on the headers of the class files so only matching classes get loaded. Enabled by default.
+     * If disabled every class passing the name criteria is loaded.
+     */
+    public UrlClassScanner readClassFiles(boolean readClassFiles){
+        this.readClassFiles = readClassFiles;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads scanning urls and chunks of jar and folder entries in parallel.
+     * A value of 0 uses the number of available processors. With 1 (the default) the urls are scanned sequentially on the calling thread.
+     * The criteria are always notified on the calling thread in the same order as in a sequential scan.
+     */
+    public UrlClassScanner parallelism(int parallelism){
+        this.parallelism = parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+        return this;
+    }
+
+    /**
+     * Sets a model which records the class headers of every url read in the next scan.
+     * Urls already recorded in the model are not read again but the criteria are tested on the recorded headers.
+     * Passing the same model to multiple scans of the same urls only reads them once.
+     * Only used if class files are read (see {@link #readClassFiles(boolean)}). Reset by {@link #clearConfig()}.
+     */
+    public UrlClassScanner withModel(ClassModel model){
+        this.model = model;
+        return this;
+    }
+
+    /**
+     * Sets a snapshot which is replayed instead of scanning if it contains all criteria of the next scan by name.
+     * Otherwise the urls are scanned and the found classes of every criteria are recorded in the snapshot. Reset by {@link #clearConfig()}.
+     */
+    public UrlClassScanner withSnapshot(ScanSnapshot snapshot){
+        this.snapshot = snapshot;
+        return this;
+    }
+
     public UrlClassScanner autoResetConfig(){
         this.autoResetConfig = true;
         return this;
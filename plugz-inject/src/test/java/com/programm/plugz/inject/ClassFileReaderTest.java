@@ -0,0 +1,140 @@
+package com.programm.plugz.inject;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.annotation.*;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassFileReaderTest {
+
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Inherited
+    public @interface Marked {
+        String name() default "";
+        int[] numbers() default {};
+        ElementType type() default ElementType.TYPE;
+        Class<?> cls() default Object.class;
+        Retention nested() default @Retention(RetentionPolicy.CLASS);
+    }
+
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.CLASS)
+    public @interface Invisible {}
+
+    public interface Shape extends Serializable {}
+
+    @Marked(name = "base", numbers = { 1, 2 }, type = ElementType.FIELD, cls = String.class, nested = @Retention(RetentionPolicy.SOURCE))
+    @Invisible
+    public static abstract class Base implements Shape, Comparable<Base> {
+        //Long and double constants take up two entries of the constant pool
+        public static final long LONG = 12345678901L;
+        public static final double DOUBLE = 1.5;
+        public final String text = "text";
+    }
+
+    public static class Square extends Base {
+        @Override
+        public int compareTo(Base o) {
+            return 0;
+        }
+    }
+
+    //Set by the static initializer of NotMatching, reading a field of NotMatching itself would initialize it
+    static volatile boolean notMatchingInitialized;
+
+    public static class NotMatching {
+        static {
+            notMatchingInitialized = true;
+        }
+    }
+
+    private static ClassFileInfo read(Class<?> cls) throws IOException {
+        try (InputStream in = cls.getResourceAsStream("/" + cls.getName().replace('.', '/') + ".class")) {
+            assertNotNull(in);
+            return ClassFileReader.read(in);
+        }
+    }
+
+    @Test
+    @DisplayName("Class-File-Reader [Header]")
+    public void testHeader() throws IOException {
+        ClassFileInfo base = read(Base.class);
+        assertEquals(Base.class.getName(), base.name);
+        assertEquals(Object.class.getName(), base.superName);
+        assertEquals(List.of(Shape.class.getName(), Comparable.class.getName()), base.interfaces);
+        assertEquals(List.of(Marked.class.getName()), base.annotations);
+        assertFalse(base.isInterface());
+
+        ClassFileInfo shape = read(Shape.class);
+        assertTrue(shape.isInterface());
+        assertNull(shape.superName);
+        assertEquals(List.of(Serializable.class.getName()), shape.interfaces);
+
+        ClassFileInfo square = read(Square.class);
+        assertEquals(Base.class.getName(), square.superName);
+        assertEquals(List.of(), square.annotations);
+    }
+
+    @Test
+    @DisplayName("Class-File-Reader [Invalid files]")
+    public void testInvalid() {
+        assertThrows(IOException.class, () -> ClassFileReader.read(new ByteArrayInputStream(new byte[]{ 1, 2, 3, 4, 5, 6, 7, 8 })));
+        assertThrows(IOException.class, () -> ClassFileReader.read(new ByteArrayInputStream(new byte[]{ (byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0 })));
+    }
+
+    @Test
+    @DisplayName("Class-File-Resolver [Super types]")
+    public void testResolver() throws IOException {
+        ClassFileResolver resolver = new ClassFileResolver(getClass().getClassLoader());
+        ClassFileInfo square = read(Square.class);
+
+        assertEquals(Boolean.TRUE, resolver.implementsClass(square, Serializable.class.getName(), -1));
+        assertEquals(Boolean.FALSE, resolver.implementsClass(square, Serializable.class.getName(), 1));
+        assertEquals(Boolean.FALSE, resolver.implementsClass(square, Runnable.class.getName(), -1));
+
+        //Inherited annotations of super classes are present like with Class#isAnnotationPresent
+        assertEquals(Boolean.TRUE, resolver.annotatedWith(square, Marked.class.getName(), true, false, false, 0));
+        assertEquals(Boolean.FALSE, resolver.annotatedWith(square, Marked.class.getName(), false, false, false, 0));
+        assertEquals(Boolean.TRUE, resolver.annotatedWith(square, Marked.class.getName(), false, false, true, 1));
+
+        //Classes which can not be read must be loaded to decide
+        ClassFileInfo unknown = new ClassFileInfo("example.Unknown", "example.Missing", List.of(), List.of(), 0);
+        assertNull(resolver.implementsClass(unknown, Runnable.class.getName(), -1));
+        assertNull(resolver.annotatedWith(unknown, Marked.class.getName(), true, false, false, 0));
+    }
+
+    @Test
+    @DisplayName("Class-File-Reader [Only matching classes are loaded]")
+    public void testScan() throws Exception {
+        URL url = UrlClassScanner.class.getResource("/");
+        assertNotNull(url);
+
+        List<Class<?>> fromHeaders = new ArrayList<>();
+        new UrlClassScanner().readClassFiles(true)
+                .forUrls(url)
+                .withCriteria(ScanCriteria.createOnSuccessCollect("Implementing Shape.class", fromHeaders).classImplements(Shape.class))
+                .scan();
+
+        assertFalse(notMatchingInitialized);
+
+        List<Class<?>> loaded = new ArrayList<>();
+        new UrlClassScanner().readClassFiles(false)
+                .forUrls(url)
+                .withCriteria(ScanCriteria.createOnSuccessCollect("Implementing Shape.class", loaded).classImplements(Shape.class))
+                .scan();
+
+        assertEquals(List.of(Base.class, Square.class), fromHeaders.stream().sorted((a, b) -> a.getName().compareTo(b.getName())).toList());
+        assertEquals(fromHeaders, loaded);
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.programm.plugz.inject;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassIndexTest {
+
+    public static class A {}
+
+    public static class B extends A {}
+
+    public static class C extends A {}
+
+    private static ClassIndex roundTrip(Map<String, ? extends Collection<String>> classesByKey) throws IOException {
+        StringWriter writer = new StringWriter();
+        ClassIndex.write(writer, classesByKey);
+        return ClassIndex.read(new ByteArrayInputStream(writer.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Class-Index [Write and read]")
+    public void testRoundTrip() throws IOException {
+        Map<String, Set<String>> classesByKey = new HashMap<>();
+        classesByKey.put(ClassIndex.supertypeKey("com.example.Base"), Set.of("com.example.Second", "com.example.First"));
+        classesByKey.put(ClassIndex.annotationKey("com.example.Service"), Set.of("com.example.First"));
+
+        ClassIndex index = roundTrip(classesByKey);
+        assertEquals(List.of("com.example.First", "com.example.Second"), index.classes(":com.example.Base"));
+        assertEquals(List.of("com.example.First"), index.classes("@com.example.Service"));
+        assertEquals(List.of(), index.classes("@com.example.Unknown"));
+
+        //The same classes always produce the same file
+        StringWriter first = new StringWriter();
+        StringWriter second = new StringWriter();
+        ClassIndex.write(first, classesByKey);
+        ClassIndex.write(second, new TreeMap<>(classesByKey));
+        assertEquals(first.toString(), second.toString());
+    }
+
+    @Test
+    @DisplayName("Class-Index [Invalid files]")
+    public void testInvalid() {
+        assertThrows(IOException.class, () -> ClassIndex.read(new ByteArrayInputStream("plugz-index 2\n".getBytes(StandardCharsets.UTF_8))));
+        assertThrows(IOException.class, () -> ClassIndex.read(new ByteArrayInputStream("plugz-index 1\ncom.example.First\n".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    @DisplayName("Class-Index [Scanner only loads the indexed classes if enabled]")
+    public void testScan() throws Exception {
+        Path dir = Files.createTempDirectory("plugz-index");
+        Path file = dir.resolve(ClassIndex.RESOURCE);
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            ClassIndex.write(writer, Map.of(ClassIndex.supertypeKey(A.class.getName()), List.of(B.class.getName())));
+        }
+
+        assertNotNull(ClassIndex.find(dir.toUri().toURL()));
+        assertNull(ClassIndex.find(Files.createTempDirectory("plugz-no-index").toUri().toURL()));
+
+        List<Class<?>> indexed = new ArrayList<>();
+        new UrlClassScanner()
+                .forUrls(dir.toUri().toURL())
+                .withCriteria(ScanCriteria.createOnSuccessCollect("Implementing A.class", indexed).classImplements(A.class))
+                .scan();
+        assertEquals(List.of(B.class), indexed);
+
+        //Without the index the folder itself contains no classes
+        List<Class<?>> scanned = new ArrayList<>();
+        new UrlClassScanner().useIndex(false)
+                .forUrls(dir.toUri().toURL())
+                .withCriteria(ScanCriteria.createOnSuccessCollect("Implementing A.class", scanned).classImplements(A.class))
+                .scan();
+        assertEquals(List.of(), scanned);
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.programm.plugz.inject;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassModelTest {
+
+    public interface Plugin {}
+
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Config {}
+
+    public static class FirstPlugin implements Plugin {}
+
+    @Config
+    public static class SecondPlugin implements Plugin {}
+
+    private static URL url(){
+        URL url = ClassModelTest.class.getResource("/");
+        assertNotNull(url);
+        return url;
+    }
+
+    private static void scan(ClassModel model, ScanCriteria... criteria) throws ScanException {
+        UrlClassScanner scanner = new UrlClassScanner().withModel(model).forUrls(url());
+        for(ScanCriteria c : criteria) scanner.withCriteria(c);
+        scanner.scan();
+    }
+
+    @Test
+    @DisplayName("Class-Model [Later scans are answered from the model]")
+    public void testModel() throws ScanException {
+        ClassModel model = new ClassModel();
+
+        List<Class<?>> plugins = new ArrayList<>();
+        scan(model, ScanCriteria.createOnSuccessCollect("Implementing Plugin.class", plugins).classImplements(Plugin.class));
+        assertEquals(List.of(FirstPlugin.class, SecondPlugin.class), plugins.stream().sorted((a, b) -> a.getName().compareTo(b.getName())).toList());
+
+        //Every class of the url is recorded, not only the matching ones
+        assertTrue(model.contains(url()));
+        assertTrue(model.classes().stream().anyMatch(info -> info.name.equals(ClassModelTest.class.getName())));
+
+        List<Class<?>> configs = new ArrayList<>();
+        scan(model, ScanCriteria.createOnSuccessCollect("Annotated with Config.class", configs).classAnnotatedWith(Config.class));
+        assertEquals(List.of(SecondPlugin.class), configs);
+    }
+
+    @Test
+    @DisplayName("Class-Model [Recorded urls are not read again]")
+    public void testRecorded() throws ScanException {
+        ClassModel model = new ClassModel();
+        model.add(url(), null, List.of(new ClassFileInfo(FirstPlugin.class.getName(), Object.class.getName(), List.of(Plugin.class.getName()), List.of(), 0)));
+
+        List<Class<?>> plugins = new ArrayList<>();
+        scan(model, ScanCriteria.createOnSuccessCollect("Implementing Plugin.class", plugins).classImplements(Plugin.class));
+        assertEquals(List.of(FirstPlugin.class), plugins);
+        assertEquals(1, model.size());
+
+        //Scanning another entry point of the url reads it again
+        List<Class<?>> entryPointPlugins = new ArrayList<>();
+        new UrlClassScanner().withModel(model).forUrls(url())
+                .entryPoint(url(), ClassModelTest.class.getPackageName())
+                .withCriteria(ScanCriteria.createOnSuccessCollect("Implementing Plugin.class", entryPointPlugins).classImplements(Plugin.class))
+                .scan();
+        assertEquals(2, entryPointPlugins.size());
+        assertTrue(model.size() > 1);
+    }
+
+}
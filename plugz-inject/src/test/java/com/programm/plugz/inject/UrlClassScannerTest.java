@@ -80,4 +80,79 @@ class UrlClassScannerTest {
         });
     }
 
-}
\ No newline at end of file
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface AnnotationB {}
+
+    //Set by the static initializer of G, reading a field of G itself would initialize it
+    static volatile boolean gInitialized;
+
+    @AnnotationB
+    public static class G {
+        static {
+            gInitialized = true;
+        }
+    }
+
+    private static List<Class<?>> scan(int parallelism) throws ScanException {
+        URL url = UrlClassScanner.class.getResource("/");
+        assertNotNull(url);
+
+        List<Class<?>> found = new ArrayList<>();
+        new UrlClassScanner().parallelism(parallelism)
+                .forUrls(url)
+                .withCriteria(ScanCriteria.createOnSuccessCollect("Implementing A.class", found).classImplements(A.class))
+                .withCriteria(ScanCriteria.createOnSuccessCollect("Annotated with AnnotationB.class", found).classAnnotatedWith(AnnotationB.class))
+                .scan();
+        return found;
+    }
+
+    @Test
+    @DisplayName("Scan-Parallel [Same order as sequential]")
+    public void testParallelScan() throws ScanException {
+        List<Class<?>> sequential = scan(1);
+        List<Class<?>> parallel = scan(4);
+
+        assertEquals(4, sequential.size());
+        assertTrue(sequential.contains(G.class));
+        assertEquals(sequential, parallel);
+
+        //Found classes are loaded without running their static initializers
+        assertFalse(gInitialized);
+    }
+
+    @Test
+    @DisplayName("Scan-Snapshot [Recorded and replayed]")
+    public void testSnapshot() throws ScanException {
+        URL url = UrlClassScanner.class.getResource("/");
+        assertNotNull(url);
+        ScanSnapshot snapshot = new ScanSnapshot();
+
+        List<Class<?>> scanned = new ArrayList<>();
+        new UrlClassScanner().withSnapshot(snapshot)
+                .forUrls(url)
+                .withCriteria(ScanCriteria.createOnSuccessCollect("Implementing A.class", scanned).classImplements(A.class))
+                .scan();
+        assertEquals(3, scanned.size());
+        assertEquals(scanned.stream().map(Class::getName).toList(), snapshot.classes("Implementing A.class"));
+
+        //The replayed snapshot wins over the criteria, so a changed snapshot shows it was not scanned again
+        snapshot.put("Implementing A.class", List.of(B.class.getName()));
+        List<Class<?>> replayed = new ArrayList<>();
+        new UrlClassScanner().withSnapshot(snapshot)
+                .forUrls(url)
+                .withCriteria(ScanCriteria.createOnSuccessCollect("Implementing A.class", replayed).classImplements(A.class))
+                .scan();
+        assertEquals(List.of(B.class), replayed);
+
+        //Classes which no longer exist force a new scan
+        snapshot.put("Implementing A.class", List.of("com.example.Removed"));
+        List<Class<?>> rescanned = new ArrayList<>();
+        new UrlClassScanner().withSnapshot(snapshot)
+                .forUrls(url)
+                .withCriteria(ScanCriteria.createOnSuccessCollect("Implementing A.class", rescanned).classImplements(A.class))
+                .scan();
+        assertEquals(scanned, rescanned);
+    }
+
+}
@@ -7,6 +7,9 @@ import com.programm.plugz.api.PlugzConfig;
 import com.programm.plugz.api.utils.ValueParseException;
 import com.programm.plugz.api.utils.ValueUtils;
 import com.programm.plugz.files.NamedResourceNode;
+import com.programm.plugz.files.json.JsonParseException;
+import com.programm.plugz.files.json.JsonReader;
+import com.programm.plugz.files.json.JsonToken;
 import com.programm.plugz.files.props.PropsBuilder;
 import com.programm.plugz.files.props.PropsNode;
 import com.programm.plugz.files.props.PropsParseException;
@@ -116,14 +119,16 @@ class ConfigurationManager implements PlugzConfig {
             tryLoadConfigResource(true, "" +
                     "plugz.xml",
                     "plugz.yml",
-                    "plugz.properties"
+                    "plugz.properties",
+                    "plugz.json"
             );
         }
         else {
             tryLoadConfigResource(false, "" +
                     "plugz-" + configProfile + ".xml",
                     "plugz-" + configProfile + ".yml",
-                    "plugz-" + configProfile + ".properties"
+                    "plugz-" + configProfile + ".properties",
+                    "plugz-" + configProfile + ".json"
             );
         }
     }
@@ -147,6 +152,10 @@ class ConfigurationManager implements PlugzConfig {
                     log.trace("Reading configs from properties - file...");
                     loadPropsConfigResource(is);
                 }
+                else if(name.endsWith(".json")){
+                    log.trace("Reading configs from json - file...");
+                    loadJsonConfigResource(is);
+                }
                 else {
                     throw new MagicSetupException("Invalid resource file-type [" + name + "]!");
                 }
@@ -165,6 +174,9 @@ class ConfigurationManager implements PlugzConfig {
             catch (PropsParseException e){
                 throw new MagicSetupException("Failed to parse properties from config file [" + name + "]!", e);
             }
+            catch (JsonParseException e){
+                throw new MagicSetupException("Failed to parse json from config file [" + name + "]!", e);
+            }
         }
 
         if(allowFail){
@@ -200,6 +212,46 @@ class ConfigurationManager implements PlugzConfig {
         }
     }
 
+    private void loadJsonConfigResource(InputStream is) throws IOException, JsonParseException {
+        byte[] bytes;
+        try(is){
+            bytes = is.readAllBytes();
+        }
+
+        JsonReader reader = new JsonReader(bytes);
+        if(reader.nextToken() != JsonToken.BEGIN_OBJECT) throw new JsonParseException("Root of the json config must be an object!");
+        loadFromJsonObject(reader, "");
+        if(reader.nextToken() != JsonToken.END_DOCUMENT) throw new JsonParseException("Unexpected content after the root object!");
+    }
+
+    private void loadFromJsonObject(JsonReader reader, String curPath) throws JsonParseException {
+        while(reader.nextToken() == JsonToken.NAME){
+            String name = reader.getString();
+            String nPath = curPath.isEmpty() ? name : curPath + "." + name;
+            loadFromJsonValue(reader, reader.nextToken(), nPath);
+        }
+    }
+
+    private void loadFromJsonValue(JsonReader reader, JsonToken token, String path) throws JsonParseException {
+        switch (token) {
+            case BEGIN_OBJECT -> loadFromJsonObject(reader, path);
+            case BEGIN_ARRAY -> {
+                //Array entries are stored by their index: [path].0, [path].1, ...
+                int i = 0;
+                JsonToken next;
+                while((next = reader.nextToken()) != JsonToken.END_ARRAY){
+                    loadFromJsonValue(reader, next, path + "." + i++);
+                }
+            }
+            case NULL -> log.trace("# %30<({}) -> null (ignored)", path);
+            default -> {
+                Object value = reader.getValue();
+                log.trace("# %30<({}) -> {}", path, value);
+                configValues.put(path, value);
+            }
+        }
+    }
+
     private void loadFromResourceNode(NamedResourceNode node, String curPath) {
         String name = node.name();
         String _value = node.value();
@@ -20,6 +20,8 @@ class MagicContext implements IConditionContext {
     public MagicInstanceManager instanceManager;
     public List<URL> scanUrls;
     public List<Class<?>> subsystems;
+    /** Null if the startup cache is disabled */
+    public StartupCache startupCache;
 
 
     public void testCondition(String condition) throws ConditionFailedException, InvalidConditionException, MagicSetupException {
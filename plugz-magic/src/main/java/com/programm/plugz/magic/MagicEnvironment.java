@@ -13,6 +13,7 @@ import com.programm.plugz.api.auto.SetConfig;
 import com.programm.plugz.api.condition.IConditionTester;
 import com.programm.plugz.api.instance.IInstanceManager;
 import com.programm.plugz.api.lifecycle.LifecycleState;
+import com.programm.plugz.inject.ClassModel;
 import com.programm.plugz.inject.ScanCriteria;
 import com.programm.plugz.inject.ScanException;
 import com.programm.plugz.inject.UrlClassScanner;
@@ -21,6 +22,7 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,6 +34,20 @@ public class MagicEnvironment {
     private static final String CONF_ADD_SHUTDOWN_HOOK_NAME = "core.shutdownhook.enabled";
     private static final boolean CONF_ADD_SHUTDOWN_HOOK_DEFAULT = true;
 
+    private static final String CONF_SCAN_INDEX_NAME = "core.scan.index.enabled";
+    private static final boolean CONF_SCAN_INDEX_DEFAULT = true;
+
+    private static final String CONF_SCAN_CLASS_FILES_NAME = "core.scan.classfiles.enabled";
+    private static final boolean CONF_SCAN_CLASS_FILES_DEFAULT = true;
+
+    private static final String CONF_SCAN_PARALLELISM_NAME = "core.scan.parallelism";
+    private static final int CONF_SCAN_PARALLELISM_DEFAULT = 1;
+
+    private static final String CONF_CACHE_ENABLED_NAME = "core.cache.enabled";
+    private static final boolean CONF_CACHE_ENABLED_DEFAULT = false;
+    private static final String CONF_CACHE_DIR_NAME = "core.cache.dir";
+    private static final String CONF_CACHE_DIR_DEFAULT = ".plugz-cache";
+
     private static final String CONF_LOGGER_IMPL_CLASS_NAME = "log.implementation";
     private static final String CONF_LOGGER_LEVEL_NAME = "log.level";
     private static final String CONF_LOGGER_LEVEL_DEFAULT = "INFO";
@@ -130,6 +146,11 @@ public class MagicEnvironment {
     private void initDefaultConfigs(){
         log.debug("Setting up default configurations for the environment.");
         configurations.registerDefaultConfiguration(CONF_ADD_SHUTDOWN_HOOK_NAME, CONF_ADD_SHUTDOWN_HOOK_DEFAULT);
+        configurations.registerDefaultConfiguration(CONF_SCAN_INDEX_NAME, CONF_SCAN_INDEX_DEFAULT);
+        configurations.registerDefaultConfiguration(CONF_SCAN_CLASS_FILES_NAME, CONF_SCAN_CLASS_FILES_DEFAULT);
+        configurations.registerDefaultConfiguration(CONF_SCAN_PARALLELISM_NAME, CONF_SCAN_PARALLELISM_DEFAULT);
+        configurations.registerDefaultConfiguration(CONF_CACHE_ENABLED_NAME, CONF_CACHE_ENABLED_DEFAULT);
+        configurations.registerDefaultConfiguration(CONF_CACHE_DIR_NAME, CONF_CACHE_DIR_DEFAULT);
 
         configurations.registerDefaultConfiguration(CONF_LOGGER_IMPL_CLASS_NAME, null);
         configurations.registerDefaultConfiguration(CONF_LOGGER_LEVEL_NAME, CONF_LOGGER_LEVEL_DEFAULT);
@@ -183,19 +204,42 @@ public class MagicEnvironment {
             throw new MagicSetupException("Failed to collect scan urls.", e);
         }
 
+        StartupCache startupCache = null;
+        if(configurations.getBoolOrError(CONF_CACHE_ENABLED_NAME, MagicSetupException::new)){
+            try {
+                log.debug("Loading startup cache...");
+                String cacheKey = StartupCache.key(collectedUrls, configurations.profile(), componentScanPath);
+                Path cacheDir = Paths.get(configurations.getOrError(CONF_CACHE_DIR_NAME, MagicSetupException::new));
+                startupCache = new StartupCache(log, cacheDir, cacheKey);
+                startupCache.load();
+                context.startupCache = startupCache;
+            }
+            catch (IOException e){
+                log.warn("Startup cache disabled: Failed to hash the classpath: {}", e.getMessage());
+            }
+        }
+
         logLifecycleState(LifecycleState.PRE_SETUP);
         List<Class<?>> subsystemsClasses = new ArrayList<>();
         List<Class<?>> loggerImplementations = new ArrayList<>();
         List<Class<?>> configAnnotatedClasses = new ArrayList<>();
         List<Class<?>> conditionTesterClasses = new ArrayList<>();
 
+        //Records the class headers in the config scan so the main scan does not read the urls again
+        ClassModel classModel = new ClassModel();
+
         try {
             log.debug("Starting config scan");
             log.debug("Scanning through {} collected urls ...", collectedUrls.size());
 
             if(componentScanPath != null) scanner.entryPoint(executingClassUrl, componentScanPath);
 
+            scanner.useIndex(configurations.getBoolOrError(CONF_SCAN_INDEX_NAME, MagicSetupException::new));
+            scanner.readClassFiles(configurations.getBoolOrError(CONF_SCAN_CLASS_FILES_NAME, MagicSetupException::new));
+            scanner.parallelism(configurations.getIntOrError(CONF_SCAN_PARALLELISM_NAME, MagicSetupException::new));
+            if(startupCache != null) scanner.withSnapshot(startupCache.snapshot());
             scanner.forUrls(collectedUrls)
+                    .withModel(classModel)
                     .withCriteria(ScanCriteria.createOnSuccessCollect("Subsystem", subsystemsClasses)
                             .classImplements(ISubsystem.class))
                     .withCriteria(ScanCriteria.createOnSuccessCollect("Logger implementation", loggerImplementations)
@@ -236,6 +280,7 @@ public class MagicEnvironment {
         }
         log.info("Using Condition Tester [{}].", conditionTester.tester.getClass().getName());
 
+        if(startupCache != null) startupCache.sortByInstantiationOrder(configAnnotatedClasses);
         log.debug("Registering [{}] configuration classes", configAnnotatedClasses.size());
         for(Class<?> cls : configAnnotatedClasses){
             try {
@@ -288,17 +333,21 @@ public class MagicEnvironment {
 
             if(componentScanPath != null) scanner.entryPoint(executingClassUrl, componentScanPath);
 
+            if(startupCache != null) scanner.withSnapshot(startupCache.snapshot());
             scanner.forUrls(collectedUrls)
+                    .withModel(classModel)
                     .withCriteria(ScanCriteria.createOnSuccessCollect("Service class", serviceClasses).classAnnotatedWith(Service.class))
                     .scan();
 
             scanner.clearConfig();
+            classModel.clear();
         }
         catch (ScanException e){
             throw new MagicSetupException("Main scan failed!", e);
         }
 
 
+        if(startupCache != null) startupCache.sortByInstantiationOrder(serviceClasses);
         log.debug("Registering [{}] service classes", serviceClasses.size());
         for(Class<?> cls : serviceClasses){
             try {
@@ -324,6 +373,10 @@ public class MagicEnvironment {
         catch (MagicInstanceException e){
             throw new MagicSetupException("Exception while calling " + LifecycleState.POST_SETUP + " methods!", e);
         }
+
+        if(startupCache != null && !startupCache.hit()){
+            startupCache.save();
+        }
     }
 
     public void startup() {
@@ -20,6 +20,8 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
@@ -278,6 +280,7 @@ public class MagicInstanceManager implements IInstanceManager {
     }
 
     private final Map<Class<? extends Annotation>, IAnnotatedMethodSetup<?>> annotatedMethodSetupMap = new HashMap<>();
+    private final Map<Method, List<IMethodInterceptor>> methodInterceptorMap = new ConcurrentHashMap<>();
 
     private final Map<Class<?>, InstanceProvider> instanceMap = new HashMap<>();
     private final Map<Class<?>, List<MagicWire>> waitMap = new HashMap<>();
@@ -350,11 +353,16 @@ public class MagicInstanceManager implements IInstanceManager {
 
         log.debug("Instantiating class [{}]", cls.getName());
 
-        try {
-            annocheck.checkAllDeclared(cls);
-        }
-        catch (AnnotationCheckException e){
-            throw new MagicInstanceException("Annotation checks failed!", e);
+        StartupCache startupCache = context.startupCache;
+        if(startupCache == null || !startupCache.isChecked(cls)) {
+            try {
+                annocheck.checkAllDeclared(cls);
+            }
+            catch (AnnotationCheckException e) {
+                throw new MagicInstanceException("Annotation checks failed!", e);
+            }
+
+            if(startupCache != null) startupCache.checked(cls);
         }
 
         if(possibleConditionsFailed(cls)) {
@@ -383,6 +391,7 @@ public class MagicInstanceManager implements IInstanceManager {
         tryMagicMethods(cls, instance);
 
         registerInstance(cls, instance);
+        if(context.startupCache != null) context.startupCache.instantiated(cls);
     }
 
     public void checkWaitMap(boolean disableWaiting) throws MagicInstanceException, MagicInstanceWaitException {
@@ -477,6 +486,11 @@ public class MagicInstanceManager implements IInstanceManager {
         this.annotatedMethodSetupMap.put(annotationCls, setupCallback);
     }
 
+    @Override
+    public void registerMethodInterceptor(Method method, IMethodInterceptor interceptor) {
+        this.methodInterceptorMap.computeIfAbsent(method, m -> new CopyOnWriteArrayList<>()).add(interceptor);
+    }
+
     public void registerInstance(Class<?> cls, Object instance) throws MagicInstanceException {
         _registerInstance(cls, new ConstantInstance(instance));
     }
@@ -1069,6 +1083,19 @@ public class MagicInstanceManager implements IInstanceManager {
     }
 
     private Object doInvokeMethod(Object instance, Method method, Object... params) throws MagicInstanceException {
+        List<IMethodInterceptor> interceptors = methodInterceptorMap.get(method);
+        if(interceptors == null) return doInvokeMethodDirect(instance, method, params);
+
+        return doInvokeMethodIntercepted(interceptors, 0, instance, method, params);
+    }
+
+    private Object doInvokeMethodIntercepted(List<IMethodInterceptor> interceptors, int index, Object instance, Method method, Object[] params) throws MagicInstanceException {
+        if(index == interceptors.size()) return doInvokeMethodDirect(instance, method, params);
+
+        return interceptors.get(index).intercept(instance, method, () -> doInvokeMethodIntercepted(interceptors, index + 1, instance, method, params));
+    }
+
+    private Object doInvokeMethodDirect(Object instance, Method method, Object... params) throws MagicInstanceException {
         try {
             boolean canAccess = method.canAccess(instance);
 
@@ -0,0 +1,309 @@
+package com.programm.plugz.magic;
+
+import com.programm.ioutils.log.api.ILogger;
+import com.programm.ioutils.log.api.Logger;
+import com.programm.plugz.inject.ScanSnapshot;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Caches the results of the setup discovery between runs: the classes found for every scan criteria,
+ * the classes which passed the annotation checks and the order in which classes got instantiated.
+ * The cache file is keyed by a hash over the size and modification time of every file on the classpath
+ * so any change of the classpath leads to a new file.
+ * Applications and profiles may share the cache directory, so only the files of the least recently used keys get deleted.
+ *
+ * <pre>
+ * plugz-startup-cache 1
+ * #scan Service class
+ * com.example.MyService
+ * #checked
+ * com.example.MyService
+ * #order
+ * com.example.MyService
+ * </pre>
+ */
+@Logger("Startup Cache")
+class StartupCache {
+
+    private static final String HEADER = "plugz-startup-cache 1";
+    private static final String FILE_PREFIX = "startup-";
+    private static final String FILE_SUFFIX = ".cache";
+    private static final String SCAN_SECTION = "#scan ";
+    private static final String CHECKED_SECTION = "#checked";
+    private static final String ORDER_SECTION = "#order";
+
+    /**
+     * The number of cache files kept in the directory.
+     */
+    static final int MAX_FILES = 8;
+
+    /**
+     * Hashes the profile, the scan path and the size and modification time of every file of the urls.
+     * @throws IOException if some url is not backed by a local file, as changes to it could not be detected.
+     */
+    public static String key(List<URL> urls, String profile, String scanPath) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e){
+            throw new IllegalStateException("INVALID STATE: SHA-256 must be supported by every jvm!", e);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(profile).append('\n').append(scanPath).append('\n');
+
+        for(URL url : urls){
+            sb.append(url).append('\n');
+
+            Path path = backingPath(url);
+            if(Files.isDirectory(path)){
+                try (Stream<Path> files = Files.walk(path)) {
+                    for(Path file : (Iterable<Path>) files.sorted()::iterator){
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        if(!attributes.isRegularFile()) continue;
+                        appendFile(sb, path.relativize(file).toString(), attributes);
+                    }
+                }
+            }
+            else if(Files.exists(path)){
+                appendFile(sb, "", Files.readAttributes(path, BasicFileAttributes.class));
+            }
+        }
+
+        byte[] hash = digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder();
+        for(byte b : hash){
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return hex.toString();
+    }
+
+    /**
+     * @return the local file or folder of the url. Urls pointing into a jar (jar:file:/app.jar!/lib/) are backed by the outermost jar file.
+     * @throws IOException if the url is not backed by a local file.
+     */
+    static Path backingPath(URL url) throws IOException {
+        String spec = url.toString();
+        if(url.getProtocol().equals("jar")){
+            int separator = spec.indexOf("!/");
+            spec = spec.substring("jar:".length(), separator == -1 ? spec.length() : separator);
+        }
+
+        try {
+            return Paths.get(new URI(spec));
+        }
+        catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e){
+            throw new IOException("Url [" + url + "] is not backed by a local file!", e);
+        }
+    }
+
+    private static void appendFile(StringBuilder sb, String name, BasicFileAttributes attributes){
+        sb.append(name).append(':').append(attributes.size()).append(':').append(attributes.lastModifiedTime().toMillis()).append('\n');
+    }
+
+
+
+    private final ILogger log;
+    private final Path directory;
+    private final Path file;
+
+    private final ScanSnapshot snapshot = new ScanSnapshot();
+    private final Set<String> checkedClasses = Collections.synchronizedSet(new LinkedHashSet<>());
+    private final List<String> instantiationOrder = Collections.synchronizedList(new ArrayList<>());
+    private boolean hit;
+
+    public StartupCache(ILogger log, Path directory, String key) {
+        this.log = log;
+        this.directory = directory;
+        this.file = directory.resolve(FILE_PREFIX + key + FILE_SUFFIX);
+    }
+
+    /**
+     * Reads the cache file for the key.
+     * @return true if the file exists and could be read.
+     */
+    public boolean load(){
+        if(!Files.isRegularFile(file)) {
+            log.debug("No startup cache found at [{}].", file);
+            return false;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if(!HEADER.equals(header)) throw new IOException("Invalid startup cache header: [" + header + "]!");
+
+            Map<String, List<String>> scanned = new LinkedHashMap<>();
+            List<String> checked = new ArrayList<>();
+            List<String> order = new ArrayList<>();
+            List<String> current = null;
+
+            for(String line = reader.readLine(); line != null; line = reader.readLine()){
+                if(line.isEmpty()) continue;
+
+                if(line.startsWith(SCAN_SECTION)){
+                    current = scanned.computeIfAbsent(line.substring(SCAN_SECTION.length()), n -> new ArrayList<>());
+                }
+                else if(line.equals(CHECKED_SECTION)){
+                    current = checked;
+                }
+                else if(line.equals(ORDER_SECTION)){
+                    current = order;
+                }
+                else {
+                    if(current == null) throw new IOException("Class [" + line + "] listed before any section in startup cache!");
+                    current.add(line);
+                }
+            }
+
+            scanned.forEach(snapshot::put);
+            checkedClasses.addAll(checked);
+            instantiationOrder.addAll(order);
+        }
+        catch (IOException e){
+            log.warn("Failed to read startup cache [{}]: {}", file, e.getMessage());
+            snapshot.clear();
+            checkedClasses.clear();
+            instantiationOrder.clear();
+            return false;
+        }
+
+        //Marks the file as recently used, so saving the caches of other keys keeps it
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        catch (IOException e){
+            log.debug("Failed to touch startup cache [{}]: {}", file, e.getMessage());
+        }
+
+        log.info("Using startup cache [{}].", file);
+        hit = true;
+        return true;
+    }
+
+    /**
+     * Writes the recorded results and deletes the cache files of the least recently used keys
+     * so the directory keeps at most {@value MAX_FILES} files.
+     */
+    public void save(){
+        try {
+            Files.createDirectories(directory);
+
+            Path tmpFile = Files.createTempFile(directory, FILE_PREFIX, ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+
+                for(String criteria : snapshot.criteria()){
+                    writeSection(writer, SCAN_SECTION + criteria, snapshot.classes(criteria));
+                }
+
+                synchronized (checkedClasses) {
+                    writeSection(writer, CHECKED_SECTION, checkedClasses);
+                }
+
+                synchronized (instantiationOrder) {
+                    writeSection(writer, ORDER_SECTION, instantiationOrder);
+                }
+            }
+
+            //A concurrently starting environment never reads a half written file
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved startup cache to [{}].", file);
+
+            deleteLeastRecentlyUsed();
+        }
+        catch (IOException e){
+            log.warn("Failed to save startup cache [{}]: {}", file, e.getMessage());
+        }
+    }
+
+    private void deleteLeastRecentlyUsed() throws IOException {
+        Map<Path, Long> usedAt = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for(Path other : files){
+                if(other.equals(file)) continue;
+
+                try {
+                    usedAt.put(other, Files.getLastModifiedTime(other).toMillis());
+                }
+                catch (NoSuchFileException e){
+                    //Deleted by a concurrently saving environment
+                }
+            }
+        }
+
+        List<Path> others = new ArrayList<>(usedAt.keySet());
+        others.sort(Comparator.comparing((Path other) -> usedAt.get(other)).reversed());
+        for(Path other : others.subList(Math.min(others.size(), MAX_FILES - 1), others.size())){
+            log.debug("Deleting least recently used startup cache [{}].", other);
+            Files.deleteIfExists(other);
+        }
+    }
+
+    private void writeSection(BufferedWriter writer, String section, Collection<String> classNames) throws IOException {
+        writer.write(section);
+        writer.newLine();
+
+        for(String className : classNames){
+            writer.write(className);
+            writer.newLine();
+        }
+    }
+
+    /**
+     * @return true if the results were read from the cache file.
+     */
+    public boolean hit(){
+        return hit;
+    }
+
+    public ScanSnapshot snapshot(){
+        return snapshot;
+    }
+
+    public boolean isChecked(Class<?> cls){
+        return checkedClasses.contains(cls.getName());
+    }
+
+    public void checked(Class<?> cls){
+        if(!hit) checkedClasses.add(cls.getName());
+    }
+
+    public void instantiated(Class<?> cls){
+        if(!hit) instantiationOrder.add(cls.getName());
+    }
+
+    /**
+     * Sorts the classes in the order they got instantiated in the cached run so dependencies are instantiated before the classes that need them.
+     * Classes unknown to the cache keep their order at the end.
+     */
+    public void sortByInstantiationOrder(List<Class<?>> classes){
+        if(!hit) return;
+
+        Map<String, Integer> positions = new HashMap<>();
+        synchronized (instantiationOrder) {
+            for(int i=0;i<instantiationOrder.size();i++){
+                positions.putIfAbsent(instantiationOrder.get(i), i);
+            }
+        }
+
+        classes.sort(Comparator.comparingInt(cls -> positions.getOrDefault(cls.getName(), Integer.MAX_VALUE)));
+    }
+
+}
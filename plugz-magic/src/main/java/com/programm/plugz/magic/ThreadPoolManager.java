@@ -3,6 +3,7 @@ package com.programm.plugz.magic;
 import com.programm.ioutils.log.api.ILogger;
 import com.programm.ioutils.log.api.Logger;
 import com.programm.plugz.api.IAsyncManager;
+import com.programm.plugz.api.utils.ThreadUtils;
 import lombok.RequiredArgsConstructor;
 
 import java.util.*;
@@ -19,6 +20,10 @@ class ThreadPoolManager implements IAsyncManager {
     private static final String CONF_TIMEOUT_NAME = "async.workers.timeout";
     private static final int CONF_TIMEOUT_DEFAULT = 2000;
 
+    private static final String CONF_MODE_NAME = "async.mode";
+    private static final String CONF_MODE_DEFAULT = "pool";
+    private static final String MODE_VIRTUAL = "virtual";
+
     private static class TaskInfo {
         private static final int DEFAULT_INIT_CASHED_TASKS = 4;
         private static final Queue<TaskInfo> CACHED_TASKS = new ArrayDeque<>(DEFAULT_INIT_CASHED_TASKS);
@@ -114,6 +119,39 @@ class ThreadPoolManager implements IAsyncManager {
         }
     }
 
+    /**
+     * A task running on its own virtual thread.
+     * Used instead of the workers when the manager runs in virtual mode.
+     * The thread is created with the task but only started after the task was registered, so other threads never see a task without its thread.
+     */
+    private class VirtualTask {
+        private final String name;
+        private final boolean weakThread;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        public VirtualTask(String name, boolean weakThread, Runnable task, Runnable onTaskFinished, long delay) {
+            this.name = name;
+            this.weakThread = weakThread;
+            this.thread = ThreadUtils.newVirtualThread(name, () -> run(task, onTaskFinished, delay));
+        }
+
+        private void run(Runnable task, Runnable onTaskFinished, long delay){
+            try {
+                if(delay > 0) Thread.sleep(delay);
+                task.run();
+                if(onTaskFinished != null) onTaskFinished.run();
+            }
+            catch (InterruptedException ignore){}
+            finally {
+                running = false;
+                removeVirtualTask(this);
+                log.trace("[{}]: finished.", name);
+                notifyThreadClose(name);
+            }
+        }
+    }
+
     private Worker[] workers;
     private final Queue<Worker> sleepingWorkers = new ArrayDeque<>();
 
@@ -122,10 +160,14 @@ class ThreadPoolManager implements IAsyncManager {
 
     private final BlockingQueue<TaskInfo> queuedTasks;
 
+    private final List<VirtualTask> virtualTasks = new ArrayList<>();
+    private int virtualTaskCount;
+
     private final ILogger log;
     private final List<String> accountableRunningThreadNames = new ArrayList<>();
 
     private boolean initialized;
+    private boolean virtualMode;
     private int maxWorkers;
     private long timeoutTime;
     private boolean exited;
@@ -141,12 +183,29 @@ class ThreadPoolManager implements IAsyncManager {
         this.timeoutTime = configurations.getLongOrRegisterDefault(CONF_TIMEOUT_NAME, CONF_TIMEOUT_DEFAULT);
         this.workers = new Worker[maxWorkers];
 
+        String mode = configurations.getOrRegisterDefault(CONF_MODE_NAME, CONF_MODE_DEFAULT);
+        if(MODE_VIRTUAL.equals(mode)){
+            if(ThreadUtils.isVirtualThreadSupported()){
+                log.debug("Running async tasks on virtual threads.");
+                virtualMode = true;
+            }
+            else {
+                log.warn("[{}] is set to [{}] but virtual threads are not supported by this runtime. Falling back to the worker pool.", CONF_MODE_NAME, MODE_VIRTUAL);
+            }
+        }
+
         initialized = true;
     }
 
     public void shutdown(){
         this.exited = true;
 
+        for(VirtualTask task : copyVirtualTasks()){
+            if(task.running) {
+                shutdownVirtualTask(task);
+            }
+        }
+
         for(Worker worker : vipWorkers){
             if(worker.running) {
                 shutdownWorker(worker);
@@ -168,6 +227,13 @@ class ThreadPoolManager implements IAsyncManager {
 
         log.debug("Running async {}task: [{}].", (vip ? "VIP " : ""), task);
 
+        //Every task gets its own thread right away, so there is no need to prioritise vip tasks
+        if(virtualMode){
+            VirtualTask virtualTask = createVirtualTask(task, onTaskFinished, delay, weakThread);
+            virtualTask.thread.start();
+            return;
+        }
+
         TaskInfo taskInfo = TaskInfo.create(task, onTaskFinished, delay, weakThread);
 
         if(sleepingWorkers.isEmpty()){
@@ -220,6 +286,37 @@ class ThreadPoolManager implements IAsyncManager {
         worker.thread.interrupt();
     }
 
+    @Override
+    public boolean usesVirtualThreads() {
+        return virtualMode;
+    }
+
+    private VirtualTask createVirtualTask(Runnable runnable, Runnable onTaskFinished, long delay, boolean weakThread){
+        synchronized (virtualTasks) {
+            VirtualTask task = new VirtualTask("Virtual-Worker-" + virtualTaskCount++, weakThread, runnable, onTaskFinished, delay);
+            virtualTasks.add(task);
+            return task;
+        }
+    }
+
+    private void removeVirtualTask(VirtualTask task){
+        synchronized (virtualTasks) {
+            virtualTasks.remove(task);
+        }
+    }
+
+    private List<VirtualTask> copyVirtualTasks(){
+        synchronized (virtualTasks) {
+            return new ArrayList<>(virtualTasks);
+        }
+    }
+
+    private void shutdownVirtualTask(VirtualTask task){
+        log.trace("Shutting down virtual task [{}]...", task.name);
+        task.running = false;
+        task.thread.interrupt();
+    }
+
     private synchronized Worker pollSleepingWorker(){
         return sleepingWorkers.poll();
     }
@@ -286,6 +383,18 @@ class ThreadPoolManager implements IAsyncManager {
             }
         }
 
+        List<VirtualTask> runningVirtualTasks = copyVirtualTasks();
+        for(VirtualTask task : runningVirtualTasks){
+            if(task.running){
+                if(task.weakThread) {
+                    runningWeakWorkers++;
+                }
+                else {
+                    runningNonWeakWorkers++;
+                }
+            }
+        }
+
         if(runningNonWeakWorkers == 0){
             enteredAutoClosableState = true;
             log.debug("Auto-close system detected closable state. [{}] weak workers will be terminated early.", runningWeakWorkers);
@@ -302,6 +411,12 @@ class ThreadPoolManager implements IAsyncManager {
                     shutdownWorker(w);
                 }
             }
+
+            for(VirtualTask task : runningVirtualTasks){
+                if(task.running && task.weakThread){
+                    shutdownVirtualTask(task);
+                }
+            }
         }
     }
 }
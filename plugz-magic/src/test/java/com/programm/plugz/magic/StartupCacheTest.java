@@ -0,0 +1,137 @@
+package com.programm.plugz.magic;
+
+import com.programm.ioutils.log.api.NullLogger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupCacheTest {
+
+    private static void writeJar(Path jar, String content) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("lib/entry.txt"));
+            out.write(content.getBytes());
+            out.closeEntry();
+        }
+    }
+
+    @Test
+    @DisplayName("Startup-Cache [Key changes with the classpath]")
+    public void testKey() throws IOException {
+        Path dir = Files.createTempDirectory("plugz-classes");
+        Path file = dir.resolve("A.class");
+        Files.writeString(file, "a");
+        List<URL> urls = List.of(dir.toUri().toURL());
+
+        String key = StartupCache.key(urls, "default", "com.example");
+        assertEquals(key, StartupCache.key(urls, "default", "com.example"));
+        assertNotEquals(key, StartupCache.key(urls, "test", "com.example"));
+        assertNotEquals(key, StartupCache.key(urls, "default", "com.other"));
+
+        Files.writeString(file, "changed");
+        assertNotEquals(key, StartupCache.key(urls, "default", "com.example"));
+    }
+
+    @Test
+    @DisplayName("Startup-Cache [Urls into a jar are keyed by the jar file]")
+    public void testJarKey() throws IOException {
+        Path jar = Files.createTempDirectory("plugz-jars").resolve("app.jar");
+        writeJar(jar, "first");
+
+        URL nested = new URL("jar:" + jar.toUri() + "!/lib/");
+        assertEquals(jar, StartupCache.backingPath(nested));
+        assertEquals(jar, StartupCache.backingPath(new URL("jar:" + jar.toUri() + "!/lib/inner.jar!/")));
+
+        String key = StartupCache.key(List.of(nested), "default", "");
+        writeJar(jar, "second content");
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 1000));
+        assertNotEquals(key, StartupCache.key(List.of(nested), "default", ""));
+    }
+
+    @Test
+    @DisplayName("Startup-Cache [Urls without a local file disable the cache]")
+    public void testRemoteUrl() {
+        assertThrows(IOException.class, () -> StartupCache.key(List.of(new URL("http://example.com/app.jar")), "default", ""));
+        assertThrows(IOException.class, () -> StartupCache.backingPath(new URL("jar:http://example.com/app.jar!/")));
+    }
+
+    @Test
+    @DisplayName("Startup-Cache [Save and load]")
+    public void testSaveAndLoad() throws IOException {
+        Path dir = Files.createTempDirectory("plugz-cache");
+
+        StartupCache first = new StartupCache(new NullLogger(), dir, "key");
+        assertFalse(first.load());
+        first.snapshot().put("Service class", List.of(String.class.getName(), Integer.class.getName()));
+        first.checked(String.class);
+        first.instantiated(Integer.class);
+        first.instantiated(String.class);
+        first.save();
+
+        StartupCache second = new StartupCache(new NullLogger(), dir, "key");
+        assertTrue(second.load());
+        assertTrue(second.hit());
+        assertEquals(List.of(String.class.getName(), Integer.class.getName()), second.snapshot().classes("Service class"));
+        assertTrue(second.isChecked(String.class));
+        assertFalse(second.isChecked(Integer.class));
+
+        List<Class<?>> classes = new ArrayList<>(List.of(Long.class, String.class, Integer.class));
+        second.sortByInstantiationOrder(classes);
+        assertEquals(List.of(Integer.class, String.class, Long.class), classes);
+    }
+
+    @Test
+    @DisplayName("Startup-Cache [Only the least recently used files are deleted]")
+    public void testDeleteLeastRecentlyUsed() throws IOException {
+        Path dir = Files.createTempDirectory("plugz-cache");
+        long now = System.currentTimeMillis();
+
+        //Caches of other profiles or applications sharing the directory
+        List<Path> others = new ArrayList<>();
+        for(int i=0;i<StartupCache.MAX_FILES;i++){
+            Path other = dir.resolve("startup-other" + i + ".cache");
+            Files.writeString(other, "");
+            Files.setLastModifiedTime(other, FileTime.fromMillis(now - (i + 1) * 60_000L));
+            others.add(other);
+        }
+
+        //Loading a cache marks it as used
+        Path used = others.get(StartupCache.MAX_FILES - 1);
+        Files.writeString(used, "plugz-startup-cache 1\n");
+        assertTrue(new StartupCache(new NullLogger(), dir, "other" + (StartupCache.MAX_FILES - 1)).load());
+
+        new StartupCache(new NullLogger(), dir, "key").save();
+
+        assertTrue(Files.exists(dir.resolve("startup-key.cache")));
+        assertTrue(Files.exists(used));
+        assertFalse(Files.exists(others.get(StartupCache.MAX_FILES - 2)));
+        for(int i=0;i<StartupCache.MAX_FILES - 2;i++) assertTrue(Files.exists(others.get(i)));
+    }
+
+    @Test
+    @DisplayName("Startup-Cache [Invalid files are ignored]")
+    public void testInvalidFile() throws IOException {
+        Path dir = Files.createTempDirectory("plugz-cache");
+        try (OutputStream out = Files.newOutputStream(dir.resolve("startup-key.cache"))) {
+            out.write("plugz-startup-cache 0\n".getBytes());
+        }
+
+        StartupCache cache = new StartupCache(new NullLogger(), dir, "key");
+        assertFalse(cache.load());
+        assertFalse(cache.hit());
+        assertNull(cache.snapshot().classes("Service class"));
+    }
+
+}
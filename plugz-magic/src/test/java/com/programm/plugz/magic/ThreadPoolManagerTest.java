@@ -0,0 +1,77 @@
+package com.programm.plugz.magic;
+
+import com.programm.plugz.api.utils.ThreadUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadPoolManagerTest {
+
+    private static ThreadPoolManager createManager(String mode) throws Exception {
+        LoggerFallback log = new LoggerFallback().level(5);
+        ConfigurationManager configurations = new ConfigurationManager(log);
+        configurations.registerConfiguration("async.mode", mode);
+
+        ThreadPoolManager manager = new ThreadPoolManager(log);
+        manager.init(configurations);
+        return manager;
+    }
+
+    @Test
+    @DisplayName("Thread-Pool [Runs more tasks than workers]")
+    public void testPoolMode() throws Exception {
+        ThreadPoolManager manager = createManager("pool");
+        assertFalse(manager.usesVirtualThreads());
+
+        CountDownLatch latch = new CountDownLatch(50);
+        for(int i=0;i<50;i++){
+            manager.runAsyncTask(latch::countDown, 0);
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        manager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Thread-Pool [Virtual mode]")
+    public void testVirtualMode() throws Exception {
+        ThreadPoolManager manager = createManager("virtual");
+        //Falls back to the pool on runtimes without virtual threads
+        assertEquals(ThreadUtils.isVirtualThreadSupported(), manager.usesVirtualThreads());
+
+        CountDownLatch latch = new CountDownLatch(50);
+        for(int i=0;i<50;i++){
+            manager.runAsyncTask(latch::countDown, 0);
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        manager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Thread-Pool [Shutdown interrupts running tasks]")
+    public void testShutdownInterrupts() throws Exception {
+        ThreadPoolManager manager = createManager("virtual");
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        manager.runAsyncTask(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            }
+            catch (InterruptedException e){
+                interrupted.countDown();
+            }
+        }, 0);
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertDoesNotThrow(manager::shutdown);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.programm.plugz.object.mapper.codec;
+
+import com.programm.plugz.files.json.JsonObjectNode;
+import com.programm.plugz.files.json.JsonParseException;
+import com.programm.plugz.files.json.JsonReader;
+import com.programm.plugz.files.json.JsonToken;
+import com.programm.plugz.files.json.JsonWriter;
+import com.programm.plugz.object.mapper.ObjectMapException;
+import com.programm.plugz.object.mapper.property.JsonNodePropertyObjectMapper;
+import com.programm.plugz.object.mapper.property.PropertyObjectJsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Json reader and writer for exactly one class.
+ * Implementations are generated by the {@link JsonCodecs} and access the properties of the class directly.
+ * Values which are no primitives or strings are handed back to the fallback mappers.
+ */
+public interface IJsonCodec {
+
+    void write(JsonWriter writer, Object entity, PropertyObjectJsonWriter fallback) throws ObjectMapException, IOException;
+
+    /**
+     * @return false if the class has no public empty constructor, so only {@link #write(JsonWriter, Object, PropertyObjectJsonWriter)} can be used.
+     */
+    boolean canRead();
+
+    Object read(JsonObjectNode node, JsonNodePropertyObjectMapper fallback) throws ObjectMapException;
+
+    /**
+     * Reads the entries of an object directly from the pull parser without building a node tree.
+     * The current token of the reader must be {@link JsonToken#BEGIN_OBJECT}, the object is consumed up to and including its {@link JsonToken#END_OBJECT}.
+     */
+    Object read(JsonReader reader, JsonNodePropertyObjectMapper fallback) throws ObjectMapException, JsonParseException;
+
+}
@@ -0,0 +1,428 @@
+package com.programm.plugz.object.mapper.codec;
+
+import com.programm.plugz.cls.analyzer.*;
+import com.programm.plugz.codegen.JavaCode;
+import com.programm.plugz.codegen.codegenerator.JavaCodeGenerationException;
+import com.programm.plugz.codegen.codegenerator.JavaCodeGenerator;
+import com.programm.plugz.codegen.codegenerator.Modifier;
+import com.programm.plugz.codegen.codegenerator.Visibility;
+import com.programm.plugz.files.json.*;
+import com.programm.plugz.object.mapper.ISpecializedObjectMapperLookup;
+import com.programm.plugz.object.mapper.ObjectMapException;
+import com.programm.plugz.object.mapper.property.JsonNodePropertyObjectMapper;
+import com.programm.plugz.object.mapper.property.PropertyObjectJsonWriter;
+import com.programm.plugz.object.mapper.utils.ValueUtils;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates and caches an {@link IJsonCodec} for every class the first time it is mapped.
+ * The generated code calls the getters and setters (or public fields) of the class directly instead of going through reflection.
+ *
+ * Codecs can only be generated for public, non generic classes whose properties are all publicly accessible.
+ * For any other class, or if no compiler is available at runtime, {@link #get(Class)} returns null and the mappers use their reflective fallback.
+ */
+public class JsonCodecs {
+
+    private static final String CODEC_PACKAGE = "com.programm.plugz.object.mapper.codec";
+    private static final String GENERATED_CLASSES_FOLDER_NAME = "com.programm.plugz.object.mapper.codec";
+    private static final String TYPE_FIELD = "TYPE";
+
+    //The JavaCode class shares a single code generator
+    private static final Object GENERATION_LOCK = new Object();
+
+    private static class Property {
+        private final String name;
+        private final AnalyzedParameterizedType type;
+        private Member getter;
+        private Class<?> getterType;
+        private Member setter;
+        private Class<?> setterType;
+
+        private Property(String name, AnalyzedParameterizedType type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    private final ClassAnalyzer analyzer;
+    private final ISpecializedObjectMapperLookup specializedLookup;
+    private final Map<Class<?>, IJsonCodec> codecs = new ConcurrentHashMap<>();
+    private final Set<Class<?>> unsupported = ConcurrentHashMap.newKeySet();
+    private volatile boolean enabled = true;
+
+    public JsonCodecs(ClassAnalyzer analyzer, ISpecializedObjectMapperLookup specializedLookup) {
+        this.analyzer = analyzer;
+        this.specializedLookup = specializedLookup;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the codec for a class and generates it the first time the class is seen.
+     * @param cls the class.
+     * @return the codec or null if no codec can be generated for the class.
+     */
+    public IJsonCodec get(Class<?> cls){
+        if(!enabled) return null;
+
+        IJsonCodec codec = codecs.get(cls);
+        if(codec != null) return codec;
+        if(unsupported.contains(cls)) return null;
+
+        return generate(cls);
+    }
+
+    private IJsonCodec generate(Class<?> cls){
+        synchronized (GENERATION_LOCK) {
+            IJsonCodec codec = codecs.get(cls);
+            if (codec != null || unsupported.contains(cls)) return codec;
+
+            try {
+                codec = createCodec(cls);
+            }
+            catch (JavaCodeGenerationException | ClassAnalyzeException | ReflectiveOperationException | ClassCastException | LinkageError e) {
+                //The fallback mappers will handle this class
+                codec = null;
+            }
+
+            if (codec == null) unsupported.add(cls);
+            else codecs.put(cls, codec);
+
+            return codec;
+        }
+    }
+
+    private IJsonCodec createCodec(Class<?> cls) throws JavaCodeGenerationException, ClassAnalyzeException, ReflectiveOperationException {
+        if(!isPublicType(cls) || cls.isInterface() || cls.isEnum() || cls.isArray() || cls.getTypeParameters().length != 0) return null;
+
+        if(ToolProvider.getSystemJavaCompiler() == null){
+            //Running on a jre
+            enabled = false;
+            return null;
+        }
+
+        AnalyzedPropertyClass analyzedClass = analyzer.analyzeProperty(cls);
+
+        boolean canRead = !java.lang.reflect.Modifier.isAbstract(cls.getModifiers()) && hasPublicEmptyConstructor(cls);
+        List<Property> properties = new ArrayList<>();
+
+        for(Map.Entry<String, PropertyEntry> entry : analyzedClass.getFieldEntryMap().entrySet()){
+            PropertyEntry propertyEntry = entry.getValue();
+            Property property = new Property(entry.getKey(), propertyEntry.getPropertyType().getParameterizedType());
+
+            IClassPropertyGetter getter = propertyEntry.getGetter();
+            if(getter != null){
+                if(!isPublicMember(getter.member())) return null;
+                property.getter = getter.member();
+                property.getterType = memberType(getter.member(), false);
+            }
+
+            IClassPropertySetter setter = propertyEntry.getSetter();
+            if(setter != null){
+                property.setter = setter.member();
+                property.setterType = memberType(setter.member(), true);
+                if(!isPublicMember(setter.member()) || (!property.setterType.isPrimitive() && !isPublicType(property.setterType))) canRead = false;
+            }
+
+            properties.add(property);
+        }
+
+        File parentDirectory = JavaCode.createTmpDirectory(GENERATED_CLASSES_FOLDER_NAME);
+        final boolean _canRead = canRead;
+        Class<?> codecCls = JavaCode.createAndCompileClass(parentDirectory, CODEC_PACKAGE, codecName(cls), (g, name) -> generateCodec(g, name, cls, properties, _canRead));
+
+        //The generated class could resolve a different class with the same name if it is loaded by another classloader
+        if(codecCls.getField(TYPE_FIELD).get(null) != cls) return null;
+
+        AnalyzedParameterizedType[] types = new AnalyzedParameterizedType[properties.size()];
+        for(int i=0;i<types.length;i++) types[i] = properties.get(i).type;
+
+        return (IJsonCodec) codecCls.getConstructor(AnalyzedParameterizedType[].class).newInstance((Object) types);
+    }
+
+    //Classes with the same simple name in different packages must not share a codec name
+    private static String codecName(Class<?> cls){
+        return cls.getName().replace('.', '_').replace('$', '_') + "_JsonCodec";
+    }
+
+    private void generateCodec(JavaCodeGenerator g, String name, Class<?> cls, List<Property> properties, boolean canRead) throws JavaCodeGenerationException {
+        String clsName = cls.getCanonicalName();
+        String typesName = AnalyzedParameterizedType.class.getName() + "[]";
+
+        g.definePackage(CODEC_PACKAGE);
+        //Reading generic properties casts to their raw types
+        g.defineStatement("@SuppressWarnings(\"unchecked\")");
+        g.defineClass(name);
+        g.defineImplements(IJsonCodec.class);
+        g.startBlock();
+
+        g.defineMemberWithValue(TYPE_FIELD, "java.lang.Class<?>", clsName + ".class", Visibility.PUBLIC, Modifier.STATIC, Modifier.FINAL);
+        for(int i=0;i<properties.size();i++){
+            String encodedName = JsonWriter.class.getName() + ".encodeName(" + javaString(properties.get(i).name) + ")";
+            g.defineMemberWithValue("N" + i, "byte[]", encodedName, Visibility.PRIVATE, Modifier.STATIC, Modifier.FINAL);
+        }
+        g.defineMember("types", typesName, Visibility.PRIVATE, Modifier.FINAL);
+
+        g.defineConstructor(Visibility.PUBLIC, typesName);
+        g.startBlock();
+        g.defineStatement("this.types = v0;");
+        g.endBlock();
+
+        //Write
+        g.defineMethod("write", "void", new String[]{ JsonWriter.class.getName(), Object.class.getName(), PropertyObjectJsonWriter.class.getName() }, Visibility.PUBLIC);
+        g.defineThrowsDeclaration(ObjectMapException.class);
+        g.defineThrowsDeclaration(IOException.class);
+        g.startBlock();
+        g.defineVariableWithAssignment("e", clsName, "(" + clsName + ") v1");
+        g.defineStatement("v0.beginObject();");
+        for(int i=0;i<properties.size();i++){
+            Property property = properties.get(i);
+            if(property.getter == null) continue;
+
+            String access = "e." + property.getter.getName() + (property.getter instanceof Method ? "()" : "");
+
+            if(property.getterType.isPrimitive() && isDirectWriteType(property.getterType)){
+                g.defineStatement("v0.encodedName(N" + i + ");");
+                g.defineStatement("v0.value(" + access + ");");
+            }
+            else {
+                boolean direct = isDirectWriteType(property.getterType);
+                g.defineVariableWithAssignment("p" + i, direct ? property.getterType.getCanonicalName() : Object.class.getName(), access);
+                g.defineIfStatement("p" + i + " != null");
+                g.startBlock();
+                g.defineStatement("v0.encodedName(N" + i + ");");
+                if(direct) g.defineStatement("v0.value(p" + i + ");");
+                else g.defineStatement("v2.write(v0, p" + i + ", java.util.Collections.emptyMap());");
+                g.endBlock();
+            }
+        }
+        g.defineStatement("v0.endObject();");
+        g.endBlock();
+
+        //Can read
+        g.defineMethod("canRead", "boolean", new String[0], Visibility.PUBLIC);
+        g.startBlock();
+        g.defineStatement("return " + canRead + ";");
+        g.endBlock();
+
+        //Read
+        g.defineMethod("read", "java.lang.Object", new String[]{ JsonObjectNode.class.getName(), JsonNodePropertyObjectMapper.class.getName() }, Visibility.PUBLIC);
+        g.defineThrowsDeclaration(ObjectMapException.class);
+        g.startBlock();
+        if(!canRead){
+            g.defineStatement("throw new java.lang.UnsupportedOperationException(\"Codec for [" + clsName + "] cannot read!\");");
+        }
+        else {
+            g.defineVariableWithAssignment("e", clsName, "new " + clsName + "()");
+            g.defineVariable("n", JsonNode.class);
+            for(int i=0;i<properties.size();i++){
+                Property property = properties.get(i);
+                if(property.setter == null) continue;
+
+                g.defineStatement("n = v0.get(" + javaString(property.name) + ");");
+                g.defineIfStatement("n != null");
+                g.startBlock();
+                String value = readExpression(property, i);
+                if(property.setter instanceof Method) g.defineStatement("e." + property.setter.getName() + "(" + value + ");");
+                else g.defineStatement("e." + property.setter.getName() + " = " + value + ";");
+                g.endBlock();
+            }
+            g.defineStatement("return e;");
+        }
+        g.endBlock();
+
+        //Read from pull parser
+        g.defineMethod("read", "java.lang.Object", new String[]{ JsonReader.class.getName(), JsonNodePropertyObjectMapper.class.getName() }, Visibility.PUBLIC);
+        g.defineThrowsDeclaration(ObjectMapException.class);
+        g.defineThrowsDeclaration(JsonParseException.class);
+        g.startBlock();
+        if(!canRead){
+            g.defineStatement("throw new java.lang.UnsupportedOperationException(\"Codec for [" + clsName + "] cannot read!\");");
+        }
+        else {
+            g.defineVariableWithAssignment("e", clsName, "new " + clsName + "()");
+            g.defineVariable("k", String.class);
+            g.defineWhileStatement("v0.nextToken() != " + JsonToken.class.getName() + ".END_OBJECT");
+            g.startBlock();
+            g.defineStatement("k = v0.getString();");
+            boolean first = true;
+            for(int i=0;i<properties.size();i++){
+                Property property = properties.get(i);
+                if(property.setter == null) continue;
+
+                String condition = "k.equals(" + javaString(property.name) + ")";
+                if(first) g.defineIfStatement(condition);
+                else g.defineElseIfStatement(condition);
+                first = false;
+
+                g.startBlock();
+                String value = pullExpression(property, i);
+                if(property.setter instanceof Method) g.defineStatement("e." + property.setter.getName() + "(" + value + ");");
+                else g.defineStatement("e." + property.setter.getName() + " = " + value + ";");
+                g.endBlock();
+            }
+            if(first) {
+                g.defineStatement("v0.skipValue();");
+            }
+            else {
+                g.defineElseStatement();
+                g.startBlock();
+                g.defineStatement("v0.skipValue();");
+                g.endBlock();
+            }
+            g.endBlock();
+            g.defineStatement("return e;");
+        }
+        g.endBlock();
+
+        g.endBlock();
+    }
+
+    private String readExpression(Property property, int i){
+        Class<?> type = property.setterType;
+        String codecs = JsonCodecs.class.getName();
+
+        if(specializedLookup == null || specializedLookup.get(JsonNode.class, type) == null) {
+            if (type == String.class) {
+                return codecs + ".readString(n)";
+            }
+            else if (ValueUtils.isPrimitiveOrBoxed(type)) {
+                Class<?> primitiveType = ValueUtils.unwrapPrimitiveWrapper(type);
+                return "(" + boxedName(primitiveType) + ") " + codecs + ".readPrimitive(n, " + primitiveType.getName() + ".class, " + !type.isPrimitive() + ")";
+            }
+        }
+
+        return "(" + (type.isPrimitive() ? boxedName(type) : type.getCanonicalName()) + ") v1.read(n, this.types[" + i + "])";
+    }
+
+    private String pullExpression(Property property, int i){
+        Class<?> type = property.setterType;
+        String codecs = JsonCodecs.class.getName();
+
+        if(specializedLookup == null || specializedLookup.get(JsonNode.class, type) == null) {
+            if (type == String.class) {
+                return codecs + ".readString(v0)";
+            }
+            else if (ValueUtils.isPrimitiveOrBoxed(type)) {
+                Class<?> primitiveType = ValueUtils.unwrapPrimitiveWrapper(type);
+                return "(" + boxedName(primitiveType) + ") " + codecs + ".readPrimitive(v0, " + primitiveType.getName() + ".class, " + !type.isPrimitive() + ")";
+            }
+        }
+
+        return "(" + (type.isPrimitive() ? boxedName(type) : type.getCanonicalName()) + ") v1.read(v0, this.types[" + i + "])";
+    }
+
+    private boolean isDirectWriteType(Class<?> type){
+        if(type != String.class && !ValueUtils.isPrimitiveOrBoxed(type)) return false;
+        return specializedLookup == null || specializedLookup.get(type, JsonNode.class) == null;
+    }
+
+    /**
+     * Reads a primitive value for generated codecs.
+     * @param nullable if null should be kept instead of the default value of the primitive, for boxed types.
+     */
+    public static Object readPrimitive(JsonNode node, Class<?> primitiveCls, boolean nullable) throws ObjectMapException {
+        if(node instanceof JsonValueNode valueNode){
+            Object value = valueNode.get();
+            if(value == null && nullable) return null;
+            return ValueUtils.parsePrimitive(value, primitiveCls);
+        }
+
+        throw new ObjectMapException("Content [" + node + "] cannot be parsed to primitive value [" + primitiveCls.getName() + "]!");
+    }
+
+    /**
+     * Reads a string value for generated codecs.
+     */
+    public static String readString(JsonNode node) throws ObjectMapException {
+        if(node instanceof JsonValueNode valueNode){
+            return valueNode.get() == null ? null : valueNode.value();
+        }
+
+        throw new ObjectMapException("Content [" + node + "] cannot be parsed to String!");
+    }
+
+    /**
+     * Reads the next value of the pull parser as primitive value for generated codecs.
+     * @param nullable if null should be kept instead of the default value of the primitive, for boxed types.
+     */
+    public static Object readPrimitive(JsonReader reader, Class<?> primitiveCls, boolean nullable) throws ObjectMapException, JsonParseException {
+        JsonToken token = reader.nextToken();
+        if(token == JsonToken.NULL && nullable) return null;
+        if(isValueToken(token)) return ValueUtils.parsePrimitive(reader.getValue(), primitiveCls);
+
+        throw new ObjectMapException("Content [" + token + "] cannot be parsed to primitive value [" + primitiveCls.getName() + "]!");
+    }
+
+    /**
+     * Reads the next value of the pull parser as string for generated codecs.
+     */
+    public static String readString(JsonReader reader) throws ObjectMapException, JsonParseException {
+        JsonToken token = reader.nextToken();
+        if(isValueToken(token)) return reader.getString();
+
+        throw new ObjectMapException("Content [" + token + "] cannot be parsed to String!");
+    }
+
+    private static boolean isValueToken(JsonToken token){
+        return token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN || token == JsonToken.NULL;
+    }
+
+    private static boolean isPublicType(Class<?> cls){
+        if(cls.isArray()) return isPublicType(cls.getComponentType());
+        if(cls.isPrimitive()) return true;
+        if(!java.lang.reflect.Modifier.isPublic(cls.getModifiers()) || cls.getCanonicalName() == null) return false;
+
+        Class<?> enclosing = cls.getEnclosingClass();
+        if(enclosing == null) return true;
+        return java.lang.reflect.Modifier.isStatic(cls.getModifiers()) && isPublicType(enclosing);
+    }
+
+    private static boolean isPublicMember(Member member){
+        return java.lang.reflect.Modifier.isPublic(member.getModifiers()) && isPublicType(member.getDeclaringClass());
+    }
+
+    private static boolean hasPublicEmptyConstructor(Class<?> cls){
+        try {
+            return java.lang.reflect.Modifier.isPublic(cls.getConstructor().getModifiers());
+        }
+        catch (NoSuchMethodException e){
+            return false;
+        }
+    }
+
+    private static Class<?> memberType(Member member, boolean setter){
+        if(member instanceof Field field) return field.getType();
+        Method method = (Method) member;
+        return setter ? method.getParameterTypes()[0] : method.getReturnType();
+    }
+
+    private static String boxedName(Class<?> primitiveType){
+        if(primitiveType == Boolean.TYPE) return Boolean.class.getName();
+        if(primitiveType == Byte.TYPE) return Byte.class.getName();
+        if(primitiveType == Character.TYPE) return Character.class.getName();
+        if(primitiveType == Short.TYPE) return Short.class.getName();
+        if(primitiveType == Integer.TYPE) return Integer.class.getName();
+        if(primitiveType == Long.TYPE) return Long.class.getName();
+        if(primitiveType == Float.TYPE) return Float.class.getName();
+        if(primitiveType == Double.TYPE) return Double.class.getName();
+
+        throw new IllegalStateException("INVALID STATE: There should be no other primitive values! [" + primitiveType + "]");
+    }
+
+    private static String javaString(String s){
+        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+}
@@ -1,13 +1,12 @@
 package com.programm.plugz.object.mapper.property;
 
 import com.programm.plugz.cls.analyzer.*;
-import com.programm.plugz.files.json.JsonArrayNode;
-import com.programm.plugz.files.json.JsonNode;
-import com.programm.plugz.files.json.JsonObjectNode;
-import com.programm.plugz.files.json.JsonValueNode;
+import com.programm.plugz.files.json.*;
 import com.programm.plugz.object.mapper.IObjectMapper;
 import com.programm.plugz.object.mapper.ISpecializedObjectMapperLookup;
 import com.programm.plugz.object.mapper.ObjectMapException;
+import com.programm.plugz.object.mapper.codec.IJsonCodec;
+import com.programm.plugz.object.mapper.codec.JsonCodecs;
 import com.programm.plugz.object.mapper.utils.ValueUtils;
 
 import java.lang.reflect.Array;
@@ -20,14 +19,23 @@ public class JsonNodePropertyObjectMapper implements IObjectMapper<JsonNode, Obj
 
     private final ClassAnalyzer analyzer;
     private final ISpecializedObjectMapperLookup specializedLookup;
+    private final JsonCodecs codecs;
 
     public JsonNodePropertyObjectMapper(ISpecializedObjectMapperLookup specializedLookup) {
         this(new ClassAnalyzer(true, true, true), specializedLookup);
     }
 
     public JsonNodePropertyObjectMapper(ClassAnalyzer analyzer, ISpecializedObjectMapperLookup specializedLookup) {
+        this(analyzer, specializedLookup, null);
+    }
+
+    /**
+     * @param codecs the generated codecs to use for plain objects or null to always use reflection.
+     */
+    public JsonNodePropertyObjectMapper(ClassAnalyzer analyzer, ISpecializedObjectMapperLookup specializedLookup, JsonCodecs codecs) {
         this.analyzer = analyzer;
         this.specializedLookup = specializedLookup;
+        this.codecs = codecs;
     }
 
     @Override
@@ -50,7 +58,7 @@ public class JsonNodePropertyObjectMapper implements IObjectMapper<JsonNode, Obj
         }
         else if(cls == String.class){
             if(node instanceof JsonValueNode valueNode) {
-                return valueNode.value();
+                return valueNode.get() == null ? null : valueNode.value();
             }
 
             throw new ObjectMapException("Content [" + node + "] cannot be parsed to String!");
@@ -132,6 +140,9 @@ public class JsonNodePropertyObjectMapper implements IObjectMapper<JsonNode, Obj
             throw new ObjectMapException("Content [" + node + "] is not an map!");
         }
         else if(node instanceof JsonObjectNode objectNode) {
+            IJsonCodec codec = codecs == null ? null : codecs.get(cls);
+            if(codec != null && codec.canRead()) return codec.read(objectNode, this);
+
             AnalyzedPropertyClass analyzedClass;
             try {
                 analyzedClass = analyzer.analyzeProperty(cls, parameterizedTypes);
@@ -168,6 +179,13 @@ public class JsonNodePropertyObjectMapper implements IObjectMapper<JsonNode, Obj
         }
     }
 
+    /**
+     * Reads a node as the analyzed type of a property.
+     */
+    public Object read(JsonNode node, AnalyzedParameterizedType analyzedType) throws ObjectMapException {
+        return readObject(node, analyzedType);
+    }
+
     private Object readObject(JsonNode node, AnalyzedParameterizedType analyzedType) throws ObjectMapException {
         Class<?> cls = analyzedType.getType();
 
@@ -185,7 +203,7 @@ public class JsonNodePropertyObjectMapper implements IObjectMapper<JsonNode, Obj
         }
         else if(cls == String.class){
             if(node instanceof JsonValueNode valueNode) {
-                return valueNode.value();
+                return valueNode.get() == null ? null : valueNode.value();
             }
 
             throw new ObjectMapException("Content [" + node + "] cannot be parsed to String!");
@@ -261,6 +279,9 @@ public class JsonNodePropertyObjectMapper implements IObjectMapper<JsonNode, Obj
             throw new ObjectMapException("Content [" + node + "] is not an map!");
         }
         else if(node instanceof JsonObjectNode objectNode) {
+            IJsonCodec codec = codecs == null ? null : codecs.get(cls);
+            if(codec != null && codec.canRead()) return codec.read(objectNode, this);
+
             AnalyzedPropertyClass analyzedClass;
             try {
                 analyzedClass = analyzer.analyzeProperty(cls, analyzedType.getParameterizedTypeMap());
@@ -297,6 +318,66 @@ public class JsonNodePropertyObjectMapper implements IObjectMapper<JsonNode, Obj
         }
     }
 
+    /**
+     * Reads the next value of a pull parser.
+     * Objects of classes with a generated codec are read directly from the parser, any other value is read as node tree first.
+     */
+    public Object read(JsonReader reader, Class<?> cls) throws ObjectMapException, JsonParseException {
+        JsonToken token = reader.nextToken();
+
+        if(token == JsonToken.BEGIN_OBJECT){
+            IJsonCodec codec = readingCodec(cls);
+            if(codec != null) return codec.read(reader, this);
+        }
+
+        return read(reader.currentTree(), cls);
+    }
+
+    /**
+     * Reads the next value of a pull parser as the analyzed type of a property.
+     * Lists and sets are read element by element so nested objects with a generated codec are read directly from the parser as well.
+     */
+    public Object read(JsonReader reader, AnalyzedParameterizedType analyzedType) throws ObjectMapException, JsonParseException {
+        return readCurrent(reader, reader.nextToken(), analyzedType);
+    }
+
+    private Object readCurrent(JsonReader reader, JsonToken token, AnalyzedParameterizedType analyzedType) throws ObjectMapException, JsonParseException {
+        Class<?> cls = analyzedType.getType();
+
+        if(token == JsonToken.BEGIN_OBJECT){
+            IJsonCodec codec = readingCodec(cls);
+            if(codec != null) return codec.read(reader, this);
+        }
+        else if(token == JsonToken.BEGIN_ARRAY && !hasSpecializedReader(cls)){
+            AnalyzedParameterizedType contentType = analyzedType.getParameterizedType("E");
+            Collection<Object> collection = null;
+            if(List.class.isAssignableFrom(cls)) collection = new ArrayList<>();
+            else if(Set.class.isAssignableFrom(cls)) collection = new HashSet<>();
+
+            if(collection != null && contentType != null){
+                for(JsonToken next = reader.nextToken(); next != JsonToken.END_ARRAY; next = reader.nextToken()){
+                    collection.add(readCurrent(reader, next, contentType));
+                }
+
+                return collection;
+            }
+        }
+
+        return readObject(reader.currentTree(), analyzedType);
+    }
+
+    private IJsonCodec readingCodec(Class<?> cls){
+        if(codecs == null || hasSpecializedReader(cls)) return null;
+        if(ValueUtils.isPrimitiveOrBoxed(cls) || cls == String.class || cls.isArray() || Collection.class.isAssignableFrom(cls) || Map.class.isAssignableFrom(cls)) return null;
+
+        IJsonCodec codec = codecs.get(cls);
+        return codec != null && codec.canRead() ? codec : null;
+    }
+
+    private boolean hasSpecializedReader(Class<?> cls){
+        return specializedLookup != null && specializedLookup.get(JsonNode.class, cls) != null;
+    }
+
     private JsonNode getNodeForAnalyzedFieldName(String name, JsonObjectNode objectNode){
         //TODO better comparing so a little bit of room exists to play around
         return objectNode.get(name);
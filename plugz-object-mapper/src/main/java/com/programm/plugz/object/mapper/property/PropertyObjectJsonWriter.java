@@ -0,0 +1,145 @@
+package com.programm.plugz.object.mapper.property;
+
+import com.programm.plugz.cls.analyzer.*;
+import com.programm.plugz.files.json.JsonNode;
+import com.programm.plugz.files.json.JsonWriter;
+import com.programm.plugz.object.mapper.IObjectMapper;
+import com.programm.plugz.object.mapper.ISpecializedObjectMapperLookup;
+import com.programm.plugz.object.mapper.ObjectMapException;
+import com.programm.plugz.object.mapper.codec.IJsonCodec;
+import com.programm.plugz.object.mapper.codec.JsonCodecs;
+import com.programm.plugz.object.mapper.utils.ValueUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming counterpart of the {@link PropertyObjectJsonNodeMapper}.
+ * Walks the properties of an object and writes them as json directly to an output stream without building a {@link JsonNode} tree.
+ * Only values of types with a specialized mapper are turned into a node tree, which is then written to the stream.
+ */
+public class PropertyObjectJsonWriter {
+
+    private final ClassAnalyzer analyzer;
+    private final ISpecializedObjectMapperLookup specializedLookup;
+    private final JsonCodecs codecs;
+    private final int bufferSize;
+    private final Map<String, byte[]> encodedNames = new ConcurrentHashMap<>();
+
+    public PropertyObjectJsonWriter(ClassAnalyzer analyzer, ISpecializedObjectMapperLookup specializedLookup, int bufferSize) {
+        this(analyzer, specializedLookup, null, bufferSize);
+    }
+
+    /**
+     * @param codecs the generated codecs to use for plain objects or null to always use reflection.
+     */
+    public PropertyObjectJsonWriter(ClassAnalyzer analyzer, ISpecializedObjectMapperLookup specializedLookup, JsonCodecs codecs, int bufferSize) {
+        this.analyzer = analyzer;
+        this.specializedLookup = specializedLookup;
+        this.codecs = codecs;
+        this.bufferSize = bufferSize;
+    }
+
+    public void write(Object entity, OutputStream out) throws ObjectMapException, IOException {
+        if(entity == null) throw new ObjectMapException("Cannot map null elements!");
+
+        JsonWriter writer = new JsonWriter(out, bufferSize);
+        write(writer, entity, Collections.emptyMap());
+        writer.flush();
+    }
+
+    public void write(JsonWriter writer, Object entity, Map<String, AnalyzedParameterizedType> parameterizedTypes) throws ObjectMapException, IOException {
+        Class<?> cls = entity.getClass();
+
+        if(specializedLookup != null) {
+            IObjectMapper<?, JsonNode> mapper = specializedLookup.get(cls, JsonNode.class);
+            if (mapper != null) {
+                writer.node(mapper._read(entity, JsonNode.class));
+                return;
+            }
+        }
+
+        if(cls == String.class || ValueUtils.isPrimitiveOrBoxed(cls)){
+            writer.value(entity);
+        }
+        else if(cls.isArray()){
+            writer.beginArray();
+            if(cls.getComponentType().isPrimitive()){
+                writePrimitiveArray(writer, entity);
+            }
+            else {
+                for (Object e : (Object[]) entity) {
+                    if (e == null) continue;
+                    write(writer, e, Collections.emptyMap());
+                }
+            }
+            writer.endArray();
+        }
+        else if(Collection.class.isAssignableFrom(cls)){
+            writer.beginArray();
+            for(Object e : (Collection<?>) entity){
+                if(e == null) continue;
+                write(writer, e, Collections.emptyMap());
+            }
+            writer.endArray();
+        }
+        else if(Map.class.isAssignableFrom(cls)){
+            writer.beginObject();
+            for(Map.Entry<?, ?> entry : ((Map<?, ?>) entity).entrySet()){
+                Object value = entry.getValue();
+                if(value == null) continue;
+                writer.name(entry.getKey().toString());
+                write(writer, value, Collections.emptyMap());
+            }
+            writer.endObject();
+        }
+        else {
+            IJsonCodec codec = codecs == null ? null : codecs.get(cls);
+            if(codec != null){
+                codec.write(writer, entity, this);
+                return;
+            }
+
+            AnalyzedPropertyClass analyzedClass;
+            try {
+                analyzedClass = analyzer.analyzeProperty(cls, parameterizedTypes);
+            } catch (ClassAnalyzeException e) {
+                throw new ObjectMapException("Failed to analyze class [" + cls.getName() + "]!", e);
+            }
+
+            writer.beginObject();
+            for(Map.Entry<String, PropertyEntry> entry : analyzedClass.getFieldEntryMap().entrySet()){
+                IClassPropertyGetter getter = entry.getValue().getGetter();
+                if(getter == null) continue;
+
+                Object entryValueInstance;
+                try {
+                    entryValueInstance = getter.get(entity);
+                }
+                catch (InvocationTargetException e){
+                    throw new ObjectMapException("Failed to get property from getter.", e);
+                }
+
+                if(entryValueInstance == null) continue;
+                writer.encodedName(encodedNames.computeIfAbsent(entry.getKey(), JsonWriter::encodeName));
+                write(writer, entryValueInstance, Collections.emptyMap());
+            }
+            writer.endObject();
+        }
+    }
+
+    private void writePrimitiveArray(JsonWriter writer, Object array) throws IOException {
+        if(array instanceof int[] arr) for(int v : arr) writer.value(v);
+        else if(array instanceof long[] arr) for(long v : arr) writer.value(v);
+        else if(array instanceof double[] arr) for(double v : arr) writer.value(v);
+        else if(array instanceof float[] arr) for(float v : arr) writer.value(v);
+        else if(array instanceof boolean[] arr) for(boolean v : arr) writer.value(v);
+        else if(array instanceof byte[] arr) for(byte v : arr) writer.value(v);
+        else if(array instanceof short[] arr) for(short v : arr) writer.value(v);
+        else if(array instanceof char[] arr) for(char v : arr) writer.value(v);
+    }
+
+}
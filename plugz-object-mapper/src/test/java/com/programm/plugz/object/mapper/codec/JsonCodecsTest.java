@@ -0,0 +1,109 @@
+package com.programm.plugz.object.mapper.codec;
+
+import com.programm.plugz.cls.analyzer.ClassAnalyzer;
+import com.programm.plugz.files.json.JsonBuilder;
+import com.programm.plugz.files.json.JsonParseException;
+import com.programm.plugz.files.json.JsonReader;
+import com.programm.plugz.files.json.JsonToken;
+import com.programm.plugz.object.mapper.ObjectMapException;
+import com.programm.plugz.object.mapper.codec.first.Item;
+import com.programm.plugz.object.mapper.property.JsonNodePropertyObjectMapper;
+import com.programm.plugz.object.mapper.property.PropertyObjectJsonWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonCodecsTest {
+
+    private static final String ORDER_JSON = "{\"id\":7,\"amount\":null,\"price\":2.5,\"note\":\"a \\\"note\\\"\",\"unknown\":{\"x\":[1,2]},"
+            + "\"items\":[{\"name\":\"first\"},{\"name\":\"second\"}],\"parent\":{\"id\":3,\"amount\":4}}";
+
+    //Same analyzer setup as the webserver content handler
+    private final ClassAnalyzer analyzer = new ClassAnalyzer(true, false, false);
+    private final JsonCodecs codecs = new JsonCodecs(analyzer, null);
+    private final JsonNodePropertyObjectMapper reader = new JsonNodePropertyObjectMapper(analyzer, null, codecs);
+
+    @Test
+    @DisplayName("Json-Codecs [Classes with the same simple name]")
+    public void testSameSimpleName() {
+        IJsonCodec first = codecs.get(Item.class);
+        IJsonCodec second = codecs.get(com.programm.plugz.object.mapper.codec.second.Item.class);
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotSame(first.getClass(), second.getClass());
+        assertTrue(first.getClass().getSimpleName().contains("codec_first_Item"));
+        assertTrue(second.getClass().getSimpleName().contains("codec_second_Item"));
+    }
+
+    @Test
+    @DisplayName("Json-Codecs [Read from pull parser]")
+    public void testReadFromReader() throws ObjectMapException, JsonParseException {
+        IJsonCodec codec = codecs.get(Order.class);
+        assertNotNull(codec);
+        assertTrue(codec.canRead());
+
+        JsonReader jsonReader = new JsonReader(ORDER_JSON);
+        Order order = (Order) reader.read(jsonReader, Order.class);
+
+        assertEquals(JsonToken.END_DOCUMENT, jsonReader.nextToken());
+        assertOrder(order);
+    }
+
+    @Test
+    @DisplayName("Json-Codecs [Pull parser and node tree read the same]")
+    public void testReadFromNode() throws ObjectMapException, JsonParseException {
+        Order order = (Order) reader.read(JsonBuilder.fromString(ORDER_JSON), Order.class);
+        assertOrder(order);
+    }
+
+    @Test
+    @DisplayName("Json-Codecs [Write and read again]")
+    public void testRoundTrip() throws ObjectMapException, JsonParseException, IOException {
+        Item item = new Item();
+        item.setName("\u00E4\u20AC");
+        Order order = new Order();
+        order.setId(Long.MAX_VALUE);
+        order.setPrice(0.1);
+        order.setItems(List.of(item));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new PropertyObjectJsonWriter(analyzer, null, codecs, 64).write(order, out);
+
+        Order read = (Order) reader.read(new JsonReader(out.toByteArray()), Order.class);
+        assertEquals(Long.MAX_VALUE, read.getId());
+        assertNull(read.getAmount());
+        assertEquals(0.1, read.getPrice());
+        assertNull(read.getNote());
+        assertEquals(1, read.getItems().size());
+        assertEquals("\u00E4\u20AC", read.getItems().get(0).getName());
+        assertNull(read.getParent());
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("{"));
+    }
+
+    @Test
+    @DisplayName("Json-Codecs [Invalid values]")
+    public void testInvalidValues() {
+        assertThrows(ObjectMapException.class, () -> reader.read(new JsonReader("{\"note\":[1]}"), Order.class));
+        assertThrows(JsonParseException.class, () -> reader.read(new JsonReader("{\"note\":\"a\""), Order.class));
+    }
+
+    private static void assertOrder(Order order){
+        assertEquals(7, order.getId());
+        assertNull(order.getAmount());
+        assertEquals(2.5, order.getPrice());
+        assertEquals("a \"note\"", order.getNote());
+        assertEquals(2, order.getItems().size());
+        assertEquals("first", order.getItems().get(0).getName());
+        assertEquals("second", order.getItems().get(1).getName());
+        assertEquals(3, order.getParent().getId());
+        assertEquals(Integer.valueOf(4), order.getParent().getAmount());
+        assertNull(order.getParent().getItems());
+    }
+}
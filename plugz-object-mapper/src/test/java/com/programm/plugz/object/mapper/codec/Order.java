@@ -0,0 +1,63 @@
+package com.programm.plugz.object.mapper.codec;
+
+import com.programm.plugz.object.mapper.codec.first.Item;
+
+import java.util.List;
+
+public class Order {
+
+    private long id;
+    private Integer amount;
+    private double price;
+    private String note;
+    private List<Item> items;
+    private Order parent;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public Integer getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Integer amount) {
+        this.amount = amount;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public void setNote(String note) {
+        this.note = note;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    public Order getParent() {
+        return parent;
+    }
+
+    public void setParent(Order parent) {
+        this.parent = parent;
+    }
+}
@@ -0,0 +1,14 @@
+package com.programm.plugz.object.mapper.codec.first;
+
+public class Item {
+
+    private String name;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,14 @@
+package com.programm.plugz.persist.aqua;
+
+/**
+ * The condition of a query compiled by the {@link AquaQueryCompiler}.
+ * Columns and variables are already resolved to their indexes so testing a row does not look up any names.
+ */
+public interface AquaCondition {
+
+    /**
+     * @param args the arguments of the query method.
+     */
+    boolean test(AquaRow row, Object[] args);
+
+}
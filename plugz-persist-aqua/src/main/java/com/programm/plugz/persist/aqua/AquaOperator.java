@@ -0,0 +1,173 @@
+package com.programm.plugz.persist.aqua;
+
+/**
+ * The comparison operators of the aqua query language.
+ * Values are compared leniently: numbers of different types and characters are compared by their value (as floats if one of them is a float),
+ * enums are compared as the constant of their name and null is only equal to null.
+ * The second value is always converted by {@link #operand(Object, Class)} before it is compared with the first one.
+ */
+enum AquaOperator {
+
+    EQ("=") {
+        @Override
+        protected boolean test(Object a, Object b) {
+            return equal(a, b);
+        }
+    },
+    NE("!=") {
+        @Override
+        protected boolean test(Object a, Object b) {
+            return !equal(a, b);
+        }
+    },
+    LT("<") {
+        @Override
+        protected boolean test(Object a, Object b) {
+            return comparable(a, b) && compare(a, b) < 0;
+        }
+    },
+    LE("<=") {
+        @Override
+        protected boolean test(Object a, Object b) {
+            return comparable(a, b) && compare(a, b) <= 0;
+        }
+    },
+    GT(">") {
+        @Override
+        protected boolean test(Object a, Object b) {
+            return comparable(a, b) && compare(a, b) > 0;
+        }
+    },
+    GE(">=") {
+        @Override
+        protected boolean test(Object a, Object b) {
+            return comparable(a, b) && compare(a, b) >= 0;
+        }
+    };
+
+    public final String symbol;
+
+    AquaOperator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Tests the operator on the values, after the second value was converted to the type of the first one.
+     */
+    protected abstract boolean test(Object a, Object b);
+
+    public boolean matches(Object a, Object b){
+        if(a != null && b != null) b = operand(b, typeOf(a));
+        return test(a, b);
+    }
+
+    /**
+     * @return the operator or null if there is no operator with the symbol.
+     */
+    public static AquaOperator of(String symbol){
+        for(AquaOperator op : values()){
+            if(op.symbol.equals(symbol)) return op;
+        }
+        return null;
+    }
+
+    /**
+     * @return the operator matching the same values if the operands are swapped.
+     */
+    public AquaOperator flip(){
+        return switch (this) {
+            case LT -> GT;
+            case LE -> GE;
+            case GT -> LT;
+            case GE -> LE;
+            default -> this;
+        };
+    }
+
+    public boolean isRange(){
+        return this != EQ && this != NE;
+    }
+
+    /**
+     * Marks a value which is never equal to or comparable with values of a type.
+     */
+    static final Object NO_MATCH = new Object();
+
+    /**
+     * Converts a value into the value it is compared as with values of the type.
+     * Memory columns convert the values of queries with it before they are looked up in an index,
+     * so an index matches the same values as testing each of them with the operator.
+     * @return the converted value or {@link #NO_MATCH} if the value can not be compared with values of the type.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object operand(Object value, Class<?> type){
+        if(value == null) return null;
+
+        if(isNumericType(type)){
+            if(value instanceof Character c) return (int) c;
+            return value instanceof Number ? value : NO_MATCH;
+        }
+        else if(type.isEnum()){
+            if(type.isInstance(value)) return value;
+            if(!(value instanceof String s)) return NO_MATCH;
+            try {
+                return Enum.valueOf((Class<? extends Enum>) type, s);
+            }
+            catch (IllegalArgumentException e){
+                return NO_MATCH;
+            }
+        }
+        else if(type == String.class && value instanceof Enum<?> e){
+            return e.name();
+        }
+
+        return value;
+    }
+
+    private static boolean isNumericType(Class<?> type){
+        if(type.isPrimitive()) return type != Boolean.TYPE && type != Void.TYPE;
+        return Number.class.isAssignableFrom(type) || type == Character.class;
+    }
+
+    private static Class<?> typeOf(Object o){
+        //Constants of enums with bodies are instances of subclasses of the enum
+        return o instanceof Enum<?> e ? e.getDeclaringClass() : o.getClass();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compare(Object a, Object b){
+        if(a instanceof Character c) a = (int) c;
+        if(b instanceof Character c) b = (int) c;
+
+        if(a instanceof Number na && b instanceof Number nb){
+            if(isIntegral(na) && isIntegral(nb)) return Long.compare(na.longValue(), nb.longValue());
+            //Float values are only as precise as a float, so 0.1f is equal to 0.1
+            if(na instanceof Float || nb instanceof Float) return Float.compare(na.floatValue(), nb.floatValue());
+            return Double.compare(na.doubleValue(), nb.doubleValue());
+        }
+
+        return ((Comparable) a).compareTo(b);
+    }
+
+    private static boolean isIntegral(Number n){
+        return n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte;
+    }
+
+    private static boolean equal(Object a, Object b){
+        if(a == null || b == null) return a == b;
+        if(b == NO_MATCH) return false;
+        if(isNumeric(a) && isNumeric(b)) return compare(a, b) == 0;
+        return a.equals(b);
+    }
+
+    private static boolean comparable(Object a, Object b){
+        if(a == null || b == null || b == NO_MATCH) return false;
+        if(isNumeric(a) && isNumeric(b)) return true;
+        return a instanceof Comparable && typeOf(a) == typeOf(b);
+    }
+
+    private static boolean isNumeric(Object o){
+        return o instanceof Number || o instanceof Character;
+    }
+
+}
@@ -17,6 +17,9 @@ person.find(*, (name = 'Artur' & age > 10) | id < 3)    -> find all entries wher
 
 person.find(*, name = ''Ar.*'')                         -> find all entries where name matches the pattern Ar.* (-> Arthur, Arima, Ar...)
 
+person.delete(id = 1)                                   -> delete all entries where id equals 1
+person.delete()                                         -> delete all entries
+
 
 
 
@@ -80,6 +83,9 @@ class AquaQueryBuilder {
         if(methodName.equals("find")){
             return createFindTerm(s, pos, tableName);
         }
+        else if(methodName.equals("delete")){
+            return createDeleteTerm(s, pos, tableName);
+        }
 
         throw new PersistQueryBuildException("Invalid Term: Unknown Method name [" + methodName + "]");
     }
@@ -102,6 +108,18 @@ class AquaQueryBuilder {
         return new QueryExecutionInfo(tableName, "find", selections, conditionTerm);
     }
 
+    private QueryExecutionInfo createDeleteTerm(String s, Index pos, String tableName) throws PersistQueryBuildException {
+        pos.i++;
+        QueryTerm conditionTerm = null;
+
+        pos.advanceWhitespace(s);
+        if(!s.startsWith(")", pos.i)) {
+            conditionTerm = createConditionTerm(s, pos);
+        }
+
+        return new QueryExecutionInfo(tableName, "delete", null, conditionTerm);
+    }
+
     private List<String> createSelections(String s, Index pos) throws PersistQueryBuildException {
         if(s.startsWith("*", pos.i)){
             pos.i++;
@@ -155,8 +173,8 @@ class AquaQueryBuilder {
         if(nextOp != -1){
             String op = "" + s.charAt(nextOp);
 
-            QueryTerm left = parseBasicTerm(s, start, nextOp);
-            QueryTerm right = parseBasicTerm(s, nextOp + op.length(), end);
+            QueryTerm left = createConditionTerm(s, start, nextOp);
+            QueryTerm right = createConditionTerm(s, nextOp + op.length(), end);
 
             return new QueryTerm.ConnectionTerm(op, left, right);
         }
@@ -170,14 +188,14 @@ class AquaQueryBuilder {
             int opPos = -1;
             String op = null;
             for(int i=start;i<end;i++){
-                if(s.startsWith("=", i) || s.startsWith(">", i) || s.startsWith("<", i)){
+                if(s.startsWith("!=", i) || s.startsWith(">=", i) || s.startsWith("<=", i)){
                     opPos = i;
-                    op = s.substring(i, i + 1);
+                    op = s.substring(i, i + 2);
                     break;
                 }
-                else if(s.startsWith("!=", i) || s.startsWith(">=", i) || s.startsWith("<=", i)){
+                else if(s.startsWith("=", i) || s.startsWith(">", i) || s.startsWith("<", i)){
                     opPos = i;
-                    op = s.substring(i, i + 2);
+                    op = s.substring(i, i + 1);
                     break;
                 }
             }
@@ -231,8 +249,12 @@ class AquaQueryBuilder {
         return new QueryTerm.ColumnNameTerm(value);
     }
 
+    /**
+     * Finds the connection to split the term at. An '|' is preferred over an '&' so '&' binds stronger.
+     */
     private int findNextConnectionOpOutsideBrackets(String s, int start, int end) throws PersistQueryBuildException {
         int openBrackets = 0;
+        int firstAnd = -1;
 
         for(int i=start;i<end;i++){
             char c = s.charAt(i);
@@ -243,13 +265,16 @@ class AquaQueryBuilder {
                 openBrackets--;
                 if(openBrackets < 0) throw new PersistQueryBuildException("Illegal closing bracket ')' before opening bracket at index: [" + i + "].");
             }
-            else if(openBrackets == 0 && (c == '&' || c == '|')){
+            else if(openBrackets == 0 && c == '|'){
                 return i;
             }
+            else if(openBrackets == 0 && c == '&' && firstAnd == -1){
+                firstAnd = i;
+            }
         }
 
         if(openBrackets != 0) throw new PersistQueryBuildException("Illegal open bracket/s without closing bracket/s after index: [" + start + "].");
-        return -1;
+        return firstAnd;
     }
 
 }
@@ -0,0 +1,246 @@
+package com.programm.plugz.persist.aqua;
+
+import com.programm.plugz.cls.analyzer.AnalyzedPropertyClass;
+import com.programm.plugz.persist.ex.PersistQueryBuildException;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles the condition of a parsed query into an {@link AquaCondition}.
+ * Column names are resolved to column indexes, variables to the index of the argument they are bound to,
+ * operators to {@link AquaOperator}s and regex values to {@link Pattern}s.
+ * Comparisons of constants are evaluated while compiling.
+ */
+class AquaQueryCompiler {
+
+    interface Operand {
+        Object value(AquaRow row, Object[] args);
+    }
+
+    @RequiredArgsConstructor
+    static final class ColumnOperand implements Operand {
+        public final int column;
+
+        @Override
+        public Object value(AquaRow row, Object[] args) {
+            return row.get(column);
+        }
+    }
+
+    @RequiredArgsConstructor
+    static final class ArgOperand implements Operand {
+        public final int slot;
+
+        @Override
+        public Object value(AquaRow row, Object[] args) {
+            return args[slot];
+        }
+    }
+
+    @RequiredArgsConstructor
+    static final class ConstOperand implements Operand {
+        public final Object value;
+
+        @Override
+        public Object value(AquaRow row, Object[] args) {
+            return value;
+        }
+    }
+
+    @RequiredArgsConstructor
+    static final class And implements AquaCondition {
+        public final AquaCondition left;
+        public final AquaCondition right;
+
+        @Override
+        public boolean test(AquaRow row, Object[] args) {
+            return left.test(row, args) && right.test(row, args);
+        }
+    }
+
+    @RequiredArgsConstructor
+    static final class Or implements AquaCondition {
+        public final AquaCondition left;
+        public final AquaCondition right;
+
+        @Override
+        public boolean test(AquaRow row, Object[] args) {
+            return left.test(row, args) || right.test(row, args);
+        }
+    }
+
+    /**
+     * Compares two operands. If any of the operands is a column, the left one is.
+     */
+    @RequiredArgsConstructor
+    static final class Compare implements AquaCondition {
+        public final AquaOperator op;
+        public final Operand left;
+        public final Operand right;
+
+        @Override
+        public boolean test(AquaRow row, Object[] args) {
+            return op.matches(left.value(row, args), right.value(row, args));
+        }
+    }
+
+    @RequiredArgsConstructor
+    static final class Match implements AquaCondition {
+        public final int column;
+        public final Pattern pattern;
+        public final boolean equal;
+
+        @Override
+        public boolean test(AquaRow row, Object[] args) {
+            Object value = row.get(column);
+            return value != null && pattern.matcher(value.toString()).matches() == equal;
+        }
+    }
+
+    @RequiredArgsConstructor
+    static final class Constant implements AquaCondition {
+        public final boolean value;
+
+        @Override
+        public boolean test(AquaRow row, Object[] args) {
+            return value;
+        }
+    }
+
+    /**
+     * @return the names of the columns of a table storing the entity in the order they are numbered.
+     */
+    public static List<String> columnNames(AnalyzedPropertyClass entityCls){
+        List<String> names = new ArrayList<>();
+        for(String fieldName : entityCls.getFieldEntryMap().keySet()){
+            names.add(fieldName.toLowerCase());
+        }
+        return names;
+    }
+
+    /**
+     * @param columns the names of the columns as returned by {@link #columnNames(AnalyzedPropertyClass)}.
+     * @param parameterNames the names of the parameters of the query method or null for parameters without a known name.
+     * @return the compiled condition or null if there is no condition.
+     */
+    public static AquaCondition compile(QueryTerm term, List<String> columns, String[] parameterNames) throws PersistQueryBuildException {
+        if(term == null) return null;
+        return new AquaQueryCompiler(columns, parameterNames).compileCondition(term);
+    }
+
+    private final List<String> columns;
+    private final String[] parameterNames;
+
+    private AquaQueryCompiler(List<String> columns, String[] parameterNames) {
+        this.columns = columns;
+        this.parameterNames = parameterNames;
+    }
+
+    private AquaCondition compileCondition(QueryTerm term) throws PersistQueryBuildException {
+        if(term instanceof QueryTerm.ConnectionTerm connection){
+            AquaCondition left = compileCondition(connection.left);
+            AquaCondition right = compileCondition(connection.right);
+
+            if(connection.connector.equals("&")){
+                if(left instanceof Constant c) return c.value ? right : c;
+                if(right instanceof Constant c) return c.value ? left : c;
+                return new And(left, right);
+            }
+            else if(connection.connector.equals("|")){
+                if(left instanceof Constant c) return c.value ? c : right;
+                if(right instanceof Constant c) return c.value ? c : left;
+                return new Or(left, right);
+            }
+
+            throw new PersistQueryBuildException("Unknown connector [" + connection.connector + "] in term [" + term + "]!");
+        }
+        else if(term instanceof QueryTerm.OperationTerm operation){
+            return compileOperation(operation);
+        }
+
+        throw new PersistQueryBuildException("Expected a condition but got [" + term + "]!");
+    }
+
+    private AquaCondition compileOperation(QueryTerm.OperationTerm term) throws PersistQueryBuildException {
+        AquaOperator op = AquaOperator.of(term.op);
+        if(op == null) throw new PersistQueryBuildException("Unknown operator [" + term.op + "] in term [" + term + "]!");
+
+        QueryTerm left = term.left;
+        QueryTerm right = term.right;
+
+        //Keep the column on the left side
+        if(!(left instanceof QueryTerm.ColumnNameTerm) && right instanceof QueryTerm.ColumnNameTerm){
+            left = term.right;
+            right = term.left;
+            op = op.flip();
+        }
+
+        if(right instanceof QueryTerm.ValueTerm valueTerm && valueTerm.regex){
+            if(op.isRange()) throw new PersistQueryBuildException("Patterns can only be compared with [=] or [!=] in term [" + term + "]!");
+            if(!(left instanceof QueryTerm.ColumnNameTerm columnName)) throw new PersistQueryBuildException("Patterns can only be matched against columns in term [" + term + "]!");
+
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(Objects.toString(valueTerm.value));
+            }
+            catch (PatternSyntaxException e){
+                throw new PersistQueryBuildException("Invalid pattern in term [" + term + "]!", e);
+            }
+
+            return new Match(column(columnName), pattern, op == AquaOperator.EQ);
+        }
+
+        Operand leftOperand = operand(left);
+        Operand rightOperand = operand(right);
+
+        if(leftOperand instanceof ConstOperand l && rightOperand instanceof ConstOperand r){
+            return new Constant(op.matches(l.value, r.value));
+        }
+
+        return new Compare(op, leftOperand, rightOperand);
+    }
+
+    private Operand operand(QueryTerm term) throws PersistQueryBuildException {
+        if(term instanceof QueryTerm.ColumnNameTerm columnName){
+            return new ColumnOperand(column(columnName));
+        }
+        else if(term instanceof QueryTerm.ValueTerm valueTerm){
+            return new ConstOperand(valueTerm.value);
+        }
+        else if(term instanceof QueryTerm.VarTerm varTerm){
+            return new ArgOperand(slot(varTerm));
+        }
+
+        throw new PersistQueryBuildException("Expected a value but got [" + term + "]!");
+    }
+
+    private int column(QueryTerm.ColumnNameTerm term) throws PersistQueryBuildException {
+        int column = columns.indexOf(term.name.toLowerCase());
+        if(column == -1) throw new PersistQueryBuildException("No column [" + term.name + "] found!");
+        return column;
+    }
+
+    private int slot(QueryTerm.VarTerm term) throws PersistQueryBuildException {
+        int slot = -1;
+        try {
+            slot = Integer.parseInt(term.name);
+        }
+        catch (NumberFormatException ignore){
+            for(int i=0;i<parameterNames.length;i++){
+                if(term.name.equals(parameterNames[i])){
+                    slot = i;
+                    break;
+                }
+            }
+        }
+
+        if(slot < 0 || slot >= parameterNames.length) throw new PersistQueryBuildException("No parameter for variable [" + term + "]!");
+        return slot;
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.programm.plugz.persist.aqua;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A query of a repository method together with its compiled condition.
+ */
+@RequiredArgsConstructor
+class AquaQueryPlan {
+
+    public final AquaQueryInfo info;
+    /** null if the query has no condition */
+    public final AquaCondition condition;
+
+}
@@ -3,6 +3,7 @@ package com.programm.plugz.persist.aqua;
 import com.programm.ioutils.log.api.ILogger;
 import com.programm.ioutils.log.api.Logger;
 import com.programm.plugz.api.auto.Get;
+import com.programm.plugz.api.utils.ValueUtils;
 import com.programm.plugz.cls.analyzer.AnalyzedParameterizedType;
 import com.programm.plugz.cls.analyzer.AnalyzedPropertyClass;
 import com.programm.plugz.cls.analyzer.ClassAnalyzeException;
@@ -18,6 +19,7 @@ import com.programm.plugz.persist.query.IParameterizedQuery;
 import com.programm.plugz.persist.query.IQuery;
 import lombok.RequiredArgsConstructor;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
@@ -41,18 +43,18 @@ public class AquaRepoHandler implements IRepoHandler {
     @RequiredArgsConstructor
     private class AquaQueryImpl implements IQuery {
         private final QueryExecutionInfo executionInfo;
+        private final AquaCondition condition;
 
         @Override
         public Object execute(Object... args) throws PersistQueryExecuteException {
-            return executeQuery(executionInfo, null, null, null, null, args);
+            return executeQuery(executionInfo, condition, null, null, null, null, args);
         }
     }
 
     private final ILogger log;
     private final ClassAnalyzer analyzer = new ClassAnalyzer(true, true, true);
     private final AquaQueryBuilder queryBuilder = new AquaQueryBuilder();
-    //TODO
-    private IAquaRepositoryConnection repoConnection = null;
+    private final IAquaRepositoryConnection repoConnection = new MemoryRepositoryConnection();
 
     public AquaRepoHandler(@Get ILogger log) {
         this.log = log;
@@ -61,31 +63,39 @@ public class AquaRepoHandler implements IRepoHandler {
     @Override
     public void startup(ClassAnalyzer analyzer, Map<Class<?>, PersistEntityInfo> infoMap) throws PersistStartupException {
         log.info("Starting up Aqua repo handler...");
-        //TODO ...
+
+        for(PersistEntityInfo entityInfo : infoMap.values()){
+            String tableName = getTableName(entityInfo.analyzedEntity);
+            try {
+                repoConnection.createTable(tableName, entityInfo.analyzedEntity);
+            }
+            catch (PersistQueryBuildException e){
+                throw new PersistStartupException("Failed to create table [" + tableName + "] for entity [" + entityInfo.entityClass + "].", e);
+            }
+        }
     }
 
     @Override
     public void shutdown() throws PersistShutdownException {
         log.debug("Shutting down current database connection...");
-        //TODO ...
+        repoConnection.close();
     }
 
     @Override
     public Object createRepoImplementation(Class<?> repoCls, PersistEntityInfo entityInfo, Map<Class<?>, PersistEntityInfo> infoMap) throws PersistQueryBuildException {
-        Map<String, AquaQueryInfo> methodToQueryMap = null;//analyzeClass(cls, analyzedEntityClass);
-        AquaRepoInvocationHandler invocationHandler = new AquaRepoInvocationHandler(methodToQueryMap, this);
+        Map<Method, AquaQueryInfo> methodToQueryMap = analyzeClass(repoCls, entityInfo.analyzedEntity);
+        List<String> columns = AquaQueryCompiler.columnNames(entityInfo.analyzedEntity);
+        AquaRepoInvocationHandler invocationHandler = new AquaRepoInvocationHandler(methodToQueryMap, columns, this);
         return Proxy.newProxyInstance(repoCls.getClassLoader(), new Class<?>[]{repoCls}, invocationHandler);
     }
 
-    private Map<String, AquaQueryInfo> analyzeClass(Class<?> cls, AnalyzedPropertyClass analyzedEntityClass) throws PersistQueryBuildException {
-        Map<String, AquaQueryInfo> methodToQueryMap = new HashMap<>();
+    private Map<Method, AquaQueryInfo> analyzeClass(Class<?> cls, AnalyzedPropertyClass analyzedEntityClass) throws PersistQueryBuildException {
+        Map<Method, AquaQueryInfo> methodToQueryMap = new HashMap<>();
 
         Method[] declaredMethods = cls.getDeclaredMethods();
         for(Method method : declaredMethods){
             AquaQueryInfo query = analyzeMethodForQuery(method, analyzedEntityClass);
-
-            String methodName = method.toString();
-            methodToQueryMap.put(methodName, query);
+            methodToQueryMap.put(method, query);
         }
 
         return methodToQueryMap;
@@ -98,7 +108,16 @@ public class AquaRepoHandler implements IRepoHandler {
             return analyzeCustomQuery(customQueryAnnotation.value(), method, analyzedEntityClass);
         }
 
-        if(name.startsWith("getAll")){
+        if(name.startsWith("save") || name.startsWith("insert")){
+            return createInsertQuery(method, analyzedEntityClass);
+        }
+        else if(name.startsWith("deleteAll")){
+            return analyzeCustomQuery("delete()", method, analyzedEntityClass);
+        }
+        else if(name.startsWith("deleteBy")){
+            return createDeleteQuery(name.substring("delete".length()), method, analyzedEntityClass);
+        }
+        else if(name.startsWith("getAll")){
             return createFindAllQuery(name.substring("getAll".length()), method, analyzedEntityClass);
         }
         else if(name.startsWith("findAll")){
@@ -116,6 +135,12 @@ public class AquaRepoHandler implements IRepoHandler {
     }
 
     private AquaQueryInfo analyzeCustomQuery(String _query, Method method, AnalyzedPropertyClass analyzedEntityClass) throws PersistQueryBuildException {
+        String fullQuery = getTableName(analyzedEntityClass) + "." + _query;
+        QueryExecutionInfo executionInfo = queryBuilder.parseQuery(fullQuery);
+        return createQueryInfo(executionInfo, method);
+    }
+
+    private AquaQueryInfo createQueryInfo(QueryExecutionInfo executionInfo, Method method) throws PersistQueryBuildException {
         Class<?> _returnType = method.getReturnType();
         Type _genericReturnType = method.getGenericReturnType();
         AnalyzedParameterizedType returnType;
@@ -161,9 +186,6 @@ public class AquaRepoHandler implements IRepoHandler {
             }
         }
 
-
-        String fullQuery = getTableName(analyzedEntityClass) + "." + _query;
-        QueryExecutionInfo executionInfo = queryBuilder.parseQuery(fullQuery);
         return new AquaQueryInfo(executionInfo, returnType, array, collection, parameterTypes);
     }
 
@@ -205,15 +227,40 @@ public class AquaRepoHandler implements IRepoHandler {
         else {
             String before = s.substring(0, indexOfBy);
             String[] andSplit = before.split("And");
+            query.append("{");
             for(int i=0;i<andSplit.length;i++){
                 if(i != 0) query.append(", ");
                 query.append(andSplit[i].toLowerCase());
             }
+            query.append("}");
         }
 
         query.append(", ");
+        appendConditions(query, s.substring(indexOfBy + "By".length()), analyzedEntityClass);
+        query.append(")");
+
+        return analyzeCustomQuery(query.toString(), method, analyzedEntityClass);
+    }
+
+    private AquaQueryInfo createDeleteQuery(String s, Method method, AnalyzedPropertyClass analyzedEntityClass) throws PersistQueryBuildException {
+        StringBuilder query = new StringBuilder("delete(");
+        appendConditions(query, s.substring("By".length()), analyzedEntityClass);
+        query.append(")");
+
+        AquaQueryInfo info = analyzeCustomQuery(query.toString(), method, analyzedEntityClass);
+        if(info.array || info.collection) throw new PersistQueryBuildException("[Delete] queries return the number of deleted entities and can not return an array or a collection!");
+        return info;
+    }
+
+    private AquaQueryInfo createInsertQuery(Method method, AnalyzedPropertyClass analyzedEntityClass) throws PersistQueryBuildException {
+        Class<?>[] parameters = method.getParameterTypes();
+        if(parameters.length != 1 || !parameters[0].isAssignableFrom(analyzedEntityClass.getType())) throw new PersistQueryBuildException("[Insert] query method [" + method + "] must take exactly one entity of type [" + analyzedEntityClass.getType() + "].");
 
-        String rest = s.substring(indexOfBy + "By".length());
+        QueryExecutionInfo executionInfo = new QueryExecutionInfo(getTableName(analyzedEntityClass), "insert", null, null);
+        return createQueryInfo(executionInfo, method);
+    }
+
+    private void appendConditions(StringBuilder query, String rest, AnalyzedPropertyClass analyzedEntityClass) throws PersistQueryBuildException {
         String[] andSplit = rest.split("And");
         for(int i=0;i<andSplit.length;i++){
             String paramName = andSplit[i].toLowerCase();
@@ -230,19 +277,39 @@ public class AquaRepoHandler implements IRepoHandler {
             if(i != 0) query.append(" & ");
             query.append(paramName).append(" = $").append(i);
         }
-
-        query.append(")");
-
-        return analyzeCustomQuery(query.toString(), method, analyzedEntityClass);
     }
 
     private String getTableName(AnalyzedPropertyClass entityCls){
         return entityCls.getType().getSimpleName().toLowerCase();
     }
 
-    public Object executeQuery(QueryExecutionInfo executionInfo, AnalyzedParameterizedType returnType, Boolean array, Boolean collection, List<AnalyzedParameterizedType> parameterTypes, Object[] args){
-        Object result = repoConnection.execute(executionInfo.tableName, executionInfo.method, executionInfo.selections, executionInfo.conditions);
+    public Object executeQuery(QueryExecutionInfo executionInfo, AquaCondition condition, AnalyzedParameterizedType returnType, Boolean array, Boolean collection, List<AnalyzedParameterizedType> parameterTypes, Object[] args){
+        Object result = repoConnection.execute(executionInfo.tableName, executionInfo.method, executionInfo.selections, condition, args);
+        if(returnType == null) return result;
+
+        Class<?> type = returnType.getType();
+        if(type == Void.TYPE) return null;
+
+        if(result instanceof List<?> list){
+            if(array != null && array){
+                Object arr = Array.newInstance(type.getComponentType(), list.size());
+                for(int i=0;i<list.size();i++){
+                    Array.set(arr, i, list.get(i));
+                }
+                return arr;
+            }
+            else if(collection != null && collection){
+                return Set.class.isAssignableFrom(type) ? new LinkedHashSet<>(list) : list;
+            }
+
+            result = list.isEmpty() ? null : list.get(0);
+        }
+
+        if(result instanceof Number n){
+            if(type == Long.TYPE || type == Long.class) return n.longValue();
+            if(type == Integer.TYPE || type == Integer.class) return n.intValue();
+        }
 
-        return result;
+        return result == null ? ValueUtils.getDefaultValue(type) : result;
     }
 }
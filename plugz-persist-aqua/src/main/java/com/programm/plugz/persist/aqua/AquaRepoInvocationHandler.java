@@ -1,39 +1,65 @@
 package com.programm.plugz.persist.aqua;
 
 import com.programm.plugz.persist.ex.PersistQueryBuildException;
-import lombok.RequiredArgsConstructor;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
-@RequiredArgsConstructor
+/**
+ * Executes the queries of a repository.
+ * The condition of every query is compiled once when the repository is created and cached by its method.
+ */
 public class AquaRepoInvocationHandler implements InvocationHandler {
 
-    private final Map<String, AquaQueryInfo> methodToQueryMap;
+    private final Map<Method, AquaQueryPlan> methodToPlanMap = new HashMap<>();
     private final AquaRepoHandler repoHandler;
 
+    /**
+     * @param columns the columns of the table of the entity as numbered by {@link AquaQueryCompiler#columnNames}.
+     */
+    AquaRepoInvocationHandler(Map<Method, AquaQueryInfo> methodToQueryMap, List<String> columns, AquaRepoHandler repoHandler) throws PersistQueryBuildException {
+        this.repoHandler = repoHandler;
+
+        for(Method method : methodToQueryMap.keySet()){
+            AquaQueryInfo query = methodToQueryMap.get(method);
+
+            Parameter[] parameters = method.getParameters();
+            String[] parameterNames = new String[parameters.length];
+            for(int i=0;i<parameters.length;i++){
+                if(parameters[i].isNamePresent()) parameterNames[i] = parameters[i].getName();
+            }
+
+            AquaCondition condition;
+            try {
+                condition = AquaQueryCompiler.compile(query.executionInfo.conditions, columns, parameterNames);
+            }
+            catch (PersistQueryBuildException e){
+                throw new PersistQueryBuildException("Failed to compile query [" + query.executionInfo + "] of method [" + method + "].", e);
+            }
+
+            methodToPlanMap.put(method, new AquaQueryPlan(query, condition));
+        }
+    }
+
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        String mName = method.getName();
-
-        switch (mName){
-            case "getClass":
-            case "equals":
-            case "toString":
-            case "hashCode":
-            case "notify":
-            case "notifyAll":
-            case "wait":
-                return method.invoke(proxy, args);
+        if(method.getDeclaringClass() == Object.class){
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> proxy.getClass().getInterfaces()[0].getName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                default -> method.invoke(this, args);
+            };
         }
 
-        mName = method.toString();
-        AquaQueryInfo query = methodToQueryMap.get(mName);
-        if(query == null) throw new PersistQueryBuildException("Failed to parse method: [" + method + "] to query!");
-
-        //TODO: Check param types + return type
+        AquaQueryPlan plan = methodToPlanMap.get(method);
+        if(plan == null) throw new PersistQueryBuildException("Failed to parse method: [" + method + "] to query!");
 
-        return repoHandler.executeQuery(query.executionInfo, query.returnType, query.array, query.collection, query.parameterTypes, args);
+        AquaQueryInfo query = plan.info;
+        return repoHandler.executeQuery(query.executionInfo, plan.condition, query.returnType, query.array, query.collection, query.parameterTypes, args);
     }
 }
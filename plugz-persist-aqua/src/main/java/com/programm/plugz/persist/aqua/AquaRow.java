@@ -0,0 +1,13 @@
+package com.programm.plugz.persist.aqua;
+
+/**
+ * A row of a table as seen by an {@link AquaCondition}.
+ */
+public interface AquaRow {
+
+    /**
+     * @param column the index of the column - columns are numbered in the order of the fields of the entity.
+     */
+    Object get(int column);
+
+}
@@ -10,6 +10,12 @@ public interface IAquaRepositoryConnection {
 
     void createTable(String name, AnalyzedPropertyClass entityCls) throws PersistQueryBuildException;
 
-    Object execute(String tableName, String method, List<String> selections, QueryTerm conditions) throws PersistQueryExecuteException;
+    /**
+     * @param condition the compiled condition of the query or null to select all entries.
+     * @param args the arguments of the query method the variables of the condition are bound to.
+     */
+    Object execute(String tableName, String method, List<String> selections, AquaCondition condition, Object[] args) throws PersistQueryExecuteException;
+
+    default void close() {}
 
 }
@@ -0,0 +1,338 @@
+package com.programm.plugz.persist.aqua;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A column of a {@link MemoryTable}.
+ * Values are stored in an array specialized on the type of the field so primitive fields are never boxed while stored.
+ * Null values are tracked in a separate bit set and every non-null value is indexed.
+ */
+abstract class MemoryColumn {
+
+    public static MemoryColumn create(String name, Class<?> type){
+        if(type == Integer.TYPE || type == Integer.class
+                || type == Short.TYPE || type == Short.class
+                || type == Byte.TYPE || type == Byte.class
+                || type == Character.TYPE || type == Character.class){
+            return new IntColumn(name, type);
+        }
+        else if(type == Long.TYPE || type == Long.class){
+            return new LongColumn(name, type);
+        }
+        else if(type == Double.TYPE || type == Double.class || type == Float.TYPE || type == Float.class){
+            return new DoubleColumn(name, type);
+        }
+        else if(type == Boolean.TYPE || type == Boolean.class){
+            return new BooleanColumn(name, type);
+        }
+
+        return new ObjectColumn(name, type);
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    public final String name;
+    public final Class<?> type;
+    protected final BitSet nulls = new BitSet();
+    protected final MemoryIndex index;
+
+    protected MemoryColumn(String name, Class<?> type, boolean ordered) {
+        this.name = name;
+        this.type = type;
+        this.index = new MemoryIndex(ordered);
+    }
+
+    protected abstract void grow(int capacity);
+
+    protected abstract void write(int row, Object value);
+
+    protected abstract Object read(int row);
+
+    /**
+     * Converts a value of a query, already converted by {@link AquaOperator#operand(Object, Class)},
+     * into the type of the values stored in this column to look it up in the hash index.
+     * @return the converted value or null if no stored value can be equal to it.
+     */
+    protected abstract Object equalKey(Object value);
+
+    /**
+     * Converts a value of a query, already converted by {@link AquaOperator#operand(Object, Class)},
+     * into a bound comparable with the values stored in this column.
+     * @return the converted value or null if the value is not comparable with the stored values.
+     */
+    protected abstract Object rangeKey(Object value);
+
+    public void set(int row, Object value){
+        if(value == null){
+            nulls.set(row);
+            return;
+        }
+
+        write(row, value);
+        index.add(read(row), row);
+    }
+
+    public Object get(int row){
+        return nulls.get(row) ? null : read(row);
+    }
+
+    public void remove(int row){
+        if(nulls.get(row)){
+            nulls.clear(row);
+        }
+        else {
+            index.remove(read(row), row);
+        }
+    }
+
+    /**
+     * @return if the indexes of this column can answer lookups with the operator.
+     */
+    public boolean isIndexed(AquaOperator op){
+        return !op.isRange() || index.isOrdered();
+    }
+
+    /**
+     * Selects the rows matching the operator applied on the value of this column and the value.
+     * @param live the rows currently stored in the table.
+     * @return the matching rows.
+     */
+    public BitSet select(AquaOperator op, Object value, BitSet live){
+        value = AquaOperator.operand(value, type);
+        if(value == AquaOperator.NO_MATCH) return op == AquaOperator.NE ? (BitSet) live.clone() : new BitSet();
+
+        if(op == AquaOperator.EQ){
+            if(value == null) return (BitSet) nulls.clone();
+            Object key = equalKey(value);
+            return key == null ? new BitSet() : index.equal(key);
+        }
+        else if(op == AquaOperator.NE){
+            BitSet result = (BitSet) live.clone();
+            if(value == null) {
+                result.andNot(nulls);
+            }
+            else {
+                Object key = equalKey(value);
+                if(key != null) result.andNot(index.equal(key));
+            }
+            return result;
+        }
+
+        if(value == null) return new BitSet();
+        Object bound = rangeKey(value);
+        return bound == null ? new BitSet() : index.range(op, bound);
+    }
+
+    public void clear(){
+        nulls.clear();
+        index.clear();
+    }
+
+    static class IntColumn extends MemoryColumn {
+        private int[] data = new int[INITIAL_CAPACITY];
+
+        IntColumn(String name, Class<?> type) {
+            super(name, type, true);
+        }
+
+        @Override
+        protected void grow(int capacity) {
+            if(capacity > data.length) data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+        }
+
+        @Override
+        protected void write(int row, Object value) {
+            data[row] = value instanceof Character c ? c : ((Number) value).intValue();
+        }
+
+        @Override
+        protected Object read(int row) {
+            return box(data[row]);
+        }
+
+        private Object box(int value){
+            if(type == Integer.TYPE || type == Integer.class) return value;
+            if(type == Short.TYPE || type == Short.class) return (short) value;
+            if(type == Byte.TYPE || type == Byte.class) return (byte) value;
+            return (char) value;
+        }
+
+        @Override
+        protected Object equalKey(Object value) {
+            if(!(value instanceof Number n)) return null;
+
+            double d = n.doubleValue();
+            int i = n.intValue();
+            if(i != d) return null;
+            return box(i);
+        }
+
+        @Override
+        protected Object rangeKey(Object value) {
+            return value instanceof Number ? value : null;
+        }
+    }
+
+    static class LongColumn extends MemoryColumn {
+        private long[] data = new long[INITIAL_CAPACITY];
+
+        LongColumn(String name, Class<?> type) {
+            super(name, type, true);
+        }
+
+        @Override
+        protected void grow(int capacity) {
+            if(capacity > data.length) data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+        }
+
+        @Override
+        protected void write(int row, Object value) {
+            data[row] = ((Number) value).longValue();
+        }
+
+        @Override
+        protected Object read(int row) {
+            return data[row];
+        }
+
+        @Override
+        protected Object equalKey(Object value) {
+            if(!(value instanceof Number n)) return null;
+            if(n instanceof Double || n instanceof Float){
+                double d = n.doubleValue();
+                if((long) d != d) return null;
+                return (long) d;
+            }
+            return n.longValue();
+        }
+
+        @Override
+        protected Object rangeKey(Object value) {
+            return value instanceof Number ? value : null;
+        }
+    }
+
+    static class DoubleColumn extends MemoryColumn {
+        private double[] data = new double[INITIAL_CAPACITY];
+
+        DoubleColumn(String name, Class<?> type) {
+            super(name, type, true);
+        }
+
+        @Override
+        protected void grow(int capacity) {
+            if(capacity > data.length) data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+        }
+
+        @Override
+        protected void write(int row, Object value) {
+            data[row] = ((Number) value).doubleValue();
+        }
+
+        private boolean isFloat(){
+            return type == Float.TYPE || type == Float.class;
+        }
+
+        @Override
+        protected Object read(int row) {
+            return isFloat() ? (Object) (float) data[row] : (Object) data[row];
+        }
+
+        @Override
+        protected Object equalKey(Object value) {
+            if(!(value instanceof Number n)) return null;
+            return isFloat() ? (Object) n.floatValue() : (Object) n.doubleValue();
+        }
+
+        @Override
+        public BitSet select(AquaOperator op, Object value, BitSet live) {
+            //Float values are compared with the stored doubles rounded to float, which the index can not look up
+            if(!isFloat() && value instanceof Float){
+                BitSet result = new BitSet();
+                for(int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)){
+                    if(op.matches(get(row), value)) result.set(row);
+                }
+                return result;
+            }
+
+            return super.select(op, value, live);
+        }
+
+        @Override
+        protected Object rangeKey(Object value) {
+            return value instanceof Number ? value : null;
+        }
+    }
+
+    static class BooleanColumn extends MemoryColumn {
+        private final BitSet data = new BitSet();
+
+        BooleanColumn(String name, Class<?> type) {
+            super(name, type, true);
+        }
+
+        @Override
+        protected void grow(int capacity) {}
+
+        @Override
+        protected void write(int row, Object value) {
+            data.set(row, (Boolean) value);
+        }
+
+        @Override
+        protected Object read(int row) {
+            return data.get(row);
+        }
+
+        @Override
+        protected Object equalKey(Object value) {
+            return value instanceof Boolean ? value : null;
+        }
+
+        @Override
+        protected Object rangeKey(Object value) {
+            return value instanceof Boolean ? value : null;
+        }
+    }
+
+    static class ObjectColumn extends MemoryColumn {
+        private Object[] data = new Object[INITIAL_CAPACITY];
+
+        ObjectColumn(String name, Class<?> type) {
+            super(name, type, Comparable.class.isAssignableFrom(type));
+        }
+
+        @Override
+        protected void grow(int capacity) {
+            if(capacity > data.length) data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+        }
+
+        @Override
+        protected void write(int row, Object value) {
+            data[row] = value;
+        }
+
+        @Override
+        protected Object read(int row) {
+            return data[row];
+        }
+
+        @Override
+        public void remove(int row) {
+            super.remove(row);
+            data[row] = null;
+        }
+
+        @Override
+        protected Object equalKey(Object value) {
+            return type.isInstance(value) ? value : null;
+        }
+
+        @Override
+        protected Object rangeKey(Object value) {
+            return equalKey(value);
+        }
+    }
+
+}
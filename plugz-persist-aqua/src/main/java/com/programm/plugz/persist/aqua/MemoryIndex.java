@@ -0,0 +1,112 @@
+package com.programm.plugz.persist.aqua;
+
+import java.util.*;
+
+/**
+ * Index of the values of one column.
+ * The hash part answers equality lookups and the sorted part answers range lookups.
+ * Both parts share the same row lists so every row is only stored once per distinct value.
+ */
+class MemoryIndex {
+
+    /**
+     * Orders values of the same column.
+     * Numbers of different types and characters are compared by their value so range bounds do not have to match the type of the column.
+     */
+    static final Comparator<Object> ORDER = AquaOperator::compare;
+
+    private static class Rows {
+        private int[] rows = new int[2];
+        private int size;
+
+        void add(int row){
+            if(size == rows.length) rows = Arrays.copyOf(rows, size * 2);
+            rows[size++] = row;
+        }
+
+        boolean remove(int row){
+            for(int i=0;i<size;i++){
+                if(rows[i] == row){
+                    rows[i] = rows[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void addTo(BitSet set){
+            for(int i=0;i<size;i++) set.set(rows[i]);
+        }
+    }
+
+    private final Map<Object, Rows> hash = new HashMap<>();
+    private final NavigableMap<Object, Rows> sorted;
+
+    /**
+     * @param ordered if the values of the column are comparable and should be indexed for range lookups.
+     */
+    public MemoryIndex(boolean ordered) {
+        this.sorted = ordered ? new TreeMap<>(ORDER) : null;
+    }
+
+    public boolean isOrdered(){
+        return sorted != null;
+    }
+
+    public void add(Object value, int row){
+        Rows rows = hash.get(value);
+        if(rows == null){
+            rows = new Rows();
+            hash.put(value, rows);
+            if(sorted != null) sorted.put(value, rows);
+        }
+
+        rows.add(row);
+    }
+
+    public void remove(Object value, int row){
+        Rows rows = hash.get(value);
+        if(rows == null || !rows.remove(row) || rows.size != 0) return;
+
+        hash.remove(value);
+        if(sorted != null) sorted.remove(value);
+    }
+
+    /**
+     * @return the rows with a value equal to the key.
+     */
+    public BitSet equal(Object key){
+        BitSet result = new BitSet();
+        Rows rows = hash.get(key);
+        if(rows != null) rows.addTo(result);
+        return result;
+    }
+
+    /**
+     * @param op a range operator.
+     * @return the rows with a value in the range described by the operator and the bound.
+     */
+    public BitSet range(AquaOperator op, Object bound){
+        if(sorted == null) throw new IllegalStateException("INVALID STATE: Range lookup on unordered index!");
+
+        Map<Object, Rows> range = switch (op) {
+            case LT -> sorted.headMap(bound, false);
+            case LE -> sorted.headMap(bound, true);
+            case GT -> sorted.tailMap(bound, false);
+            case GE -> sorted.tailMap(bound, true);
+            default -> throw new IllegalArgumentException("Not a range operator: [" + op + "]");
+        };
+
+        BitSet result = new BitSet();
+        for(Rows rows : range.values()){
+            rows.addTo(result);
+        }
+        return result;
+    }
+
+    public void clear(){
+        hash.clear();
+        if(sorted != null) sorted.clear();
+    }
+
+}
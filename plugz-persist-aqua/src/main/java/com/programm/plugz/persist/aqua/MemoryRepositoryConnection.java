@@ -0,0 +1,50 @@
+package com.programm.plugz.persist.aqua;
+
+import com.programm.plugz.cls.analyzer.AnalyzedPropertyClass;
+import com.programm.plugz.persist.ex.PersistQueryBuildException;
+import com.programm.plugz.persist.ex.PersistQueryExecuteException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process storage engine holding all tables in memory.
+ * Supports the methods {@code find}, {@code insert} and {@code delete}.
+ * Nothing is persisted so the data is lost on shutdown.
+ */
+class MemoryRepositoryConnection implements IAquaRepositoryConnection {
+
+    private final Map<String, MemoryTable> tables = new ConcurrentHashMap<>();
+
+    @Override
+    public void createTable(String name, AnalyzedPropertyClass entityCls) throws PersistQueryBuildException {
+        MemoryTable existing = tables.putIfAbsent(name, new MemoryTable(name, entityCls));
+        if(existing != null) throw new PersistQueryBuildException("Table [" + name + "] already exists!");
+    }
+
+    @Override
+    public Object execute(String tableName, String method, List<String> selections, AquaCondition condition, Object[] args) throws PersistQueryExecuteException {
+        MemoryTable table = tables.get(tableName);
+        if(table == null) throw new PersistQueryExecuteException("No table [" + tableName + "] found!");
+
+        return switch (method) {
+            case "find" -> table.find(selections, condition, args);
+            case "insert" -> {
+                if(args == null || args.length != 1) throw new PersistQueryExecuteException("Insert expects exactly one entity!");
+                yield table.insert(args[0]);
+            }
+            case "delete" -> table.delete(condition, args);
+            default -> throw new PersistQueryExecuteException("Unknown method [" + method + "] for table [" + tableName + "]!");
+        };
+    }
+
+    @Override
+    public void close() {
+        for(MemoryTable table : tables.values()){
+            table.clear();
+        }
+        tables.clear();
+    }
+
+}
@@ -0,0 +1,278 @@
+package com.programm.plugz.persist.aqua;
+
+import com.programm.plugz.api.utils.ValueUtils;
+import com.programm.plugz.cls.analyzer.AnalyzedPropertyClass;
+import com.programm.plugz.cls.analyzer.IClassPropertyBuilder;
+import com.programm.plugz.cls.analyzer.PropertyEntry;
+import com.programm.plugz.persist.ex.PersistQueryExecuteException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Table of the {@link MemoryRepositoryConnection} storing the entities of one class column by column.
+ * Rows are addressed by their index in the columns. Rows of deleted entities are reused by later inserts.
+ * Compiled conditions are evaluated into sets of rows using the indexes of the columns and only fall back to testing the rows
+ * if a condition can not be answered by an index (comparing two columns, regex patterns or ranges on unordered values).
+ */
+class MemoryTable {
+
+    private class RowCursor implements AquaRow {
+        private int row;
+
+        @Override
+        public Object get(int column) {
+            return columnArray[column].get(row);
+        }
+    }
+
+    public final String name;
+    private final AnalyzedPropertyClass entityCls;
+    private final Map<String, MemoryColumn> columns = new LinkedHashMap<>();
+    private final Map<String, PropertyEntry> entries = new HashMap<>();
+    private final MemoryColumn[] columnArray;
+    private final BitSet live = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public MemoryTable(String name, AnalyzedPropertyClass entityCls) {
+        this.name = name;
+        this.entityCls = entityCls;
+
+        Map<String, PropertyEntry> fieldEntries = entityCls.getFieldEntryMap();
+        for(String fieldName : fieldEntries.keySet()){
+            PropertyEntry entry = fieldEntries.get(fieldName);
+            String columnName = fieldName.toLowerCase();
+            columns.put(columnName, MemoryColumn.create(fieldName, entry.getType()));
+            entries.put(columnName, entry);
+        }
+
+        //Numbered as expected by compiled conditions
+        List<String> columnNames = AquaQueryCompiler.columnNames(entityCls);
+        columnArray = new MemoryColumn[columnNames.size()];
+        for(int i=0;i<columnArray.length;i++){
+            columnArray[i] = columns.get(columnNames.get(i));
+        }
+    }
+
+    public Object insert(Object entity) throws PersistQueryExecuteException {
+        if(!entityCls.getType().isInstance(entity)) throw new PersistQueryExecuteException("Can not insert [" + entity + "] into table [" + name + "] of entity [" + entityCls.getType() + "]!");
+
+        //Read all values before changing the table so a failing getter does not leave a partial row
+        Object[] values = new Object[columns.size()];
+        int i = 0;
+        for(String columnName : columns.keySet()){
+            PropertyEntry entry = entries.get(columnName);
+            try {
+                values[i++] = entry.getGetter().get(entity);
+            }
+            catch (InvocationTargetException e){
+                throw new PersistQueryExecuteException("Failed to get property of field [" + columns.get(columnName).name + "] of entity [" + entityCls.getType() + "]!", e);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            int row = live.nextClearBit(0);
+            i = 0;
+            for(MemoryColumn column : columns.values()){
+                column.grow(row + 1);
+                column.set(row, values[i++]);
+            }
+            live.set(row);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+
+        return entity;
+    }
+
+    /**
+     * @param selections the names of the columns to return or null to return whole entities.
+     * @return the entities of the matching rows if no selections are given,
+     * the values of the selected column if only one is selected or a map of the selected columns for each matching row.
+     */
+    public List<Object> find(List<String> selections, AquaCondition condition, Object[] args) throws PersistQueryExecuteException {
+        List<MemoryColumn> selectedColumns = null;
+        if(selections != null){
+            selectedColumns = new ArrayList<>();
+            for(String selection : selections){
+                selectedColumns.add(column(selection));
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet rows = condition == null ? (BitSet) live.clone() : select(condition, args);
+
+            List<Object> result = new ArrayList<>(rows.cardinality());
+            for(int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)){
+                if(selectedColumns == null) {
+                    result.add(buildEntity(row));
+                }
+                else if(selectedColumns.size() == 1) {
+                    result.add(selectedColumns.get(0).get(row));
+                }
+                else {
+                    Map<String, Object> values = new LinkedHashMap<>();
+                    for(int i=0;i<selectedColumns.size();i++){
+                        values.put(selections.get(i), selectedColumns.get(i).get(row));
+                    }
+                    result.add(values);
+                }
+            }
+
+            return result;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of deleted rows.
+     */
+    public int delete(AquaCondition condition, Object[] args) {
+        lock.writeLock().lock();
+        try {
+            BitSet rows = condition == null ? (BitSet) live.clone() : select(condition, args);
+
+            for(int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)){
+                for(MemoryColumn column : columns.values()){
+                    column.remove(row);
+                }
+                live.clear(row);
+            }
+
+            return rows.cardinality();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size(){
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear(){
+        lock.writeLock().lock();
+        try {
+            for(MemoryColumn column : columns.values()){
+                column.clear();
+            }
+            live.clear();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Object buildEntity(int row) throws PersistQueryExecuteException {
+        IClassPropertyBuilder builder = entityCls.getBuilder();
+        if(builder == null) throw new PersistQueryExecuteException("No Builder present for entity [" + entityCls.getType() + "]!");
+
+        Object entity;
+        try {
+            entity = builder.build();
+        }
+        catch (InvocationTargetException e){
+            throw new PersistQueryExecuteException("Failed to call builder [" + builder + "]", e);
+        }
+
+        for(String columnName : columns.keySet()){
+            MemoryColumn column = columns.get(columnName);
+            PropertyEntry entry = entries.get(columnName);
+
+            Object value = column.get(row);
+            if(value == null) value = ValueUtils.getDefaultValue(entry.getType());
+
+            try {
+                entry.getSetter().set(entity, value);
+            }
+            catch (InvocationTargetException e){
+                throw new PersistQueryExecuteException("Failed to set property of field [" + column.name + "] of entity [" + entityCls.getType() + "]!", e);
+            }
+        }
+
+        return entity;
+    }
+
+    private MemoryColumn column(String name) throws PersistQueryExecuteException {
+        MemoryColumn column = columns.get(name.toLowerCase());
+        if(column == null) throw new PersistQueryExecuteException("No column [" + name + "] in table [" + this.name + "]!");
+        return column;
+    }
+
+    private BitSet select(AquaCondition condition, Object[] args){
+        if(condition instanceof AquaQueryCompiler.And and){
+            AquaCondition left = and.left;
+            AquaCondition right = and.right;
+
+            //Start with the side answered by an index and only test the rows selected by it against the other side
+            if(!isIndexed(left) && isIndexed(right)){
+                left = and.right;
+                right = and.left;
+            }
+
+            BitSet rows = select(left, args);
+            if(rows.isEmpty()) return rows;
+
+            if(isIndexed(right)){
+                rows.and(select(right, args));
+                return rows;
+            }
+
+            return filter(rows, right, args);
+        }
+        else if(condition instanceof AquaQueryCompiler.Or or){
+            BitSet rows = select(or.left, args);
+            rows.or(select(or.right, args));
+            return rows;
+        }
+        else if(condition instanceof AquaQueryCompiler.Compare compare && isIndexed(compare)){
+            MemoryColumn column = columnArray[((AquaQueryCompiler.ColumnOperand) compare.left).column];
+            Object value = compare.right.value(null, args);
+            return column.select(compare.op, value, live);
+        }
+        else if(condition instanceof AquaQueryCompiler.Constant constant){
+            return constant.value ? (BitSet) live.clone() : new BitSet();
+        }
+
+        return filter(live, condition, args);
+    }
+
+    /**
+     * @return if the rows matching the condition can be selected without testing each row.
+     */
+    private boolean isIndexed(AquaCondition condition){
+        if(condition instanceof AquaQueryCompiler.And and) return isIndexed(and.left) || isIndexed(and.right);
+        if(condition instanceof AquaQueryCompiler.Or or) return isIndexed(or.left) && isIndexed(or.right);
+        if(condition instanceof AquaQueryCompiler.Constant) return true;
+        if(condition instanceof AquaQueryCompiler.Compare compare){
+            if(!(compare.left instanceof AquaQueryCompiler.ColumnOperand column)) return false;
+            if(compare.right instanceof AquaQueryCompiler.ColumnOperand) return false;
+            return columnArray[column.column].isIndexed(compare.op);
+        }
+        return false;
+    }
+
+    private BitSet filter(BitSet rows, AquaCondition condition, Object[] args){
+        BitSet result = new BitSet();
+        RowCursor cursor = new RowCursor();
+        for(int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)){
+            cursor.row = row;
+            if(condition.test(cursor, args)) result.set(row);
+        }
+        return result;
+    }
+
+}
@@ -13,7 +13,11 @@ public class QueryExecutionInfo {
 
     @Override
     public String toString() {
-        return tableName + "." + method + "(" + (selections == null ? "*" : "{" + String.join(", ", selections) + "}") + (conditions == null ? "" : ", " + conditions) + ")";
+        if(method.equals("find")) {
+            return tableName + "." + method + "(" + (selections == null ? "*" : "{" + String.join(", ", selections) + "}") + (conditions == null ? "" : ", " + conditions) + ")";
+        }
+
+        return tableName + "." + method + "(" + (conditions == null ? "" : conditions) + ")";
     }
 
 }
@@ -0,0 +1,82 @@
+package com.programm.plugz.persist.aqua;
+
+import com.programm.plugz.persist.ex.PersistQueryBuildException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AquaQueryCompilerTest {
+
+    private static final List<String> COLUMNS = List.of("id", "name", "age");
+
+    private static AquaCondition compile(String condition, String... parameterNames) throws PersistQueryBuildException {
+        QueryExecutionInfo info = new AquaQueryBuilder().parseQuery("person.find(*, " + condition + ")");
+        return AquaQueryCompiler.compile(info.conditions, COLUMNS, parameterNames);
+    }
+
+    private static AquaRow row(Object... values){
+        return column -> values[column];
+    }
+
+    @Test
+    @DisplayName("Aqua-Query-Compiler [Columns and variables are resolved]")
+    public void testResolve() throws Exception {
+        AquaCondition condition = compile("age > $min & name = $1", "min", "name");
+
+        AquaQueryCompiler.And and = assertInstanceOf(AquaQueryCompiler.And.class, condition);
+        AquaQueryCompiler.Compare age = assertInstanceOf(AquaQueryCompiler.Compare.class, and.left);
+        assertEquals(AquaOperator.GT, age.op);
+        assertEquals(2, assertInstanceOf(AquaQueryCompiler.ColumnOperand.class, age.left).column);
+        assertEquals(0, assertInstanceOf(AquaQueryCompiler.ArgOperand.class, age.right).slot);
+
+        Object[] args = { 18, "Artur" };
+        assertTrue(condition.test(row(1L, "Artur", 20), args));
+        assertFalse(condition.test(row(1L, "Artur", 18), args));
+        assertFalse(condition.test(row(1L, "Arima", 20), args));
+    }
+
+    @Test
+    @DisplayName("Aqua-Query-Compiler [The column is kept on the left side]")
+    public void testFlip() throws Exception {
+        AquaQueryCompiler.Compare compare = assertInstanceOf(AquaQueryCompiler.Compare.class, compile("10 < age"));
+        assertEquals(AquaOperator.GT, compare.op);
+        assertInstanceOf(AquaQueryCompiler.ColumnOperand.class, compare.left);
+        assertTrue(compare.test(row(1L, "a", 11), new Object[0]));
+        assertFalse(compare.test(row(1L, "a", 10), new Object[0]));
+    }
+
+    @Test
+    @DisplayName("Aqua-Query-Compiler [Constant comparisons are folded]")
+    public void testConstants() throws Exception {
+        assertInstanceOf(AquaQueryCompiler.Compare.class, compile("1 = 1 & age = 2"));
+        assertInstanceOf(AquaQueryCompiler.Constant.class, compile("1 = 2 & age = 2"));
+        assertInstanceOf(AquaQueryCompiler.Constant.class, compile("1 = 1 | age = 2"));
+        assertInstanceOf(AquaQueryCompiler.Compare.class, compile("1 = 2 | age = 2"));
+    }
+
+    @Test
+    @DisplayName("Aqua-Query-Compiler [Patterns]")
+    public void testPatterns() throws Exception {
+        AquaCondition condition = compile("name = ''Ar.*''");
+        assertInstanceOf(AquaQueryCompiler.Match.class, condition);
+        assertTrue(condition.test(row(1L, "Artur", 1), new Object[0]));
+        assertFalse(condition.test(row(1L, "Bob", 1), new Object[0]));
+        assertFalse(condition.test(row(1L, null, 1), new Object[0]));
+
+        assertTrue(compile("name != ''Ar.*''").test(row(1L, "Bob", 1), new Object[0]));
+    }
+
+    @Test
+    @DisplayName("Aqua-Query-Compiler [Invalid conditions]")
+    public void testInvalid() {
+        assertThrows(PersistQueryBuildException.class, () -> compile("height = 1"));
+        assertThrows(PersistQueryBuildException.class, () -> compile("age = $unknown", "min"));
+        assertThrows(PersistQueryBuildException.class, () -> compile("age = $3", "min"));
+        assertThrows(PersistQueryBuildException.class, () -> compile("name > ''Ar.*''"));
+        assertThrows(PersistQueryBuildException.class, () -> compile("name = ''Ar[''"));
+    }
+
+}
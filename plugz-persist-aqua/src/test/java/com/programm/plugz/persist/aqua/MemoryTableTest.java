@@ -0,0 +1,171 @@
+package com.programm.plugz.persist.aqua;
+
+import com.programm.plugz.cls.analyzer.AnalyzedPropertyClass;
+import com.programm.plugz.cls.analyzer.ClassAnalyzer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryTableTest {
+
+    public enum Status {
+        NEW, ACTIVE, CLOSED
+    }
+
+    public static class Measurement {
+        private long id;
+        private float weight;
+        private double length;
+        private String name;
+        private int count;
+        private char grade;
+        private Status status;
+
+        public Measurement() {}
+
+        public Measurement(long id, float weight, double length, String name, int count, char grade, Status status) {
+            this.id = id;
+            this.weight = weight;
+            this.length = length;
+            this.name = name;
+            this.count = count;
+            this.grade = grade;
+            this.status = status;
+        }
+
+        public long getId() { return id; }
+        public void setId(long id) { this.id = id; }
+        public float getWeight() { return weight; }
+        public void setWeight(float weight) { this.weight = weight; }
+        public double getLength() { return length; }
+        public void setLength(double length) { this.length = length; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+        public char getGrade() { return grade; }
+        public void setGrade(char grade) { this.grade = grade; }
+        public Status getStatus() { return status; }
+        public void setStatus(Status status) { this.status = status; }
+    }
+
+    private AnalyzedPropertyClass entityCls;
+    private List<String> columns;
+    private MemoryTable table;
+    private final List<Measurement> measurements = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() throws Exception {
+        entityCls = new ClassAnalyzer(true, false, false).analyzeProperty(Measurement.class);
+        columns = AquaQueryCompiler.columnNames(entityCls);
+        table = new MemoryTable("measurement", entityCls);
+
+        measurements.add(new Measurement(1, 0.1f, 0.1, "first", 65, 'A', Status.NEW));
+        measurements.add(new Measurement(2, 0.5f, 0.5, "second", 66, 'B', Status.ACTIVE));
+        measurements.add(new Measurement(3, 2f, 2, null, 2, 'C', Status.CLOSED));
+        for(Measurement measurement : measurements) table.insert(measurement);
+    }
+
+    private AquaCondition compile(String condition, String... parameterNames) throws Exception {
+        QueryExecutionInfo info = new AquaQueryBuilder().parseQuery("measurement.find(*, " + condition + ")");
+        return AquaQueryCompiler.compile(info.conditions, columns, parameterNames);
+    }
+
+    private List<Long> indexed(AquaCondition condition, Object... args) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for(Object entity : table.find(null, condition, args)) ids.add(((Measurement) entity).getId());
+        ids.sort(null);
+        return ids;
+    }
+
+    //Tests every stored entity without using the indexes of the table
+    private List<Long> tested(AquaCondition condition, Object... args) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for(Measurement measurement : measurements){
+            List<Object> values = new ArrayList<>();
+            for(String fieldName : entityCls.getFieldEntryMap().keySet()) values.add(entityCls.getFieldEntryMap().get(fieldName).getGetter().get(measurement));
+            if(condition.test(values::get, args)) ids.add(measurement.getId());
+        }
+        return ids;
+    }
+
+    private void assertQuery(List<Long> expected, String condition, Object... args) throws Exception {
+        String[] parameterNames = new String[args.length];
+        for(int i=0;i<args.length;i++) parameterNames[i] = "p" + i;
+        AquaCondition compiled = compile(condition, parameterNames);
+
+        assertEquals(expected, indexed(compiled, args), condition);
+        assertEquals(expected, tested(compiled, args), condition);
+    }
+
+    @Test
+    @DisplayName("Memory-Table [Float columns are compared as float with and without the index]")
+    public void testFloatColumn() throws Exception {
+        assertQuery(List.of(1L), "weight = 0.1");
+        assertQuery(List.of(2L, 3L), "weight != 0.1");
+        assertQuery(List.of(2L, 3L), "weight > 0.1");
+        assertQuery(List.of(1L, 2L), "weight <= 0.5");
+        assertQuery(List.of(1L), "weight = $p0", 0.1);
+        assertQuery(List.of(1L), "weight = $p0", 0.1f);
+        assertQuery(List.of(3L), "weight = $p0", 2);
+    }
+
+    @Test
+    @DisplayName("Memory-Table [Double columns compared with float values]")
+    public void testDoubleColumn() throws Exception {
+        assertQuery(List.of(1L), "length = 0.1");
+        assertQuery(List.of(1L), "length = $p0", 0.1f);
+        assertQuery(List.of(2L, 3L), "length > $p0", 0.1f);
+        assertQuery(List.of(3L), "length = $p0", 2L);
+    }
+
+    @Test
+    @DisplayName("Memory-Table [Nulls and mixed conditions]")
+    public void testConditions() throws Exception {
+        assertQuery(List.of(3L), "name = $p0", (Object) null);
+        assertQuery(List.of(1L, 2L), "name != $p0", (Object) null);
+        assertQuery(List.of(2L), "weight > 0.1 & name = ''s.*''");
+        assertQuery(List.of(1L, 3L), "id = 1 | length >= 2");
+    }
+
+    @Test
+    @DisplayName("Memory-Table [Characters and strings compared with number columns]")
+    public void testCharacterOperands() throws Exception {
+        assertQuery(List.of(1L), "count = $p0", 'A');
+        assertQuery(List.of(2L), "count > $p0", 'A');
+        assertQuery(List.of(), "count = $p0", "A");
+        assertQuery(List.of(), "count > $p0", "A");
+        assertQuery(List.of(1L, 2L, 3L), "count != $p0", "A");
+        assertQuery(List.of(1L), "id = $p0", (char) 1);
+        assertQuery(List.of(1L, 2L), "id < $p0", (char) 3);
+        assertQuery(List.of(), "id = $p0", "1");
+        assertQuery(List.of(3L), "length = $p0", (char) 2);
+        assertQuery(List.of(3L), "weight = $p0", (char) 2);
+        assertQuery(List.of(), "length >= $p0", "2");
+        assertQuery(List.of(2L), "grade = $p0", 'B');
+        assertQuery(List.of(2L), "grade = $p0", 66);
+        assertQuery(List.of(2L, 3L), "grade >= $p0", 'B');
+        assertQuery(List.of(), "grade = $p0", "B");
+    }
+
+    @Test
+    @DisplayName("Memory-Table [Enums and their names compared with enum columns]")
+    public void testEnumOperands() throws Exception {
+        assertQuery(List.of(2L), "status = $p0", Status.ACTIVE);
+        assertQuery(List.of(2L), "status = $p0", "ACTIVE");
+        assertQuery(List.of(3L), "status > $p0", Status.ACTIVE);
+        assertQuery(List.of(3L), "status > $p0", "ACTIVE");
+        assertQuery(List.of(1L, 2L), "status <= $p0", "ACTIVE");
+        assertQuery(List.of(), "status = $p0", "UNKNOWN");
+        assertQuery(List.of(), "status < $p0", "UNKNOWN");
+        assertQuery(List.of(1L, 2L, 3L), "status != $p0", "UNKNOWN");
+        assertQuery(List.of(), "count = $p0", Status.NEW);
+        assertQuery(List.of(1L, 2L, 3L), "name != $p0", Status.NEW);
+    }
+
+}
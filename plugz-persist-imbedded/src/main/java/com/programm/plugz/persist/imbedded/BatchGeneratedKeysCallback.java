@@ -0,0 +1,13 @@
+package com.programm.plugz.persist.imbedded;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+interface BatchGeneratedKeysCallback {
+
+    /**
+     * Called after each executed batch with the keys generated for the statement arguments from index [from] (inclusive) to [to] (exclusive).
+     */
+    void call(ResultSet keys, int from, int to) throws SQLException;
+
+}
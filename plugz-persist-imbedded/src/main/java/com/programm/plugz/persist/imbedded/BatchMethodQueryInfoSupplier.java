@@ -0,0 +1,16 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.plugz.persist.ex.PersistQueryExecuteException;
+
+import java.util.List;
+
+interface BatchMethodQueryInfoSupplier extends MethodQueryInfoSupplier {
+
+    List<BatchQueryInfo> batchQueryInfos(Object[] parameters);
+
+    @Override
+    default MethodQueryInfo queryInfo(Object[] parameters) {
+        throw new PersistQueryExecuteException("INVALID STATE: Batch methods must be executed as batch!");
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.programm.plugz.persist.imbedded;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class BatchQueryInfo {
+    public final String query;
+    public final List<Class<?>> parameterTypes;
+    public final List<Object[]> statementArguments;
+    public final BatchGeneratedKeysCallback generatedKeysCallback;
+    //Entity type and primary keys of the entities changed by the batch - null if no existing entities are changed
+    public final Class<?> cacheEntity;
+    public final List<Object> cacheIds;
+}
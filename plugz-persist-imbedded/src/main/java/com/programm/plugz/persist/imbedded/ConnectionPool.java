@@ -0,0 +1,462 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.ioutils.log.api.ILogger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded pool of jdbc connections.
+ * Idle connections are reused most recently used first, validated before they are handed out if they were not used for a while
+ * and closed by a background task once they were idle longer than the idle timeout, as long as the pool stays at its min size.
+ */
+class ConnectionPool implements IConnectionPool {
+
+    //Connections used more recently than this are handed out without validation
+    private static final long VALIDATION_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private static class PooledConnection {
+        private final Connection connection;
+        private final StatementCache statements;
+        private long lastUsed;
+
+        public PooledConnection(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+            this.lastUsed = System.nanoTime();
+        }
+
+        private void close(){
+            statements.clear();
+            try {
+                connection.close();
+            }
+            catch (SQLException ignore){}
+        }
+    }
+
+    /**
+     * Handed out instead of the real connection, so closing it returns the connection to the pool.
+     */
+    private class BorrowedConnectionHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean released;
+
+        public BorrowedConnectionHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if(!released){
+                        released = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pooled.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + pooled.connection + "]";
+            }
+
+            if(released) throw new SQLException("Connection was already returned to the pool!");
+
+            try {
+                return method.invoke(pooled.connection, args);
+            }
+            catch (InvocationTargetException e){
+                throw e.getCause();
+            }
+        }
+    }
+
+    private final ILogger log;
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final String validationQuery;
+    private final long idleTimeoutMillis;
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private int total;
+    private int active;
+    private int waiters;
+    private boolean closed;
+
+    private long borrows;
+    private long timeouts;
+    private long created;
+    private long evicted;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+
+    private ScheduledExecutorService evictor;
+
+    public ConnectionPool(ILogger log, String url, String user, String password, int minSize, int maxSize, long borrowTimeoutMillis, String validationQuery, long idleTimeoutMillis, int statementCacheSize) {
+        this.log = log;
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = Math.max(1, maxSize);
+        this.minSize = Math.max(0, Math.min(minSize, this.maxSize));
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationQuery = validationQuery == null || validationQuery.isBlank() ? null : validationQuery;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Opens the min number of connections and starts the idle eviction.
+     * @throws SQLException if the first connections could not be opened.
+     */
+    public void start() throws SQLException {
+        fillToMinSize();
+
+        if(idleTimeoutMillis > 0){
+            evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "Persist-Pool-Evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            long interval = Math.max(1000, idleTimeoutMillis / 2);
+            evictor.scheduleWithFixedDelay(this::evictIdleConnections, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+
+        while(true){
+            PooledConnection pooled = null;
+            long remaining = timeoutNanos - (System.nanoTime() - start);
+
+            lock.lock();
+            try {
+                while(true){
+                    if(closed) throw new SQLException("Connection pool is closed!");
+
+                    pooled = idle.pollFirst();
+                    if(pooled != null) break;
+
+                    //Reserve a slot and create the connection outside the lock
+                    if(total < maxSize){
+                        total++;
+                        break;
+                    }
+
+                    if(remaining <= 0){
+                        timeouts++;
+                        throw new SQLTimeoutException("Timed out after [" + borrowTimeoutMillis + "ms] waiting for a database connection!");
+                    }
+
+                    waiters++;
+                    try {
+                        remaining = available.awaitNanos(remaining);
+                    }
+                    catch (InterruptedException e){
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection!", e);
+                    }
+                    finally {
+                        waiters--;
+                    }
+                }
+            }
+            finally {
+                lock.unlock();
+            }
+
+            if(pooled == null){
+                try {
+                    pooled = openConnection();
+                }
+                catch (SQLException e){
+                    discard(null);
+                    throw e;
+                }
+            }
+            else if(System.nanoTime() - pooled.lastUsed > VALIDATION_INTERVAL_NANOS && !isValid(pooled.connection)){
+                log.debug("Discarding invalid pooled connection.");
+                discard(pooled);
+                continue;
+            }
+
+            long waited = System.nanoTime() - start;
+            lock.lock();
+            try {
+                active++;
+                borrows++;
+                totalWaitNanos += waited;
+                if(waited > maxWaitNanos) maxWaitNanos = waited;
+            }
+            finally {
+                lock.unlock();
+            }
+
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{ Connection.class }, new BorrowedConnectionHandler(pooled));
+        }
+    }
+
+    /**
+     * Prepares a statement through the statement cache of a borrowed connection.
+     * The statement must be given back with {@link #releaseStatement(Connection, PreparedStatement)} instead of closing it.
+     * @param connection a connection borrowed from this pool.
+     */
+    public PreparedStatement prepareStatement(Connection connection, String sql, boolean returnGeneratedKeys) throws SQLException {
+        PooledConnection pooled = unwrap(connection);
+        if(pooled == null) return returnGeneratedKeys ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS) : connection.prepareStatement(sql);
+        return pooled.statements.prepare(sql, returnGeneratedKeys);
+    }
+
+    /**
+     * Gives back a statement of {@link #prepareStatement(Connection, String, boolean)} after it was executed.
+     */
+    public void releaseStatement(Connection connection, PreparedStatement statement) throws SQLException {
+        PooledConnection pooled = unwrap(connection);
+        if(pooled == null) statement.close();
+        else pooled.statements.release(statement);
+    }
+
+    private PooledConnection unwrap(Connection connection){
+        if(Proxy.isProxyClass(connection.getClass()) && Proxy.getInvocationHandler(connection) instanceof BorrowedConnectionHandler handler){
+            return handler.pooled;
+        }
+
+        return null;
+    }
+
+    @Override
+    public ConnectionPoolMetrics metrics() {
+        lock.lock();
+        try {
+            return new ConnectionPoolMetrics(active, idle.size(), waiters, borrows, timeouts, created, evicted,
+                    TimeUnit.NANOSECONDS.toMillis(totalWaitNanos), TimeUnit.NANOSECONDS.toMillis(maxWaitNanos),
+                    statementCacheHits.sum(), statementCacheMisses.sum(), statementCacheEvictions.sum());
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes all idle connections. Borrowed connections are closed when they are returned.
+     */
+    public void close() throws SQLException {
+        if(evictor != null) evictor.shutdownNow();
+
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            total -= idle.size();
+            idle.clear();
+            available.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+
+        SQLException first = null;
+        for(PooledConnection pooled : toClose){
+            pooled.statements.clear();
+            try {
+                pooled.connection.close();
+            }
+            catch (SQLException e){
+                if(first == null) first = e;
+            }
+        }
+
+        if(first != null) throw first;
+    }
+
+    private void release(PooledConnection pooled){
+        boolean reusable;
+        try {
+            //Reset state a user of the connection might have changed
+            if(!pooled.connection.getAutoCommit()){
+                pooled.connection.rollback();
+                pooled.connection.setAutoCommit(true);
+            }
+            reusable = !pooled.connection.isClosed();
+        }
+        catch (SQLException e){
+            log.logException("Failed to reset returned connection: " + e.getMessage(), e);
+            reusable = false;
+        }
+
+        lock.lock();
+        try {
+            active--;
+
+            if(reusable && !closed){
+                pooled.lastUsed = System.nanoTime();
+                idle.addFirst(pooled);
+                available.signal();
+                return;
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+
+        discard(pooled);
+    }
+
+    /**
+     * Frees the slot of a connection and closes it.
+     * @param pooled the connection or null if only a reserved slot should be freed.
+     */
+    private void discard(PooledConnection pooled){
+        lock.lock();
+        try {
+            total--;
+            if(pooled != null) evicted++;
+            available.signal();
+        }
+        finally {
+            lock.unlock();
+        }
+
+        if(pooled != null) pooled.close();
+    }
+
+    private void evictIdleConnections(){
+        long now = System.nanoTime();
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        List<PooledConnection> toClose = new ArrayList<>();
+
+        lock.lock();
+        try {
+            //Least recently used connections are at the end
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while(it.hasNext() && total > minSize){
+                PooledConnection pooled = it.next();
+                if(now - pooled.lastUsed < idleTimeoutNanos) break;
+
+                it.remove();
+                total--;
+                evicted++;
+                toClose.add(pooled);
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+
+        if(!toClose.isEmpty()) log.debug("Evicting [{}] idle connections.", toClose.size());
+        for(PooledConnection pooled : toClose){
+            pooled.close();
+        }
+
+        try {
+            fillToMinSize();
+        }
+        catch (SQLException e){
+            log.logException("Failed to refill connection pool: " + e.getMessage(), e);
+        }
+    }
+
+    private void fillToMinSize() throws SQLException {
+        while(true){
+            lock.lock();
+            try {
+                if(closed || total >= minSize) return;
+                total++;
+            }
+            finally {
+                lock.unlock();
+            }
+
+            PooledConnection pooled;
+            try {
+                pooled = openConnection();
+            }
+            catch (SQLException e){
+                discard(null);
+                throw e;
+            }
+
+            lock.lock();
+            try {
+                if(!closed){
+                    idle.addLast(pooled);
+                    available.signal();
+                    continue;
+                }
+            }
+            finally {
+                lock.unlock();
+            }
+
+            //Pool was closed while the connection was opened
+            discard(pooled);
+            return;
+        }
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, user, password);
+
+        lock.lock();
+        try {
+            created++;
+        }
+        finally {
+            lock.unlock();
+        }
+
+        return new PooledConnection(connection, new StatementCache(connection, statementCacheSize, statementCacheHits, statementCacheMisses, statementCacheEvictions));
+    }
+
+    private boolean isValid(Connection connection){
+        try {
+            if(validationQuery == null) return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+
+            try(Statement statement = connection.createStatement()){
+                statement.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+                statement.execute(validationQuery);
+                return true;
+            }
+        }
+        catch (SQLException e){
+            return false;
+        }
+    }
+
+}
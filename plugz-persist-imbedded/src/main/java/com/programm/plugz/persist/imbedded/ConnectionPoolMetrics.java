@@ -0,0 +1,57 @@
+package com.programm.plugz.persist.imbedded;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Snapshot of the usage of a {@link IConnectionPool}.
+ */
+@RequiredArgsConstructor
+public class ConnectionPoolMetrics {
+    /** Connections currently borrowed. */
+    public final int active;
+    /** Open connections waiting in the pool. */
+    public final int idle;
+    /** Threads currently waiting for a connection. */
+    public final int waiters;
+    /** Total number of successful borrows. */
+    public final long borrows;
+    /** Total number of borrows which timed out. */
+    public final long timeouts;
+    /** Total number of opened connections. */
+    public final long created;
+    /** Total number of closed connections because they were idle too long or invalid. */
+    public final long evicted;
+    /** Sum of the time all borrows waited for a connection in milliseconds. */
+    public final long totalWaitMillis;
+    /** Longest time a single borrow waited for a connection in milliseconds. */
+    public final long maxWaitMillis;
+    /** Number of statements served from the statement caches of the connections. */
+    public final long statementCacheHits;
+    /** Number of statements which had to be prepared because they were not cached. */
+    public final long statementCacheMisses;
+    /** Number of cached statements closed to make room for others. */
+    public final long statementCacheEvictions;
+
+    public double averageWaitMillis(){
+        return borrows == 0 ? 0 : (double) totalWaitMillis / borrows;
+    }
+
+    public double statementCacheHitRatio(){
+        long total = statementCacheHits + statementCacheMisses;
+        return total == 0 ? 0 : (double) statementCacheHits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "active: " + active
+                + ", idle: " + idle
+                + ", waiters: " + waiters
+                + ", borrows: " + borrows
+                + ", timeouts: " + timeouts
+                + ", created: " + created
+                + ", evicted: " + evicted
+                + ", avg-wait: " + String.format("%.2f", averageWaitMillis()) + "ms"
+                + ", max-wait: " + maxWaitMillis + "ms"
+                + ", statement-cache: [hits: " + statementCacheHits + ", misses: " + statementCacheMisses + ", evictions: " + statementCacheEvictions + "]";
+    }
+}
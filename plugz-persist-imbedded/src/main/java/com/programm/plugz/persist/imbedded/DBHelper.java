@@ -11,6 +11,9 @@ import com.programm.plugz.persist.ex.PersistRuntimeException;
 import java.lang.reflect.Field;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -48,6 +51,37 @@ class DBHelper {
         return "FK_" + foreignTableName + "_" + dbFieldName(info.foreignKey);
     }
 
+    /**
+     * @return the column names of the table of the entity in the order of its fields.
+     */
+    public static List<String> getColumnNames(PersistEntityInfo entityInfo){
+        List<String> columns = new ArrayList<>();
+        for(String fieldName : entityInfo.analyzedEntity.getFieldEntryMap().keySet()){
+            PersistForeignKeyInfo foreignKeyInfo = entityInfo.foreignKeyInfoMap.get(fieldName);
+            String dbFieldName = dbFieldName(fieldName);
+            columns.add(foreignKeyInfo == null ? dbFieldName : getForeignKeyFromInfo(dbFieldName, foreignKeyInfo));
+        }
+
+        return columns;
+    }
+
+    /**
+     * @return the fields referencing a single foreign entity which should be fetched by joining its table - in the order of the fields.
+     */
+    public static List<String> getJoinedForeignKeys(PersistEntityInfo entityInfo, Map<Class<?>, PersistEntityInfo> infoMap){
+        List<String> joined = new ArrayList<>();
+        Map<String, PropertyEntry> fieldEntries = entityInfo.analyzedEntity.getFieldEntryMap();
+        for(String fieldName : fieldEntries.keySet()){
+            PersistForeignKeyInfo foreignKeyInfo = entityInfo.foreignKeyInfoMap.get(fieldName);
+            if(foreignKeyInfo == null || foreignKeyInfo.fetchMode != FetchMode.JOIN) continue;
+            if(!infoMap.containsKey(fieldEntries.get(fieldName).getType())) continue;
+
+            joined.add(fieldName);
+        }
+
+        return joined;
+    }
+
     public static boolean tableExists(Connection connection, String tableName) throws SQLException {
         DatabaseMetaData meta = connection.getMetaData();
         ResultSet resultSet = meta.getTables(null, null, tableName, new String[]{"TABLE"});
@@ -175,9 +209,55 @@ class DBHelper {
 
         connection.createStatement().executeUpdate(sb.toString());
 
+        createIndexes(connection, tableName, entityInfo);
+
         return null;
     }
 
+    /**
+     * @return the indexes of the fields annotated with {@link Indexed} - fields with the same index name are combined to one index.
+     */
+    public static List<IndexInfo> getIndexes(String tableName, PersistEntityInfo entityInfo){
+        Map<String, List<String>> indexFields = new LinkedHashMap<>();
+        Map<String, Boolean> indexUnique = new HashMap<>();
+
+        Map<String, PropertyEntry> fieldEntries = entityInfo.analyzedEntity.getFieldEntryMap();
+        for(String fieldName : fieldEntries.keySet()){
+            Indexed indexed = fieldEntries.get(fieldName).getField().getAnnotation(Indexed.class);
+            if(indexed == null) continue;
+
+            String indexName = indexed.value().isEmpty() ? "IDX_" + tableName + "_" + dbFieldName(fieldName) : indexed.value().toUpperCase();
+            indexFields.computeIfAbsent(indexName, n -> new ArrayList<>()).add(fieldName);
+            indexUnique.merge(indexName, indexed.unique(), Boolean::logicalOr);
+        }
+
+        List<IndexInfo> indexes = new ArrayList<>();
+        for(String indexName : indexFields.keySet()){
+            List<String> fields = indexFields.get(indexName);
+            fields.sort(Comparator.comparingInt(fieldName -> fieldEntries.get(fieldName).getField().getAnnotation(Indexed.class).order()));
+
+            List<String> columns = new ArrayList<>();
+            for(String fieldName : fields){
+                PersistForeignKeyInfo foreignKeyInfo = entityInfo.foreignKeyInfoMap.get(fieldName);
+                columns.add(foreignKeyInfo == null ? dbFieldName(fieldName) : getForeignKeyFromInfo(dbFieldName(fieldName), foreignKeyInfo));
+            }
+
+            indexes.add(new IndexInfo(indexName, indexUnique.get(indexName), fields, columns));
+        }
+
+        return indexes;
+    }
+
+    private static void createIndexes(Connection connection, String tableName, PersistEntityInfo entityInfo) throws SQLException {
+        for(IndexInfo index : getIndexes(tableName, entityInfo)){
+            //CREATE UNIQUE INDEX IDX_PERSON_NAME ON PERSON (NAME)
+            String sql = "CREATE " + (index.unique ? "UNIQUE " : "") + "INDEX " + index.name + " ON " + tableName + " (" + String.join(", ", index.columns) + ")";
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(sql);
+            }
+        }
+    }
+
     private static String getSqlDataTypeForFieldEntry(AnalyzedPropertyClass fieldType) throws PersistQueryBuildException{
         Class<?> type = fieldType.getType();
 
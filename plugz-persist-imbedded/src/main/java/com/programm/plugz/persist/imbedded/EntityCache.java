@@ -0,0 +1,96 @@
+package com.programm.plugz.persist.imbedded;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of the entities of one type keyed by their primary key.
+ * Entries expire after the time to live.
+ * Every invalidation increases the version of the cache, so entities loaded before an invalidation are not cached afterwards.
+ */
+class EntityCache {
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final Object entity;
+        private final long loadedAt;
+    }
+
+    private final Class<?> entityType;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Object, Entry> entries;
+
+    private long version;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public EntityCache(Class<?> entityType, int maxSize, long ttlMillis) {
+        this.entityType = entityType;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if(size() <= EntityCache.this.maxSize) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the cached entity or null if it is not cached or expired.
+     */
+    public synchronized Object get(Object id){
+        Entry entry = entries.get(id);
+        if(entry != null && ttlNanos > 0 && System.nanoTime() - entry.loadedAt > ttlNanos){
+            entries.remove(id);
+            evictions++;
+            entry = null;
+        }
+
+        if(entry == null){
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return entry.entity;
+    }
+
+    /**
+     * @return the current version, which has to be read before the entity is loaded.
+     */
+    public synchronized long version(){
+        return version;
+    }
+
+    /**
+     * Caches the entity if nothing was invalidated since the version was read.
+     * Otherwise the entity may have been loaded before a concurrent update and is stale.
+     */
+    public synchronized void put(Object id, Object entity, long version){
+        if(this.version != version) return;
+        entries.put(id, new Entry(entity, System.nanoTime()));
+    }
+
+    public synchronized void invalidate(Object id){
+        version++;
+        entries.remove(id);
+    }
+
+    public synchronized void clear(){
+        version++;
+        entries.clear();
+    }
+
+    public synchronized EntityCacheMetrics metrics(){
+        return new EntityCacheMetrics(entityType, entries.size(), maxSize, hits, misses, evictions);
+    }
+
+}
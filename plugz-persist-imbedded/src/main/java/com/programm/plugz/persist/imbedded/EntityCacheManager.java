@@ -0,0 +1,49 @@
+package com.programm.plugz.persist.imbedded;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class EntityCacheManager implements IEntityCacheManager {
+
+    private final Map<Class<?>, EntityCache> caches = new HashMap<>();
+
+    public void addCache(Class<?> entityType, int maxSize, long ttl){
+        caches.put(entityType, new EntityCache(entityType, maxSize, ttl));
+    }
+
+    /**
+     * @return the cache of the entity type or null if the entity is not cached.
+     */
+    public EntityCache cache(Class<?> entityType){
+        return caches.get(entityType);
+    }
+
+    @Override
+    public EntityCacheMetrics metrics(Class<?> entityType) {
+        EntityCache cache = caches.get(entityType);
+        return cache == null ? null : cache.metrics();
+    }
+
+    @Override
+    public Map<Class<?>, EntityCacheMetrics> metrics() {
+        Map<Class<?>, EntityCacheMetrics> metrics = new HashMap<>();
+        for(Map.Entry<Class<?>, EntityCache> entry : caches.entrySet()){
+            metrics.put(entry.getKey(), entry.getValue().metrics());
+        }
+
+        return metrics;
+    }
+
+    @Override
+    public void invalidate(Class<?> entityType, Object id) {
+        EntityCache cache = caches.get(entityType);
+        if(cache != null) cache.invalidate(id);
+    }
+
+    @Override
+    public void invalidateAll(Class<?> entityType) {
+        EntityCache cache = caches.get(entityType);
+        if(cache != null) cache.clear();
+    }
+
+}
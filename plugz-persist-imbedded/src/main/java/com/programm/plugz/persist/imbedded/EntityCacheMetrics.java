@@ -0,0 +1,37 @@
+package com.programm.plugz.persist.imbedded;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Snapshot of the usage of the entity cache of one entity type.
+ */
+@RequiredArgsConstructor
+public class EntityCacheMetrics {
+    /** The cached entity type. */
+    public final Class<?> entityType;
+    /** Number of currently cached entities. */
+    public final int size;
+    /** Max number of cached entities. */
+    public final int maxSize;
+    /** Number of lookups served from the cache. */
+    public final long hits;
+    /** Number of lookups which had to load the entity from the database. */
+    public final long misses;
+    /** Number of entities removed because the cache was full or they expired. */
+    public final long evictions;
+
+    public double hitRatio(){
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "entity: " + entityType.getName()
+                + ", size: " + size + "/" + maxSize
+                + ", hits: " + hits
+                + ", misses: " + misses
+                + ", hit-ratio: " + String.format("%.2f", hitRatio())
+                + ", evictions: " + evictions;
+    }
+}
@@ -0,0 +1,15 @@
+package com.programm.plugz.persist.imbedded;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Detached state of a cached entity.
+ * Foreign entities are only kept by their foreign key, so the snapshot does not reference the result it was loaded from.
+ */
+@RequiredArgsConstructor
+class EntitySnapshot {
+    public final Map<String, Object> values;
+    public final Map<String, Object> foreignKeys;
+}
@@ -0,0 +1,82 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.plugz.cls.analyzer.PropertyEntry;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+
+/**
+ * The entities built from the same query result.
+ * When a lazy foreign key of one entity is accessed, the pending foreign keys of the same field of all other entities in the group
+ * are loaded with it, so iterating a result only needs one query per foreign key field instead of one per entity.
+ */
+@RequiredArgsConstructor
+class ForeignKeyFetchGroup {
+
+    interface Loader {
+        /**
+         * @return the loaded entities mapped by their primary key. Missing entities are not part of the map.
+         */
+        Map<Object, Object> loadAllById(Class<?> entityType, Set<Object> ids);
+    }
+
+    @RequiredArgsConstructor
+    private static class Member {
+        private final Object entity;
+        private final Map<String, Object> pendingKeys;
+    }
+
+    private final Loader loader;
+    private final Map<Class<?>, List<Member>> members = new HashMap<>();
+    private final Map<Class<?>, Map<Object, Object>> joinedEntities = new HashMap<>();
+
+    /**
+     * Adds an entity with the foreign key values of its not yet loaded foreign entities.
+     * Keys are removed from the map once they are loaded.
+     */
+    public synchronized void add(Class<?> entityType, Object entity, Map<String, Object> pendingKeys){
+        members.computeIfAbsent(entityType, t -> new ArrayList<>()).add(new Member(entity, pendingKeys));
+    }
+
+    /**
+     * Loads the foreign entities of the field for all entities of the type which did not load it yet and sets them.
+     */
+    public synchronized void load(Class<?> entityType, String fieldName, PropertyEntry fieldEntry) throws InvocationTargetException {
+        List<Member> typeMembers = members.get(entityType);
+        if(typeMembers == null) return;
+
+        Set<Object> keys = new LinkedHashSet<>();
+        List<Member> pending = new ArrayList<>();
+        List<Object> pendingKeys = new ArrayList<>();
+        for(Member member : typeMembers){
+            Object key = member.pendingKeys.remove(fieldName);
+            if(key == null) continue;
+
+            keys.add(key);
+            pending.add(member);
+            pendingKeys.add(key);
+        }
+
+        if(keys.isEmpty()) return;
+
+        Map<Object, Object> loaded = loader.loadAllById(fieldEntry.getType(), keys);
+        for(int i=0;i<pending.size();i++){
+            Object foreignEntity = loaded.get(pendingKeys.get(i));
+            if(foreignEntity != null) fieldEntry.getSetter().set(pending.get(i).entity, foreignEntity);
+        }
+    }
+
+    /**
+     * @return the entity joined by an earlier row of the result or null.
+     */
+    public synchronized Object joined(Class<?> entityType, Object id){
+        Map<Object, Object> entities = joinedEntities.get(entityType);
+        return entities == null ? null : entities.get(id);
+    }
+
+    public synchronized void addJoined(Class<?> entityType, Object id, Object entity){
+        joinedEntities.computeIfAbsent(entityType, t -> new HashMap<>()).put(id, entity);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.programm.plugz.persist.imbedded;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Pool of database connections used by the imbedded repositories.
+ * Registered as instance so other components can share the connections.
+ */
+public interface IConnectionPool {
+
+    /**
+     * Borrows a connection from the pool and waits up to the configured borrow timeout if all connections are in use.
+     * Closing the returned connection gives it back to the pool.
+     * @return a valid connection.
+     * @throws java.sql.SQLTimeoutException if no connection became available in time.
+     * @throws SQLException if a new connection could not be created or the pool is closed.
+     */
+    Connection getConnection() throws SQLException;
+
+    /**
+     * @return a snapshot of the current usage of the pool.
+     */
+    ConnectionPoolMetrics metrics();
+
+}
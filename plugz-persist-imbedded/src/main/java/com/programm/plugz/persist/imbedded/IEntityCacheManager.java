@@ -0,0 +1,31 @@
+package com.programm.plugz.persist.imbedded;
+
+import java.util.Map;
+
+/**
+ * Access to the caches of the entities annotated with {@link com.programm.plugz.persist.Cached}.
+ * Registered as instance so changes done outside of the repositories can invalidate cached entities.
+ */
+public interface IEntityCacheManager {
+
+    /**
+     * @return the metrics of the cache of the entity type or null if the entity is not cached.
+     */
+    EntityCacheMetrics metrics(Class<?> entityType);
+
+    /**
+     * @return the metrics of all entity caches.
+     */
+    Map<Class<?>, EntityCacheMetrics> metrics();
+
+    /**
+     * Removes the cached entity with the primary key.
+     */
+    void invalidate(Class<?> entityType, Object id);
+
+    /**
+     * Removes all cached entities of the type.
+     */
+    void invalidateAll(Class<?> entityType);
+
+}
@@ -7,7 +7,6 @@ import com.programm.plugz.api.MagicRuntimeException;
 import com.programm.plugz.api.PlugzConfig;
 import com.programm.plugz.api.auto.Get;
 import com.programm.plugz.api.instance.IInstanceManager;
-import com.programm.plugz.api.utils.ValueUtils;
 import com.programm.plugz.cls.analyzer.*;
 import com.programm.plugz.codegen.ProxyClassCreationException;
 import com.programm.plugz.codegen.ProxyFactory;
@@ -16,19 +15,29 @@ import com.programm.plugz.codegen.ProxyMethodHandler;
 import com.programm.plugz.debugger.DValue;
 import com.programm.plugz.debugger.DebugValue;
 import com.programm.plugz.debugger.DebuggerWindow;
+import com.programm.plugz.persist.Cached;
 import com.programm.plugz.persist.IRepoHandler;
+import com.programm.plugz.persist.ITransactionManager;
 import com.programm.plugz.persist.PersistEntityInfo;
 import com.programm.plugz.persist.PersistForeignKeyInfo;
+import com.programm.plugz.persist.TransactionIsolation;
 import com.programm.plugz.persist.ex.*;
+import com.programm.plugz.persist.query.Page;
+import com.programm.plugz.persist.query.PageRequest;
 import lombok.RequiredArgsConstructor;
 
 import javax.naming.OperationNotSupportedException;
+import java.lang.reflect.Array;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 @Logger("Persist [Imbedded]")
 class ImbeddedRepoHandler implements IRepoHandler {
@@ -68,15 +77,26 @@ class ImbeddedRepoHandler implements IRepoHandler {
             MethodQueryInfoSupplier infoSupplier = methodQueryMap.get(mNameUnique);
             if(infoSupplier == null) throw new PersistQueryExecuteException("INVALID STATE: No query defined for method [" + mNameUnique + "]!");
 
+            if(infoSupplier instanceof BatchMethodQueryInfoSupplier batchInfoSupplier){
+                executeBatch(batchInfoSupplier, args);
+                return null;
+            }
+
+            if(infoSupplier instanceof PageMethodQueryInfoSupplier pageInfoSupplier){
+                return executePage(pageInfoSupplier, args);
+            }
+
             return executeQuery(infoSupplier, args);
         }
     }
 
     @RequiredArgsConstructor
-    private class ImbeddedProxyMethodHandler implements ProxyMethodHandler {
+    private static class ImbeddedProxyMethodHandler implements ProxyMethodHandler {
         private final AnalyzedPropertyClass entityClass;
+        private final ForeignKeyFetchGroup group;
 
-        private final Map<String, Object> foreignKeyMappedValueMap = new HashMap<>();
+        //Foreign key values of the not yet loaded foreign entities
+        private final Map<String, Object> foreignKeyMappedValueMap = new ConcurrentHashMap<>();
 
         @Override
         public boolean canHandle(Object instance, Method method) {
@@ -96,21 +116,21 @@ class ImbeddedRepoHandler implements IRepoHandler {
                 String propName = methodName.substring("get".length()).toLowerCase();
                 PropertyEntry propEntry = entityClass.getFieldEntryMap().get(propName);
                 if(propEntry != null) {
-                    String tableName = DBHelper.dbFieldName(propName);
                     Object value = method.invokeSuper(instance, args);
-                    if (value == null) {
-                        Object foreignKeyMappedValue = foreignKeyMappedValueMap.get(propName);
-                        if(foreignKeyMappedValue != null){
-                            PersistEntityInfo info = entityInfoMap.get(propEntry.getType());
-                            MethodQueryInfoSupplier sup = MethodQueryParser.analyzeAndGenerateSqlFromMethodName(null, tableName, info, "findById", info.analyzedEntity, entityInfoMap);
-                            value = executeQuery(sup, new Object[]{foreignKeyMappedValue});
-                            propEntry.getSetter().set(instance, value);
-                        }
+                    if (value == null && foreignKeyMappedValueMap.containsKey(propName)) {
+                        //Loads the foreign entities of all entities of the same result
+                        group.load(entityClass.getType(), propName, propEntry);
+                        value = method.invokeSuper(instance, args);
                     }
 
                     return value;
                 }
             }
+            else if(methodName.startsWith("set")){
+                //A set value replaces the not yet loaded foreign entity
+                String propName = methodName.substring("set".length()).toLowerCase();
+                foreignKeyMappedValueMap.remove(propName);
+            }
 
             return method.invokeSuper(instance, args);
         }
@@ -140,6 +160,33 @@ class ImbeddedRepoHandler implements IRepoHandler {
     private static final String CONF_PERSITS_DB_LOG_STATEMENTS_NAME = "persist.db.log.statements";
     private static final boolean CONF_PERSITS_DB_LOG_STATEMENTS_DEFAULT = false;
 
+    private static final String CONF_PERSITS_DB_FETCH_SIZE_NAME = "persist.db.fetch_size";
+    private static final int CONF_PERSITS_DB_FETCH_SIZE_DEFAULT = 100;
+
+    private static final String CONF_PERSITS_DB_TRANSACTION_ISOLATION_NAME = "persist.db.transaction_isolation";
+    private static final String CONF_PERSITS_DB_TRANSACTION_ISOLATION_DEFAULT = "default";
+
+    private static final String CONF_PERSITS_DB_BATCH_SIZE_NAME = "persist.db.batch_size";
+    private static final int CONF_PERSITS_DB_BATCH_SIZE_DEFAULT = 500;
+
+    private static final String CONF_PERSITS_DB_POOL_MIN_SIZE_NAME = "persist.db.pool.min_size";
+    private static final int CONF_PERSITS_DB_POOL_MIN_SIZE_DEFAULT = 1;
+
+    private static final String CONF_PERSITS_DB_POOL_MAX_SIZE_NAME = "persist.db.pool.max_size";
+    private static final int CONF_PERSITS_DB_POOL_MAX_SIZE_DEFAULT = 10;
+
+    private static final String CONF_PERSITS_DB_POOL_BORROW_TIMEOUT_NAME = "persist.db.pool.borrow_timeout";
+    private static final long CONF_PERSITS_DB_POOL_BORROW_TIMEOUT_DEFAULT = 30000;
+
+    private static final String CONF_PERSITS_DB_POOL_VALIDATION_QUERY_NAME = "persist.db.pool.validation_query";
+    private static final String CONF_PERSITS_DB_POOL_VALIDATION_QUERY_DEFAULT = "";
+
+    private static final String CONF_PERSITS_DB_POOL_IDLE_TIMEOUT_NAME = "persist.db.pool.idle_timeout";
+    private static final long CONF_PERSITS_DB_POOL_IDLE_TIMEOUT_DEFAULT = 600000;
+
+    private static final String CONF_PERSITS_DB_POOL_STATEMENT_CACHE_SIZE_NAME = "persist.db.pool.statement_cache_size";
+    private static final int CONF_PERSITS_DB_POOL_STATEMENT_CACHE_SIZE_DEFAULT = 64;
+
 
 
 
@@ -153,14 +200,28 @@ class ImbeddedRepoHandler implements IRepoHandler {
     private final String tableCreateMode;
 
     private final boolean logStatements;
+    private final int batchSize;
+    private final int fetchSize;
+    private final String transactionIsolation;
+
+    private final int poolMinSize;
+    private final int poolMaxSize;
+    private final long poolBorrowTimeout;
+    private final String poolValidationQuery;
+    private final long poolIdleTimeout;
+    private final int poolStatementCacheSize;
 
 //    private final Map<Class<?>, PersistEntityInfo> entityInfos2 = new HashMap<>();
 //    private final Map<AnalyzedPropertyClass, DBEntityInfo> entityInfos = new HashMap<>();
 
     private ClassAnalyzer analyzer;
-    private Connection databaseConnection;
+    private ConnectionPool connectionPool;
+    private ImbeddedTransactionManager transactionManager;
+    private EntityCacheManager entityCacheManager;
 
     private Map<Class<?>, PersistEntityInfo> entityInfoMap;
+    private final Map<String, RowMapper> rowMappers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, RowMapper.EntityFactory> entityFactories = new ConcurrentHashMap<>();
 
     public ImbeddedRepoHandler(@Get ILogger log, @Get IInstanceManager instanceManager, @Get PlugzConfig config) {
         this.log = log;
@@ -172,6 +233,16 @@ class ImbeddedRepoHandler implements IRepoHandler {
         this.tableCreateMode = config.getOrDefault(CONF_PERSITS_DB_TABLE_CREATE_MODE_NAME, CONF_PERSITS_DB_TABLE_CREATE_MODE_DEFAULT);
 
         this.logStatements = config.getBoolOrDefault(CONF_PERSITS_DB_LOG_STATEMENTS_NAME, CONF_PERSITS_DB_LOG_STATEMENTS_DEFAULT);
+        this.batchSize = Math.max(1, config.getIntOrDefault(CONF_PERSITS_DB_BATCH_SIZE_NAME, CONF_PERSITS_DB_BATCH_SIZE_DEFAULT));
+        this.fetchSize = Math.max(0, config.getIntOrDefault(CONF_PERSITS_DB_FETCH_SIZE_NAME, CONF_PERSITS_DB_FETCH_SIZE_DEFAULT));
+        this.transactionIsolation = config.getOrDefault(CONF_PERSITS_DB_TRANSACTION_ISOLATION_NAME, CONF_PERSITS_DB_TRANSACTION_ISOLATION_DEFAULT);
+
+        this.poolMinSize = config.getIntOrDefault(CONF_PERSITS_DB_POOL_MIN_SIZE_NAME, CONF_PERSITS_DB_POOL_MIN_SIZE_DEFAULT);
+        this.poolMaxSize = config.getIntOrDefault(CONF_PERSITS_DB_POOL_MAX_SIZE_NAME, CONF_PERSITS_DB_POOL_MAX_SIZE_DEFAULT);
+        this.poolBorrowTimeout = config.getLongOrDefault(CONF_PERSITS_DB_POOL_BORROW_TIMEOUT_NAME, CONF_PERSITS_DB_POOL_BORROW_TIMEOUT_DEFAULT);
+        this.poolValidationQuery = config.getOrDefault(CONF_PERSITS_DB_POOL_VALIDATION_QUERY_NAME, CONF_PERSITS_DB_POOL_VALIDATION_QUERY_DEFAULT);
+        this.poolIdleTimeout = config.getLongOrDefault(CONF_PERSITS_DB_POOL_IDLE_TIMEOUT_NAME, CONF_PERSITS_DB_POOL_IDLE_TIMEOUT_DEFAULT);
+        this.poolStatementCacheSize = config.getIntOrDefault(CONF_PERSITS_DB_POOL_STATEMENT_CACHE_SIZE_NAME, CONF_PERSITS_DB_POOL_STATEMENT_CACHE_SIZE_DEFAULT);
     }
 
     private IClassPropertyBuilder provideBuilders(AnalyzedParameterizedType analyzedType){
@@ -181,6 +252,10 @@ class ImbeddedRepoHandler implements IRepoHandler {
         else if(List.class.isAssignableFrom(analyzedType.getType())){
             return ArrayList::new;
         }
+        //Plain collections like the result of ICrudRepository.findAll
+        else if(analyzedType.getType() == Collection.class){
+            return ArrayList::new;
+        }
         else if(Map.class.isAssignableFrom(analyzedType.getType())) {
             return HashMap::new;
         }
@@ -201,20 +276,58 @@ class ImbeddedRepoHandler implements IRepoHandler {
         log.info("Starting up persist-connection.");
         log.debug("With arguments [url: '{}', user: '{}', pwd: '{}']", databaseUrl, databaseUsername, databasePassword);
 
+        log.debug("With connection pool [min: {}, max: {}, borrow-timeout: {}ms, idle-timeout: {}ms, statement-cache: {}]", poolMinSize, poolMaxSize, poolBorrowTimeout, poolIdleTimeout, poolStatementCacheSize);
+
+        TransactionIsolation defaultIsolation;
+        try {
+            defaultIsolation = TransactionIsolation.valueOf(transactionIsolation.toUpperCase());
+        }
+        catch (IllegalArgumentException e){
+            throw new PersistStartupException("Unknown transaction_isolation [" + transactionIsolation + "]!", e);
+        }
+
+        connectionPool = new ConnectionPool(log, databaseUrl, databaseUsername, databasePassword, poolMinSize, poolMaxSize, poolBorrowTimeout, poolValidationQuery, poolIdleTimeout, poolStatementCacheSize);
         try {
-            databaseConnection = DriverManager.getConnection(databaseUrl, databaseUsername, databasePassword);
+            connectionPool.start();
         }
         catch (SQLException e){
             throw new PersistStartupException("Failed to establish database connection!", e);
         }
 
+        transactionManager = new ImbeddedTransactionManager(connectionPool, defaultIsolation);
+
+        try {
+            instanceManager.registerInstance(IConnectionPool.class, connectionPool);
+        }
+        catch (MagicInstanceException e){
+            throw new PersistStartupException("Failed to register instance of db connection pool!", e);
+        }
+
+        entityCacheManager = new EntityCacheManager();
+        for(PersistEntityInfo entityInfo : entityInfoMap.values()){
+            Cached cached = entityInfo.entityClass.getAnnotation(Cached.class);
+            if(cached == null) continue;
+
+            log.debug("Caching entity [{}] with [max-size: {}, ttl: {}ms].", entityInfo.entityClass.getName(), cached.maxSize(), cached.ttl());
+            entityCacheManager.addCache(entityInfo.entityClass, cached.maxSize(), cached.ttl());
+        }
+
         try {
-            instanceManager.registerInstance(Connection.class, databaseConnection);
+            instanceManager.registerInstance(IEntityCacheManager.class, entityCacheManager);
         }
         catch (MagicInstanceException e){
-            throw new PersistStartupException("Failed to register instance of db connection!", e);
+            throw new PersistStartupException("Failed to register instance of entity cache manager!", e);
         }
 
+        try(Connection connection = connectionPool.getConnection()) {
+            createTables(connection, entityInfoMap);
+        }
+        catch (SQLException e){
+            throw new PersistStartupException("Failed to borrow a database connection to create the tables!", e);
+        }
+    }
+
+    private void createTables(Connection connection, Map<Class<?>, PersistEntityInfo> entityInfoMap) throws PersistStartupException {
         Set<String> tableCheckExist = new HashSet<>();
         for(Class<?> entityClass : entityInfoMap.keySet()){
             PersistEntityInfo entityInfo = entityInfoMap.get(entityClass);
@@ -226,7 +339,7 @@ class ImbeddedRepoHandler implements IRepoHandler {
             if(tableCheckExist.contains(tableName)) continue;
 
             try {
-                PersistEntityInfo dependTable = checkCreateTable(tableName, entityInfo, entityInfoMap, tableCheckExist);
+                PersistEntityInfo dependTable = checkCreateTable(connection, tableName, entityInfo, entityInfoMap, tableCheckExist);
 
                 if(dependTable != null) {
                     Set<String> cyclicCheck = new HashSet<>();
@@ -238,7 +351,7 @@ class ImbeddedRepoHandler implements IRepoHandler {
                         String _tableName = DBHelper.getTableNameFromEntity(info);
                         if(cyclicCheck.contains(_tableName)) throw new PersistStartupException("Cyclic table dependency " + cyclicCheck + "!");
                         cyclicCheck.add(_tableName);
-                        dependTable = checkCreateTable(_tableName, info, entityInfoMap, tableCheckExist);
+                        dependTable = checkCreateTable(connection, _tableName, info, entityInfoMap, tableCheckExist);
                         if(dependTable != null) {
                             dependStack.push(dependTable);
                         }
@@ -248,7 +361,7 @@ class ImbeddedRepoHandler implements IRepoHandler {
                         }
                     }
 
-                    dependTable = checkCreateTable(tableName, entityInfo, entityInfoMap, tableCheckExist);
+                    dependTable = checkCreateTable(connection, tableName, entityInfo, entityInfoMap, tableCheckExist);
                     if(dependTable != null) throw new IllegalStateException("INVALID STATE: something went wrong.");
                 }
             }
@@ -262,31 +375,58 @@ class ImbeddedRepoHandler implements IRepoHandler {
 
     @Override
     public void shutdown() throws PersistShutdownException {
-        log.debug("Shutting down current database connection...");
+        log.debug("Shutting down database connection pool...");
+        if(connectionPool == null) return;
+
+        log.debug("Connection pool metrics [{}]", connectionPool.metrics());
+        if(entityCacheManager != null) {
+            for (EntityCacheMetrics metrics : entityCacheManager.metrics().values()) {
+                log.debug("Entity cache metrics [{}]", metrics);
+            }
+        }
+
         try {
-            if(databaseConnection != null) databaseConnection.close();
+            connectionPool.close();
         }
         catch (SQLException e){
-            throw new PersistShutdownException("Failed to shut down current database connection.", e);
+            throw new PersistShutdownException("Failed to shut down the database connection pool.", e);
         }
     }
 
+    @Override
+    public ITransactionManager transactionManager() {
+        return transactionManager;
+    }
+
     @Override
     public Object createRepoImplementation(Class<?> cls, PersistEntityInfo entityInfo, Map<Class<?>, PersistEntityInfo> infoMap) throws PersistQueryBuildException {
         log.debug("Creating Repository implementation for class [{}] with entity [{}] ...", cls, entityInfo.analyzedEntity.getType());
 
         String tableName = DBHelper.getTableNameFromEntity(entityInfo);
 
+        List<IndexInfo> indexes = DBHelper.getIndexes(tableName, entityInfo);
+
+        if(entityInfo.analyzedEntity.getFieldEntryMap().get(entityInfo.primaryKey).getSetter() == null){
+            log.warn("No setter available for id field of entity [{}] - generated ids will not be written back.", entityInfo.entityClass.getName());
+        }
+
         Map<String, MethodQueryInfoSupplier> methodQueryMap = new HashMap<>();
-        Method[] declaredMethods = cls.getDeclaredMethods();
-        for(Method method : declaredMethods){
-            AnalyzedPropertyClass methodReturnType = analyzeMethodReturnType(method, entityInfo.analyzedEntity.getParameterizedTypeMap());
+        //Public methods include the ones inherited from super interfaces like ICrudRepository
+        Method[] methods = cls.getMethods();
+        for(Method method : methods){
+            Map<String, AnalyzedParameterizedType> genericTypes = declaringTypeVariables(cls, method.getDeclaringClass(), entityInfo.analyzedEntity.getParameterizedTypeMap());
+            AnalyzedPropertyClass methodReturnType = analyzeMethodReturnType(method, genericTypes);
 
             String mName = getUniqueMethodName(method);
 
             try {
                 MethodQueryInfoSupplier infoSupplier = MethodQueryParser.parse(tableName, entityInfo, method, methodReturnType, infoMap);
                 methodQueryMap.put(mName, infoSupplier);
+
+                List<String> unindexedFields = unindexedFields(infoSupplier.filteredFields(), entityInfo.primaryKey, indexes);
+                if(!unindexedFields.isEmpty()) {
+                    log.warn("Method [{}] of repository [{}] filters on the unindexed fields {} - consider annotating them with @Indexed.", method.getName(), cls.getName(), unindexedFields);
+                }
             }
             catch (PersistQueryBuildException e){
                 throw new PersistQueryBuildException("Failed to analyze and parse method [" + method + "] into a sql statement!", e);
@@ -297,14 +437,14 @@ class ImbeddedRepoHandler implements IRepoHandler {
         return Proxy.newProxyInstance(cls.getClassLoader(), new Class<?>[]{cls}, invocationHandler);
     }
 
-    private PersistEntityInfo checkCreateTable(String tableName, PersistEntityInfo entityInfo, Map<Class<?>, PersistEntityInfo> infoMap, Set<String> tableCheckExist) throws PersistException {
+    private PersistEntityInfo checkCreateTable(Connection connection, String tableName, PersistEntityInfo entityInfo, Map<Class<?>, PersistEntityInfo> infoMap, Set<String> tableCheckExist) throws PersistException {
         log.debug("Check-Create table [{}]...", tableName);
         if(tableCreateMode.equals(TABLE_CREATE_MODE_CREATE)){
             try {
-                if(!DBHelper.tableExists(databaseConnection, tableName)) {
+                if(!DBHelper.tableExists(connection, tableName)) {
                     log.debug("Table does not exist!");
                     log.debug("Creating table [{}]...", tableName);
-                    return DBHelper.createTableForAnalyzedEntity(databaseConnection, tableName, entityInfo, infoMap, tableCheckExist);
+                    return DBHelper.createTableForAnalyzedEntity(connection, tableName, entityInfo, infoMap, tableCheckExist);
                 }
                 return null;
             }
@@ -315,8 +455,8 @@ class ImbeddedRepoHandler implements IRepoHandler {
         else if(tableCreateMode.equals(TABLE_CREATE_MODE_OVERRIDE)){
             log.debug("Overriding table [{}]...", tableName);
             try {
-                if(DBHelper.tableExists(databaseConnection, tableName)) {
-                    DBHelper.dropTable(databaseConnection, tableName);
+                if(DBHelper.tableExists(connection, tableName)) {
+                    DBHelper.dropTable(connection, tableName);
                 }
             }
             catch (SQLException e){
@@ -324,7 +464,7 @@ class ImbeddedRepoHandler implements IRepoHandler {
             }
 
             try {
-                return DBHelper.createTableForAnalyzedEntity(databaseConnection, tableName, entityInfo, infoMap, tableCheckExist);
+                return DBHelper.createTableForAnalyzedEntity(connection, tableName, entityInfo, infoMap, tableCheckExist);
             }
             catch (SQLException e){
                 throw new PersistQueryBuildException("Failed to create table [" + tableName + "]!", e);
@@ -332,7 +472,7 @@ class ImbeddedRepoHandler implements IRepoHandler {
         }
         else if(tableCreateMode.equals(TABLE_CREATE_MODE_FAIL)){
             try {
-                if(!DBHelper.tableExists(databaseConnection, tableName)) {
+                if(!DBHelper.tableExists(connection, tableName)) {
                     throw new PersistQueryBuildException("Table [" + tableName + "] does not exist while in fail mode!");
                 }
             }
@@ -348,31 +488,49 @@ class ImbeddedRepoHandler implements IRepoHandler {
 
     private Object executeQuery(MethodQueryInfoSupplier infoSupplier, Object[] origParameters){
         MethodQueryInfo info = infoSupplier.queryInfo(origParameters);
-        Object[] parameters = info.statementArguments;
 
-        if(logStatements) log.info("Executing [{}] with parameters: {}", info.query, Arrays.toString(parameters));
+        EntityCache cache = info.cacheEntity == null ? null : entityCacheManager.cache(info.cacheEntity);
+        if(cache == null) return executeQueryInfo(info);
 
+        if(info.type == StatementType.QUERY){
+            //Inside of a transaction the cache does not see its uncommitted writes and loaded entities might not be committed yet
+            if(transactionManager.isActive()) return executeQueryInfo(info);
 
+            PersistEntityInfo entityInfo = entityInfoMap.get(info.cacheEntity);
+            EntitySnapshot snapshot = (EntitySnapshot) cache.get(info.cacheId);
+            if(snapshot != null) return attach(entityInfo, snapshot, new ForeignKeyFetchGroup(this::loadAllById));
 
-        //Prepare Statement
-        PreparedStatement statement;
-        try {
-            if(info.generatedKeysCallback != null){
-                statement = databaseConnection.prepareStatement(info.query, Statement.RETURN_GENERATED_KEYS);
-            }
-            else {
-                statement = databaseConnection.prepareStatement(info.query);
-            }
+            long cacheVersion = cache.version();
+            Object entity = executeQueryInfo(info);
+            if(entity != null) cache.put(info.cacheId, detach(entityInfo, entity), cacheVersion);
 
-            for (int i = 0; i < info.parameterTypes.size(); i++) {
-                DBHelper.prepareStatement(statement, i + 1, info.parameterTypes.get(i), parameters[i]);
-            }
+            return entity;
         }
-        catch (SQLException e){
-            throw new PersistQueryExecuteException("Failed to prepare statement for query [" + info.query + "]!", e);
+
+        Object result = executeQueryInfo(info);
+        invalidateCached(cache, Collections.singletonList(info.cacheId));
+        return result;
+    }
+
+    private void invalidateCached(EntityCache cache, List<Object> ids){
+        for(Object id : ids){
+            cache.invalidate(id);
         }
 
+        //Other threads could cache the old entity until the transaction is committed
+        if(transactionManager.isActive()){
+            transactionManager.afterCompletion(() -> {
+                for(Object id : ids){
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
 
+    private Object executeQueryInfo(MethodQueryInfo info){
+        Object[] parameters = info.statementArguments;
+
+        if(logStatements) log.info("Executing [{}] with parameters: {}", info.query, Arrays.toString(parameters));
 
 
 
@@ -393,8 +551,8 @@ class ImbeddedRepoHandler implements IRepoHandler {
                     throw new MagicRuntimeException("Failed to analyze return type of set [" + parameterizedType + "]", e);
                 }
             }
-            //1. COLLECTION (List)
-            else if (List.class.isAssignableFrom(retType.getType())) {
+            //1. COLLECTION (List or plain Collection)
+            else if (List.class.isAssignableFrom(retType.getType()) || retType.getType() == Collection.class) {
                 resultType = QueryResultType.LIST;
                 AnalyzedParameterizedType parameterizedType = retType.getParameterizedTypeMap().get("E");
                 try {
@@ -405,6 +563,18 @@ class ImbeddedRepoHandler implements IRepoHandler {
                 }
             }
 
+            //1. COLLECTION (Page) - wrapped by the caller
+            else if (Page.class.isAssignableFrom(retType.getType())) {
+                resultType = QueryResultType.LIST;
+                AnalyzedParameterizedType parameterizedType = retType.getParameterizedTypeMap().get("T");
+                try {
+                    returnValueType = analyzer.analyzeProperty(parameterizedType, parameterizedType.getType());
+                }
+                catch (ClassAnalyzeException e){
+                    throw new MagicRuntimeException("Failed to analyze return type of page [" + parameterizedType + "]", e);
+                }
+            }
+
             //2. ARRAY
             else if (retType.getType().isArray()) {
                 resultType = QueryResultType.ARRAY;
@@ -417,13 +587,37 @@ class ImbeddedRepoHandler implements IRepoHandler {
                 }
             }
 
-            //3. OBJECT-PROPERTY - MAP
+            //3. CURSOR (Stream)
+            else if (Stream.class.isAssignableFrom(retType.getType())) {
+                resultType = QueryResultType.STREAM;
+                AnalyzedParameterizedType parameterizedType = retType.getParameterizedTypeMap().get("T");
+                try {
+                    returnValueType = analyzer.analyzeProperty(parameterizedType, parameterizedType.getType());
+                }
+                catch (ClassAnalyzeException e){
+                    throw new MagicRuntimeException("Failed to analyze return type of stream [" + parameterizedType + "]", e);
+                }
+            }
+
+            //3. CURSOR (Iterator)
+            else if (Iterator.class.isAssignableFrom(retType.getType())) {
+                resultType = QueryResultType.ITERATOR;
+                AnalyzedParameterizedType parameterizedType = retType.getParameterizedTypeMap().get("E");
+                try {
+                    returnValueType = analyzer.analyzeProperty(parameterizedType, parameterizedType.getType());
+                }
+                catch (ClassAnalyzeException e){
+                    throw new MagicRuntimeException("Failed to analyze return type of iterator [" + parameterizedType + "]", e);
+                }
+            }
+
+            //4. OBJECT-PROPERTY - MAP
             else if (Map.class.isAssignableFrom(retType.getType())) {
                 resultType = QueryResultType.OBJECT_MAP;
                 returnValueType = retType;
             }
 
-            //4. OBJECT
+            //5. OBJECT
             else {
                 resultType = QueryResultType.OBJECT;
                 returnValueType = retType;
@@ -432,22 +626,392 @@ class ImbeddedRepoHandler implements IRepoHandler {
             if(returnValueType.getBuilder() == null) throw new MagicRuntimeException("No Builder present for return type [" + returnValueType.getType() + "]");
         }
 
+        if(resultType == QueryResultType.STREAM || resultType == QueryResultType.ITERATOR){
+            ResultCursor cursor = openCursor(info, returnValueType);
+            return resultType == QueryResultType.STREAM ? cursor.stream() : cursor;
+        }
+
+
+
+
+
+
+        //Borrow a connection for this call or use the one of the active transaction
+        Connection connection = borrowConnection(info.query);
+
+        try {
+            //Prepare Statement - the sql of a method does not change, so the statement is reused from the cache of the connection
+            PreparedStatement statement;
+            try {
+                statement = connectionPool.prepareStatement(connection, info.query, info.generatedKeysCallback != null);
+            }
+            catch (SQLException e){
+                throw new PersistQueryExecuteException("Failed to prepare statement for query [" + info.query + "]!", e);
+            }
+
+            try {
+                for (int i = 0; i < info.parameterTypes.size(); i++) {
+                    DBHelper.prepareStatement(statement, i + 1, info.parameterTypes.get(i), parameters[i]);
+                }
+            }
+            catch (SQLException e){
+                connectionPool.releaseStatement(connection, statement);
+                throw new PersistQueryExecuteException("Failed to prepare statement for query [" + info.query + "]!", e);
+            }
+
+            try {
+                return executePreparedStatement(statement, info, returnValueType, resultType);
+            }
+            finally {
+                connectionPool.releaseStatement(connection, statement);
+            }
+        }
+        catch (SQLException e){
+            throw new PersistRuntimeException("Failed to release statement of query [" + info.query + "]!", e);
+        }
+        finally {
+            releaseConnection(connection, info.query);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Page<Object> executePage(PageMethodQueryInfoSupplier infoSupplier, Object[] origParameters){
+        PageRequest request = infoSupplier.pageRequest(origParameters);
+        List<Object> content = (List<Object>) executeQueryInfo(infoSupplier.queryInfo(origParameters));
+
+        long total = -1;
+        if(request.count){
+            //A page which is not full tells the total - unless it is empty as the page could be behind the last one
+            if(content.size() < request.size && (!content.isEmpty() || request.page == 0)){
+                total = request.offset() + content.size();
+            }
+            else {
+                total = executeCount(infoSupplier.countQueryInfo(origParameters));
+            }
+        }
+
+        return new Page<>(content, request, total);
+    }
+
+    private long executeCount(MethodQueryInfo info){
+        if(logStatements) log.info("Executing [{}] with parameters: {}", info.query, Arrays.toString(info.statementArguments));
+
+        Connection connection = borrowConnection(info.query);
+        try {
+            PreparedStatement statement = connectionPool.prepareStatement(connection, info.query, false);
+            try {
+                for (int i = 0; i < info.parameterTypes.size(); i++) {
+                    DBHelper.prepareStatement(statement, i + 1, info.parameterTypes.get(i), info.statementArguments[i]);
+                }
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? resultSet.getLong(1) : 0;
+                }
+            }
+            finally {
+                connectionPool.releaseStatement(connection, statement);
+            }
+        }
+        catch (SQLException e){
+            throw new PersistRuntimeException("Failed to run sql statement: [" + info.query + "]!", e);
+        }
+        finally {
+            releaseConnection(connection, info.query);
+        }
+    }
+
+    /**
+     * A composite index can only be used for the leading fields the query filters on.
+     * @return the filtered fields which are neither the primary key nor part of such a prefix of an index.
+     */
+    static List<String> unindexedFields(List<String> filteredFields, String primaryKey, List<IndexInfo> indexes){
+        //Lower case names of the fields covered by the primary key or an index
+        Set<String> filtered = new HashSet<>();
+        for(String field : filteredFields) filtered.add(field.toLowerCase());
+
+        Set<String> indexedFields = new HashSet<>();
+        indexedFields.add(primaryKey.toLowerCase());
+        for(IndexInfo index : indexes){
+            for(String field : index.fields){
+                if(!filtered.contains(field.toLowerCase())) break;
+                indexedFields.add(field.toLowerCase());
+            }
+        }
 
+        return filteredFields.stream().filter(field -> !indexedFields.contains(field.toLowerCase())).toList();
+    }
 
+    private ResultCursor openCursor(MethodQueryInfo info, AnalyzedPropertyClass returnValueType){
+        //The connection stays borrowed until the cursor is closed
+        Connection connection = borrowConnection(info.query);
+        boolean ownsConnection = connection != transactionManager.currentConnection();
 
+        PreparedStatement statement = null;
+        boolean resetAutoCommit = false;
+        try {
+            //Some drivers only fetch the rows in chunks inside of a transaction
+            if(ownsConnection && connection.getAutoCommit()){
+                connection.setAutoCommit(false);
+                resetAutoCommit = true;
+            }
 
+            //Not taken from the statement cache as the statement stays open with the cursor
+            statement = connection.prepareStatement(info.query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
 
+            for (int i = 0; i < info.parameterTypes.size(); i++) {
+                DBHelper.prepareStatement(statement, i + 1, info.parameterTypes.get(i), info.statementArguments[i]);
+            }
 
+            ResultSet resultSet = statement.executeQuery();
+            RowMapper rowMapper = getRowMapper(info.query, returnValueType, resultSet.getMetaData(), info.fetchJoins);
+
+            PreparedStatement cursorStatement = statement;
+            boolean cursorResetAutoCommit = resetAutoCommit;
+            return new ResultCursor(info.query, resultSet, rowMapper, batchSize, this::loadAllById, () -> closeCursor(connection, ownsConnection, cursorStatement, cursorResetAutoCommit));
+        }
+        catch (SQLException e){
+            try {
+                if(statement != null) statement.close();
+                if(ownsConnection) closeCursor(connection, true, null, resetAutoCommit);
+            }
+            catch (SQLException closeException){
+                e.addSuppressed(closeException);
+            }
+
+            throw new PersistQueryExecuteException("Failed to open cursor for query [" + info.query + "]!", e);
+        }
+    }
+
+    private void closeCursor(Connection connection, boolean ownsConnection, PreparedStatement statement, boolean resetAutoCommit) throws SQLException {
+        SQLException exception = null;
+
+        if(statement != null) {
+            try {
+                statement.close();
+            }
+            catch (SQLException e) {
+                exception = e;
+            }
+        }
+
+        if(ownsConnection){
+            try {
+                if(resetAutoCommit){
+                    connection.commit();
+                    connection.setAutoCommit(true);
+                }
+            }
+            catch (SQLException e){
+                if(exception == null) exception = e;
+                else exception.addSuppressed(e);
+            }
+
+            try {
+                connection.close();
+            }
+            catch (SQLException e){
+                if(exception == null) exception = e;
+                else exception.addSuppressed(e);
+            }
+        }
+
+        if(exception != null) throw exception;
+    }
+
+    private void executeBatch(BatchMethodQueryInfoSupplier infoSupplier, Object[] origParameters){
+        List<BatchQueryInfo> infos = infoSupplier.batchQueryInfos(origParameters);
+        if(infos.isEmpty()) return;
+
+        //Borrow a connection for the whole batch or use the one of the active transaction
+        Connection connection = borrowConnection(infos.get(0).query);
+
+        try {
+            //All batches of a call are committed together - inside of a transaction auto commit is already disabled
+            boolean autoCommit = connection.getAutoCommit();
+            if(autoCommit) connection.setAutoCommit(false);
+
+            try {
+                for(BatchQueryInfo info : infos){
+                    executeBatchQuery(connection, info);
+                }
+
+                if(autoCommit) connection.commit();
+
+                for(BatchQueryInfo info : infos){
+                    EntityCache cache = info.cacheEntity == null ? null : entityCacheManager.cache(info.cacheEntity);
+                    if(cache != null) invalidateCached(cache, info.cacheIds);
+                }
+            }
+            catch (SQLException | RuntimeException e){
+                if(autoCommit) connection.rollback();
+                throw e;
+            }
+            finally {
+                if(autoCommit) connection.setAutoCommit(true);
+            }
+        }
+        catch (SQLException e){
+            throw new PersistRuntimeException("Failed to run batch statements: " + infos.stream().map(info -> info.query).toList() + "!", e);
+        }
+        finally {
+            releaseConnection(connection, infos.get(0).query);
+        }
+    }
+
+    private Connection borrowConnection(String query){
+        Connection connection = transactionManager.currentConnection();
+        if(connection != null) return connection;
+
+        try {
+            return connectionPool.getConnection();
+        }
+        catch (SQLException e){
+            throw new PersistQueryExecuteException("Failed to get a database connection for query [" + query + "]!", e);
+        }
+    }
+
+    private void releaseConnection(Connection connection, String query){
+        //The connection of a transaction is released when the transaction ends
+        if(connection == transactionManager.currentConnection()) return;
+
+        try {
+            connection.close();
+        }
+        catch (SQLException e){
+            throw new PersistRuntimeException("Failed to release connection of query [" + query + "]!", e);
+        }
+    }
+
+    private void executeBatchQuery(Connection connection, BatchQueryInfo info) throws SQLException {
+        if(logStatements) log.info("Executing batch [{}] with {} parameter sets.", info.query, info.statementArguments.size());
+
+        PreparedStatement statement = connectionPool.prepareStatement(connection, info.query, info.generatedKeysCallback != null);
+        try {
+            int batchStart = 0;
+            int size = info.statementArguments.size();
+            for(int o=0;o<size;o++){
+                Object[] parameters = info.statementArguments.get(o);
+                for (int i = 0; i < info.parameterTypes.size(); i++) {
+                    DBHelper.prepareStatement(statement, i + 1, info.parameterTypes.get(i), parameters[i]);
+                }
+                statement.addBatch();
+
+                if(o + 1 - batchStart == batchSize || o + 1 == size){
+                    statement.executeBatch();
+
+                    if(info.generatedKeysCallback != null){
+                        try (ResultSet set = statement.getGeneratedKeys()) {
+                            info.generatedKeysCallback.call(set, batchStart, o + 1);
+                        }
+                        catch (SQLException e){
+                            throw new SQLException("Something went wrong when passing generated keys!", e);
+                        }
+                    }
+
+                    batchStart = o + 1;
+                }
+            }
+        }
+        catch (SQLException | RuntimeException e){
+            //The cached statement should not keep the remaining parameter sets
+            try {
+                statement.clearBatch();
+            }
+            catch (SQLException clearException){
+                e.addSuppressed(clearException);
+            }
+            throw e;
+        }
+        finally {
+            connectionPool.releaseStatement(connection, statement);
+        }
+    }
+
+    /**
+     * Loads the entities with the primary keys in as few queries as possible - SELECT * FROM PERSON WHERE ID IN (?, ?, ...).
+     * Cached entities are not loaded again, unless inside of a transaction.
+     */
+    private Map<Object, Object> loadAllById(Class<?> entityType, Set<Object> ids){
+        PersistEntityInfo entityInfo = entityInfoMap.get(entityType);
+        PropertyEntry idFieldEntry = entityInfo.analyzedEntity.getFieldEntryMap().get(entityInfo.primaryKey);
+        EntityCache cache = transactionManager.isActive() ? null : entityCacheManager.cache(entityType);
+
+        //Cached and loaded entities load their foreign entities together
+        ForeignKeyFetchGroup group = new ForeignKeyFetchGroup(this::loadAllById);
+
+        Map<Object, Object> entities = new HashMap<>();
+        List<Object> missing = new ArrayList<>();
+        for(Object id : ids){
+            EntitySnapshot snapshot = cache == null ? null : (EntitySnapshot) cache.get(id);
+            if(snapshot != null) entities.put(id, attach(entityInfo, snapshot, group));
+            else missing.add(id);
+        }
+
+        if(missing.isEmpty()) return entities;
+        long cacheVersion = cache == null ? 0 : cache.version();
+
+        String baseQuery = "SELECT * FROM " + DBHelper.getTableNameFromEntity(entityInfo) + " WHERE " + DBHelper.dbFieldName(entityInfo.primaryKey) + " IN ";
+
+        Connection connection = borrowConnection(baseQuery);
+        try {
+            for(int from=0;from<missing.size();from+=batchSize){
+                int to = Math.min(missing.size(), from + batchSize);
+
+                //Round the number of parameters up to a power of 2, so only a few different statements are prepared and cached
+                int parameterCount = 1;
+                while(parameterCount < to - from) parameterCount <<= 1;
+                parameterCount = Math.min(parameterCount, batchSize);
+
+                String query = baseQuery + "(" + "?, ".repeat(parameterCount - 1) + "?)";
+                if(logStatements) log.info("Executing [{}] with parameters: {}", query, missing.subList(from, to));
+
+                PreparedStatement statement = connectionPool.prepareStatement(connection, query, false);
+                try {
+                    for(int i=0;i<parameterCount;i++){
+                        //Fill the remaining parameters with the last id
+                        Object id = missing.get(Math.min(from + i, to - 1));
+                        DBHelper.prepareStatement(statement, i + 1, idFieldEntry.getType(), id);
+                    }
+
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        RowMapper rowMapper = getRowMapper(query, entityInfo.analyzedEntity, resultSet.getMetaData(), false);
+                        while(resultSet.next()){
+                            Object entity = rowMapper.map(resultSet, group);
+                            Object id = idFieldEntry.getGetter().get(entity);
+                            entities.put(id, entity);
+                            if(cache != null) cache.put(id, detach(entityInfo, entity), cacheVersion);
+                        }
+                    }
+                }
+                finally {
+                    connectionPool.releaseStatement(connection, statement);
+                }
+            }
+        }
+        catch (SQLException e){
+            throw new PersistRuntimeException("Failed to load entities [" + entityType.getName() + "] by id!", e);
+        }
+        catch (PersistException | InvocationTargetException e){
+            throw new MagicRuntimeException("Failed to build entity [" + entityType.getName() + "] from result set!", e);
+        }
+        finally {
+            releaseConnection(connection, baseQuery);
+        }
+
+        return entities;
+    }
+
+    private Object executePreparedStatement(PreparedStatement statement, MethodQueryInfo info, AnalyzedPropertyClass returnValueType, QueryResultType resultType) {
         Object returnValue;
 
         //Check if executeQuery or executeUpdate should be called
         if(info.type == StatementType.QUERY){
             try {
-                returnValue = executeQueryFromPreparedStatement(statement, returnValueType, resultType);
+                returnValue = executeQueryFromPreparedStatement(statement, info, returnValueType, resultType);
 
                 if(info.generatedKeysCallback != null){
-                    ResultSet set = statement.getGeneratedKeys();
-                    try {
+                    try (ResultSet set = statement.getGeneratedKeys()) {
                         info.generatedKeysCallback.call(set);
                     }
                     catch (SQLException e){
@@ -464,8 +1028,7 @@ class ImbeddedRepoHandler implements IRepoHandler {
                 executeUpdateFromPreparedStatement(statement);
 
                 if(info.generatedKeysCallback != null){
-                    ResultSet set = statement.getGeneratedKeys();
-                    try {
+                    try (ResultSet set = statement.getGeneratedKeys()) {
                         info.generatedKeysCallback.call(set);
                     }
                     catch (SQLException e){
@@ -486,92 +1049,86 @@ class ImbeddedRepoHandler implements IRepoHandler {
         return returnValue;
     }
 
-    private Object executeQueryFromPreparedStatement(PreparedStatement statement, AnalyzedPropertyClass returnValueType, QueryResultType resultType) throws SQLException{
-        ResultSet resultSet = statement.executeQuery();
-        ResultSetMetaData metaData = resultSet.getMetaData();
-        int cols = metaData.getColumnCount();
+    private Object executeQueryFromPreparedStatement(PreparedStatement statement, MethodQueryInfo info, AnalyzedPropertyClass returnValueType, QueryResultType resultType) throws SQLException{
+        try (ResultSet resultSet = statement.executeQuery()) {
+            if(resultType == QueryResultType.OBJECT_MAP){
+                //TODO: lazyLoading through custom Map.class implementation
 
-        List<Map<String, Object>> dataMapList = new ArrayList<>();
+                if(!resultSet.next()) return null;
+                Map<String, Object> dataMap = readDataMap(resultSet);
+                if(resultSet.next()) throw new PersistQueryExecuteException("Multiple entities returned but only 1 expected!");
 
-        while(resultSet.next()){
-            Map<String, Object> dataMap = new HashMap<>();
-            for(int i=1;i<=cols;i++){
-                String colName = metaData.getColumnName(i);
-                int colType = metaData.getColumnType(i);
-
-                Object data = DBHelper.getDataFromDBType(resultSet, i, colType);
-                if(resultSet.wasNull()) data = null;
-                dataMap.put(colName, data);
+                return dataMap;
             }
 
-            dataMapList.add(dataMap);
-        }
+            RowMapper rowMapper = getRowMapper(info.query, returnValueType, resultSet.getMetaData(), info.fetchJoins);
+            ForeignKeyFetchGroup group = new ForeignKeyFetchGroup(this::loadAllById);
 
-        if(resultType == QueryResultType.SET){
-            Set<Object> set = new HashSet<>();
-            for(Map<String, Object> dataMap : dataMapList){
-                Object data;
-                try {
-                    data = buildEntityFromDataMap(dataMap, returnValueType);
-                }
-                catch (PersistException e){
-                    throw new MagicRuntimeException("Failed to build entity [" + returnValueType.getType() + "] from data map!", e);
-                }
-                set.add(data);
-            }
+            try {
+                if(resultType == QueryResultType.SET){
+                    Set<Object> set = new HashSet<>();
+                    while(resultSet.next()){
+                        set.add(rowMapper.map(resultSet, group));
+                    }
 
-            return set;
-        }
-        else if(resultType == QueryResultType.LIST){
-            List<Object> list = new ArrayList<>();
-            for(Map<String, Object> dataMap : dataMapList){
-                Object data;
-                try {
-                    data = buildEntityFromDataMap(dataMap, returnValueType);
+                    return set;
                 }
-                catch (PersistException e){
-                    throw new MagicRuntimeException("Failed to build entity [" + returnValueType.getType() + "] from data map!", e);
+                else if(resultType == QueryResultType.LIST){
+                    List<Object> list = new ArrayList<>();
+                    while(resultSet.next()){
+                        list.add(rowMapper.map(resultSet, group));
+                    }
+
+                    return list;
                 }
-                list.add(data);
-            }
+                else if(resultType == QueryResultType.ARRAY){
+                    List<Object> list = new ArrayList<>();
+                    while(resultSet.next()){
+                        list.add(rowMapper.map(resultSet, group));
+                    }
 
-            return list;
-        }
-        else if(resultType == QueryResultType.ARRAY){
-            Object[] array = new Object[dataMapList.size()];
-            int i=0;
-            for(Map<String, Object> dataMap : dataMapList){
-                Object data;
-                try {
-                    data = buildEntityFromDataMap(dataMap, returnValueType);
+                    return list.toArray((Object[]) Array.newInstance(returnValueType.getType(), list.size()));
                 }
-                catch (PersistException e){
-                    throw new MagicRuntimeException("Failed to build entity [" + returnValueType.getType() + "] from data map!", e);
+                else {
+                    if(!resultSet.next()) return null;
+                    Object data = rowMapper.map(resultSet, group);
+                    if(resultSet.next()) throw new PersistQueryExecuteException("Multiple entities returned but only 1 expected!");
+
+                    return data;
                 }
-                array[i++] = data;
             }
-
-            return array;
+            catch (PersistException e){
+                throw new MagicRuntimeException("Failed to build entity [" + returnValueType.getType() + "] from result set!", e);
+            }
         }
-        else if(resultType == QueryResultType.OBJECT_MAP){
-            //TODO: lazyLoading through custom Map.class implementation
+    }
 
-            if(dataMapList.size() == 0) return null;
-            if(dataMapList.size() > 1) return new PersistQueryExecuteException("Multiple entities returned but only 1 expected!");
+    private Map<String, Object> readDataMap(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int cols = metaData.getColumnCount();
 
-            return dataMapList.get(0);
-        }
-        else {
-            if(dataMapList.size() == 0) return null;
-            if(dataMapList.size() > 1) return new PersistQueryExecuteException("Multiple entities returned but only 1 expected!");
+        Map<String, Object> dataMap = new HashMap<>();
+        for(int i=1;i<=cols;i++){
+            String colName = metaData.getColumnName(i);
+            int colType = metaData.getColumnType(i);
 
-            try {
-                return buildEntityFromDataMap(dataMapList.get(0), returnValueType);
-            }
-            catch (PersistException e){
-                throw new MagicRuntimeException("Failed to build entity [" + returnValueType.getType() + "] from data map!", e);
-            }
+            Object data = DBHelper.getDataFromDBType(resultSet, i, colType);
+            if(resultSet.wasNull()) data = null;
+            dataMap.put(colName, data);
         }
+
+        return dataMap;
+    }
+
+    private RowMapper getRowMapper(String query, AnalyzedPropertyClass cls, ResultSetMetaData metaData, boolean fetchJoins) throws SQLException {
+        String key = cls.getType().getName() + "#" + query;
+        RowMapper rowMapper = rowMappers.get(key);
+        if(rowMapper != null) return rowMapper;
+
+        PersistEntityInfo entityInfo = entityInfoMap.get(cls.getType());
+        rowMapper = RowMapper.compile(metaData, cls, entityInfo, entityInfoMap, this::entityFactory, fetchJoins);
+        RowMapper prev = rowMappers.putIfAbsent(key, rowMapper);
+        return prev != null ? prev : rowMapper;
     }
 
     private void executeUpdateFromPreparedStatement(PreparedStatement statement) throws SQLException {
@@ -585,87 +1142,129 @@ class ImbeddedRepoHandler implements IRepoHandler {
 
 
 
-    private Object buildEntityFromDataMap(Map<String, Object> dataMap, AnalyzedPropertyClass cls) throws PersistException{
-        Object dataObj;
-
-        PersistEntityInfo entityInfo = entityInfoMap.get(cls.getType());
+    private RowMapper.EntityFactory entityFactory(AnalyzedPropertyClass analyzedEntityClass, PersistEntityInfo entityInfo){
         if(entityInfo.foreignKeyInfoMap.size() == 0){
-            try {
-                dataObj = cls.getBuilder().build();
-            }
-            catch (InvocationTargetException e){
-                throw new PersistException("Failed to call builder [" + cls.getBuilder() + "]", e);
-            }
+            return group -> {
+                try {
+                    return analyzedEntityClass.getBuilder().build();
+                }
+                catch (InvocationTargetException e){
+                    throw new PersistException("Failed to call builder [" + analyzedEntityClass.getBuilder() + "]", e);
+                }
+            };
         }
-        else {
+
+        Map<String, Class<?>> additionalForeignKeySetterMethods = new HashMap<>();
+        for(String foreignKeyName : entityInfo.foreignKeyInfoMap.keySet()){
+            PersistForeignKeyInfo foreignKeyInfo = entityInfo.foreignKeyInfoMap.get(foreignKeyName);
+            PersistEntityInfo foreignEntityInfo = entityInfoMap.get(foreignKeyInfo.foreignEntityType);
+            PropertyEntry foreignKeyMappedPropertyEntry = foreignEntityInfo.analyzedEntity.getFieldEntryMap().get(foreignKeyInfo.foreignKey);
+            Class<?> foreignKeyMappedType = foreignKeyMappedPropertyEntry.getType();
+
+            additionalForeignKeySetterMethods.put("$set_fk_" + foreignKeyName, foreignKeyMappedType);
+        }
+
+        return group -> {
             try {
-                dataObj = createEntityProxy(cls, entityInfo);
+                ImbeddedProxyMethodHandler handler = new ImbeddedProxyMethodHandler(analyzedEntityClass, group);
+                Object proxy = ProxyFactory._createProxyWithAdditionalMethods(analyzedEntityClass.getType(), handler, additionalForeignKeySetterMethods);
+                group.add(analyzedEntityClass.getType(), proxy, handler.foreignKeyMappedValueMap);
+                return proxy;
             }
             catch (ProxyClassCreationException e){
-                throw new PersistException("Failed to build proxy for class: [" + cls.getType() + "]!", e);
+                throw new PersistException("Failed to build proxy for class: [" + analyzedEntityClass.getType() + "]!", e);
             }
-        }
-
-        Map<String, PropertyEntry> fieldEntries = cls.getFieldEntryMap();
-        for(String fieldName : fieldEntries.keySet()){
-            String _dbFieldName = DBHelper.dbFieldName(fieldName);
-            PropertyEntry propertyEntry = fieldEntries.get(fieldName);
-            Class<?> fieldType = propertyEntry.getType();
-
-            PersistForeignKeyInfo foreignKeyInfo = entityInfo.foreignKeyInfoMap.get(fieldName);
-            if(foreignKeyInfo != null) {
-                PersistEntityInfo foreignEntityInfo = entityInfoMap.get(foreignKeyInfo.foreignEntityType);
-                PropertyEntry foreignKeyMappedFieldEntry = foreignEntityInfo.analyzedEntity.getFieldEntryMap().get(foreignKeyInfo.foreignKey);
+        };
+    }
 
-                String setFkMethodName = "$set_fk_" + fieldName;
-                Class<?> generatedClass = dataObj.getClass();
-                Method m;
-                try {
-                    m = generatedClass.getMethod(setFkMethodName, foreignKeyMappedFieldEntry.getType());
-                }
-                catch (NoSuchMethodException e){
-                    throw new IllegalStateException("INVALID STATE: Method should exist!");
+    /**
+     * Copies the state of a loaded entity for the cache, so cached entries are neither shared nor keep the fetch group of their result alive.
+     * Foreign entities are reduced to their foreign key.
+     */
+    private EntitySnapshot detach(PersistEntityInfo entityInfo, Object entity){
+        //Keys of foreign entities which were not loaded yet
+        Map<String, Object> pendingKeys = ProxyFactory.getProxyHandler(entity) instanceof ImbeddedProxyMethodHandler handler ? handler.foreignKeyMappedValueMap : Collections.emptyMap();
+
+        Map<String, Object> values = new HashMap<>();
+        Map<String, Object> foreignKeys = new HashMap<>();
+        Map<String, PropertyEntry> fieldEntries = entityInfo.analyzedEntity.getFieldEntryMap();
+        try {
+            for(String fieldName : fieldEntries.keySet()){
+                PropertyEntry fieldEntry = fieldEntries.get(fieldName);
+                PersistForeignKeyInfo foreignKeyInfo = entityInfo.foreignKeyInfoMap.get(fieldName);
+                if(foreignKeyInfo == null){
+                    values.put(fieldName, fieldEntry.getGetter().get(entity));
+                    continue;
                 }
 
-                Object data = dataMap.get("FK_" + _dbFieldName + "_" + DBHelper.dbFieldName(foreignKeyInfo.foreignKey));
+                Object key = pendingKeys.get(fieldName);
+                if(key == null){
+                    Object foreignEntity = fieldEntry.getGetter().get(entity);
+                    if(foreignEntity == null) continue;
 
-                if(data != null){
-                    try {
-                        m.invoke(dataObj, data);
-                    }
-                    catch (Exception e){
-                        throw new IllegalStateException("INVALID STATE", e);
-                    }
+                    PersistEntityInfo foreignEntityInfo = entityInfoMap.get(foreignKeyInfo.foreignEntityType);
+                    key = foreignEntityInfo.analyzedEntity.getFieldEntryMap().get(foreignKeyInfo.foreignKey).getGetter().get(foreignEntity);
                 }
 
-                continue;
+                if(key != null) foreignKeys.put(fieldName, key);
             }
+        }
+        catch (InvocationTargetException e){
+            throw new MagicRuntimeException("Failed to copy entity [" + entityInfo.entityClass.getName() + "] into the cache!", e);
+        }
 
-            Object data = dataMap.get(_dbFieldName);
-            if(data == null) data = ValueUtils.getDefaultValue(fieldType);
-            try {
-                propertyEntry.getSetter().set(dataObj, data);
+        return new EntitySnapshot(values, foreignKeys);
+    }
+
+    /**
+     * Builds a new entity from a cached snapshot. Its foreign entities are loaded lazily again.
+     */
+    private Object attach(PersistEntityInfo entityInfo, EntitySnapshot snapshot, ForeignKeyFetchGroup group){
+        RowMapper.EntityFactory factory = entityFactories.computeIfAbsent(entityInfo.entityClass, type -> entityFactory(entityInfo.analyzedEntity, entityInfo));
+
+        Map<String, PropertyEntry> fieldEntries = entityInfo.analyzedEntity.getFieldEntryMap();
+        try {
+            Object entity = factory.create(group);
+            for(Map.Entry<String, Object> value : snapshot.values.entrySet()){
+                IClassPropertySetter setter = fieldEntries.get(value.getKey()).getSetter();
+                if(setter != null) setter.set(entity, value.getValue());
             }
-            catch (InvocationTargetException e){
-                throw new PersistException("Failed to set property of field [" + fieldName + "] of Entity [" + cls.getType() + "]", e);
+
+            for(Map.Entry<String, Object> foreignKey : snapshot.foreignKeys.entrySet()){
+                PersistForeignKeyInfo foreignKeyInfo = entityInfo.foreignKeyInfoMap.get(foreignKey.getKey());
+                Class<?> keyType = entityInfoMap.get(foreignKeyInfo.foreignEntityType).analyzedEntity.getFieldEntryMap().get(foreignKeyInfo.foreignKey).getType();
+                entity.getClass().getMethod("$set_fk_" + foreignKey.getKey(), keyType).invoke(entity, foreignKey.getValue());
             }
-        }
 
-        return dataObj;
+            return entity;
+        }
+        catch (PersistException | ReflectiveOperationException e){
+            throw new MagicRuntimeException("Failed to build entity [" + entityInfo.entityClass.getName() + "] from the cache!", e);
+        }
     }
 
-    private Object createEntityProxy(AnalyzedPropertyClass analyzedEntityClass, PersistEntityInfo entityInfo) throws ProxyClassCreationException {
-        Map<String, Class<?>> additionalForeignKeySetterMethods = new HashMap<>();
-        for(String foreignKeyName : entityInfo.foreignKeyInfoMap.keySet()){
-            PersistForeignKeyInfo foreignKeyInfo = entityInfo.foreignKeyInfoMap.get(foreignKeyName);
-            PersistEntityInfo foreignEntityInfo = entityInfoMap.get(foreignKeyInfo.foreignEntityType);
-            PropertyEntry foreignKeyMappedPropertyEntry = foreignEntityInfo.analyzedEntity.getFieldEntryMap().get(foreignKeyInfo.foreignKey);
-            Class<?> foreignKeyMappedType = foreignKeyMappedPropertyEntry.getType();
+    //Resolves the type variables of the interface declaring a method through the generic super interfaces of the repository
+    private Map<String, AnalyzedParameterizedType> declaringTypeVariables(Class<?> cls, Class<?> declaringCls, Map<String, AnalyzedParameterizedType> genericTypes) throws PersistQueryBuildException {
+        if(cls == declaringCls) return genericTypes;
 
-            additionalForeignKeySetterMethods.put("$set_fk_" + foreignKeyName, foreignKeyMappedType);
+        for(Type superType : cls.getGenericInterfaces()){
+            Class<?> superCls = superType instanceof ParameterizedType parameterizedType ? (Class<?>) parameterizedType.getRawType() : (Class<?>) superType;
+            if(!declaringCls.isAssignableFrom(superCls)) continue;
+
+            Map<String, AnalyzedParameterizedType> superTypes = Collections.emptyMap();
+            if(superType instanceof ParameterizedType){
+                try {
+                    superTypes = analyzer.analyzeParameterizedType(superCls, superType, genericTypes).getParameterizedTypeMap();
+                }
+                catch (ClassAnalyzeException e){
+                    throw new PersistQueryBuildException("Failed to resolve the generic types of [" + superType + "] for repository [" + cls + "]!", e);
+                }
+            }
+
+            return declaringTypeVariables(superCls, declaringCls, superTypes);
         }
 
-        return ProxyFactory._createProxyWithAdditionalMethods(analyzedEntityClass.getType(), new ImbeddedProxyMethodHandler(analyzedEntityClass), additionalForeignKeySetterMethods);
+        return genericTypes;
     }
 
     private AnalyzedPropertyClass analyzeMethodReturnType(Method method, Map<String, AnalyzedParameterizedType> genericTypes) throws PersistQueryBuildException{
@@ -680,7 +1279,9 @@ class ImbeddedRepoHandler implements IRepoHandler {
             throw new PersistQueryBuildException("Failed to analyze return type of method: [" + method + "]", e);
         }
 
-        if(ret.getBuilder() == null && !ret.getType().isArray()) throw new PersistQueryBuildException("Failed to find builder for returning property class [" + method.getReturnType() + "] of method: [" + method + "]!");
+        boolean cursor = Stream.class.isAssignableFrom(ret.getType()) || Iterator.class.isAssignableFrom(ret.getType());
+        boolean page = Page.class.isAssignableFrom(ret.getType());
+        if(ret.getBuilder() == null && !ret.getType().isArray() && !cursor && !page) throw new PersistQueryBuildException("Failed to find builder for returning property class [" + method.getReturnType() + "] of method: [" + method + "]!");
 
         return ret;
     }
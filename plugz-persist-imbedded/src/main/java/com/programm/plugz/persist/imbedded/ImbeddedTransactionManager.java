@@ -0,0 +1,180 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.plugz.persist.ITransactionManager;
+import com.programm.plugz.persist.ITransactionWork;
+import com.programm.plugz.persist.TransactionIsolation;
+import com.programm.plugz.persist.ex.PersistRuntimeException;
+import lombok.RequiredArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds a borrowed connection to the thread running a transaction.
+ * Repository calls on that thread use the bound connection instead of borrowing their own.
+ */
+@RequiredArgsConstructor
+class ImbeddedTransactionManager implements ITransactionManager {
+
+    @RequiredArgsConstructor
+    private static class Transaction {
+        private final Connection connection;
+        private final int prevIsolation;
+        private final boolean prevReadOnly;
+        private final List<Runnable> afterCompletion = new ArrayList<>();
+        private boolean rollbackOnly;
+    }
+
+    public static int isolationLevel(TransactionIsolation isolation){
+        return switch (isolation) {
+            case DEFAULT -> -1;
+            case READ_UNCOMMITTED -> Connection.TRANSACTION_READ_UNCOMMITTED;
+            case READ_COMMITTED -> Connection.TRANSACTION_READ_COMMITTED;
+            case REPEATABLE_READ -> Connection.TRANSACTION_REPEATABLE_READ;
+            case SERIALIZABLE -> Connection.TRANSACTION_SERIALIZABLE;
+        };
+    }
+
+    private final IConnectionPool connectionPool;
+    private final TransactionIsolation defaultIsolation;
+    private final ThreadLocal<Transaction> currentTransaction = new ThreadLocal<>();
+
+    @Override
+    public <T, E extends Exception> T execute(TransactionIsolation isolation, boolean readOnly, ITransactionWork<T, E> work) throws E {
+        Transaction active = currentTransaction.get();
+        if(active != null){
+            //Join the active transaction - a failing inner work fails the whole transaction
+            try {
+                return work.run();
+            }
+            catch (Exception | Error e){
+                active.rollbackOnly = true;
+                throw e;
+            }
+        }
+
+        Transaction transaction = begin(isolation == TransactionIsolation.DEFAULT ? defaultIsolation : isolation, readOnly);
+        currentTransaction.set(transaction);
+
+        T result;
+        try {
+            result = work.run();
+        }
+        catch (Exception | Error e){
+            currentTransaction.remove();
+            end(transaction, false, e);
+            throw e;
+        }
+
+        currentTransaction.remove();
+        end(transaction, !transaction.rollbackOnly, null);
+
+        if(transaction.rollbackOnly) throw new PersistRuntimeException("Transaction was rolled back as a joined unit of work failed!");
+        return result;
+    }
+
+    @Override
+    public boolean isActive() {
+        return currentTransaction.get() != null;
+    }
+
+    /**
+     * @return the connection of the transaction of the current thread or null if there is no transaction.
+     */
+    public Connection currentConnection(){
+        Transaction transaction = currentTransaction.get();
+        return transaction == null ? null : transaction.connection;
+    }
+
+    /**
+     * Runs the action after the transaction of the current thread was committed or rolled back.
+     * Runs the action immediately if there is no transaction.
+     */
+    public void afterCompletion(Runnable action){
+        Transaction transaction = currentTransaction.get();
+        if(transaction == null) action.run();
+        else transaction.afterCompletion.add(action);
+    }
+
+    private Transaction begin(TransactionIsolation isolation, boolean readOnly){
+        Connection connection;
+        try {
+            connection = connectionPool.getConnection();
+        }
+        catch (SQLException e){
+            throw new PersistRuntimeException("Failed to get a database connection for transaction!", e);
+        }
+
+        try {
+            Transaction transaction = new Transaction(connection, connection.getTransactionIsolation(), connection.isReadOnly());
+
+            int level = isolationLevel(isolation);
+            if(level != -1 && level != transaction.prevIsolation) connection.setTransactionIsolation(level);
+            if(readOnly != transaction.prevReadOnly) connection.setReadOnly(readOnly);
+            connection.setAutoCommit(false);
+
+            return transaction;
+        }
+        catch (SQLException e){
+            closeQuietly(connection, e);
+            throw new PersistRuntimeException("Failed to begin transaction!", e);
+        }
+    }
+
+    private void end(Transaction transaction, boolean commit, Throwable cause){
+        Connection connection = transaction.connection;
+        SQLException endException = null;
+
+        try {
+            if(commit) connection.commit();
+            else connection.rollback();
+        }
+        catch (SQLException e){
+            endException = e;
+            try {
+                if(commit) connection.rollback();
+            }
+            catch (SQLException rollbackException){
+                e.addSuppressed(rollbackException);
+            }
+        }
+
+        try {
+            connection.setAutoCommit(true);
+            if(connection.isReadOnly() != transaction.prevReadOnly) connection.setReadOnly(transaction.prevReadOnly);
+            if(connection.getTransactionIsolation() != transaction.prevIsolation) connection.setTransactionIsolation(transaction.prevIsolation);
+        }
+        catch (SQLException e){
+            if(endException == null) endException = e;
+            else endException.addSuppressed(e);
+        }
+
+        closeQuietly(connection, endException);
+
+        for(Runnable action : transaction.afterCompletion){
+            action.run();
+        }
+
+        if(endException != null){
+            String message = commit ? "Failed to commit transaction!" : "Failed to roll back transaction!";
+            if(cause != null) {
+                cause.addSuppressed(endException);
+            }
+            else {
+                throw new PersistRuntimeException(message, endException);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection, Exception cause){
+        try {
+            connection.close();
+        }
+        catch (SQLException e){
+            if(cause != null) cause.addSuppressed(e);
+        }
+    }
+
+}
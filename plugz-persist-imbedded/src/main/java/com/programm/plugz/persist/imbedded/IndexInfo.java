@@ -0,0 +1,13 @@
+package com.programm.plugz.persist.imbedded;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class IndexInfo {
+    public final String name;
+    public final boolean unique;
+    public final List<String> fields;
+    public final List<String> columns;
+}
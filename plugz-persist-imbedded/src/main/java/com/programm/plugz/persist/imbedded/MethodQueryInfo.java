@@ -14,4 +14,9 @@ class MethodQueryInfo {
     public final List<Class<?>> parameterTypes;
     public final Object[] statementArguments;
     public final GeneratedKeysCallback generatedKeysCallback;
+    //Entity type and primary key of the entity loaded or changed by the query - null if the query is not bound to a single entity
+    public final Class<?> cacheEntity;
+    public final Object cacheId;
+    //If the query joins the tables of the foreign entities fetched by FetchMode.JOIN
+    public final boolean fetchJoins;
 }
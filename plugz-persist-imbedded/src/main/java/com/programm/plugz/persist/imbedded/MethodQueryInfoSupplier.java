@@ -1,7 +1,17 @@
 package com.programm.plugz.persist.imbedded;
 
+import java.util.Collections;
+import java.util.List;
+
 interface MethodQueryInfoSupplier {
 
     MethodQueryInfo queryInfo(Object[] parameters);
 
+    /**
+     * @return the fields of the entity the derived query filters on.
+     */
+    default List<String> filteredFields(){
+        return Collections.emptyList();
+    }
+
 }
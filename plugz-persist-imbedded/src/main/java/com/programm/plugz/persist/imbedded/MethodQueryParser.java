@@ -2,6 +2,7 @@ package com.programm.plugz.persist.imbedded;
 
 import com.programm.plugz.api.utils.ValueUtils;
 import com.programm.plugz.cls.analyzer.AnalyzedPropertyClass;
+import com.programm.plugz.cls.analyzer.IClassPropertySetter;
 import com.programm.plugz.cls.analyzer.PropertyEntry;
 import com.programm.plugz.persist.CustomQuery;
 import com.programm.plugz.persist.Generated;
@@ -9,15 +10,17 @@ import com.programm.plugz.persist.PersistEntityInfo;
 import com.programm.plugz.persist.PersistForeignKeyInfo;
 import com.programm.plugz.persist.ex.PersistQueryBuildException;
 import com.programm.plugz.persist.ex.PersistQueryExecuteException;
+import com.programm.plugz.persist.query.Limit;
+import com.programm.plugz.persist.query.Page;
+import com.programm.plugz.persist.query.PageRequest;
 import lombok.RequiredArgsConstructor;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 class MethodQueryParser {
 
@@ -38,15 +41,104 @@ class MethodQueryParser {
             "remove"
     };
 
+    private static final String[] BATCH_UPDATE_METHOD_NAME_VARIANTS = {
+            "updateAll",
+            "saveAll"
+    };
+
+    private static final String[] BATCH_DELETE_METHOD_NAME_VARIANTS = {
+            "deleteAllById",
+            "removeAllById"
+    };
+
+    private static final String[] LIMIT_NAME_VARIANTS = {
+            "First",
+            "Top"
+    };
+
     private static class StaticMethodQueryInfoSupplier implements MethodQueryInfoSupplier {
         StatementType type;
         String query;
         AnalyzedPropertyClass returnType;
         final List<Class<?>> parameterTypes = new ArrayList<>();
+        //Set if the query loads a single entity by its primary key
+        Class<?> cacheEntity;
+        boolean fetchJoins;
+
+        //Index of the Limit or PageRequest parameter or -1
+        int limitParameter = -1;
+        int pageParameter = -1;
+
+        String limitQuery;
+        final List<Class<?>> limitParameterTypes = new ArrayList<>();
+        String keysetQuery;
+        final List<Class<?>> keysetParameterTypes = new ArrayList<>();
+        String pageQuery;
+        final List<Class<?>> pageParameterTypes = new ArrayList<>();
+        String countQuery;
+
+        //Fields in the WHERE clause of a derived query
+        final List<String> filteredFields = new ArrayList<>();
+
+        @Override
+        public List<String> filteredFields() {
+            return filteredFields;
+        }
 
         @Override
         public MethodQueryInfo queryInfo(Object[] parameters) {
-            return new MethodQueryInfo(type, query, returnType, parameterTypes, parameters, null);
+            if(limitParameter != -1){
+                Limit limit = (Limit) parameters[limitParameter];
+                if(limit == null) throw new PersistQueryExecuteException("Limit parameter must not be null!");
+
+                if(limit.after == null){
+                    Object[] arguments = queryArguments(parameters, limitParameter, 1);
+                    arguments[arguments.length - 1] = limit.max;
+                    return new MethodQueryInfo(type, limitQuery, returnType, limitParameterTypes, arguments, null, null, null, fetchJoins);
+                }
+                else {
+                    Object[] arguments = queryArguments(parameters, limitParameter, 2);
+                    arguments[arguments.length - 2] = limit.after;
+                    arguments[arguments.length - 1] = limit.max;
+                    return new MethodQueryInfo(type, keysetQuery, returnType, keysetParameterTypes, arguments, null, null, null, fetchJoins);
+                }
+            }
+            else if(pageParameter != -1){
+                PageRequest page = pageRequest(parameters);
+                Object[] arguments = queryArguments(parameters, pageParameter, 2);
+                arguments[arguments.length - 2] = page.size;
+                arguments[arguments.length - 1] = page.offset();
+                return new MethodQueryInfo(type, pageQuery, returnType, pageParameterTypes, arguments, null, null, null, fetchJoins);
+            }
+
+            Object cacheId = cacheEntity == null ? null : parameters[0];
+            return new MethodQueryInfo(type, query, returnType, parameterTypes, parameters, null, cacheEntity, cacheId, fetchJoins);
+        }
+
+        public PageRequest pageRequest(Object[] parameters){
+            PageRequest page = (PageRequest) parameters[pageParameter];
+            if(page == null) throw new PersistQueryExecuteException("Page parameter must not be null!");
+            return page;
+        }
+
+        //Removes the Limit or PageRequest parameter and leaves room for the additional arguments at the end
+        static Object[] queryArguments(Object[] parameters, int skip, int additional){
+            Object[] arguments = new Object[parameters.length - 1 + additional];
+            for(int i=0,o=0;i<parameters.length;i++){
+                if(i == skip) continue;
+                arguments[o++] = parameters[i];
+            }
+
+            return arguments;
+        }
+    }
+
+    //Page<Person> findByName(String name, PageRequest page) -> SELECT * FROM PERSON WHERE name = ? ORDER BY ID LIMIT ? OFFSET ? and SELECT COUNT(*) FROM PERSON WHERE name = ?
+    private static class PageQueryInfoSupplier extends StaticMethodQueryInfoSupplier implements PageMethodQueryInfoSupplier {
+        @Override
+        public MethodQueryInfo countQueryInfo(Object[] parameters) {
+            Object[] arguments = queryArguments(parameters, pageParameter, 0);
+            return new MethodQueryInfo(StatementType.QUERY, countQuery, null, parameterTypes, arguments, null, null, null, false);
         }
     }
 
@@ -69,82 +161,55 @@ class MethodQueryParser {
             if(parameters.length == 0 || parameters[0].getClass() != entityInfo.entityClass) throw new PersistQueryExecuteException("INVALID STATE: invalid input");
 
             Object entityObject = parameters[0];
-            PropertyEntry idFieldEntry = entityInfo.analyzedEntity.getFieldEntryMap().get(entityInfo.primaryKey);
-
-            Object idValue;
-            try {
-                idValue = idFieldEntry.getGetter().get(entityObject);
-            }
-            catch (InvocationTargetException e){
-                throw new PersistQueryExecuteException("Could not get the id field for entity [" + entityInfo.entityClass + "]", e);
-            }
-
-            Map<String, PropertyEntry> fieldEntries = entityInfo.analyzedEntity.getFieldEntryMap();
-            if(idValue == null || idValue.equals(ValueUtils.getDefaultValue(idFieldEntry.getType()))){
-                Object[] mappedParameters = new Object[create_fieldOrder.size()];
-                for(int i=0;i<create_fieldOrder.size();i++){
-                    String fieldName = create_fieldOrder.get(i);
-                    PropertyEntry fieldEntry = fieldEntries.get(fieldName);
-
-                    PersistForeignKeyInfo foreignKeyInfo = entityInfo.foreignKeyInfoMap.get(fieldName);
-                    if(foreignKeyInfo != null){
-                        PersistEntityInfo foreignEntityInfo = infoMap.get(foreignKeyInfo.foreignEntityType);
-                        PropertyEntry foreignKeyMappedFieldEntry = foreignEntityInfo.analyzedEntity.getFieldEntryMap().get(foreignKeyInfo.foreignKey);
-                        try {
-                            Object fieldValue = fieldEntry.getGetter().get(entityObject);
-                            if(fieldValue == null) continue;
-
-                            Object foreignKeyMappedFieldValue = foreignKeyMappedFieldEntry.getGetter().get(fieldValue);
-                            mappedParameters[i] = foreignKeyMappedFieldValue;
-                        }
-                        catch (InvocationTargetException e){
-                            throw new PersistQueryExecuteException("Could not get field [" + fieldName + "] of entity [" + entityInfo.entityClass + "]!", e);
-                        }
-                    }
-                    else {
-                        try {
-                            Object fieldValue = fieldEntry.getGetter().get(entityObject);
-                            mappedParameters[i] = fieldValue;
-                        }
-                        catch (InvocationTargetException e){
-                            throw new PersistQueryExecuteException("Could not get field [" + fieldName + "] of entity [" + entityInfo.entityClass + "]!", e);
-                        }
-                    }
-                }
+            if(isNew(entityObject)){
+                Object[] mappedParameters = createArguments(entityObject);
 
                 GeneratedKeysCallback generatedKeysCallback = null;
 
-                if(idFieldEntry.getSetter() != null){
+                if(idSetter() != null){
                     generatedKeysCallback = (keys) -> {
                         ResultSetMetaData metaData = keys.getMetaData();
-                        if(keys.next()){
-                            int type = metaData.getColumnType(1);
-                            Object generatedId = DBHelper.getDataFromDBType(keys, 1, type);
-
-                            try {
-                                idFieldEntry.getSetter().set(entityObject, generatedId);
-                            } catch (InvocationTargetException e) {
-                                throw new PersistQueryExecuteException("Failed to set the generated id value for entity [" + entityInfo.entityClass + "]!", e);
-                            }
-                        }
-                        else {
-                            throw new SQLException("Failed to get generated ID.");
-                        }
+                        setGeneratedId(entityObject, keys, metaData.getColumnType(1));
                     };
                 }
-                else {
-                    System.err.println("WARNING: No setter available for id field of entity [" + entityInfo.entityClass + "]!");
-                    //TODO: Log warning
-                }
 
                 //TODO
-                return new MethodQueryInfo(StatementType.UPDATE, create_query, returnType, create_parameterTypes, mappedParameters, generatedKeysCallback);
+                return new MethodQueryInfo(StatementType.UPDATE, create_query, returnType, create_parameterTypes, mappedParameters, generatedKeysCallback, null, null, false);
             }
             else {
-                Object[] mappedParameters = new Object[update_fieldOrder.size()];
-                for(int i=0;i<update_fieldOrder.size();i++){
-                    String fieldName = update_fieldOrder.get(i);
-                    PropertyEntry fieldEntry = fieldEntries.get(fieldName);
+                return new MethodQueryInfo(StatementType.UPDATE, update_query, returnType, update_parameterTypes, updateArguments(entityObject), null, entityInfo.entityClass, idOf(entityInfo, entityObject), false);
+            }
+        }
+
+        boolean isNew(Object entityObject){
+            PropertyEntry idFieldEntry = entityInfo.analyzedEntity.getFieldEntryMap().get(entityInfo.primaryKey);
+            Object idValue = idOf(entityInfo, entityObject);
+            return idValue == null || idValue.equals(ValueUtils.getDefaultValue(idFieldEntry.getType()));
+        }
+
+        Object[] createArguments(Object entityObject){
+            Map<String, PropertyEntry> fieldEntries = entityInfo.analyzedEntity.getFieldEntryMap();
+            Object[] mappedParameters = new Object[create_fieldOrder.size()];
+            for(int i=0;i<create_fieldOrder.size();i++){
+                String fieldName = create_fieldOrder.get(i);
+                PropertyEntry fieldEntry = fieldEntries.get(fieldName);
+
+                PersistForeignKeyInfo foreignKeyInfo = entityInfo.foreignKeyInfoMap.get(fieldName);
+                if(foreignKeyInfo != null){
+                    PersistEntityInfo foreignEntityInfo = infoMap.get(foreignKeyInfo.foreignEntityType);
+                    PropertyEntry foreignKeyMappedFieldEntry = foreignEntityInfo.analyzedEntity.getFieldEntryMap().get(foreignKeyInfo.foreignKey);
+                    try {
+                        Object fieldValue = fieldEntry.getGetter().get(entityObject);
+                        if(fieldValue == null) continue;
+
+                        Object foreignKeyMappedFieldValue = foreignKeyMappedFieldEntry.getGetter().get(fieldValue);
+                        mappedParameters[i] = foreignKeyMappedFieldValue;
+                    }
+                    catch (InvocationTargetException e){
+                        throw new PersistQueryExecuteException("Could not get field [" + fieldName + "] of entity [" + entityInfo.entityClass + "]!", e);
+                    }
+                }
+                else {
                     try {
                         Object fieldValue = fieldEntry.getGetter().get(entityObject);
                         mappedParameters[i] = fieldValue;
@@ -153,9 +218,95 @@ class MethodQueryParser {
                         throw new PersistQueryExecuteException("Could not get field [" + fieldName + "] of entity [" + entityInfo.entityClass + "]!", e);
                     }
                 }
+            }
+
+            return mappedParameters;
+        }
+
+        Object[] updateArguments(Object entityObject){
+            Map<String, PropertyEntry> fieldEntries = entityInfo.analyzedEntity.getFieldEntryMap();
+            Object[] mappedParameters = new Object[update_fieldOrder.size()];
+            for(int i=0;i<update_fieldOrder.size();i++){
+                String fieldName = update_fieldOrder.get(i);
+                PropertyEntry fieldEntry = fieldEntries.get(fieldName);
+                try {
+                    Object fieldValue = fieldEntry.getGetter().get(entityObject);
+                    mappedParameters[i] = fieldValue;
+                }
+                catch (InvocationTargetException e){
+                    throw new PersistQueryExecuteException("Could not get field [" + fieldName + "] of entity [" + entityInfo.entityClass + "]!", e);
+                }
+            }
+
+            return mappedParameters;
+        }
+
+        //A missing setter is reported once when the repository is created
+        IClassPropertySetter idSetter(){
+            return entityInfo.analyzedEntity.getFieldEntryMap().get(entityInfo.primaryKey).getSetter();
+        }
+
+        void setGeneratedId(Object entityObject, ResultSet keys, int type) throws SQLException {
+            if(!keys.next()) throw new SQLException("Failed to get generated ID.");
+
+            Object generatedId = DBHelper.getDataFromDBType(keys, 1, type);
+            try {
+                idSetter().set(entityObject, generatedId);
+            }
+            catch (InvocationTargetException e) {
+                throw new PersistQueryExecuteException("Failed to set the generated id value for entity [" + entityInfo.entityClass + "]!", e);
+            }
+        }
+    }
+
+    //saveAll(Collection<Person>) -> batches of INSERT INTO PERSON(...) and UPDATE PERSON SET ...
+    @RequiredArgsConstructor
+    private static class BatchUpdateCreateMethodInfoSupplier implements BatchMethodQueryInfoSupplier {
+        final UpdateCreateMethodInfoSupplier updateCreateSupplier;
+
+        @Override
+        public List<BatchQueryInfo> batchQueryInfos(Object[] parameters) {
+            PersistEntityInfo entityInfo = updateCreateSupplier.entityInfo;
+
+            List<Object> createEntities = new ArrayList<>();
+            List<Object[]> createArguments = new ArrayList<>();
+            List<Object[]> updateArguments = new ArrayList<>();
+            List<Object> updateIds = new ArrayList<>();
+
+            for(Object entityObject : batchElements(parameters)){
+                if(entityObject == null || entityObject.getClass() != entityInfo.entityClass) throw new PersistQueryExecuteException("INVALID STATE: invalid input");
+
+                if(updateCreateSupplier.isNew(entityObject)){
+                    createEntities.add(entityObject);
+                    createArguments.add(updateCreateSupplier.createArguments(entityObject));
+                }
+                else {
+                    updateArguments.add(updateCreateSupplier.updateArguments(entityObject));
+                    updateIds.add(idOf(entityInfo, entityObject));
+                }
+            }
+
+            List<BatchQueryInfo> infos = new ArrayList<>();
+            if(!createArguments.isEmpty()){
+                BatchGeneratedKeysCallback generatedKeysCallback = null;
+
+                if(updateCreateSupplier.idSetter() != null){
+                    generatedKeysCallback = (keys, from, to) -> {
+                        int type = keys.getMetaData().getColumnType(1);
+                        for(int i=from;i<to;i++){
+                            updateCreateSupplier.setGeneratedId(createEntities.get(i), keys, type);
+                        }
+                    };
+                }
+
+                infos.add(new BatchQueryInfo(updateCreateSupplier.create_query, updateCreateSupplier.create_parameterTypes, createArguments, generatedKeysCallback, null, null));
+            }
 
-                return new MethodQueryInfo(StatementType.UPDATE, update_query, returnType, update_parameterTypes, mappedParameters, null);
+            if(!updateArguments.isEmpty()){
+                infos.add(new BatchQueryInfo(updateCreateSupplier.update_query, updateCreateSupplier.update_parameterTypes, updateArguments, null, entityInfo.entityClass, updateIds));
             }
+
+            return infos;
         }
     }
 
@@ -173,23 +324,57 @@ class MethodQueryParser {
             if(parameters.length == 0 || parameters[0].getClass() != entityInfo.entityClass) throw new PersistQueryExecuteException("INVALID STATE: invalid input");
 
             Object entityObject = parameters[0];
-            PropertyEntry idFieldEntry = entityInfo.analyzedEntity.getFieldEntryMap().get(entityInfo.primaryKey);
-
-            Object idValue;
-            try {
-                idValue = idFieldEntry.getGetter().get(entityObject);
-            }
-            catch (InvocationTargetException e){
-                throw new PersistQueryExecuteException("Could not get the id field for entity [" + entityInfo.entityClass + "]", e);
-            }
+            Object idValue = idOf(entityInfo, entityObject);
 
             Object[] idParameterArray = new Object[1];
             idParameterArray[0] = idValue;
 
-            return new MethodQueryInfo(StatementType.UPDATE, query, returnType, parameterTypes, idParameterArray, null);
+            return new MethodQueryInfo(StatementType.UPDATE, query, returnType, parameterTypes, idParameterArray, null, entityInfo.entityClass, idValue, false);
+        }
+    }
+
+    //deleteAllById(Collection<Integer>) -> batches of DELETE FROM PERSON WHERE id = ?
+    @RequiredArgsConstructor
+    private static class BatchDeleteMethodQueryInfoSupplier implements BatchMethodQueryInfoSupplier {
+        final PersistEntityInfo entityInfo;
+
+        String query;
+        final List<Class<?>> parameterTypes = new ArrayList<>();
+
+        @Override
+        public List<BatchQueryInfo> batchQueryInfos(Object[] parameters) {
+            List<Object[]> arguments = new ArrayList<>();
+            List<Object> ids = new ArrayList<>();
+            for(Object id : batchElements(parameters)){
+                arguments.add(new Object[]{ id });
+                ids.add(id);
+            }
+
+            if(arguments.isEmpty()) return Collections.emptyList();
+            return Collections.singletonList(new BatchQueryInfo(query, parameterTypes, arguments, null, entityInfo.entityClass, ids));
+        }
+    }
+
+    private static Object idOf(PersistEntityInfo entityInfo, Object entityObject){
+        PropertyEntry idFieldEntry = entityInfo.analyzedEntity.getFieldEntryMap().get(entityInfo.primaryKey);
+
+        try {
+            return idFieldEntry.getGetter().get(entityObject);
+        }
+        catch (InvocationTargetException e){
+            throw new PersistQueryExecuteException("Could not get the id field for entity [" + entityInfo.entityClass + "]", e);
         }
     }
 
+    private static Iterable<?> batchElements(Object[] parameters){
+        if(parameters == null || parameters.length == 0 || parameters[0] == null) throw new PersistQueryExecuteException("INVALID STATE: invalid input");
+
+        if(parameters[0] instanceof Iterable<?> iterable) return iterable;
+        if(parameters[0] instanceof Object[] array) return Arrays.asList(array);
+
+        throw new PersistQueryExecuteException("Batch methods expect a collection or an array but got [" + parameters[0].getClass() + "]!");
+    }
+
 
 
 
@@ -198,28 +383,153 @@ class MethodQueryParser {
     public static MethodQueryInfoSupplier parse(String tableName, PersistEntityInfo entityInfo, Method method, AnalyzedPropertyClass returnType, Map<Class<?>, PersistEntityInfo> infoMap) throws PersistQueryBuildException{
         CustomQuery customQueryAnnotation = method.getAnnotation(CustomQuery.class);
         String customQuery = customQueryAnnotation == null ? null : customQueryAnnotation.value();
-        return analyzeAndGenerateSqlFromMethodName(customQuery, tableName, entityInfo, method.getName(), returnType, infoMap);
+        return analyzeAndGenerateSqlFromMethodName(customQuery, tableName, entityInfo, method.getName(), method.getParameterTypes(), returnType, infoMap);
     }
 
-    public static MethodQueryInfoSupplier analyzeAndGenerateSqlFromMethodName(String customQuery, String tableName, PersistEntityInfo entityInfo, String mName, AnalyzedPropertyClass returnType, Map<Class<?>, PersistEntityInfo> infoMap) throws PersistQueryBuildException{
+    public static MethodQueryInfoSupplier analyzeAndGenerateSqlFromMethodName(String customQuery, String tableName, PersistEntityInfo entityInfo, String mName, Class<?>[] methodParameterTypes, AnalyzedPropertyClass returnType, Map<Class<?>, PersistEntityInfo> infoMap) throws PersistQueryBuildException{
         //GET / FIND
         for(String selectStart : SELECT_METHOD_NAME_VARIANTS){
             if(mName.startsWith(selectStart)){
-                StaticMethodQueryInfoSupplier staticSupplier = new StaticMethodQueryInfoSupplier();
+                boolean pageResult = returnType != null && Page.class.isAssignableFrom(returnType.getType());
+                StaticMethodQueryInfoSupplier staticSupplier = pageResult ? new PageQueryInfoSupplier() : new StaticMethodQueryInfoSupplier();
 
                 staticSupplier.type = StatementType.QUERY;
                 staticSupplier.returnType = returnType;
 
+                //findTop10ByName / findFirstByName -> LIMIT 10 / LIMIT 1
+                int index = selectStart.length();
+                int staticLimit = -1;
+                for(String limitStart : LIMIT_NAME_VARIANTS){
+                    if(!mName.startsWith(limitStart, index)) continue;
+
+                    int end = index + limitStart.length();
+                    while(end < mName.length() && Character.isDigit(mName.charAt(end))) end++;
+                    boolean hasCount = end != index + limitStart.length();
+
+                    //Otherwise the name selects a field like findFirstName
+                    if(hasCount || end == mName.length() || mName.startsWith("By", end)){
+                        if(hasCount){
+                            try {
+                                staticLimit = Integer.parseInt(mName.substring(index + limitStart.length(), end));
+                            }
+                            catch (NumberFormatException e){
+                                throw new PersistQueryBuildException("Limit of method [" + mName + "] is too large!", e);
+                            }
+                        }
+                        else {
+                            staticLimit = 1;
+                        }
+
+                        if(staticLimit < 1) throw new PersistQueryBuildException("Limit of method [" + mName + "] must be at least 1!");
+                        index = end;
+                    }
+                    break;
+                }
+
+                staticSupplier.limitParameter = indexOfParameter(methodParameterTypes, Limit.class);
+                staticSupplier.pageParameter = indexOfParameter(methodParameterTypes, PageRequest.class);
+                boolean limitParameter = staticSupplier.limitParameter != -1;
+                boolean pageParameter = staticSupplier.pageParameter != -1;
+
+                if(limitParameter && pageParameter) throw new PersistQueryBuildException("Method [" + mName + "] can not have a Limit and a PageRequest parameter!");
+                if((limitParameter || pageParameter) && staticLimit != -1) throw new PersistQueryBuildException("Method [" + mName + "] can not have a limit in its name and a Limit or PageRequest parameter!");
+                if((limitParameter || pageParameter || staticLimit != -1) && customQuery != null) throw new PersistQueryBuildException("Custom query of method [" + mName + "] can not be limited!");
+                if(pageResult && !pageParameter) throw new PersistQueryBuildException("Method [" + mName + "] returns a Page but has no PageRequest parameter!");
+
+                //Maps are built from the column names, so they can not tell the joined columns apart
+                boolean joinable = customQuery == null && returnType != null && !Map.class.isAssignableFrom(returnType.getType());
+
                 StringBuilder sb = new StringBuilder();
                 sb.append("SELECT ");
-                addSelection(staticSupplier, entityInfo, sb, tableName, mName, selectStart.length());
-                staticSupplier.query = customQuery == null ? sb.toString() : customQuery;
+                StringBuilder sbWhere = new StringBuilder();
+                addSelection(staticSupplier, entityInfo, sb, sbWhere, tableName, mName, index, joinable, infoMap);
+
+                String select = sb.toString();
+                String where = sbWhere.toString();
+                String idColumn = (staticSupplier.fetchJoins ? tableName + "." : "") + DBHelper.dbFieldName(entityInfo.primaryKey);
+                //Limited results are ordered by the primary key, so pages are stable
+                String orderBy = " ORDER BY " + idColumn;
+
+                if(customQuery != null){
+                    staticSupplier.query = customQuery;
+                }
+                else if(staticLimit != -1){
+                    staticSupplier.query = select + where + orderBy + " LIMIT " + staticLimit;
+                }
+                else {
+                    staticSupplier.query = select + where;
+                }
+
+                if(limitParameter){
+                    staticSupplier.limitQuery = select + where + orderBy + " LIMIT ?";
+                    staticSupplier.limitParameterTypes.addAll(staticSupplier.parameterTypes);
+                    staticSupplier.limitParameterTypes.add(Integer.class);
+
+                    //Keyset pagination -> WHERE ... AND ID > ?
+                    Class<?> idType = entityInfo.analyzedEntity.getFieldEntryMap().get(entityInfo.primaryKey).getType();
+                    staticSupplier.keysetQuery = select + (where.isEmpty() ? " WHERE " : where + " AND ") + idColumn + " > ?" + orderBy + " LIMIT ?";
+                    staticSupplier.keysetParameterTypes.addAll(staticSupplier.parameterTypes);
+                    staticSupplier.keysetParameterTypes.add(idType);
+                    staticSupplier.keysetParameterTypes.add(Integer.class);
+                }
+
+                if(pageParameter){
+                    staticSupplier.pageQuery = select + where + orderBy + " LIMIT ? OFFSET ?";
+                    staticSupplier.pageParameterTypes.addAll(staticSupplier.parameterTypes);
+                    staticSupplier.pageParameterTypes.add(Integer.class);
+                    staticSupplier.pageParameterTypes.add(Long.class);
+                    staticSupplier.countQuery = "SELECT COUNT(*) FROM " + tableName + where;
+                }
+
+                //findById(id) -> the loaded entity can be served from the entity cache
+                boolean byPrimaryKey = mName.substring(selectStart.length()).equalsIgnoreCase("By" + entityInfo.primaryKey);
+                if(customQuery == null && byPrimaryKey && returnType != null && returnType.getType() == entityInfo.entityClass){
+                    staticSupplier.cacheEntity = entityInfo.entityClass;
+                }
 
                 return staticSupplier;
             }
         }
 
 
+        for(String updateStart : BATCH_UPDATE_METHOD_NAME_VARIANTS){
+            if(mName.startsWith(updateStart)){
+                UpdateCreateMethodInfoSupplier updateCreateSupplier = new UpdateCreateMethodInfoSupplier(entityInfo, infoMap, returnType);
+
+                StringBuilder sbCreate = new StringBuilder();
+                sbCreate.append("INSERT INTO ").append(tableName).append("(");
+
+                addCreate(updateCreateSupplier, entityInfo, sbCreate, mName, updateStart.length(), infoMap);
+                updateCreateSupplier.create_query = sbCreate.toString();
+
+                StringBuilder sbUpdate = new StringBuilder();
+                sbUpdate.append("UPDATE ").append(tableName).append(" SET ");
+
+                addUpdate(updateCreateSupplier, entityInfo, sbUpdate, mName, updateStart.length(), infoMap);
+                updateCreateSupplier.update_query = sbUpdate.toString();
+
+                return new BatchUpdateCreateMethodInfoSupplier(updateCreateSupplier);
+            }
+        }
+
+        for(String deleteStart : BATCH_DELETE_METHOD_NAME_VARIANTS){
+            if(mName.startsWith(deleteStart)){
+                BatchDeleteMethodQueryInfoSupplier infoSupplier = new BatchDeleteMethodQueryInfoSupplier(entityInfo);
+
+                StringBuilder sb = new StringBuilder();
+                sb.append("DELETE FROM ").append(tableName).append(" WHERE ");
+
+                if(mName.length() != deleteStart.length()) throw new PersistQueryBuildException("Input [" + mName + "] does not match the expected patterns for building sql queries!");
+                PropertyEntry primaryKeyFieldEntry = entityInfo.analyzedEntity.getFieldEntryMap().get(entityInfo.primaryKey);
+                infoSupplier.parameterTypes.add(primaryKeyFieldEntry.getType());
+                sb.append(entityInfo.primaryKey).append(" = ?");
+
+                infoSupplier.query = sb.toString();
+
+                return infoSupplier;
+            }
+        }
+
         for(String updateStart : UPDATE_METHOD_NAME_VARIANTS){
             if(mName.startsWith(updateStart)){
                 UpdateCreateMethodInfoSupplier updateCreateSupplier = new UpdateCreateMethodInfoSupplier(entityInfo, infoMap, returnType);
@@ -275,11 +585,23 @@ class MethodQueryParser {
 //        }
 //    }
 
-    private static void addSelection(StaticMethodQueryInfoSupplier supplier, PersistEntityInfo entityInfo, StringBuilder sb, String tableName, String s, int index) throws PersistQueryBuildException{
+    private static int indexOfParameter(Class<?>[] parameterTypes, Class<?> type){
+        for(int i=0;i<parameterTypes.length;i++){
+            if(parameterTypes[i] == type) return i;
+        }
+
+        return -1;
+    }
+
+    private static void addSelection(StaticMethodQueryInfoSupplier supplier, PersistEntityInfo entityInfo, StringBuilder sb, StringBuilder sbWhere, String tableName, String s, int index, boolean joinable, Map<Class<?>, PersistEntityInfo> infoMap) throws PersistQueryBuildException{
         int indexOfBy = indexOfLowercase(s, "by", index);
 
         int endSelection = indexOfBy == -1 ? s.length() : indexOfBy;
         String _selection = s.substring(index, endSelection);
+        List<String> joinedFields = joinable && _selection.isEmpty() ? DBHelper.getJoinedForeignKeys(entityInfo, infoMap) : Collections.emptyList();
+        //Columns are qualified as joined tables can have the same column names
+        String columnPrefix = joinedFields.isEmpty() ? "" : tableName + ".";
+
         if(!_selection.isEmpty()) {
             String[] selection = _selection.split("And");
             for(int i=0;i<selection.length;i++){
@@ -287,34 +609,67 @@ class MethodQueryParser {
                 sb.append(selection[i].toLowerCase());
             }
         }
+        else if(!joinedFields.isEmpty()){
+            addJoinedSelection(sb, tableName, entityInfo, joinedFields, infoMap);
+            supplier.fetchJoins = true;
+        }
         else {
             sb.append("*");
         }
 
-        sb.append(" FROM ").append(tableName);
+        if(joinedFields.isEmpty()) sb.append(" FROM ").append(tableName);
 
         if(indexOfBy != -1){
-            sb.append(" WHERE ");
+            sbWhere.append(" WHERE ");
             String _whereFields = s.substring(indexOfBy + 2);
             String[] whereFields = _whereFields.split("And");
             for(int i=0;i<whereFields.length;i++){
-                if(i != 0) sb.append(" AND ");
+                if(i != 0) sbWhere.append(" AND ");
                 String[] whereOrSplit = whereFields[i].split("Or");
-                if(whereOrSplit.length > 1) sb.append("(");
+                if(whereOrSplit.length > 1) sbWhere.append("(");
                 for(int o=0;o<whereOrSplit.length;o++){
-                    if(o != 0) sb.append(" OR ");
+                    if(o != 0) sbWhere.append(" OR ");
                     String colName = whereOrSplit[o].toLowerCase();
-                    sb.append(colName).append(" = ?");
+                    sbWhere.append(columnPrefix).append(colName).append(" = ?");
 
                     Class<?> type = getParameterTypeByColName(entityInfo.analyzedEntity, colName);
                     if(type == null) throw new PersistQueryBuildException("Failed to get field of entity [" + entityInfo.entityClass + "] for column name [" + colName + "]!");
                     supplier.parameterTypes.add(type);
+                    supplier.filteredFields.add(colName);
                 }
-                if(whereOrSplit.length > 1) sb.append(")");
+                if(whereOrSplit.length > 1) sbWhere.append(")");
             }
         }
     }
 
+    //SELECT PERSON.ID, PERSON.FK_ADDRESS_ID, J0.ID, J0.STREET FROM PERSON LEFT JOIN ADDRESS J0 ON PERSON.FK_ADDRESS_ID = J0.ID
+    private static void addJoinedSelection(StringBuilder sb, String tableName, PersistEntityInfo entityInfo, List<String> joinedFields, Map<Class<?>, PersistEntityInfo> infoMap){
+        StringBuilder sbJoins = new StringBuilder();
+
+        List<String> columns = DBHelper.getColumnNames(entityInfo);
+        for(int i=0;i<columns.size();i++){
+            if(i != 0) sb.append(", ");
+            sb.append(tableName).append(".").append(columns.get(i));
+        }
+
+        for(int j=0;j<joinedFields.size();j++){
+            String fieldName = joinedFields.get(j);
+            PersistForeignKeyInfo foreignKeyInfo = entityInfo.foreignKeyInfoMap.get(fieldName);
+            PersistEntityInfo joinedEntityInfo = infoMap.get(entityInfo.analyzedEntity.getFieldEntryMap().get(fieldName).getType());
+            String alias = "J" + j;
+
+            for(String column : DBHelper.getColumnNames(joinedEntityInfo)){
+                sb.append(", ").append(alias).append(".").append(column);
+            }
+
+            sbJoins.append(" LEFT JOIN ").append(DBHelper.getTableNameFromEntity(joinedEntityInfo)).append(" ").append(alias)
+                    .append(" ON ").append(tableName).append(".").append(DBHelper.getForeignKeyFromInfo(DBHelper.dbFieldName(fieldName), foreignKeyInfo))
+                    .append(" = ").append(alias).append(".").append(DBHelper.dbFieldName(foreignKeyInfo.foreignKey));
+        }
+
+        sb.append(" FROM ").append(tableName).append(sbJoins);
+    }
+
     private static void addCreate(UpdateCreateMethodInfoSupplier infoSupplier, PersistEntityInfo entityInfo, StringBuilder sb, String s, int index, Map<Class<?>, PersistEntityInfo> infoMap) throws PersistQueryBuildException{
         if(s.length() == index){
             Map<String, PropertyEntry> fieldEntries = entityInfo.analyzedEntity.getFieldEntryMap();
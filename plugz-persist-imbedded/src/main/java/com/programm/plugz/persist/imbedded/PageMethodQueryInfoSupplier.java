@@ -0,0 +1,14 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.plugz.persist.query.PageRequest;
+
+interface PageMethodQueryInfoSupplier extends MethodQueryInfoSupplier {
+
+    PageRequest pageRequest(Object[] parameters);
+
+    /**
+     * @return the query counting all entities matching the parameters.
+     */
+    MethodQueryInfo countQueryInfo(Object[] parameters);
+
+}
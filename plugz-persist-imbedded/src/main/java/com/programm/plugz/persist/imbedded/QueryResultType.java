@@ -6,6 +6,8 @@ enum QueryResultType {
     LIST,
     ARRAY,
     OBJECT_MAP,
-    OBJECT
+    OBJECT,
+    STREAM,
+    ITERATOR
 
 }
@@ -0,0 +1,123 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.plugz.api.MagicRuntimeException;
+import com.programm.plugz.persist.ex.PersistException;
+import com.programm.plugz.persist.ex.PersistRuntimeException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates an open result set and builds the entity of a row only when it is requested.
+ * The resources of the query are closed after the last row was read, when reading a row failed or when the cursor is closed.
+ */
+class ResultCursor implements Iterator<Object>, AutoCloseable {
+
+    interface Resources {
+        void close() throws SQLException;
+    }
+
+    private final String query;
+    private final ResultSet resultSet;
+    private final RowMapper rowMapper;
+    private final int groupSize;
+    private final ForeignKeyFetchGroup.Loader loader;
+    private final Resources resources;
+
+    private boolean advanced;
+    private boolean hasNext;
+    private boolean closed;
+
+    //Foreign keys are loaded together for a window of rows only, so the entities of earlier rows can be collected
+    private ForeignKeyFetchGroup group;
+    private int groupRows;
+
+    public ResultCursor(String query, ResultSet resultSet, RowMapper rowMapper, int groupSize, ForeignKeyFetchGroup.Loader loader, Resources resources) {
+        this.query = query;
+        this.resultSet = resultSet;
+        this.rowMapper = rowMapper;
+        this.groupSize = groupSize;
+        this.loader = loader;
+        this.resources = resources;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if(closed) return false;
+        if(advanced) return hasNext;
+
+        try {
+            hasNext = resultSet.next();
+            advanced = true;
+        }
+        catch (SQLException e){
+            closeAfterFailure(e);
+            throw new PersistRuntimeException("Failed to read next row of query [" + query + "]!", e);
+        }
+
+        if(!hasNext) close();
+        return hasNext;
+    }
+
+    @Override
+    public Object next() {
+        if(!hasNext()) throw new NoSuchElementException();
+        advanced = false;
+
+        if(group == null || groupRows == groupSize){
+            group = new ForeignKeyFetchGroup(loader);
+            groupRows = 0;
+        }
+        groupRows++;
+
+        try {
+            return rowMapper.map(resultSet, group);
+        }
+        catch (SQLException e){
+            closeAfterFailure(e);
+            throw new PersistRuntimeException("Failed to read row of query [" + query + "]!", e);
+        }
+        catch (PersistException e){
+            closeAfterFailure(e);
+            throw new MagicRuntimeException("Failed to build entity from result set of query [" + query + "]!", e);
+        }
+    }
+
+    /**
+     * @return a sequential stream of the remaining rows which closes the cursor when it is closed.
+     */
+    public Stream<Object> stream(){
+        Spliterator<Object> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if(closed) return;
+        closed = true;
+        group = null;
+
+        try {
+            resources.close();
+        }
+        catch (SQLException e){
+            throw new PersistRuntimeException("Failed to close cursor of query [" + query + "]!", e);
+        }
+    }
+
+    private void closeAfterFailure(Exception cause){
+        try {
+            close();
+        }
+        catch (PersistRuntimeException e){
+            cause.addSuppressed(e);
+        }
+    }
+
+}
@@ -0,0 +1,269 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.plugz.api.utils.ValueUtils;
+import com.programm.plugz.cls.analyzer.AnalyzedPropertyClass;
+import com.programm.plugz.cls.analyzer.IClassPropertySetter;
+import com.programm.plugz.cls.analyzer.PropertyEntry;
+import com.programm.plugz.persist.PersistEntityInfo;
+import com.programm.plugz.persist.PersistForeignKeyInfo;
+import com.programm.plugz.persist.ex.PersistException;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the rows of a query directly onto entities of one type.
+ * The column index of every field and the getter of the result set matching the field type are resolved once from the {@link ResultSetMetaData},
+ * so mapping a row only reads the columns by index and calls the setters.
+ */
+class RowMapper {
+
+    interface EntityFactory {
+        Object create(ForeignKeyFetchGroup group) throws PersistException;
+    }
+
+    interface EntityFactoryProvider {
+        EntityFactory entityFactory(AnalyzedPropertyClass cls, PersistEntityInfo entityInfo);
+    }
+
+    private interface ColumnReader {
+        Object read(ResultSet rs, int col) throws SQLException;
+    }
+
+    @RequiredArgsConstructor
+    private static class FieldMapping {
+        private final String fieldName;
+        private final IClassPropertySetter setter;
+        private final Object defaultValue;
+        private final int column;
+        private final ColumnReader reader;
+    }
+
+    @RequiredArgsConstructor
+    private static class ForeignKeyMapping {
+        private final String setterName;
+        private final Class<?> keyType;
+        private final int column;
+        private final ColumnReader reader;
+
+        //Resolved on the first entity as the proxy class is generated
+        private volatile Method setter;
+    }
+
+    @RequiredArgsConstructor
+    private static class JoinMapping {
+        private final String fieldName;
+        private final IClassPropertySetter setter;
+        private final Class<?> entityType;
+        private final int idColumn;
+        private final ColumnReader idReader;
+        private final RowMapper mapper;
+    }
+
+    /**
+     * Resolves the mapping of the columns of a result onto the fields of an entity.
+     * Fields without a matching column are set to their default value.
+     * If the query joined the foreign entities fetched by {@link com.programm.plugz.persist.FetchMode#JOIN}, the columns of the entity come first
+     * followed by the columns of every joined entity in the order of the fields.
+     */
+    public static RowMapper compile(ResultSetMetaData metaData, AnalyzedPropertyClass cls, PersistEntityInfo entityInfo, Map<Class<?>, PersistEntityInfo> entityInfoMap, EntityFactoryProvider factories, boolean fetchJoins) throws SQLException {
+        if(!fetchJoins) return compile(metaData, 1, metaData.getColumnCount(), cls, entityInfo, entityInfoMap, factories, Collections.emptyList(), Collections.emptyList());
+
+        Map<String, PropertyEntry> fieldEntries = cls.getFieldEntryMap();
+        List<String> joinedFields = DBHelper.getJoinedForeignKeys(entityInfo, entityInfoMap);
+        List<JoinMapping> joins = new ArrayList<>();
+
+        int start = fieldEntries.size() + 1;
+        for(String fieldName : joinedFields){
+            PropertyEntry propertyEntry = fieldEntries.get(fieldName);
+            PersistEntityInfo joinedEntityInfo = entityInfoMap.get(propertyEntry.getType());
+            int end = start + joinedEntityInfo.analyzedEntity.getFieldEntryMap().size() - 1;
+
+            RowMapper joinedMapper = compile(metaData, start, end, joinedEntityInfo.analyzedEntity, joinedEntityInfo, entityInfoMap, factories, Collections.emptyList(), Collections.emptyList());
+
+            int idColumn = -1;
+            String idColumnName = DBHelper.dbFieldName(joinedEntityInfo.primaryKey);
+            for(int i=start;i<=end;i++){
+                if(metaData.getColumnName(i).equalsIgnoreCase(idColumnName)){
+                    idColumn = i;
+                    break;
+                }
+            }
+            if(idColumn == -1) throw new SQLException("Joined entity [" + joinedEntityInfo.entityClass + "] has no column [" + idColumnName + "]!");
+
+            Class<?> idType = joinedEntityInfo.analyzedEntity.getFieldEntryMap().get(joinedEntityInfo.primaryKey).getType();
+            joins.add(new JoinMapping(fieldName, propertyEntry.getSetter(), joinedEntityInfo.entityClass, idColumn, readerFor(idType, metaData.getColumnType(idColumn)), joinedMapper));
+            start = end + 1;
+        }
+
+        return compile(metaData, 1, fieldEntries.size(), cls, entityInfo, entityInfoMap, factories, joinedFields, joins);
+    }
+
+    private static RowMapper compile(ResultSetMetaData metaData, int fromColumn, int toColumn, AnalyzedPropertyClass cls, PersistEntityInfo entityInfo, Map<Class<?>, PersistEntityInfo> entityInfoMap, EntityFactoryProvider factories, List<String> joinedFields, List<JoinMapping> joins) throws SQLException {
+        Map<String, Integer> columnIndexMap = new HashMap<>();
+        Map<String, Integer> columnTypeMap = new HashMap<>();
+        for(int i=fromColumn;i<=toColumn;i++){
+            String colName = metaData.getColumnName(i).toUpperCase();
+            columnIndexMap.putIfAbsent(colName, i);
+            columnTypeMap.putIfAbsent(colName, metaData.getColumnType(i));
+        }
+
+        List<FieldMapping> fields = new ArrayList<>();
+        List<ForeignKeyMapping> foreignKeys = new ArrayList<>();
+
+        Map<String, PropertyEntry> fieldEntries = cls.getFieldEntryMap();
+        for(String fieldName : fieldEntries.keySet()){
+            String _dbFieldName = DBHelper.dbFieldName(fieldName);
+            PropertyEntry propertyEntry = fieldEntries.get(fieldName);
+
+            PersistForeignKeyInfo foreignKeyInfo = entityInfo.foreignKeyInfoMap.get(fieldName);
+            if(foreignKeyInfo != null){
+                //Set from the joined columns
+                if(joinedFields.contains(fieldName)) continue;
+
+                PersistEntityInfo foreignEntityInfo = entityInfoMap.get(foreignKeyInfo.foreignEntityType);
+                Class<?> keyType = foreignEntityInfo.analyzedEntity.getFieldEntryMap().get(foreignKeyInfo.foreignKey).getType();
+                String colName = "FK_" + _dbFieldName + "_" + DBHelper.dbFieldName(foreignKeyInfo.foreignKey);
+
+                Integer column = columnIndexMap.get(colName);
+                if(column == null) continue;
+
+                foreignKeys.add(new ForeignKeyMapping("$set_fk_" + fieldName, keyType, column, readerFor(keyType, columnTypeMap.get(colName))));
+                continue;
+            }
+
+            Class<?> fieldType = propertyEntry.getType();
+            Integer column = columnIndexMap.get(_dbFieldName);
+            ColumnReader reader = column == null ? null : readerFor(fieldType, columnTypeMap.get(_dbFieldName));
+            fields.add(new FieldMapping(fieldName, propertyEntry.getSetter(), ValueUtils.getDefaultValue(fieldType), column == null ? -1 : column, reader));
+        }
+
+        EntityFactory factory = factories.entityFactory(cls, entityInfo);
+        return new RowMapper(cls.getType(), factory, fields.toArray(new FieldMapping[0]), foreignKeys.toArray(new ForeignKeyMapping[0]), joins.toArray(new JoinMapping[0]));
+    }
+
+    private static ColumnReader readerFor(Class<?> type, int dbType){
+        if(type == Boolean.class || type == Boolean.TYPE){
+            return ResultSet::getBoolean;
+        }
+        else if(type == String.class){
+            return ResultSet::getString;
+        }
+        else if(type == Byte.class || type == Byte.TYPE){
+            return ResultSet::getByte;
+        }
+        else if(type == Short.class || type == Short.TYPE){
+            return ResultSet::getShort;
+        }
+        else if(type == Integer.class || type == Integer.TYPE){
+            return ResultSet::getInt;
+        }
+        else if(type == Long.class || type == Long.TYPE){
+            return ResultSet::getLong;
+        }
+        else if(type == Float.class || type == Float.TYPE){
+            return ResultSet::getFloat;
+        }
+        else if(type == Double.class || type == Double.TYPE){
+            return ResultSet::getDouble;
+        }
+        else if(type == Character.class || type == Character.TYPE){
+            return (rs, col) -> (char) rs.getInt(col);
+        }
+        else if(type == Date.class){
+            return ResultSet::getDate;
+        }
+
+        return (rs, col) -> DBHelper.getDataFromDBType(rs, col, dbType);
+    }
+
+    private final Class<?> entityType;
+    private final EntityFactory factory;
+    private final FieldMapping[] fields;
+    private final ForeignKeyMapping[] foreignKeys;
+    private final JoinMapping[] joins;
+
+    private RowMapper(Class<?> entityType, EntityFactory factory, FieldMapping[] fields, ForeignKeyMapping[] foreignKeys, JoinMapping[] joins) {
+        this.entityType = entityType;
+        this.factory = factory;
+        this.fields = fields;
+        this.foreignKeys = foreignKeys;
+        this.joins = joins;
+    }
+
+    /**
+     * Builds the entity of the current row of the result set.
+     * @param group the group of all entities built from the same result.
+     */
+    public Object map(ResultSet rs, ForeignKeyFetchGroup group) throws SQLException, PersistException {
+        Object dataObj = factory.create(group);
+
+        for(FieldMapping field : fields){
+            Object data = field.defaultValue;
+            if(field.column != -1){
+                Object value = field.reader.read(rs, field.column);
+                if(!rs.wasNull()) data = value;
+            }
+
+            try {
+                field.setter.set(dataObj, data);
+            }
+            catch (InvocationTargetException e){
+                throw new PersistException("Failed to set property of field [" + field.fieldName + "] of Entity [" + entityType + "]", e);
+            }
+        }
+
+        for(ForeignKeyMapping foreignKey : foreignKeys){
+            Object data = foreignKey.reader.read(rs, foreignKey.column);
+            if(rs.wasNull()) continue;
+
+            Class<?> generatedClass = dataObj.getClass();
+            Method setter = foreignKey.setter;
+            if(setter == null || setter.getDeclaringClass() != generatedClass){
+                try {
+                    setter = generatedClass.getMethod(foreignKey.setterName, foreignKey.keyType);
+                    foreignKey.setter = setter;
+                }
+                catch (NoSuchMethodException e){
+                    throw new IllegalStateException("INVALID STATE: Method should exist!");
+                }
+            }
+
+            try {
+                setter.invoke(dataObj, data);
+            }
+            catch (Exception e){
+                throw new IllegalStateException("INVALID STATE", e);
+            }
+        }
+
+        for(JoinMapping join : joins){
+            Object id = join.idReader.read(rs, join.idColumn);
+            if(rs.wasNull()) continue;
+
+            //Rows referencing the same foreign entity share one instance
+            Object joined = group.joined(join.entityType, id);
+            if(joined == null){
+                joined = join.mapper.map(rs, group);
+                group.addJoined(join.entityType, id, joined);
+            }
+
+            try {
+                join.setter.set(dataObj, joined);
+            }
+            catch (InvocationTargetException e){
+                throw new PersistException("Failed to set property of field [" + join.fieldName + "] of Entity [" + entityType + "]", e);
+            }
+        }
+
+        return dataObj;
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.programm.plugz.persist.imbedded;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of prepared statements of one connection.
+ * Statements are keyed by their sql and whether they return generated keys and are closed when they get evicted.
+ * Only used by the thread which borrowed the connection, so it is not synchronized.
+ */
+class StatementCache {
+
+    private final Connection connection;
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final Map<String, PreparedStatement> statements;
+
+    public StatementCache(Connection connection, int maxSize, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if(size() <= StatementCache.this.maxSize) return false;
+                evictions.increment();
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached statement for the sql or prepares a new one.
+     * Statements must be given back with {@link #release(PreparedStatement)} instead of closing them.
+     */
+    public PreparedStatement prepare(String sql, boolean returnGeneratedKeys) throws SQLException {
+        if(maxSize <= 0) return doPrepare(sql, returnGeneratedKeys);
+
+        String key = returnGeneratedKeys ? "K:" + sql : "N:" + sql;
+        PreparedStatement statement = statements.get(key);
+
+        if(statement != null && !statement.isClosed()){
+            hits.increment();
+            return statement;
+        }
+
+        misses.increment();
+        statement = doPrepare(sql, returnGeneratedKeys);
+        statements.put(key, statement);
+        return statement;
+    }
+
+    /**
+     * Gives a statement back after it was executed.
+     * Cached statements only get their parameters cleared, uncached ones are closed.
+     */
+    public void release(PreparedStatement statement) throws SQLException {
+        if(maxSize <= 0) {
+            statement.close();
+        }
+        else if(!statement.isClosed()) {
+            statement.clearParameters();
+        }
+    }
+
+    /**
+     * Closes all cached statements.
+     */
+    public void clear(){
+        for(PreparedStatement statement : statements.values()){
+            closeQuietly(statement);
+        }
+        statements.clear();
+    }
+
+    private PreparedStatement doPrepare(String sql, boolean returnGeneratedKeys) throws SQLException {
+        if(returnGeneratedKeys) return connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        return connection.prepareStatement(sql);
+    }
+
+    private static void closeQuietly(PreparedStatement statement){
+        try {
+            statement.close();
+        }
+        catch (SQLException ignore){}
+    }
+
+}
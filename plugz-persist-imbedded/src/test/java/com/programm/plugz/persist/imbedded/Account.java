@@ -0,0 +1,18 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.plugz.persist.Cached;
+
+//Entities with lazy foreign keys are proxied, which needs top level classes
+@Cached
+public class Account {
+    private long id;
+    private String name;
+    private Owner owner;
+
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public Owner getOwner() { return owner; }
+    public void setOwner(Owner owner) { this.owner = owner; }
+}
@@ -0,0 +1,164 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.ioutils.log.api.NullLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+
+    private FakeJdbc.FakeDriver driver;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        driver = FakeJdbc.register();
+    }
+
+    @AfterEach
+    public void cleanup() throws SQLException {
+        if(pool != null) pool.close();
+        FakeJdbc.deregister(driver);
+    }
+
+    private ConnectionPool start(int minSize, int maxSize, long borrowTimeout) throws SQLException {
+        pool = new ConnectionPool(new NullLogger(), driver.url, "user", "", minSize, maxSize, borrowTimeout, null, 0, 4);
+        pool.start();
+        return pool;
+    }
+
+    @Test
+    @DisplayName("Connection-Pool [Min size and reuse]")
+    public void testReuse() throws SQLException {
+        start(2, 4, 1000);
+        assertEquals(2, driver.connections.size());
+        assertEquals(2, pool.metrics().idle);
+
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+        second.close();
+
+        assertEquals(2, driver.connections.size());
+        assertEquals(2, pool.metrics().borrows);
+        assertEquals(2, pool.metrics().created);
+        assertEquals(0, pool.metrics().active);
+        assertFalse(driver.connections.get(0).closed);
+    }
+
+    @Test
+    @DisplayName("Connection-Pool [Borrow timeout]")
+    public void testTimeout() throws SQLException {
+        start(0, 1, 100);
+
+        try (Connection ignore = pool.getConnection()) {
+            assertThrows(SQLTimeoutException.class, pool::getConnection);
+            assertEquals(1, pool.metrics().timeouts);
+            assertEquals(1, pool.metrics().active);
+        }
+
+        assertEquals(1, driver.connections.size());
+    }
+
+    @Test
+    @DisplayName("Connection-Pool [Waiting borrower gets a returned connection]")
+    public void testWaiting() throws Exception {
+        start(0, 1, 5000);
+
+        Connection connection = pool.getConnection();
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.getConnection();
+            }
+            catch (SQLException e){
+                throw new RuntimeException(e);
+            }
+        });
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while(pool.metrics().waiters == 0 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertEquals(1, pool.metrics().waiters);
+
+        connection.close();
+        waiting.get(5, TimeUnit.SECONDS).close();
+
+        assertEquals(1, driver.connections.size());
+        assertEquals(0, pool.metrics().waiters);
+    }
+
+    @Test
+    @DisplayName("Connection-Pool [Returned connections are reset]")
+    public void testReset() throws SQLException {
+        start(0, 1, 1000);
+
+        Connection connection = pool.getConnection();
+        connection.setAutoCommit(false);
+        connection.close();
+
+        FakeJdbc.FakeConnection fake = driver.connections.get(0);
+        assertEquals(1, fake.rollbacks);
+        assertTrue(fake.autoCommit);
+
+        //The returned proxy cannot be used anymore
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, () -> connection.prepareStatement("SELECT 1"));
+    }
+
+    @Test
+    @DisplayName("Connection-Pool [Invalid idle connections are replaced]")
+    public void testInvalid() throws Exception {
+        start(0, 1, 1000);
+
+        pool.getConnection().close();
+        FakeJdbc.FakeConnection first = driver.connections.get(0);
+        first.valid = false;
+
+        //Recently used connections are not validated
+        Thread.sleep(600);
+
+        pool.getConnection().close();
+        assertEquals(2, driver.connections.size());
+        assertTrue(first.closed);
+        assertEquals(1, pool.metrics().evicted);
+    }
+
+    @Test
+    @DisplayName("Connection-Pool [Failed connects free their slot]")
+    public void testFailingConnect() throws SQLException {
+        start(0, 1, 100);
+
+        driver.failing = true;
+        assertThrows(SQLException.class, pool::getConnection);
+
+        driver.failing = false;
+        pool.getConnection().close();
+        assertEquals(1, pool.metrics().created);
+    }
+
+    @Test
+    @DisplayName("Connection-Pool [Close]")
+    public void testClose() throws SQLException {
+        start(1, 2, 1000);
+
+        Connection borrowed = pool.getConnection();
+        Connection other = pool.getConnection();
+        other.close();
+
+        pool.close();
+        assertThrows(SQLException.class, pool::getConnection);
+
+        //Borrowed connections are closed once they are returned
+        borrowed.close();
+        for(FakeJdbc.FakeConnection connection : driver.connections) assertTrue(connection.closed);
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.programm.plugz.persist.imbedded;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityCacheTest {
+
+    @Test
+    @DisplayName("Entity-Cache [Hits, misses and evictions]")
+    public void testLru() {
+        EntityCache cache = new EntityCache(String.class, 2, 0);
+
+        cache.put(1, "a", cache.version());
+        cache.put(2, "b", cache.version());
+        assertEquals("a", cache.get(1));
+        cache.put(3, "c", cache.version());
+
+        //2 was the least recently used entry
+        assertNull(cache.get(2));
+        assertEquals("a", cache.get(1));
+        assertEquals("c", cache.get(3));
+
+        EntityCacheMetrics metrics = cache.metrics();
+        assertEquals(2, metrics.size);
+        assertEquals(3, metrics.hits);
+        assertEquals(1, metrics.misses);
+        assertEquals(1, metrics.evictions);
+    }
+
+    @Test
+    @DisplayName("Entity-Cache [Time to live]")
+    public void testTtl() throws InterruptedException {
+        EntityCache cache = new EntityCache(String.class, 10, 1);
+        cache.put(1, "a", cache.version());
+
+        Thread.sleep(10);
+        assertNull(cache.get(1));
+        assertEquals(0, cache.metrics().size);
+    }
+
+    @Test
+    @DisplayName("Entity-Cache [Entities loaded before an invalidation are not cached]")
+    public void testStalePut() {
+        EntityCache cache = new EntityCache(String.class, 10, 0);
+
+        //The entity is loaded, then a concurrent update invalidates it before it is put
+        long version = cache.version();
+        cache.invalidate(1);
+        cache.put(1, "stale", version);
+        assertNull(cache.get(1));
+
+        version = cache.version();
+        cache.clear();
+        cache.put(1, "stale", version);
+        assertNull(cache.get(1));
+
+        cache.put(1, "fresh", cache.version());
+        assertEquals("fresh", cache.get(1));
+    }
+
+}
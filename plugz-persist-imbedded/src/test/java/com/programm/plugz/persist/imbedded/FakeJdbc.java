@@ -0,0 +1,250 @@
+package com.programm.plugz.persist.imbedded;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Minimal jdbc driver for the tests.
+ * Connections and statements only record how they are used and result sets are backed by fixed rows.
+ */
+class FakeJdbc {
+
+    static class FakeConnection implements InvocationHandler {
+        final Connection proxy = (Connection) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[]{ Connection.class }, this);
+        final List<FakeStatement> statements = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean valid = true;
+        boolean closed;
+        boolean autoCommit = true;
+        boolean readOnly;
+        int isolation = Connection.TRANSACTION_READ_COMMITTED;
+        int rollbacks;
+        int commits;
+        volatile boolean failingCommit;
+        //Result sets of executed queries by their sql
+        volatile Function<String, ResultSet> results = sql -> { throw new UnsupportedOperationException("executeQuery"); };
+
+        //Every table exists
+        private DatabaseMetaData metaData(){
+            return (DatabaseMetaData) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[]{ DatabaseMetaData.class }, (proxy, method, args) -> switch (method.getName()) {
+                case "getTables" -> resultSet(new String[]{ "TABLE_NAME" }, new int[]{ Types.VARCHAR }, new Object[]{ args[2] });
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+            switch (method.getName()) {
+                case "close" -> closed = true;
+                case "isClosed" -> { return closed; }
+                case "isValid" -> { return valid && !closed; }
+                case "getAutoCommit" -> { return autoCommit; }
+                case "setAutoCommit" -> autoCommit = (boolean) args[0];
+                case "rollback" -> rollbacks++;
+                case "commit" -> {
+                    if(failingCommit) throw new SQLException("Commit failed!");
+                    commits++;
+                }
+                case "isReadOnly" -> { return readOnly; }
+                case "setReadOnly" -> readOnly = (boolean) args[0];
+                case "getTransactionIsolation" -> { return isolation; }
+                case "setTransactionIsolation" -> isolation = (int) args[0];
+                case "getMetaData" -> { return metaData(); }
+                case "prepareStatement", "createStatement" -> {
+                    if(closed) throw new SQLException("Connection is closed!");
+                    FakeStatement statement = new FakeStatement(args == null ? null : (String) args[0], results);
+                    statements.add(statement);
+                    return statement.proxy;
+                }
+                case "equals" -> { return proxy == args[0]; }
+                case "hashCode" -> { return System.identityHashCode(proxy); }
+                case "toString" -> { return "FakeConnection"; }
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+            return null;
+        }
+    }
+
+    static class FakeStatement implements InvocationHandler {
+        final PreparedStatement proxy = (PreparedStatement) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[]{ PreparedStatement.class }, this);
+        final String sql;
+        final Function<String, ResultSet> results;
+        final List<Object[]> queries = new ArrayList<>();
+        final List<Object[]> updates = new ArrayList<>();
+        final List<Object[]> batches = new ArrayList<>();
+        final Map<Integer, Object> parameters = new HashMap<>();
+        boolean closed;
+        int clears;
+        int executedBatches;
+
+        FakeStatement(String sql, Function<String, ResultSet> results) {
+            this.sql = sql;
+            this.results = results;
+        }
+
+        //Takes the parameters set since the last execution
+        private Object[] parameters(){
+            Object[] values = new Object[parameters.size()];
+            for(int i=0;i<values.length;i++) values[i] = parameters.get(i + 1);
+            parameters.clear();
+            return values;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "close" -> closed = true;
+                case "isClosed" -> { return closed; }
+                case "clearParameters" -> clears++;
+                case "execute" -> { return true; }
+                case "executeQuery" -> {
+                    queries.add(parameters());
+                    return results.apply(sql);
+                }
+                case "executeUpdate" -> {
+                    updates.add(parameters());
+                    return 1;
+                }
+                case "setFetchSize" -> {}
+                case "addBatch" -> batches.add(parameters());
+                case "executeBatch" -> {
+                    executedBatches++;
+                    return new int[0];
+                }
+                case "clearBatch" -> {}
+                case "setQueryTimeout" -> {}
+                case "equals" -> { return proxy == args[0]; }
+                case "hashCode" -> { return System.identityHashCode(proxy); }
+                case "toString" -> { return "FakeStatement[" + sql + "]"; }
+                case "setNull" -> parameters.put((Integer) args[0], null);
+                default -> {
+                    if(!method.getName().startsWith("set") || args == null || args.length != 2) throw new UnsupportedOperationException(method.getName());
+                    parameters.put((Integer) args[0], args[1]);
+                }
+            }
+            return null;
+        }
+    }
+
+    static class FakeDriver implements Driver {
+        final String url;
+        final List<FakeConnection> connections = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean failing;
+        volatile Function<String, ResultSet> results = sql -> { throw new UnsupportedOperationException("executeQuery"); };
+
+        FakeDriver(String url) {
+            this.url = url;
+        }
+
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            if(!acceptsURL(url)) return null;
+            if(failing) throw new SQLException("Database is down!");
+
+            FakeConnection connection = new FakeConnection();
+            connection.results = sql -> results.apply(sql);
+            connections.add(connection);
+            return connection.proxy;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return this.url.equals(url);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+
+    /**
+     * Registers a driver for a new unique url.
+     */
+    static FakeDriver register() throws SQLException {
+        FakeDriver driver = new FakeDriver("jdbc:fake:" + UUID.randomUUID());
+        DriverManager.registerDriver(driver);
+        return driver;
+    }
+
+    static void deregister(FakeDriver driver) throws SQLException {
+        DriverManager.deregisterDriver(driver);
+    }
+
+    /**
+     * Creates a forward only result set.
+     * @param columns the names of the columns.
+     * @param types the {@link Types} of the columns.
+     * @param rows the values of every row, nulls are reported by {@link ResultSet#wasNull()}.
+     */
+    static ResultSet resultSet(String[] columns, int[] types, Object[]... rows) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[]{ ResultSetMetaData.class }, (proxy, method, args) -> switch (method.getName()) {
+            case "getColumnCount" -> columns.length;
+            case "getColumnName", "getColumnLabel" -> columns[(int) args[0] - 1];
+            case "getColumnType" -> types[(int) args[0] - 1];
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+
+        InvocationHandler handler = new InvocationHandler() {
+            int row = -1;
+            boolean wasNull;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                switch (name) {
+                    case "next" -> { return ++row < rows.length; }
+                    case "wasNull" -> { return wasNull; }
+                    case "getMetaData" -> { return metaData; }
+                    case "close" -> { return null; }
+                }
+
+                if(!name.startsWith("get") || args == null || !(args[0] instanceof Integer column)) throw new UnsupportedOperationException(name);
+
+                Object value = rows[row][column - 1];
+                wasNull = value == null;
+
+                return switch (name) {
+                    case "getObject" -> value;
+                    case "getString" -> value == null ? null : value.toString();
+                    case "getBoolean" -> value != null && (Boolean) value;
+                    case "getByte" -> value == null ? (byte) 0 : ((Number) value).byteValue();
+                    case "getShort" -> value == null ? (short) 0 : ((Number) value).shortValue();
+                    case "getInt" -> value == null ? 0 : ((Number) value).intValue();
+                    case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                    case "getFloat" -> value == null ? 0f : ((Number) value).floatValue();
+                    case "getDouble" -> value == null ? 0d : ((Number) value).doubleValue();
+                    case "getDate" -> value;
+                    default -> throw new UnsupportedOperationException(name);
+                };
+            }
+        };
+
+        return (ResultSet) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[]{ ResultSet.class }, handler);
+    }
+
+}
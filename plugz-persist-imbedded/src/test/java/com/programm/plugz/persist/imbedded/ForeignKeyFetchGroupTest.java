@@ -0,0 +1,76 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.plugz.cls.analyzer.ClassAnalyzer;
+import com.programm.plugz.cls.analyzer.PropertyEntry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ForeignKeyFetchGroupTest {
+
+    private final List<Set<Object>> loads = new ArrayList<>();
+
+    private Map<Object, Object> load(Class<?> type, Set<Object> ids){
+        loads.add(new HashSet<>(ids));
+
+        Map<Object, Object> owners = new HashMap<>();
+        for(Object id : ids){
+            //Owner 9 does not exist
+            if(id.equals(9L)) continue;
+
+            Owner owner = new Owner();
+            owner.setId((Long) id);
+            owners.put(id, owner);
+        }
+        return owners;
+    }
+
+    private static Account account(long id){
+        Account account = new Account();
+        account.setId(id);
+        return account;
+    }
+
+    @Test
+    @DisplayName("Foreign-Key-Fetch-Group [One load per field]")
+    public void testBatchLoad() throws Exception {
+        PropertyEntry ownerEntry = new ClassAnalyzer(true, false, false).analyzeProperty(Account.class).getFieldEntryMap().get("owner");
+        ForeignKeyFetchGroup group = new ForeignKeyFetchGroup(this::load);
+
+        Account first = account(1), second = account(2), third = account(3), missing = account(4), loaded = account(5);
+        group.add(Account.class, first, new HashMap<>(Map.of("owner", 7L)));
+        group.add(Account.class, second, new HashMap<>(Map.of("owner", 8L)));
+        group.add(Account.class, third, new HashMap<>(Map.of("owner", 7L)));
+        group.add(Account.class, missing, new HashMap<>(Map.of("owner", 9L)));
+        group.add(Account.class, loaded, new HashMap<>());
+
+        group.load(Account.class, "owner", ownerEntry);
+
+        assertEquals(List.of(Set.of(7L, 8L, 9L)), loads);
+        assertEquals(7, first.getOwner().getId());
+        assertEquals(8, second.getOwner().getId());
+        assertSame(first.getOwner(), third.getOwner());
+        assertNull(missing.getOwner());
+        assertNull(loaded.getOwner());
+
+        //Loaded keys are not loaded again
+        group.load(Account.class, "owner", ownerEntry);
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    @DisplayName("Foreign-Key-Fetch-Group [Joined entities]")
+    public void testJoined() {
+        ForeignKeyFetchGroup group = new ForeignKeyFetchGroup(this::load);
+        Owner owner = new Owner();
+
+        assertNull(group.joined(Owner.class, 1L));
+        group.addJoined(Owner.class, 1L, owner);
+        assertSame(owner, group.joined(Owner.class, 1L));
+        assertNull(group.joined(Account.class, 1L));
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.plugz.cls.analyzer.ClassAnalyzer;
+import com.programm.plugz.persist.PersistEntityInfo;
+import com.programm.plugz.persist.ex.PersistQueryBuildException;
+import com.programm.plugz.persist.query.Limit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodQueryParserTest {
+
+    public static class Customer {
+        private long id;
+        private String name;
+        private String firstName;
+
+        public long getId() { return id; }
+        public void setId(long id) { this.id = id; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getFirstName() { return firstName; }
+        public void setFirstName(String firstName) { this.firstName = firstName; }
+    }
+
+    private final ClassAnalyzer analyzer = new ClassAnalyzer(true, false, false);
+
+    private MethodQueryInfoSupplier parse(String mName, Class<?>... parameterTypes) throws Exception {
+        PersistEntityInfo info = new PersistEntityInfo(Customer.class, analyzer.analyzeProperty(Customer.class), "id", Collections.emptyMap());
+        return MethodQueryParser.analyzeAndGenerateSqlFromMethodName(null, "CUSTOMER", info, mName, parameterTypes, analyzer.analyzeProperty(List.class), Map.of(Customer.class, info));
+    }
+
+    private String query(String mName, Class<?>... parameterTypes) throws Exception {
+        return parse(mName, parameterTypes).queryInfo(new Object[parameterTypes.length]).query;
+    }
+
+    @Test
+    @DisplayName("Method-Query-Parser [Derived queries]")
+    public void testDerived() throws Exception {
+        assertEquals("SELECT * FROM CUSTOMER", query("findAll"));
+        assertEquals("SELECT * FROM CUSTOMER WHERE (name = ? OR id = ?)", query("findByNameOrId", String.class, long.class));
+        assertEquals(List.of("name"), parse("findByName", String.class).filteredFields());
+
+        //First selects the field here and not a limit
+        assertEquals("SELECT firstname FROM CUSTOMER", query("findFirstName"));
+    }
+
+    @Test
+    @DisplayName("Method-Query-Parser [Limits in the method name]")
+    public void testStaticLimit() throws Exception {
+        assertEquals("SELECT * FROM CUSTOMER WHERE name = ? ORDER BY ID LIMIT 10", query("findTop10ByName", String.class));
+        assertEquals("SELECT * FROM CUSTOMER WHERE name = ? ORDER BY ID LIMIT 1", query("findFirstByName", String.class));
+
+        assertThrows(PersistQueryBuildException.class, () -> parse("findTop0ByName", String.class));
+        assertThrows(PersistQueryBuildException.class, () -> parse("findTop5ByName", String.class, Limit.class));
+
+        PersistQueryBuildException e = assertThrows(PersistQueryBuildException.class, () -> parse("findTop99999999999ByName", String.class));
+        assertTrue(e.getMessage().contains("findTop99999999999ByName"), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Method-Query-Parser [Limit parameter]")
+    public void testLimitParameter() throws Exception {
+        MethodQueryInfoSupplier supplier = parse("findByName", String.class, Limit.class);
+
+        MethodQueryInfo first = supplier.queryInfo(new Object[]{ "name", Limit.of(20) });
+        assertEquals("SELECT * FROM CUSTOMER WHERE name = ? ORDER BY ID LIMIT ?", first.query);
+        assertArrayEquals(new Object[]{ "name", 20 }, first.statementArguments);
+
+        MethodQueryInfo next = supplier.queryInfo(new Object[]{ "name", Limit.after(7L, 20) });
+        assertEquals("SELECT * FROM CUSTOMER WHERE name = ? AND ID > ? ORDER BY ID LIMIT ?", next.query);
+        assertArrayEquals(new Object[]{ "name", 7L, 20 }, next.statementArguments);
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.programm.plugz.persist.imbedded;
+
+public class Owner {
+    private long id;
+    private String name;
+
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
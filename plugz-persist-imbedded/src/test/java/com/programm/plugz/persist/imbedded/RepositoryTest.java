@@ -0,0 +1,355 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.ioutils.log.api.NullLogger;
+import com.programm.plugz.api.PlugzConfig;
+import com.programm.plugz.api.instance.IInstanceManager;
+import com.programm.plugz.cls.analyzer.ClassAnalyzer;
+import com.programm.plugz.persist.FetchMode;
+import com.programm.plugz.persist.ICrudRepository;
+import com.programm.plugz.persist.Indexed;
+import com.programm.plugz.persist.PersistEntityInfo;
+import com.programm.plugz.persist.PersistForeignKeyInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryTest {
+
+    public static class Customer {
+        private long id;
+        private String name;
+
+        public Customer() {}
+
+        public Customer(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public long getId() { return id; }
+        public void setId(long id) { this.id = id; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+    }
+
+    public static class Address {
+        private long id;
+        @Indexed(value = "idx_place", order = 1)
+        private String city;
+        @Indexed(value = "idx_place", unique = true)
+        private String street;
+        @Indexed
+        private int zip;
+
+        public long getId() { return id; }
+        public void setId(long id) { this.id = id; }
+        public String getCity() { return city; }
+        public void setCity(String city) { this.city = city; }
+        public String getStreet() { return street; }
+        public void setStreet(String street) { this.street = street; }
+        public int getZip() { return zip; }
+        public void setZip(int zip) { this.zip = zip; }
+    }
+
+    public interface CustomerRepo extends ICrudRepository<Long, Customer> {
+        Customer findByName(String name);
+        Stream<Customer> findAllByName(String name);
+    }
+
+    public interface AccountRepo extends ICrudRepository<Long, Account> {
+        List<Account> findByName(String name);
+    }
+
+    private FakeJdbc.FakeDriver driver;
+    private ImbeddedRepoHandler handler;
+    private final Map<String, Object> instances = new HashMap<>();
+    private PersistEntityInfo customerInfo;
+    private PersistEntityInfo ownerInfo;
+    private PersistEntityInfo accountInfo;
+    private Map<Class<?>, PersistEntityInfo> infoMap;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        driver = FakeJdbc.register();
+
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("persist.db.url", driver.url);
+        configs.put("persist.db.pool.min_size", 0);
+
+        handler = new ImbeddedRepoHandler(new NullLogger(), proxy(IInstanceManager.class, instances), proxy(PlugzConfig.class, configs));
+
+        ClassAnalyzer analyzer = new ClassAnalyzer(true, false, false);
+        customerInfo = new PersistEntityInfo(Customer.class, analyzer.analyzeProperty(Customer.class), "id", Collections.emptyMap());
+        ownerInfo = new PersistEntityInfo(Owner.class, analyzer.analyzeProperty(Owner.class), "id", Collections.emptyMap());
+        PersistForeignKeyInfo ownerKey = new PersistForeignKeyInfo(PersistForeignKeyInfo.ConnectionType.MANY_TO_ONE, Owner.class, "id", FetchMode.LAZY);
+        accountInfo = new PersistEntityInfo(Account.class, analyzer.analyzeProperty(Account.class), "id", Map.of("owner", ownerKey));
+        infoMap = Map.of(Customer.class, customerInfo, Owner.class, ownerInfo, Account.class, accountInfo);
+        handler.startup(analyzer, infoMap);
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        FakeJdbc.deregister(driver);
+    }
+
+    //Calls to get return the configured values and registered instances are stored by their class name
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> cls, Map<String, Object> values){
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            if(method.isDefault()) return InvocationHandler.invokeDefault(proxy, method, args);
+            if(method.getName().equals("registerInstance")) values.put(((Class<?>) args[0]).getName(), args[1]);
+            return method.getName().equals("get") ? values.get((String) args[0]) : null;
+        };
+        return (T) Proxy.newProxyInstance(RepositoryTest.class.getClassLoader(), new Class<?>[]{ cls }, invocationHandler);
+    }
+
+    private List<FakeJdbc.FakeStatement> statements(){
+        return driver.connections.stream().flatMap(connection -> connection.statements.stream()).toList();
+    }
+
+    private int queries(String table){
+        return statements().stream().filter(statement -> statement.sql.contains(table)).mapToInt(statement -> statement.queries.size()).sum();
+    }
+
+    private static ResultSet accountRows(){
+        return FakeJdbc.resultSet(
+                new String[]{ "ID", "NAME", "FK_OWNER_ID" },
+                new int[]{ Types.BIGINT, Types.VARCHAR, Types.BIGINT },
+                new Object[]{ 1L, "account", 5L });
+    }
+
+    private static ResultSet ownerRows(){
+        return FakeJdbc.resultSet(
+                new String[]{ "ID", "NAME" },
+                new int[]{ Types.BIGINT, Types.VARCHAR },
+                new Object[]{ 5L, "owner" });
+    }
+
+    @Test
+    @DisplayName("Repository [Inherited batch methods]")
+    public void testInheritedMethods() throws Exception {
+        CustomerRepo repo = (CustomerRepo) handler.createRepoImplementation(CustomerRepo.class, customerInfo, infoMap);
+
+        repo.saveAll(List.of(new Customer(1, "first"), new Customer(2, "second")));
+        repo.deleteAllById(List.of(3L, 4L));
+
+        List<FakeJdbc.FakeStatement> statements = statements();
+        assertEquals(2, statements.size());
+
+        FakeJdbc.FakeStatement update = statements.get(0);
+        assertTrue(update.sql.startsWith("UPDATE"), update.sql);
+        assertEquals(2, update.batches.size());
+        assertEquals(1, update.executedBatches);
+        assertTrue(List.of(update.batches.get(0)).contains("first"));
+        assertTrue(List.of(update.batches.get(0)).contains(1L));
+
+        FakeJdbc.FakeStatement delete = statements.get(1);
+        assertTrue(delete.sql.startsWith("DELETE"), delete.sql);
+        assertEquals(2, delete.batches.size());
+        assertArrayEquals(new Object[]{ 3L }, delete.batches.get(0));
+        assertArrayEquals(new Object[]{ 4L }, delete.batches.get(1));
+
+        //Both batch calls are committed on their own
+        assertEquals(2, driver.connections.get(0).commits);
+    }
+
+    @Test
+    @DisplayName("Repository [Inherited findAll]")
+    public void testFindAll() throws Exception {
+        CustomerRepo repo = (CustomerRepo) handler.createRepoImplementation(CustomerRepo.class, customerInfo, infoMap);
+        driver.results = sql -> FakeJdbc.resultSet(
+                new String[]{ "ID", "NAME" },
+                new int[]{ Types.BIGINT, Types.VARCHAR },
+                new Object[]{ 1L, "first" },
+                new Object[]{ 2L, "second" });
+
+        Collection<Customer> customers = repo.findAll();
+        assertEquals(List.of("first", "second"), customers.stream().map(Customer::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Repository [Streamed results]")
+    public void testStream() throws Exception {
+        CustomerRepo repo = (CustomerRepo) handler.createRepoImplementation(CustomerRepo.class, customerInfo, infoMap);
+        IConnectionPool pool = (IConnectionPool) instances.get(IConnectionPool.class.getName());
+        driver.results = sql -> FakeJdbc.resultSet(
+                new String[]{ "ID", "NAME" },
+                new int[]{ Types.BIGINT, Types.VARCHAR },
+                new Object[]{ 1L, "same" },
+                new Object[]{ 2L, "same" },
+                new Object[]{ 3L, "same" });
+
+        try (Stream<Customer> customers = repo.findAllByName("same")) {
+            assertEquals(List.of(1L, 2L), customers.limit(2).map(Customer::getId).toList());
+
+            //The cursor keeps its connection and statement until the stream is closed
+            assertEquals(1, pool.metrics().active);
+            FakeJdbc.FakeStatement statement = statements().get(0);
+            assertFalse(statement.closed);
+            assertArrayEquals(new Object[]{ "same" }, statement.queries.get(0));
+            assertFalse(driver.connections.get(0).autoCommit);
+        }
+
+        assertTrue(statements().get(0).closed);
+        assertEquals(0, pool.metrics().active);
+        assertTrue(driver.connections.get(0).autoCommit);
+    }
+
+    @Test
+    @DisplayName("Repository [Cached entities are copies]")
+    public void testCachedCopies() throws Exception {
+        AccountRepo repo = (AccountRepo) handler.createRepoImplementation(AccountRepo.class, accountInfo, infoMap);
+        driver.results = sql -> sql.contains("ACCOUNT") ? accountRows() : ownerRows();
+
+        Account first = repo.findById(1L);
+        first.setName("changed");
+        assertEquals("owner", first.getOwner().getName());
+
+        Account second = repo.findById(1L);
+        assertNotSame(first, second);
+        assertEquals(1, queries("ACCOUNT"));
+        assertEquals("account", second.getName());
+
+        //The cached copy only kept the key of the owner, which is loaded again
+        assertEquals(1, queries("OWNER"));
+        assertEquals("owner", second.getOwner().getName());
+        assertEquals(2, queries("OWNER"));
+        assertNotSame(first.getOwner(), second.getOwner());
+    }
+
+    @Test
+    @DisplayName("Repository [Entities invalidated while loading are not cached]")
+    public void testInvalidatedWhileLoading() throws Exception {
+        AccountRepo repo = (AccountRepo) handler.createRepoImplementation(AccountRepo.class, accountInfo, infoMap);
+        IEntityCacheManager cacheManager = (IEntityCacheManager) instances.get(IEntityCacheManager.class.getName());
+
+        //A concurrent update invalidates the account after it was read
+        driver.results = sql -> {
+            cacheManager.invalidate(Account.class, 1L);
+            return accountRows();
+        };
+
+        repo.findById(1L);
+        repo.findById(1L);
+        assertEquals(2, queries("ACCOUNT"));
+
+        driver.results = sql -> accountRows();
+        repo.findById(1L);
+        repo.findById(1L);
+        assertEquals(3, queries("ACCOUNT"));
+    }
+
+    @Test
+    @DisplayName("Repository [Transactions do not read cached entities]")
+    public void testTransactionSkipsCache() throws Exception {
+        AccountRepo repo = (AccountRepo) handler.createRepoImplementation(AccountRepo.class, accountInfo, infoMap);
+        driver.results = sql -> sql.contains("ACCOUNT") ? accountRows() : ownerRows();
+
+        Account cached = repo.findById(1L);
+        assertEquals("owner", cached.getOwner().getName());
+        assertEquals(1, queries("ACCOUNT"));
+
+        ImbeddedTransactionManager transactionManager = (ImbeddedTransactionManager) handler.transactionManager();
+        Account found = transactionManager.execute(() -> {
+            //Written past the repository, so the cached account is not invalidated
+            try (PreparedStatement statement = transactionManager.currentConnection().prepareStatement("UPDATE ACCOUNT SET NAME = ? WHERE ID = ?")) {
+                statement.setString(1, "updated");
+                statement.setLong(2, 1L);
+                statement.executeUpdate();
+            }
+
+            driver.results = sql -> sql.contains("ACCOUNT")
+                    ? FakeJdbc.resultSet(
+                            new String[]{ "ID", "NAME", "FK_OWNER_ID" },
+                            new int[]{ Types.BIGINT, Types.VARCHAR, Types.BIGINT },
+                            new Object[]{ 1L, "updated", 5L })
+                    : ownerRows();
+
+            Account account = repo.findById(1L);
+            assertEquals("owner", account.getOwner().getName());
+            return account;
+        });
+
+        assertEquals("updated", found.getName());
+        assertEquals(2, queries("ACCOUNT"));
+        assertEquals(2, queries("OWNER"));
+    }
+
+    @Test
+    @DisplayName("Repository [Lazy foreign keys of a result are loaded together]")
+    public void testBatchedForeignKeys() throws Exception {
+        AccountRepo repo = (AccountRepo) handler.createRepoImplementation(AccountRepo.class, accountInfo, infoMap);
+        driver.results = sql -> sql.contains("ACCOUNT")
+                ? FakeJdbc.resultSet(
+                        new String[]{ "ID", "NAME", "FK_OWNER_ID" },
+                        new int[]{ Types.BIGINT, Types.VARCHAR, Types.BIGINT },
+                        new Object[]{ 1L, "shared", 5L },
+                        new Object[]{ 2L, "shared", 6L },
+                        new Object[]{ 3L, "shared", 5L },
+                        new Object[]{ 4L, "shared", null })
+                : FakeJdbc.resultSet(
+                        new String[]{ "ID", "NAME" },
+                        new int[]{ Types.BIGINT, Types.VARCHAR },
+                        new Object[]{ 5L, "five" },
+                        new Object[]{ 6L, "six" });
+
+        List<Account> accounts = repo.findByName("shared");
+        assertEquals(4, accounts.size());
+        assertEquals(0, queries("OWNER"));
+
+        assertEquals("five", accounts.get(0).getOwner().getName());
+        assertEquals(1, queries("OWNER"));
+        assertEquals("six", accounts.get(1).getOwner().getName());
+        assertSame(accounts.get(0).getOwner(), accounts.get(2).getOwner());
+        assertNull(accounts.get(3).getOwner());
+        assertEquals(1, queries("OWNER"));
+
+        //Both distinct keys are bound to one IN query
+        FakeJdbc.FakeStatement ownerQuery = statements().stream().filter(statement -> statement.sql.contains("OWNER")).findFirst().orElseThrow();
+        assertTrue(ownerQuery.sql.endsWith("IN (?, ?)"), ownerQuery.sql);
+        assertEquals(Set.of(5L, 6L), Set.of(ownerQuery.queries.get(0)));
+    }
+
+    @Test
+    @DisplayName("Repository [Indexes of annotated fields]")
+    public void testIndexes() throws Exception {
+        PersistEntityInfo addressInfo = new PersistEntityInfo(Address.class, new ClassAnalyzer(true, false, false).analyzeProperty(Address.class), "id", Collections.emptyMap());
+        Map<String, IndexInfo> indexes = new HashMap<>();
+        for(IndexInfo index : DBHelper.getIndexes("ADDRESS", addressInfo)) indexes.put(index.name, index);
+
+        assertEquals(Set.of("IDX_PLACE", "IDX_ADDRESS_ZIP"), indexes.keySet());
+        assertTrue(indexes.get("IDX_PLACE").unique);
+        assertEquals(List.of("street", "city"), indexes.get("IDX_PLACE").fields);
+        assertEquals(List.of("ZIP"), indexes.get("IDX_ADDRESS_ZIP").columns);
+        assertFalse(indexes.get("IDX_ADDRESS_ZIP").unique);
+    }
+
+    @Test
+    @DisplayName("Repository [Composite indexes only cover their leading fields]")
+    public void testUnindexedFields() {
+        List<IndexInfo> indexes = List.of(new IndexInfo("IDX_NAME_CITY", false, List.of("name", "city"), List.of("NAME", "CITY")));
+
+        assertEquals(List.of(), ImbeddedRepoHandler.unindexedFields(List.of("id"), "id", indexes));
+        assertEquals(List.of(), ImbeddedRepoHandler.unindexedFields(List.of("name"), "id", indexes));
+        assertEquals(List.of(), ImbeddedRepoHandler.unindexedFields(List.of("city", "Name"), "id", indexes));
+        assertEquals(List.of("city"), ImbeddedRepoHandler.unindexedFields(List.of("city"), "id", indexes));
+        assertEquals(List.of("city", "age"), ImbeddedRepoHandler.unindexedFields(List.of("id", "city", "age"), "id", indexes));
+    }
+
+}
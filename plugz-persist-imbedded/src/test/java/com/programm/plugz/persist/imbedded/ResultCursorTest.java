@@ -0,0 +1,81 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.plugz.cls.analyzer.ClassAnalyzer;
+import com.programm.plugz.persist.PersistEntityInfo;
+import com.programm.plugz.persist.ex.PersistRuntimeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCursorTest {
+
+    private int closes;
+
+    private static ResultSet ownerRows(Object[]... rows){
+        return FakeJdbc.resultSet(new String[]{ "ID", "NAME" }, new int[]{ Types.BIGINT, Types.VARCHAR }, rows);
+    }
+
+    private static RowMapper mapper() throws Exception {
+        PersistEntityInfo ownerInfo = new PersistEntityInfo(Owner.class, new ClassAnalyzer(true, false, false).analyzeProperty(Owner.class), "id", Collections.emptyMap());
+        return RowMapper.compile(ownerRows().getMetaData(), ownerInfo.analyzedEntity, ownerInfo, Map.of(Owner.class, ownerInfo), (cls, info) -> group -> new Owner(), false);
+    }
+
+    private ResultCursor cursor(ResultSet rs) throws Exception {
+        return new ResultCursor("SELECT * FROM OWNER", rs, mapper(), 2, (type, ids) -> Collections.emptyMap(), () -> closes++);
+    }
+
+    @Test
+    @DisplayName("Result-Cursor [Rows are read on demand]")
+    public void testIterate() throws Exception {
+        ResultCursor cursor = cursor(ownerRows(new Object[]{ 1L, "first" }, new Object[]{ 2L, "second" }));
+
+        assertTrue(cursor.hasNext());
+        assertTrue(cursor.hasNext());
+        assertEquals("first", ((Owner) cursor.next()).getName());
+        assertEquals(0, closes);
+
+        assertEquals("second", ((Owner) cursor.next()).getName());
+        assertFalse(cursor.hasNext());
+        assertEquals(1, closes);
+
+        assertThrows(NoSuchElementException.class, cursor::next);
+        cursor.close();
+        assertEquals(1, closes);
+    }
+
+    @Test
+    @DisplayName("Result-Cursor [Closing the stream closes the cursor]")
+    public void testStream() throws Exception {
+        ResultCursor cursor = cursor(ownerRows(new Object[]{ 1L, "first" }, new Object[]{ 2L, "second" }, new Object[]{ 3L, "third" }));
+
+        try (Stream<Object> stream = cursor.stream()) {
+            assertEquals(List.of("first"), stream.limit(1).map(owner -> ((Owner) owner).getName()).toList());
+            assertEquals(0, closes);
+        }
+
+        assertEquals(1, closes);
+        assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    @DisplayName("Result-Cursor [Failed reads close the cursor]")
+    public void testFailure() throws Exception {
+        ResultSet failing = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ ResultSet.class }, (proxy, method, args) -> {
+            throw new SQLException("Connection lost!");
+        });
+
+        ResultCursor cursor = cursor(failing);
+        assertThrows(PersistRuntimeException.class, cursor::hasNext);
+        assertEquals(1, closes);
+        assertFalse(cursor.hasNext());
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.plugz.cls.analyzer.AnalyzedPropertyClass;
+import com.programm.plugz.cls.analyzer.ClassAnalyzer;
+import com.programm.plugz.persist.FetchMode;
+import com.programm.plugz.persist.PersistEntityInfo;
+import com.programm.plugz.persist.PersistForeignKeyInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowMapperTest {
+
+    public static class Customer {
+        private long id;
+        private String name;
+        private Integer score;
+        private double rating;
+        private boolean active;
+
+        public long getId() { return id; }
+        public void setId(long id) { this.id = id; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public Integer getScore() { return score; }
+        public void setScore(Integer score) { this.score = score; }
+        public double getRating() { return rating; }
+        public void setRating(double rating) { this.rating = rating; }
+        public boolean isActive() { return active; }
+        public void setActive(boolean active) { this.active = active; }
+    }
+
+    public static class Order {
+        private long id;
+        private Customer customer;
+
+        public long getId() { return id; }
+        public void setId(long id) { this.id = id; }
+        public Customer getCustomer() { return customer; }
+        public void setCustomer(Customer customer) { this.customer = customer; }
+    }
+
+    private final ClassAnalyzer analyzer = new ClassAnalyzer(true, false, false);
+
+    private PersistEntityInfo info(Class<?> cls, Map<String, PersistForeignKeyInfo> foreignKeys) throws Exception {
+        AnalyzedPropertyClass analyzed = analyzer.analyzeProperty(cls);
+        return new PersistEntityInfo(cls, analyzed, "id", foreignKeys);
+    }
+
+    private static RowMapper.EntityFactory factory(AnalyzedPropertyClass cls, PersistEntityInfo entityInfo){
+        return group -> {
+            try {
+                return cls.getType().getConstructor().newInstance();
+            }
+            catch (ReflectiveOperationException e){
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Row-Mapper [Columns by name]")
+    public void testColumns() throws Exception {
+        PersistEntityInfo customerInfo = info(Customer.class, Collections.emptyMap());
+
+        //RATING is not selected, columns are matched case insensitive and in any order
+        ResultSet rs = FakeJdbc.resultSet(
+                new String[]{ "active", "NAME", "ID", "SCORE" },
+                new int[]{ Types.BOOLEAN, Types.VARCHAR, Types.BIGINT, Types.INTEGER },
+                new Object[]{ true, "first", 1L, 10 },
+                new Object[]{ false, null, 2L, null });
+
+        RowMapper mapper = RowMapper.compile(rs.getMetaData(), customerInfo.analyzedEntity, customerInfo, Map.of(Customer.class, customerInfo), RowMapperTest::factory, false);
+        ForeignKeyFetchGroup group = new ForeignKeyFetchGroup((type, ids) -> Collections.emptyMap());
+
+        assertTrue(rs.next());
+        Customer first = (Customer) mapper.map(rs, group);
+        assertEquals(1, first.getId());
+        assertEquals("first", first.getName());
+        assertEquals(Integer.valueOf(10), first.getScore());
+        assertEquals(0.0, first.getRating());
+        assertTrue(first.isActive());
+
+        assertTrue(rs.next());
+        Customer second = (Customer) mapper.map(rs, group);
+        assertEquals(2, second.getId());
+        assertNull(second.getName());
+        assertNull(second.getScore());
+        assertFalse(second.isActive());
+
+        assertFalse(rs.next());
+    }
+
+    @Test
+    @DisplayName("Row-Mapper [Joined foreign entities]")
+    public void testJoin() throws Exception {
+        PersistEntityInfo customerInfo = info(Customer.class, Collections.emptyMap());
+        Map<String, PersistForeignKeyInfo> foreignKeys = new HashMap<>();
+        foreignKeys.put("customer", new PersistForeignKeyInfo(PersistForeignKeyInfo.ConnectionType.MANY_TO_ONE, Customer.class, "id", FetchMode.JOIN));
+        PersistEntityInfo orderInfo = info(Order.class, foreignKeys);
+        Map<Class<?>, PersistEntityInfo> infoMap = Map.of(Customer.class, customerInfo, Order.class, orderInfo);
+
+        ResultSet rs = FakeJdbc.resultSet(
+                new String[]{ "ID", "FK_CUSTOMER_ID", "ID", "NAME", "SCORE", "RATING", "ACTIVE" },
+                new int[]{ Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.DOUBLE, Types.BOOLEAN },
+                new Object[]{ 1L, 5L, 5L, "shared", 1, 0.5, true },
+                new Object[]{ 2L, 5L, 5L, "shared", 1, 0.5, true },
+                new Object[]{ 3L, null, null, null, null, null, null });
+
+        RowMapper mapper = RowMapper.compile(rs.getMetaData(), orderInfo.analyzedEntity, orderInfo, infoMap, RowMapperTest::factory, true);
+        ForeignKeyFetchGroup group = new ForeignKeyFetchGroup((type, ids) -> Collections.emptyMap());
+
+        rs.next();
+        Order first = (Order) mapper.map(rs, group);
+        rs.next();
+        Order second = (Order) mapper.map(rs, group);
+        rs.next();
+        Order third = (Order) mapper.map(rs, group);
+
+        assertEquals(1, first.getId());
+        assertEquals(2, second.getId());
+        assertEquals(3, third.getId());
+
+        //Rows joining the same customer share one instance
+        assertNotNull(first.getCustomer());
+        assertSame(first.getCustomer(), second.getCustomer());
+        assertEquals(5, first.getCustomer().getId());
+        assertEquals("shared", first.getCustomer().getName());
+        assertEquals(0.5, first.getCustomer().getRating());
+        assertNull(third.getCustomer());
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.ioutils.log.api.NullLogger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCacheTest {
+
+    private final FakeJdbc.FakeConnection connection = new FakeJdbc.FakeConnection();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private StatementCache cache(int size){
+        return new StatementCache(connection.proxy, size, hits, misses, evictions);
+    }
+
+    @Test
+    @DisplayName("Statement-Cache [Hits and misses]")
+    public void testHits() throws SQLException {
+        StatementCache cache = cache(4);
+
+        PreparedStatement first = cache.prepare("SELECT 1", false);
+        cache.release(first);
+        PreparedStatement second = cache.prepare("SELECT 1", false);
+        PreparedStatement withKeys = cache.prepare("SELECT 1", true);
+
+        assertSame(first, second);
+        assertNotSame(first, withKeys);
+        assertEquals(1, hits.sum());
+        assertEquals(2, misses.sum());
+        assertEquals(2, connection.statements.size());
+
+        //Released statements are kept open with cleared parameters
+        assertFalse(connection.statements.get(0).closed);
+        assertEquals(1, connection.statements.get(0).clears);
+    }
+
+    @Test
+    @DisplayName("Statement-Cache [Least recently used statements are evicted]")
+    public void testEviction() throws SQLException {
+        StatementCache cache = cache(2);
+
+        cache.prepare("A", false);
+        cache.prepare("B", false);
+        cache.prepare("A", false);
+        cache.prepare("C", false);
+
+        assertEquals(1, evictions.sum());
+        assertFalse(connection.statements.get(0).closed);
+        assertTrue(connection.statements.get(1).closed);
+        assertFalse(connection.statements.get(2).closed);
+
+        //B has to be prepared again
+        cache.prepare("B", false);
+        assertEquals(4, connection.statements.size());
+    }
+
+    @Test
+    @DisplayName("Statement-Cache [Closed statements are prepared again]")
+    public void testClosedStatement() throws SQLException {
+        StatementCache cache = cache(2);
+
+        PreparedStatement statement = cache.prepare("A", false);
+        statement.close();
+
+        assertNotSame(statement, cache.prepare("A", false));
+        assertEquals(0, hits.sum());
+    }
+
+    @Test
+    @DisplayName("Statement-Cache [Disabled cache]")
+    public void testDisabled() throws SQLException {
+        StatementCache cache = cache(0);
+
+        PreparedStatement statement = cache.prepare("A", false);
+        cache.release(statement);
+
+        assertTrue(connection.statements.get(0).closed);
+        assertNotSame(statement, cache.prepare("A", false));
+        assertEquals(0, hits.sum() + misses.sum());
+    }
+
+    @Test
+    @DisplayName("Statement-Cache [Pooled connections share the metrics]")
+    public void testPoolMetrics() throws SQLException {
+        FakeJdbc.FakeDriver driver = FakeJdbc.register();
+        ConnectionPool pool = new ConnectionPool(new NullLogger(), driver.url, "user", "", 0, 1, 1000, null, 0, 4);
+
+        try {
+            pool.start();
+
+            for(int i=0;i<3;i++){
+                try (Connection connection = pool.getConnection()) {
+                    PreparedStatement statement = pool.prepareStatement(connection, "SELECT 1", false);
+                    pool.releaseStatement(connection, statement);
+                }
+            }
+
+            assertEquals(2, pool.metrics().statementCacheHits);
+            assertEquals(1, pool.metrics().statementCacheMisses);
+
+            //Closing the pool closes the cached statements
+            pool.close();
+            assertTrue(driver.connections.get(0).statements.get(0).closed);
+        }
+        finally {
+            pool.close();
+            FakeJdbc.deregister(driver);
+        }
+    }
+
+}
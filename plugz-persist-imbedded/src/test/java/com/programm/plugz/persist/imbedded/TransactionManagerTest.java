@@ -0,0 +1,125 @@
+package com.programm.plugz.persist.imbedded;
+
+import com.programm.ioutils.log.api.NullLogger;
+import com.programm.plugz.persist.TransactionIsolation;
+import com.programm.plugz.persist.ex.PersistRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionManagerTest {
+
+    private FakeJdbc.FakeDriver driver;
+    private ConnectionPool pool;
+    private ImbeddedTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        driver = FakeJdbc.register();
+        pool = new ConnectionPool(new NullLogger(), driver.url, "user", "", 0, 2, 1000, null, 0, 4);
+        pool.start();
+        transactionManager = new ImbeddedTransactionManager(pool, TransactionIsolation.READ_COMMITTED);
+    }
+
+    @AfterEach
+    public void cleanup() throws SQLException {
+        pool.close();
+        FakeJdbc.deregister(driver);
+    }
+
+    @Test
+    @DisplayName("Transactions [Commit]")
+    public void testCommit() throws SQLException {
+        String result = transactionManager.execute(TransactionIsolation.SERIALIZABLE, true, () -> {
+            assertTrue(transactionManager.isActive());
+
+            Connection connection = transactionManager.currentConnection();
+            assertNotNull(connection);
+            assertFalse(connection.getAutoCommit());
+            assertTrue(connection.isReadOnly());
+            assertEquals(Connection.TRANSACTION_SERIALIZABLE, connection.getTransactionIsolation());
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertFalse(transactionManager.isActive());
+        assertNull(transactionManager.currentConnection());
+
+        //The connection is returned with its previous settings
+        FakeJdbc.FakeConnection fake = driver.connections.get(0);
+        assertEquals(1, fake.commits);
+        assertTrue(fake.autoCommit);
+        assertFalse(fake.readOnly);
+        assertEquals(Connection.TRANSACTION_READ_COMMITTED, fake.isolation);
+        assertEquals(0, pool.metrics().active);
+    }
+
+    @Test
+    @DisplayName("Transactions [Rollback]")
+    public void testRollback() {
+        assertThrows(IOException.class, () -> transactionManager.execute(() -> {
+            throw new IOException("failed");
+        }));
+
+        FakeJdbc.FakeConnection fake = driver.connections.get(0);
+        assertEquals(0, fake.commits);
+        //The pool rolls back returned connections as well
+        assertTrue(fake.rollbacks >= 1);
+        assertFalse(transactionManager.isActive());
+    }
+
+    @Test
+    @DisplayName("Transactions [Joined work marks the transaction rollback-only]")
+    public void testJoined() {
+        List<String> completed = new ArrayList<>();
+
+        assertThrows(PersistRuntimeException.class, () -> transactionManager.execute(() -> {
+            Connection outer = transactionManager.currentConnection();
+            transactionManager.afterCompletion(() -> completed.add("outer"));
+
+            try {
+                transactionManager.execute(() -> {
+                    assertSame(outer, transactionManager.currentConnection());
+                    throw new IllegalStateException("inner");
+                });
+            }
+            catch (IllegalStateException ignore){}
+
+            return null;
+        }));
+
+        assertEquals(1, driver.connections.size());
+        assertEquals(0, driver.connections.get(0).commits);
+        assertEquals(List.of("outer"), completed);
+    }
+
+    @Test
+    @DisplayName("Transactions [Failed commit]")
+    public void testFailedCommit() {
+        transactionManager.execute(() -> null);
+        FakeJdbc.FakeConnection fake = driver.connections.get(0);
+        fake.failingCommit = true;
+
+        assertThrows(PersistRuntimeException.class, () -> transactionManager.execute(() -> null));
+        assertFalse(transactionManager.isActive());
+        assertEquals(0, pool.metrics().active);
+    }
+
+    @Test
+    @DisplayName("Transactions [Actions without a transaction run immediately]")
+    public void testAfterCompletion() {
+        List<String> completed = new ArrayList<>();
+        transactionManager.afterCompletion(() -> completed.add("now"));
+        assertEquals(List.of("now"), completed);
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.programm.plugz.persist;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches entities loaded by their primary key (findById and lazy loaded foreign keys).
+ * Every call returns its own copy of the cached entity. Foreign entities are only cached by their key and loaded again on access.
+ * Updates and deletes through repositories invalidate the cached entity - changes made by custom queries or outside of the application are only
+ * picked up once the entity expired or was evicted.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cached {
+
+    /**
+     * @return the max number of cached entities. The least recently used entity is evicted when the cache is full.
+     */
+    int maxSize() default 1000;
+
+    /**
+     * @return the time in milliseconds an entity stays cached after it was loaded. 0 keeps it until it is evicted or invalidated.
+     */
+    long ttl() default 0;
+
+}
@@ -0,0 +1,16 @@
+package com.programm.plugz.persist;
+
+public enum FetchMode {
+
+    /**
+     * The foreign entity is loaded on the first access of the field.
+     * The foreign entities of all entities returned by the same query are loaded together.
+     */
+    LAZY,
+
+    /**
+     * The foreign entity is loaded with the entity by joining its table in the query.
+     */
+    JOIN
+
+}
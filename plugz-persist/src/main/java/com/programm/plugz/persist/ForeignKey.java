@@ -11,4 +11,6 @@ public @interface ForeignKey {
 
     String value();
 
+    FetchMode fetch() default FetchMode.LAZY;
+
 }
@@ -12,4 +12,15 @@ public interface ICrudRepository<ID, Data> {
 
     Data delete(ID id);
 
+    /**
+     * Inserts new and updates existing entities in batches.
+     * Generated ids are written back into the entities.
+     */
+    void saveAll(Collection<Data> data);
+
+    /**
+     * Deletes all entities with the given ids in batches.
+     */
+    void deleteAllById(Collection<ID> ids);
+
 }
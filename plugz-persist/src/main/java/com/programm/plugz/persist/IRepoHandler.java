@@ -15,4 +15,11 @@ public interface IRepoHandler {
 
     Object createRepoImplementation(Class<?> repoCls, PersistEntityInfo entityInfo, Map<Class<?>, PersistEntityInfo> infoMap) throws PersistQueryBuildException;
 
+    /**
+     * @return the transaction manager of this handler or null if transactions are not supported.
+     */
+    default ITransactionManager transactionManager(){
+        return null;
+    }
+
 }
@@ -0,0 +1,30 @@
+package com.programm.plugz.persist;
+
+/**
+ * Runs units of work inside of a transaction.
+ * The transaction is bound to the current thread, so all repository calls of the work use the same connection and are committed together.
+ * Starting a transaction while another one is active on the thread joins the active one.
+ */
+public interface ITransactionManager {
+
+    default <T, E extends Exception> T execute(ITransactionWork<T, E> work) throws E {
+        return execute(TransactionIsolation.DEFAULT, false, work);
+    }
+
+    /**
+     * Runs the work in a transaction which is committed after the work returned and rolled back if it throws.
+     * @param isolation the isolation level of a new transaction. Ignored when joining an active transaction.
+     * @param readOnly hints the database that the transaction will not write.
+     * @param work the work to run.
+     * @return the result of the work.
+     * @throws E the exception thrown by the work after the transaction was rolled back.
+     * @throws com.programm.plugz.persist.ex.PersistRuntimeException if the transaction could not be started, committed or rolled back.
+     */
+    <T, E extends Exception> T execute(TransactionIsolation isolation, boolean readOnly, ITransactionWork<T, E> work) throws E;
+
+    /**
+     * @return true if the current thread runs inside of a transaction.
+     */
+    boolean isActive();
+
+}
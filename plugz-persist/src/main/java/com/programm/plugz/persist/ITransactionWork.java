@@ -0,0 +1,7 @@
+package com.programm.plugz.persist;
+
+public interface ITransactionWork<T, E extends Exception> {
+
+    T run() throws E;
+
+}
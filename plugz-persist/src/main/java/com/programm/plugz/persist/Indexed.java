@@ -0,0 +1,31 @@
+package com.programm.plugz.persist;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Creates an index for the column of the field when the table of the entity is created.
+ * Fields with the same index name form one composite index, ordered by {@link #order()}.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Indexed {
+
+    /**
+     * @return the name of the index. Empty generates a name from the table and the column.
+     */
+    String value() default "";
+
+    /**
+     * @return true if the values of the index must be unique. Set on any field of a composite index, it makes the whole index unique.
+     */
+    boolean unique() default false;
+
+    /**
+     * @return the position of the column in a composite index.
+     */
+    int order() default 0;
+
+}
@@ -15,5 +15,6 @@ public class PersistForeignKeyInfo {
     public final ConnectionType connectionType;
     public final Class<?> foreignEntityType;
     public final String foreignKey;
+    public final FetchMode fetchMode;
 
 }
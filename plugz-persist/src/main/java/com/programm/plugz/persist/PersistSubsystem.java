@@ -6,6 +6,7 @@ import com.programm.plugz.annocheck.AnnotationChecker;
 import com.programm.plugz.api.*;
 import com.programm.plugz.api.auto.Get;
 import com.programm.plugz.api.instance.IInstanceManager;
+import com.programm.plugz.api.instance.IMethodInterceptor;
 import com.programm.plugz.cls.analyzer.*;
 import com.programm.plugz.persist.ex.PersistException;
 import com.programm.plugz.persist.ex.PersistQueryBuildException;
@@ -14,6 +15,7 @@ import com.programm.plugz.persist.ex.PersistStartupException;
 
 import java.lang.annotation.ElementType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.*;
 
 @Logger("Persist")
@@ -27,6 +29,7 @@ public class PersistSubsystem implements ISubsystem {
     private final List<Class<?>> repositoryClasses = new ArrayList<>();
     private final Map<Class<?>, PersistEntityInfo> entityInfoMap = new HashMap<>();
     private final Map<Class<?>, Class<?>> repoClsToEntityClsMap = new HashMap<>();
+    private final Set<Method> transactionalMethods = new HashSet<>();
 
     private IRepoHandler repoHandler;
 
@@ -40,6 +43,7 @@ public class PersistSubsystem implements ISubsystem {
         setupHelper.registerSearchClass(IRepoHandler.class, this::onClassImplementingPersistRepoHandler);
         setupHelper.registerClassAnnotation(Entity.class, this::onClassAnnotatedWithEntity);
         setupHelper.registerClassAnnotation(Repo.class, this::onClassAnnotatedWithRepo);
+        setupHelper.registerMethodAnnotation(Transactional.class, this::onMethodAnnotatedWithTransactional);
 
         annocheck.forClass(CustomQuery.class, ElementType.METHOD)
                         .classAnnotations().whitelist().and(Repo.class).seal();
@@ -61,6 +65,12 @@ public class PersistSubsystem implements ISubsystem {
 
         annocheck.forClass(Generated.class, ElementType.FIELD)
                 .classAnnotations().whitelist().and(Entity.class).seal();
+
+        annocheck.forClass(Indexed.class, ElementType.FIELD)
+                .classAnnotations().whitelist().and(Entity.class).seal();
+
+        annocheck.forClass(Cached.class, ElementType.TYPE)
+                .partnerAnnotations().whitelist().and(Entity.class).seal();
     }
 
     @Override
@@ -83,6 +93,11 @@ public class PersistSubsystem implements ISubsystem {
             throw new MagicSetupException(e);
         }
 
+        ITransactionManager transactionManager = repoHandler.transactionManager();
+        if(transactionManager != null){
+            instanceManager.registerInstance(ITransactionManager.class, transactionManager);
+        }
+
         for(Class<?> repoClass : repositoryClasses){
             Class<?> entityClass = repoClsToEntityClsMap.get(repoClass);
             PersistEntityInfo entityInfo = entityInfoMap.get(entityClass);
@@ -207,7 +222,7 @@ public class PersistSubsystem implements ISubsystem {
                 }
 
 
-                PersistForeignKeyInfo foreignKeyInfo = new PersistForeignKeyInfo(connectionType, otherEntityType.getType(), foreignKeyName);
+                PersistForeignKeyInfo foreignKeyInfo = new PersistForeignKeyInfo(connectionType, otherEntityType.getType(), foreignKeyName, foreignKeyAnnotation.fetch());
                 secondaryKeys.put(fieldName, foreignKeyInfo);
             }
         }
@@ -253,6 +268,20 @@ public class PersistSubsystem implements ISubsystem {
         manager.instantiate(cls, handlerInstance -> repoHandler = (IRepoHandler) handlerInstance);
     }
 
+    private void onMethodAnnotatedWithTransactional(Transactional annotation, Object instance, Method method, IInstanceManager manager) {
+        if(!transactionalMethods.add(method)) return;
+
+        log.debug("Found transactional method: [{}].", method);
+        manager.registerMethodInterceptor(method, (methodInstance, interceptedMethod, invocation) -> runTransactional(annotation, interceptedMethod, invocation));
+    }
+
+    private Object runTransactional(Transactional annotation, Method method, IMethodInterceptor.Invocation invocation) throws MagicInstanceException {
+        ITransactionManager transactionManager = repoHandler == null ? null : repoHandler.transactionManager();
+        if(transactionManager == null) throw new MagicInstanceException("Cannot run transactional method [" + method + "] as the repo handler does not support transactions!");
+
+        return transactionManager.execute(annotation.isolation(), annotation.readOnly(), invocation::proceed);
+    }
+
     private void onClassAnnotatedWithEntity(Entity annotation, Class<?> cls, IInstanceManager manager) {
         log.debug("Found entity: [{}].", cls.getName());
         entityClasses.add(cls);
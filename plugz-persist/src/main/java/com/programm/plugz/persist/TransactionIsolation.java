@@ -0,0 +1,14 @@
+package com.programm.plugz.persist;
+
+public enum TransactionIsolation {
+
+    /**
+     * Uses the configured default isolation of the repo handler.
+     */
+    DEFAULT,
+    READ_UNCOMMITTED,
+    READ_COMMITTED,
+    REPEATABLE_READ,
+    SERIALIZABLE
+
+}
@@ -0,0 +1,22 @@
+package com.programm.plugz.persist;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs all repository calls of the method on one connection and commits them together when the method returns.
+ * If the method throws, the transaction is rolled back.
+ * Only invocations done by the environment (lifecycle-, scheduled-, mapped- or async methods) are intercepted,
+ * other code can use the {@link ITransactionManager}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Transactional {
+
+    TransactionIsolation isolation() default TransactionIsolation.DEFAULT;
+
+    boolean readOnly() default false;
+
+}
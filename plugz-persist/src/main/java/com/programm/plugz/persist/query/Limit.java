@@ -0,0 +1,46 @@
+package com.programm.plugz.persist.query;
+
+/**
+ * Repository method parameter limiting the number of returned entities.
+ * Entities are ordered by their primary key.
+ * <pre>
+ *     List&lt;Person&gt; findByAge(int age, Limit limit);
+ *
+ *     List&lt;Person&gt; first = repo.findByAge(30, Limit.of(20));
+ *     List&lt;Person&gt; next = repo.findByAge(30, Limit.after(first.get(19).getId(), 20));
+ * </pre>
+ */
+public class Limit {
+
+    /**
+     * @return a limit for the first entities.
+     */
+    public static Limit of(int max){
+        return new Limit(max, null);
+    }
+
+    /**
+     * Keyset pagination - only entities with a primary key greater than the key are returned.
+     * Unlike page offsets the database does not have to skip the entities of the previous pages.
+     * @param key the primary key of the last entity of the previous page.
+     * @return a limit for the entities after the key.
+     */
+    public static Limit after(Object key, int max){
+        if(key == null) throw new NullPointerException("Key must not be null!");
+        return new Limit(max, key);
+    }
+
+    public final int max;
+    public final Object after;
+
+    private Limit(int max, Object after) {
+        if(max < 0) throw new IllegalArgumentException("Max must not be negative!");
+        this.max = max;
+        this.after = after;
+    }
+
+    @Override
+    public String toString() {
+        return after == null ? "Limit[" + max + "]" : "Limit[" + max + " after " + after + "]";
+    }
+}
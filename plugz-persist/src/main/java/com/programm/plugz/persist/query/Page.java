@@ -0,0 +1,42 @@
+package com.programm.plugz.persist.query;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of entities returned by a repository method with a {@link PageRequest} parameter.
+ */
+@RequiredArgsConstructor
+public class Page<T> {
+
+    public final List<T> content;
+    public final PageRequest request;
+    /** Number of all matching entities or -1 if they were not counted. */
+    public final long total;
+
+    public boolean isCounted(){
+        return total != -1;
+    }
+
+    /**
+     * @return the number of pages or -1 if the entities were not counted.
+     */
+    public long totalPages(){
+        if(total == -1) return -1;
+        return (total + request.size - 1) / request.size;
+    }
+
+    /**
+     * Without a count a full page is assumed to have a next page.
+     */
+    public boolean hasNext(){
+        if(total == -1) return content.size() == request.size;
+        return request.offset() + content.size() < total;
+    }
+
+    @Override
+    public String toString() {
+        return "Page[" + request.page + ", size: " + content.size() + "/" + request.size + (total == -1 ? "" : ", total: " + total) + "]";
+    }
+}
@@ -0,0 +1,56 @@
+package com.programm.plugz.persist.query;
+
+/**
+ * Repository method parameter selecting a page of the returned entities.
+ * Entities are ordered by their primary key.
+ * <pre>
+ *     Page&lt;Person&gt; findByAge(int age, PageRequest page);
+ *
+ *     Page&lt;Person&gt; page = repo.findByAge(30, PageRequest.of(0, 20).withCount());
+ * </pre>
+ */
+public class PageRequest {
+
+    /**
+     * @param page the index of the page starting at 0.
+     * @param size the number of entities of a page.
+     */
+    public static PageRequest of(int page, int size){
+        return new PageRequest(page, size, false);
+    }
+
+    public final int page;
+    public final int size;
+    public final boolean count;
+
+    private PageRequest(int page, int size, boolean count) {
+        if(page < 0) throw new IllegalArgumentException("Page must not be negative!");
+        if(size < 1) throw new IllegalArgumentException("Size must be at least 1!");
+        this.page = page;
+        this.size = size;
+        this.count = count;
+    }
+
+    /**
+     * @return a request which also counts all matching entities with an additional query.
+     */
+    public PageRequest withCount(){
+        return new PageRequest(page, size, true);
+    }
+
+    /**
+     * @return the request for the next page.
+     */
+    public PageRequest next(){
+        return new PageRequest(page + 1, size, count);
+    }
+
+    public long offset(){
+        return (long) page * size;
+    }
+
+    @Override
+    public String toString() {
+        return "Page[" + page + ", size: " + size + (count ? ", count" : "") + "]";
+    }
+}
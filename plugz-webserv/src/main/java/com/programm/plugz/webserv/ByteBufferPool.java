@@ -0,0 +1,33 @@
+package com.programm.plugz.webserv;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Simple pool of equally sized heap buffers so the selector loops don't allocate a new buffer for every read.
+ */
+class ByteBufferPool {
+
+    private final Queue<ByteBuffer> buffers = new ArrayDeque<>();
+    private final int bufferSize;
+    private final int maxPooled;
+
+    public ByteBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    public synchronized ByteBuffer acquire(){
+        ByteBuffer buffer = buffers.poll();
+        if(buffer == null) return ByteBuffer.allocate(bufferSize);
+        return buffer;
+    }
+
+    public synchronized void release(ByteBuffer buffer){
+        if(buffers.size() >= maxPooled) return;
+        buffer.clear();
+        buffers.add(buffer);
+    }
+
+}
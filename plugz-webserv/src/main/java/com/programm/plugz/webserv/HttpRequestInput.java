@@ -0,0 +1,171 @@
+package com.programm.plugz.webserv;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Buffered byte input of a connection.
+ * The request line and headers are read line by line, the body is read as raw bytes limited to the declared Content-Length,
+ * so a persistent connection always continues at the start of the next request.
+ */
+class HttpRequestInput {
+
+    /**
+     * Max number of bytes of the request line and all headers of one request.
+     */
+    static final int MAX_HEAD_SIZE = 16384;
+
+    /**
+     * Thrown if the request line and headers of a request are larger than {@link #MAX_HEAD_SIZE}.
+     */
+    static class HeadTooLargeException extends IOException {
+        public HeadTooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    private class BodyInputStream extends InputStream {
+        @Override
+        public int read() throws IOException {
+            if(bodyRemaining <= 0) return -1;
+            if(pos == limit && fill() == -1) return -1;
+            bodyRemaining--;
+            return buffer[pos++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if(len == 0) return 0;
+            if(bodyRemaining <= 0) return -1;
+            int n = readDirect(b, off, (int) Math.min(len, bodyRemaining));
+            if(n > 0) bodyRemaining -= n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(limit - pos, bodyRemaining);
+        }
+    }
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int pos;
+    private int limit;
+
+    private byte[] lineBuffer = new byte[128];
+    private int headRemaining = MAX_HEAD_SIZE;
+    private long bodyRemaining;
+    private final BodyInputStream bodyStream = new BodyInputStream();
+
+    public HttpRequestInput(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Starts reading the head of the next request, so the size of its lines is counted from zero.
+     */
+    public void beginHead(){
+        headRemaining = MAX_HEAD_SIZE;
+    }
+
+    /**
+     * Reads a line terminated by LF or CRLF.
+     * @return the line without the terminator or null if the stream ended before any byte was read.
+     * @throws HeadTooLargeException if the lines read since {@link #beginHead()} exceed {@link #MAX_HEAD_SIZE} bytes.
+     */
+    public String readLine() throws IOException {
+        int length = 0;
+
+        while(true){
+            if(pos == limit && fill() == -1){
+                if(length == 0) return null;
+                break;
+            }
+
+            if(headRemaining-- <= 0) throw new HeadTooLargeException("Request head exceeds [" + MAX_HEAD_SIZE + "] bytes!");
+
+            byte b = buffer[pos++];
+            if(b == '\n') break;
+
+            if(length == lineBuffer.length) lineBuffer = Arrays.copyOf(lineBuffer, length * 2);
+            lineBuffer[length++] = b;
+        }
+
+        if(length > 0 && lineBuffer[length - 1] == '\r') length--;
+        return new String(lineBuffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sets the length of the body of the current request.
+     */
+    public void beginBody(long length){
+        this.bodyRemaining = length;
+    }
+
+    /**
+     * @return a stream over the remaining bytes of the current body, which does not close the connection when closed.
+     */
+    public InputStream body(){
+        return bodyStream;
+    }
+
+    /**
+     * Reads exactly len bytes of the current body.
+     * @throws EOFException if the connection ends before.
+     */
+    public void readBody(byte[] b, int off, int len) throws IOException {
+        if(len > bodyRemaining) throw new EOFException("Body has only [" + bodyRemaining + "] bytes left but [" + len + "] were requested!");
+
+        int read = 0;
+        while(read < len){
+            int n = readDirect(b, off + read, len - read);
+            if(n == -1) throw new EOFException("Connection closed after [" + read + "] of [" + len + "] body bytes!");
+            read += n;
+        }
+
+        bodyRemaining -= len;
+    }
+
+    /**
+     * Skips whatever is left of the current body.
+     */
+    public void skipBody() throws IOException {
+        while(bodyRemaining > 0){
+            if(pos == limit && fill() == -1) break;
+            int n = (int) Math.min(limit - pos, bodyRemaining);
+            pos += n;
+            bodyRemaining -= n;
+        }
+
+        bodyRemaining = 0;
+    }
+
+    private int readDirect(byte[] b, int off, int len) throws IOException {
+        int buffered = limit - pos;
+        if(buffered > 0){
+            int n = Math.min(buffered, len);
+            System.arraycopy(buffer, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        //Large reads bypass the buffer
+        if(len >= buffer.length) return in.read(b, off, len);
+        if(fill() == -1) return -1;
+        return readDirect(b, off, len);
+    }
+
+    private int fill() throws IOException {
+        pos = 0;
+        limit = 0;
+        int n = in.read(buffer, 0, buffer.length);
+        if(n > 0) limit = n;
+        return n;
+    }
+
+}
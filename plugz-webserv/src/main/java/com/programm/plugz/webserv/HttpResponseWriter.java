@@ -0,0 +1,212 @@
+package com.programm.plugz.webserv;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes HTTP/1.1 responses to an output stream.
+ * The head is collected until {@link #end(byte[])} is called so the Content-Length and Connection headers can always be set correctly.
+ * Bodies can also be streamed with {@link #beginBody()}: They are collected in a reusable buffer and sent with a Content-Length
+ * if they fit into it, or else sent with chunked transfer encoding while they are written.
+ * Like a PrintWriter this class never throws IOExceptions but remembers them, so they can be checked with {@link #checkError()}.
+ */
+class HttpResponseWriter {
+
+    private static final byte[] EMPTY = new byte[0];
+    private static final byte[] CRLF = { '\r', '\n' };
+    private static final byte[] LAST_CHUNK = { '0', '\r', '\n', '\r', '\n' };
+
+    /**
+     * Stream for the response body.
+     * Writes into the body buffer of the response writer and switches to chunked output when the buffer is full.
+     */
+    private class BodyStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            if(bodyLength == bodyBuffer.length) flushBody();
+            bodyBuffer[bodyLength++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while(len > 0){
+                if(bodyLength == bodyBuffer.length) flushBody();
+
+                int n = Math.min(len, bodyBuffer.length - bodyLength);
+                System.arraycopy(b, off, bodyBuffer, bodyLength, n);
+                bodyLength += n;
+                off += n;
+                len -= n;
+            }
+        }
+    }
+
+    private final OutputStream out;
+    private final StringBuilder head = new StringBuilder();
+    private final int bodyBufferSize;
+    private final BodyStream bodyStream = new BodyStream();
+    private byte[] bodyBuffer;
+    private int bodyLength;
+    private boolean committed;
+    private boolean chunkedAllowed = true;
+    private boolean keepAlive;
+    private IOException error;
+
+    public HttpResponseWriter(OutputStream out, int bodyBufferSize) {
+        this.out = out;
+        this.bodyBufferSize = bodyBufferSize;
+    }
+
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * HTTP/1.0 clients don't understand chunked transfer encoding.
+     * For them large streamed bodies are written without a length and the connection is closed afterwards.
+     */
+    public void setChunkedAllowed(boolean chunkedAllowed) {
+        this.chunkedAllowed = chunkedAllowed;
+    }
+
+    public HttpResponseWriter status(int status, String msg){
+        head.setLength(0);
+        committed = false;
+        head.append("HTTP/1.1 ").append(status).append(' ').append(msg).append("\r\n");
+        return header("Server", "BackendServer/1.0");
+    }
+
+    public HttpResponseWriter header(String name, String value){
+        head.append(name).append(": ").append(value).append("\r\n");
+        return this;
+    }
+
+    public void end(){
+        end(EMPTY);
+    }
+
+    public void end(String body){
+        end(body == null ? EMPTY : body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void end(byte[] body){
+        end(body, body.length);
+    }
+
+    private void end(byte[] body, int length){
+        header("Content-Length", Integer.toString(length));
+        header("Connection", keepAlive ? "keep-alive" : "close");
+        head.append("\r\n"); // End of headers
+
+        try {
+            out.write(head.toString().getBytes(StandardCharsets.UTF_8));
+            out.write(body, 0, length);
+            out.flush();
+        }
+        catch (IOException e){
+            error = e;
+        }
+
+        head.setLength(0);
+        committed = true;
+    }
+
+    /**
+     * Starts a streamed body after status and headers were set.
+     * The body must be finished with {@link #endBody()}.
+     * @return the stream to write the body to.
+     */
+    public OutputStream beginBody(){
+        if(bodyBuffer == null) bodyBuffer = new byte[bodyBufferSize];
+        bodyLength = 0;
+        return bodyStream;
+    }
+
+    public void endBody(){
+        if(!committed){
+            end(bodyBuffer, bodyLength);
+            return;
+        }
+
+        try {
+            if(chunkedAllowed) {
+                writeChunk();
+                out.write(LAST_CHUNK);
+            }
+            else {
+                out.write(bodyBuffer, 0, bodyLength);
+            }
+            out.flush();
+        }
+        catch (IOException e){
+            error = e;
+        }
+
+        bodyLength = 0;
+    }
+
+    /**
+     * @return true if the head of the response was already sent, so it cannot be replaced by another response anymore.
+     */
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    /**
+     * Marks the response as broken so the connection will be closed, for example if writing a streamed body failed after the head was sent.
+     */
+    public void fail(IOException e){
+        keepAlive = false;
+        error = e;
+    }
+
+    public boolean checkError(){
+        return error != null;
+    }
+
+    private void flushBody() throws IOException {
+        if(!committed){
+            commitStreamingHead();
+        }
+
+        if(chunkedAllowed) {
+            writeChunk();
+        }
+        else {
+            out.write(bodyBuffer, 0, bodyLength);
+        }
+
+        bodyLength = 0;
+    }
+
+    private void commitStreamingHead() throws IOException {
+        if(chunkedAllowed){
+            header("Transfer-Encoding", "chunked");
+            header("Connection", keepAlive ? "keep-alive" : "close");
+        }
+        else {
+            //Without a length the end of the body can only be marked by closing the connection
+            keepAlive = false;
+            header("Connection", "close");
+        }
+
+        head.append("\r\n"); // End of headers
+        out.write(head.toString().getBytes(StandardCharsets.UTF_8));
+        head.setLength(0);
+        committed = true;
+    }
+
+    private void writeChunk() throws IOException {
+        if(bodyLength == 0) return;
+        out.write(Integer.toHexString(bodyLength).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+        out.write(bodyBuffer, 0, bodyLength);
+        out.write(CRLF);
+    }
+
+}
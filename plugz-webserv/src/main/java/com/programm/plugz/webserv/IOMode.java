@@ -0,0 +1,8 @@
+package com.programm.plugz.webserv;
+
+enum IOMode {
+
+    BLOCKING,
+    NIO
+
+}
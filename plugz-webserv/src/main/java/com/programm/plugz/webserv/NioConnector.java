@@ -0,0 +1,544 @@
+package com.programm.plugz.webserv;
+
+import com.programm.ioutils.log.api.ILogger;
+import com.programm.plugz.api.utils.ThreadUtils;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selector based front-end for the {@link Webserver}.
+ * A small number of selector loops accept connections and read requests without blocking.
+ * Fully received requests are dispatched to a worker pool which runs the normal request handling of the webserver.
+ * The response is written to the channel in pooled buffers while the worker produces it.
+ * If the async manager runs in virtual mode, every request is handled on its own virtual thread instead.
+ */
+class NioConnector {
+
+    private static final int MAX_POOLED_BUFFERS = 64;
+    //Largest array the jvm can allocate
+    private static final int MAX_REQUEST_LENGTH = Integer.MAX_VALUE - 8;
+    private static final byte[] HEADER_END = { '\r', '\n', '\r', '\n' };
+    private static final byte[] CONTENT_LENGTH = "content-length:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEAD_TOO_LARGE = errorResponse(431, "Request Header Fields Too Large");
+    private static final byte[] BODY_TOO_LARGE = errorResponse(413, "Payload Too Large");
+
+    private static class Connection {
+        private final SocketChannel channel;
+        private byte[] data = new byte[512];
+        private int length;
+        private int requestLength = -1;
+        private int scanOffset;
+        private int servedRequests;
+        private boolean processing;
+        private ByteBuffer response;
+        private boolean lastResponse;
+        private boolean pooledResponse;
+        private boolean keepAlive;
+        private byte[] rejection;
+        private volatile boolean closed;
+        private final Semaphore written = new Semaphore(0);
+        private long lastActive;
+
+        public Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.lastActive = System.currentTimeMillis();
+        }
+
+        private void append(ByteBuffer buffer){
+            int n = buffer.remaining();
+            if(length + n > data.length){
+                byte[] nData = new byte[Math.max(data.length * 2, length + n)];
+                System.arraycopy(data, 0, nData, 0, length);
+                data = nData;
+            }
+
+            buffer.get(data, length, n);
+            length += n;
+        }
+
+        /**
+         * Removes the current request from the buffer and keeps any pipelined bytes which were already received.
+         */
+        private void consumeRequest(){
+            int remaining = length - requestLength;
+            System.arraycopy(data, requestLength, data, 0, remaining);
+            length = remaining;
+            requestLength = -1;
+            scanOffset = 0;
+        }
+    }
+
+    private class SelectorLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+
+        public SelectorLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        @Override
+        public void run() {
+            while(running) {
+                try {
+                    selector.select(selectTimeout());
+                }
+                catch (IOException e){
+                    log.logException("IOException when selecting: " + e.getMessage(), e);
+                    break;
+                }
+
+                Runnable task;
+                while((task = pendingTasks.poll()) != null){
+                    task.run();
+                }
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while(it.hasNext()){
+                    SelectionKey key = it.next();
+                    it.remove();
+
+                    if(!key.isValid()) continue;
+
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        }
+                        else if (key.isReadable()) {
+                            read(key);
+                        }
+                        else if (key.isWritable()) {
+                            write(key);
+                        }
+                    }
+                    catch (IOException e){
+                        log.logException("IOException when handling the client: " + e.getMessage(), e);
+                        close(key);
+                    }
+                }
+
+                evictIdleConnections();
+            }
+
+            for(SelectionKey key : selector.keys()){
+                close(key);
+            }
+
+            try {
+                selector.close();
+            }
+            catch (IOException ignore){}
+        }
+
+        private long selectTimeout(){
+            return clientTimeout > 0 ? clientTimeout : 0;
+        }
+
+        private void accept() throws IOException {
+            SocketChannel channel = serverChannel.accept();
+            //Another loop was faster
+            if(channel == null) return;
+
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+        }
+
+        private void read(SelectionKey key) throws IOException {
+            Connection connection = (Connection) key.attachment();
+            ByteBuffer buffer = bufferPool.acquire();
+
+            try {
+                int read = connection.channel.read(buffer);
+                if(read == -1){
+                    close(key);
+                    return;
+                }
+
+                buffer.flip();
+                connection.append(buffer);
+                connection.lastActive = System.currentTimeMillis();
+            }
+            finally {
+                bufferPool.release(buffer);
+            }
+
+            dispatchIfComplete(key, connection);
+        }
+
+        private void dispatchIfComplete(SelectionKey key, Connection connection){
+            if(!isRequestComplete(connection)){
+                if(connection.rejection != null){
+                    reject(key, connection);
+                    return;
+                }
+
+                key.interestOps(SelectionKey.OP_READ);
+                return;
+            }
+
+            //Pipelined requests are served one after another so the responses keep their order
+            connection.processing = true;
+            key.interestOps(0);
+
+            connection.servedRequests++;
+            boolean allowKeepAlive = maxRequestsPerConnection <= 0 || connection.servedRequests < maxRequestsPerConnection;
+
+            workers.execute(() -> {
+                ResponseStream out = new ResponseStream(key, connection);
+                boolean keepAlive = false;
+
+                try {
+                    keepAlive = webserver.serveRequest(new ByteArrayInputStream(connection.data, 0, connection.requestLength), out, allowKeepAlive);
+                }
+                catch (Exception e){
+                    log.logException("Exception when handling the client: " + e.getMessage(), e);
+                }
+
+                out.finish(keepAlive);
+            });
+        }
+
+        /**
+         * Answers a request which is too large to be buffered with an error and closes the connection afterwards.
+         */
+        private void reject(SelectionKey key, Connection connection){
+            log.debug("Rejecting request of [{}] buffered bytes.", connection.length);
+            connection.processing = true;
+            connection.response = ByteBuffer.wrap(connection.rejection);
+            connection.lastResponse = true;
+            connection.pooledResponse = false;
+            connection.keepAlive = false;
+            key.interestOps(SelectionKey.OP_WRITE);
+        }
+
+        /**
+         * Called on the loop thread to write a buffer of a response which was filled by a worker.
+         */
+        private void startWrite(SelectionKey key, Connection connection, ByteBuffer response, boolean last, boolean keepAlive){
+            if(!key.isValid()){
+                connection.closed = true;
+                connection.written.release();
+                return;
+            }
+
+            connection.response = response;
+            connection.lastResponse = last;
+            connection.pooledResponse = true;
+            connection.keepAlive = keepAlive;
+            key.interestOps(SelectionKey.OP_WRITE);
+        }
+
+        private void write(SelectionKey key) throws IOException {
+            Connection connection = (Connection) key.attachment();
+            connection.channel.write(connection.response);
+            connection.lastActive = System.currentTimeMillis();
+
+            if(connection.response.hasRemaining()) return;
+
+            //The worker is still writing the response and waits for its buffer
+            if(!connection.lastResponse){
+                connection.response = null;
+                key.interestOps(0);
+                connection.written.release();
+                return;
+            }
+
+            if(connection.pooledResponse) bufferPool.release(connection.response);
+            connection.response = null;
+
+            if(!connection.keepAlive){
+                close(key);
+                return;
+            }
+
+            connection.processing = false;
+            connection.consumeRequest();
+            dispatchIfComplete(key, connection);
+        }
+
+        private void submit(Runnable task){
+            pendingTasks.add(task);
+            selector.wakeup();
+        }
+
+        private void evictIdleConnections(){
+            if(clientTimeout <= 0) return;
+            long now = System.currentTimeMillis();
+
+            for(SelectionKey key : selector.keys()){
+                if(!(key.attachment() instanceof Connection connection)) continue;
+                if(connection.processing) continue;
+
+                if(connection.lastActive + clientTimeout < now){
+                    log.debug("Closing idle connection.");
+                    close(key);
+                }
+            }
+        }
+
+        private void close(SelectionKey key){
+            key.cancel();
+            if(key.attachment() instanceof Connection connection){
+                try {
+                    connection.channel.close();
+                }
+                catch (IOException ignore){}
+
+                //Wakes up a worker waiting for its response buffer
+                connection.closed = true;
+                connection.written.release();
+            }
+        }
+
+        /**
+         * Output of a worker for the response to one request.
+         * The bytes are collected in a pooled buffer which is handed to the loop whenever it is full.
+         * The worker waits until the loop has written the buffer to the channel, so a response never holds more than one buffer in memory.
+         */
+        private class ResponseStream extends OutputStream {
+            private final SelectionKey key;
+            private final Connection connection;
+            private final ByteBuffer buffer = bufferPool.acquire();
+
+            public ResponseStream(SelectionKey key, Connection connection) {
+                this.key = key;
+                this.connection = connection;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                if(!buffer.hasRemaining()) send();
+                buffer.put((byte) b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                while(len > 0){
+                    if(!buffer.hasRemaining()) send();
+
+                    int n = Math.min(len, buffer.remaining());
+                    buffer.put(b, off, n);
+                    off += n;
+                    len -= n;
+                }
+            }
+
+            /**
+             * Does nothing: bytes are only sent when the buffer is full or the response is finished,
+             * so the flushes of the response writer don't turn into many small writes.
+             */
+            @Override
+            public void flush() {}
+
+            private void send() throws IOException {
+                if(connection.closed) throw new IOException("Connection was closed!");
+
+                buffer.flip();
+                submit(() -> startWrite(key, connection, buffer, false, false));
+
+                try {
+                    connection.written.acquire();
+                }
+                catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the response to be written!");
+                }
+
+                if(connection.closed) throw new IOException("Connection was closed!");
+                buffer.clear();
+            }
+
+            /**
+             * Hands the rest of the response to the loop which continues with the next request of the connection after writing it.
+             */
+            public void finish(boolean keepAlive){
+                buffer.flip();
+                submit(() -> startWrite(key, connection, buffer, true, keepAlive));
+            }
+        }
+    }
+
+    private final ILogger log;
+    private final Webserver webserver;
+    private final int port;
+    private final int clientTimeout;
+    private final int acceptors;
+    private final int maxRequestsPerConnection;
+    private final int maxBodySize;
+    private final ExecutorService workers;
+    private final ByteBufferPool bufferPool;
+    private final List<SelectorLoop> loops = new ArrayList<>();
+
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running;
+
+    public NioConnector(ILogger log, Webserver webserver, int port, int clientTimeout, int acceptors, int workers, int bufferSize, int maxRequestsPerConnection, int maxBodySize, boolean virtualThreads) {
+        this.log = log;
+        this.webserver = webserver;
+        this.port = port;
+        this.clientTimeout = clientTimeout;
+        this.acceptors = Math.max(1, acceptors);
+        this.maxRequestsPerConnection = maxRequestsPerConnection;
+        this.maxBodySize = maxBodySize;
+        this.bufferPool = new ByteBufferPool(bufferSize, MAX_POOLED_BUFFERS);
+
+        if(virtualThreads){
+            this.workers = ThreadUtils.newVirtualThreadPerTaskExecutor();
+        }
+        else {
+            AtomicInteger workerCount = new AtomicInteger();
+            this.workers = Executors.newFixedThreadPool(Math.max(1, workers), r -> new Thread(r, "Webserv-Worker-" + workerCount.getAndIncrement()));
+        }
+    }
+
+    /**
+     * Opens the server channel and runs the selector loops.
+     * The first loop runs on the calling thread so this method only returns after {@link #stop()} was called.
+     */
+    public void run() throws IOException {
+        running = true;
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+
+        for(int i=0;i<acceptors;i++){
+            Selector selector = Selector.open();
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            loops.add(new SelectorLoop(selector));
+        }
+
+        for(int i=1;i<loops.size();i++){
+            new Thread(loops.get(i), "Webserv-Acceptor-" + i).start();
+        }
+
+        try {
+            loops.get(0).run();
+        }
+        finally {
+            serverChannel.close();
+        }
+    }
+
+    public void stop(){
+        running = false;
+        for(SelectorLoop loop : loops){
+            loop.selector.wakeup();
+        }
+
+        workers.shutdown();
+        try {
+            if(!workers.awaitTermination(clientTimeout, TimeUnit.MILLISECONDS)){
+                workers.shutdownNow();
+            }
+        }
+        catch (InterruptedException e){
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks if the buffer of the connection contains a full request.
+     * The search for the end of the headers continues where the last read stopped, so every byte is only scanned once.
+     * If the request cannot be buffered the rejection of the connection is set.
+     */
+    private boolean isRequestComplete(Connection connection){
+        if(connection.requestLength != -1) return connection.length >= connection.requestLength;
+
+        //The end of the headers may be split over two reads
+        int from = Math.max(0, connection.scanOffset - (HEADER_END.length - 1));
+        int headerEnd = indexOf(connection.data, from, connection.length, HEADER_END);
+        if(headerEnd == -1){
+            connection.scanOffset = connection.length;
+            if(connection.length > HttpRequestInput.MAX_HEAD_SIZE) connection.rejection = HEAD_TOO_LARGE;
+            return false;
+        }
+
+        int bodyStart = headerEnd + HEADER_END.length;
+        if(bodyStart > HttpRequestInput.MAX_HEAD_SIZE){
+            connection.rejection = HEAD_TOO_LARGE;
+            return false;
+        }
+
+        long contentLength = parseContentLength(connection.data, headerEnd);
+
+        //Too large bodies are not buffered: the headers are dispatched alone, the webserver rejects the request and closes the connection
+        if(maxBodySize > 0 && contentLength > maxBodySize) contentLength = 0;
+
+        if(contentLength > MAX_REQUEST_LENGTH - bodyStart){
+            connection.rejection = BODY_TOO_LARGE;
+            return false;
+        }
+
+        connection.requestLength = bodyStart + (int) contentLength;
+        return connection.length >= connection.requestLength;
+    }
+
+    private static int indexOf(byte[] data, int from, int length, byte[] pattern){
+        outer:
+        for(int i=from;i<=length - pattern.length;i++){
+            for(int o=0;o<pattern.length;o++){
+                if(data[i + o] != pattern[o]) continue outer;
+            }
+            return i;
+        }
+
+        return -1;
+    }
+
+    private static long parseContentLength(byte[] data, int headerEnd){
+        for(int i=0;i<headerEnd;i++){
+            if(data[i] != '\n') continue;
+            int lineStart = i + 1;
+
+            if(!startsWithIgnoreCase(data, lineStart, headerEnd, CONTENT_LENGTH)) continue;
+
+            int pos = lineStart + CONTENT_LENGTH.length;
+            while(pos < headerEnd && data[pos] == ' ') pos++;
+
+            long value = 0;
+            while(pos < headerEnd && data[pos] >= '0' && data[pos] <= '9'){
+                if(value > (Long.MAX_VALUE - 9) / 10) return Long.MAX_VALUE;
+                value = value * 10 + (data[pos] - '0');
+                pos++;
+            }
+
+            return value;
+        }
+
+        return 0;
+    }
+
+    private static byte[] errorResponse(int status, String msg){
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HttpResponseWriter writer = new HttpResponseWriter(out, 0);
+        writer.setKeepAlive(false);
+        writer.status(status, msg);
+        writer.header("Access-Control-Allow-Origin", "*");
+        writer.end();
+        return out.toByteArray();
+    }
+
+    private static boolean startsWithIgnoreCase(byte[] data, int start, int end, byte[] lowerCasePrefix){
+        if(end - start < lowerCasePrefix.length) return false;
+        for(int i=0;i<lowerCasePrefix.length;i++){
+            byte b = data[start + i];
+            if(b >= 'A' && b <= 'Z') b += 'a' - 'A';
+            if(b != lowerCasePrefix[i]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,285 @@
+package com.programm.plugz.webserv;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Routing tree over the '/' separated segments of a path.
+ * Supported segments:
+ * - static segments like 'users' which must match exactly.
+ * - variable segments like '{id}' which match any single segment and store it under the variable name.
+ * - a wildcard segment '*' which must be the last segment and matches the rest of the path.
+ *
+ * Routes are registered in a plain tree which is compiled into a lookup tree on the first lookup after a change.
+ * In the compiled tree the routes below a variable segment are also copied below each static sibling,
+ * so a lookup can always follow the static segment if there is one and never has to go back.
+ * Lookups walk the path once by index without splitting it or creating substrings and prefer static segments over variables over wildcards.
+ * If no route matches the full path, the last wildcard passed on the way is used.
+ * Only a successful lookup allocates its match and the map of its variables.
+ * @param <T> the type of the values registered for the routes.
+ */
+class PathRouter<T> {
+
+    private static final String WILDCARD = "*";
+
+    /**
+     * The result of a successful lookup.
+     */
+    public static class Match<T> {
+        public final T value;
+        private final Map<String, String> variables;
+
+        private Match(T value, Map<String, String> variables) {
+            this.value = value;
+            this.variables = variables;
+        }
+
+        public Map<String, String> variables(){
+            return variables;
+        }
+    }
+
+    private static class Node<T> {
+        private final Map<String, Node<T>> staticChildren = new TreeMap<>();
+        private Node<T> variableChild;
+        private Node<T> wildcardChild;
+
+        private Route<T> route;
+    }
+
+    private static class Route<T> {
+        private final T value;
+        private final String route;
+        private final String[] variableNames;
+        //The index of the path segment of each variable
+        private final int[] variableSegments;
+
+        public Route(T value, String route, String[] variableNames, int[] variableSegments) {
+            this.value = value;
+            this.route = route;
+            this.variableNames = variableNames;
+            this.variableSegments = variableSegments;
+        }
+    }
+
+    private static class CompiledNode<T> {
+        //Sorted for binary search over a region of the path
+        private String[] staticKeys;
+        private CompiledNode<T>[] staticNodes;
+        private CompiledNode<T> variableChild;
+        private Route<T> route;
+        private Route<T> wildcardRoute;
+    }
+
+    private final Node<T> root = new Node<>();
+    private volatile CompiledNode<T> compiledRoot;
+
+    /**
+     * Gets the value registered for the exact route or registers the supplied value.
+     * Routes which only differ in the names of their variables are the same route.
+     * @throws IllegalStateException if a route with the same structure but different variable names already exists.
+     */
+    public synchronized T computeIfAbsent(String route, Supplier<T> valueSupplier){
+        List<String> variableNames = new ArrayList<>();
+        List<Integer> variableSegments = new ArrayList<>();
+        Node<T> node = root;
+
+        List<String> segments = segments(route);
+        for(int i=0;i<segments.size();i++){
+            String segment = segments.get(i);
+
+            if(segment.equals(WILDCARD)){
+                if(i != segments.size() - 1) throw new IllegalStateException("Wildcard must be the last segment of route [" + route + "]!");
+                if(node.wildcardChild == null) node.wildcardChild = new Node<>();
+                node = node.wildcardChild;
+            }
+            else if(segment.startsWith("{") && segment.endsWith("}")){
+                variableNames.add(segment.substring(1, segment.length() - 1));
+                variableSegments.add(i);
+                if(node.variableChild == null) node.variableChild = new Node<>();
+                node = node.variableChild;
+            }
+            else {
+                node = node.staticChildren.computeIfAbsent(segment, s -> new Node<>());
+            }
+        }
+
+        String[] _variableNames = variableNames.toArray(new String[0]);
+
+        if(node.route == null){
+            int[] _variableSegments = variableSegments.stream().mapToInt(Integer::intValue).toArray();
+            node.route = new Route<>(valueSupplier.get(), route, _variableNames, _variableSegments);
+            compiledRoot = null;
+        }
+        else if(!Arrays.equals(node.route.variableNames, _variableNames)){
+            throw new IllegalStateException("Route [" + route + "] conflicts with already registered route [" + node.route.route + "]!");
+        }
+
+        return node.route.value;
+    }
+
+    public synchronized boolean contains(String route){
+        Node<T> node = root;
+        for(String segment : segments(route)){
+            if(segment.equals(WILDCARD)) node = node.wildcardChild;
+            else if(segment.startsWith("{") && segment.endsWith("}")) node = node.variableChild;
+            else node = node.staticChildren.get(segment);
+
+            if(node == null) return false;
+        }
+
+        return node.route != null;
+    }
+
+    public T get(String path){
+        Match<T> match = find(path);
+        return match == null ? null : match.value;
+    }
+
+    /**
+     * Resolves a request path to the most specific registered route.
+     * @param path the request path without query parameters.
+     * @return the match or null if no route matches.
+     */
+    public Match<T> find(String path){
+        CompiledNode<T> node = compiledRoot();
+        Route<T> wildcardRoute = null;
+
+        int start = skipSlashes(path, 0);
+        while(start < path.length()){
+            if(node.wildcardRoute != null) wildcardRoute = node.wildcardRoute;
+
+            int end = path.indexOf('/', start);
+            if(end == -1) end = path.length();
+
+            CompiledNode<T> next = findStatic(node, path, start, end);
+            if(next == null) next = node.variableChild;
+            if(next == null) return match(wildcardRoute, path);
+
+            node = next;
+            start = skipSlashes(path, end);
+        }
+
+        if(node.route != null) return match(node.route, path);
+        //A trailing wildcard also matches an empty rest
+        if(node.wildcardRoute != null) return match(node.wildcardRoute, path);
+        return match(wildcardRoute, path);
+    }
+
+    /**
+     * Collects the values of the variables by walking the segments of the path again.
+     */
+    private static <T> Match<T> match(Route<T> route, String path){
+        if(route == null) return null;
+        if(route.variableNames.length == 0) return new Match<>(route.value, Collections.emptyMap());
+
+        Map<String, String> variables = new HashMap<>();
+        int variable = 0;
+        int segment = 0;
+        int start = skipSlashes(path, 0);
+
+        while(variable < route.variableSegments.length){
+            int end = path.indexOf('/', start);
+            if(end == -1) end = path.length();
+
+            if(route.variableSegments[variable] == segment){
+                variables.put(route.variableNames[variable], path.substring(start, end));
+                variable++;
+            }
+
+            segment++;
+            start = skipSlashes(path, end);
+        }
+
+        return new Match<>(route.value, variables);
+    }
+
+    private CompiledNode<T> compiledRoot(){
+        CompiledNode<T> compiled = compiledRoot;
+        if(compiled != null) return compiled;
+
+        synchronized (this) {
+            if(compiledRoot == null) compiledRoot = compile(Collections.singletonList(root));
+            return compiledRoot;
+        }
+    }
+
+    /**
+     * Compiles the nodes which a path can reach at the same depth into one node.
+     * @param nodes the nodes ordered by how specific the segments leading to them are.
+     */
+    @SuppressWarnings("unchecked")
+    private CompiledNode<T> compile(List<Node<T>> nodes){
+        CompiledNode<T> compiled = new CompiledNode<>();
+        List<Node<T>> variableChildren = new ArrayList<>();
+        Set<String> staticKeys = new TreeSet<>();
+
+        for(Node<T> node : nodes){
+            if(compiled.route == null) compiled.route = node.route;
+            if(compiled.wildcardRoute == null && node.wildcardChild != null) compiled.wildcardRoute = node.wildcardChild.route;
+            if(node.variableChild != null) variableChildren.add(node.variableChild);
+            staticKeys.addAll(node.staticChildren.keySet());
+        }
+
+        compiled.staticKeys = staticKeys.toArray(new String[0]);
+        compiled.staticNodes = new CompiledNode[compiled.staticKeys.length];
+        for(int i=0;i<compiled.staticKeys.length;i++){
+            //A static segment also leads to every route a variable segment at the same position leads to
+            List<Node<T>> children = new ArrayList<>();
+            for(Node<T> node : nodes){
+                Node<T> child = node.staticChildren.get(compiled.staticKeys[i]);
+                if(child != null) children.add(child);
+            }
+            children.addAll(variableChildren);
+
+            compiled.staticNodes[i] = compile(children);
+        }
+
+        if(!variableChildren.isEmpty()) compiled.variableChild = compile(variableChildren);
+        return compiled;
+    }
+
+    private static <T> CompiledNode<T> findStatic(CompiledNode<T> node, String path, int start, int end){
+        int low = 0;
+        int high = node.staticKeys.length - 1;
+
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            int cmp = compareRegion(node.staticKeys[mid], path, start, end);
+
+            if(cmp < 0) low = mid + 1;
+            else if(cmp > 0) high = mid - 1;
+            else return node.staticNodes[mid];
+        }
+
+        return null;
+    }
+
+    /**
+     * Compares like {@link String#compareTo(String)} but against a region of the path.
+     */
+    private static int compareRegion(String key, String path, int start, int end){
+        int length = end - start;
+        int n = Math.min(key.length(), length);
+
+        for(int i=0;i<n;i++){
+            int diff = key.charAt(i) - path.charAt(start + i);
+            if(diff != 0) return diff;
+        }
+
+        return key.length() - length;
+    }
+
+    private static int skipSlashes(String path, int pos){
+        while(pos < path.length() && path.charAt(pos) == '/') pos++;
+        return pos;
+    }
+
+    private static List<String> segments(String route){
+        List<String> segments = new ArrayList<>();
+        for(String segment : route.split("/")){
+            if(!segment.isEmpty()) segments.add(segment);
+        }
+        return segments;
+    }
+}
@@ -1,10 +1,9 @@
 package com.programm.plugz.webserv;
 
 import com.programm.plugz.api.instance.MagicMethod;
-import com.programm.plugz.webserv.api.RequestParam;
 import lombok.RequiredArgsConstructor;
 
-import java.util.List;
+import java.lang.annotation.Annotation;
 
 @RequiredArgsConstructor
 class RequestMethodConfig {
@@ -12,7 +11,11 @@ class RequestMethodConfig {
     public final MagicMethod method;
 //    public final RequestType type;
     public final String contentType;
-    public final List<RequestParam> requestParamAnnotations;
+    /**
+     * The RequestParam, PathVariable or RequestBody annotation for each parameter of the method.
+     */
+    public final Annotation[] parameterAnnotations;
+    public final Class<?>[] parameterTypes;
     public final int requestBodyAnnotationPos;
     public final Class<?> requestBodyType;
 
@@ -7,6 +7,7 @@ import com.programm.plugz.api.*;
 import com.programm.plugz.api.auto.Get;
 import com.programm.plugz.api.instance.IInstanceManager;
 import com.programm.plugz.api.instance.MagicMethod;
+import com.programm.plugz.api.utils.ValueUtils;
 import com.programm.plugz.object.mapper.IObjectMapper;
 import com.programm.plugz.object.mapper.ObjectMapException;
 import com.programm.plugz.webserv.api.*;
@@ -31,6 +32,31 @@ public class WebservSubsystem implements ISubsystem {
     private static final String CONF_SERVER_CLIENT_TIMEOUT_NAME = "webserv.client.timeout";
     private static final int CONF_SERVER_CLIENT_TIMEOUT_DEFAULT = 1000;
 
+    private static final String CONF_SERVER_CLIENT_MAX_REQUESTS_NAME = "webserv.client.max-requests";
+    private static final int CONF_SERVER_CLIENT_MAX_REQUESTS_DEFAULT = 100;
+
+    private static final String CONF_SERVER_IO_MODE_NAME = "webserv.io.mode";
+    private static final String CONF_SERVER_IO_MODE_DEFAULT = "blocking";
+
+    private static final String CONF_SERVER_IO_ACCEPTORS_NAME = "webserv.io.acceptors";
+    private static final int CONF_SERVER_IO_ACCEPTORS_DEFAULT = 2;
+
+    private static final String CONF_SERVER_IO_WORKERS_NAME = "webserv.io.workers";
+    private static final int CONF_SERVER_IO_WORKERS_DEFAULT = 8;
+
+    private static final String CONF_SERVER_IO_BUFFER_SIZE_NAME = "webserv.io.buffer.size";
+    private static final int CONF_SERVER_IO_BUFFER_SIZE_DEFAULT = 8192;
+
+    private static final String CONF_SERVER_JSON_CODEGEN_NAME = "webserv.json.codegen";
+    private static final boolean CONF_SERVER_JSON_CODEGEN_DEFAULT = true;
+
+    private static final String CONF_SERVER_MAX_BODY_SIZE_NAME = "webserv.request.max-body-size";
+    private static final int CONF_SERVER_MAX_BODY_SIZE_DEFAULT = 10485760;
+
+    private static final String CONF_SERVER_RESPONSE_BUFFER_SIZE_NAME = "webserv.response.buffer.size";
+    private static final int CONF_SERVER_RESPONSE_BUFFER_SIZE_DEFAULT = 65536;
+    private static final int CONF_SERVER_RESPONSE_BUFFER_SIZE_MIN = 1024;
+
     private static final String CONF_SERVER_LOG_REGISTER_MAPPING_NAME = "webserv.log.mappings.register";
     private static final boolean CONF_SERVER_LOG_REGISTER_MAPPING_DEFAULT = false;
 
@@ -63,7 +89,15 @@ public class WebservSubsystem implements ISubsystem {
     public void registerSetup(ISubsystemSetupHelper setupHelper, AnnotationChecker annocheck) throws MagicException {
         config.registerDefaultConfiguration(CONF_SERVER_PORT_NAME, CONF_SERVER_PORT_DEFAULT);
         config.registerDefaultConfiguration(CONF_SERVER_CLIENT_TIMEOUT_NAME, CONF_SERVER_CLIENT_TIMEOUT_DEFAULT);
+        config.registerDefaultConfiguration(CONF_SERVER_CLIENT_MAX_REQUESTS_NAME, CONF_SERVER_CLIENT_MAX_REQUESTS_DEFAULT);
+        config.registerDefaultConfiguration(CONF_SERVER_IO_MODE_NAME, CONF_SERVER_IO_MODE_DEFAULT);
+        config.registerDefaultConfiguration(CONF_SERVER_IO_ACCEPTORS_NAME, CONF_SERVER_IO_ACCEPTORS_DEFAULT);
+        config.registerDefaultConfiguration(CONF_SERVER_IO_WORKERS_NAME, CONF_SERVER_IO_WORKERS_DEFAULT);
+        config.registerDefaultConfiguration(CONF_SERVER_IO_BUFFER_SIZE_NAME, CONF_SERVER_IO_BUFFER_SIZE_DEFAULT);
+        config.registerDefaultConfiguration(CONF_SERVER_RESPONSE_BUFFER_SIZE_NAME, CONF_SERVER_RESPONSE_BUFFER_SIZE_DEFAULT);
+        config.registerDefaultConfiguration(CONF_SERVER_MAX_BODY_SIZE_NAME, CONF_SERVER_MAX_BODY_SIZE_DEFAULT);
         this.logRegisterMappings = config.getBoolOrRegisterDefault(CONF_SERVER_LOG_REGISTER_MAPPING_NAME, CONF_SERVER_LOG_REGISTER_MAPPING_DEFAULT);
+        contentHandler.setJsonCodegen(config.getBoolOrRegisterDefault(CONF_SERVER_JSON_CODEGEN_NAME, CONF_SERVER_JSON_CODEGEN_DEFAULT));
         config.registerDefaultConfiguration(CONF_SERVER_LOG_REQUESTS_NAME, CONF_SERVER_LOG_REQUESTS_DEFAULT);
         config.registerDefaultConfiguration(CONF_SERVER_LOG_FALLBACK_NAME, CONF_SERVER_LOG_FALLBACK_DEFAULT);
 
@@ -84,6 +118,9 @@ public class WebservSubsystem implements ISubsystem {
         annocheck.forClass(RequestParam.class).classAnnotations().whitelist().set(RestController.class).seal();
         annocheck.forClass(RequestParam.class).partnerAnnotations().whitelist().seal();
 
+        annocheck.forClass(PathVariable.class).classAnnotations().whitelist().set(RestController.class).seal();
+        annocheck.forClass(PathVariable.class).partnerAnnotations().whitelist().seal();
+
         annocheck.forClass(RequestBody.class).classAnnotations().whitelist().set(RestController.class).seal();
         annocheck.forClass(RequestBody.class).partnerAnnotations().whitelist().seal();
     }
@@ -92,11 +129,18 @@ public class WebservSubsystem implements ISubsystem {
     public void startup() throws MagicException {
         int port = config.getIntOrError(CONF_SERVER_PORT_NAME, WebservSetupException::new);
         int clientTimeout = config.getIntOrError(CONF_SERVER_CLIENT_TIMEOUT_NAME, WebservSetupException::new);
+        int maxRequestsPerConnection = config.getIntOrError(CONF_SERVER_CLIENT_MAX_REQUESTS_NAME, WebservSetupException::new);
         boolean logRequests = config.getBoolOrError(CONF_SERVER_LOG_REQUESTS_NAME, WebservSetupException::new);
         boolean logFallback = config.getBoolOrError(CONF_SERVER_LOG_FALLBACK_NAME, WebservSetupException::new);
-
-        log.info("Starting Server on port [{}]...", port);
-        webserver.init(port, clientTimeout, logRequests, logFallback);
+        IOMode ioMode = getIOMode();
+        int ioAcceptors = config.getIntOrError(CONF_SERVER_IO_ACCEPTORS_NAME, WebservSetupException::new);
+        int ioWorkers = config.getIntOrError(CONF_SERVER_IO_WORKERS_NAME, WebservSetupException::new);
+        int ioBufferSize = config.getIntOrError(CONF_SERVER_IO_BUFFER_SIZE_NAME, WebservSetupException::new);
+        int responseBufferSize = getResponseBufferSize();
+        int maxBodySize = config.getIntOrError(CONF_SERVER_MAX_BODY_SIZE_NAME, WebservSetupException::new);
+
+        log.info("Starting Server on port [{}] in [{}] io mode...", port, ioMode);
+        webserver.init(port, clientTimeout, logRequests, logFallback, ioMode, ioAcceptors, ioWorkers, ioBufferSize, maxRequestsPerConnection, responseBufferSize, maxBodySize, asyncManager.usesVirtualThreads());
         asyncManager.runAsyncTask(webserver::start, null, 0, true, false);
     }
 
@@ -105,6 +149,38 @@ public class WebservSubsystem implements ISubsystem {
         webserver.stop();
     }
 
+    private static List<String> getPathVariableNames(String path){
+        List<String> names = new ArrayList<>();
+        for(String segment : path.split("/")){
+            if(segment.startsWith("{") && segment.endsWith("}")){
+                names.add(segment.substring(1, segment.length() - 1));
+            }
+        }
+        return names;
+    }
+
+    private IOMode getIOMode() throws WebservSetupException {
+        String ioMode = config.getOrError(CONF_SERVER_IO_MODE_NAME, WebservSetupException::new);
+
+        try {
+            return IOMode.valueOf(ioMode.toUpperCase());
+        }
+        catch (IllegalArgumentException e){
+            throw new WebservSetupException("Invalid io mode [" + ioMode + "] for [" + CONF_SERVER_IO_MODE_NAME + "]! Expected one of [blocking, nio].");
+        }
+    }
+
+    private int getResponseBufferSize() throws WebservSetupException {
+        int responseBufferSize = config.getIntOrError(CONF_SERVER_RESPONSE_BUFFER_SIZE_NAME, WebservSetupException::new);
+
+        //Streamed bodies are flushed in chunks of the buffer size
+        if(responseBufferSize < CONF_SERVER_RESPONSE_BUFFER_SIZE_MIN){
+            throw new WebservSetupException("Invalid response buffer size [" + responseBufferSize + "] for [" + CONF_SERVER_RESPONSE_BUFFER_SIZE_NAME + "]! Expected at least [" + CONF_SERVER_RESPONSE_BUFFER_SIZE_MIN + "].");
+        }
+
+        return responseBufferSize;
+    }
+
     private void registerImplementingObjectReaderClass(Class<?> implementingClass, IInstanceManager manager) throws MagicInstanceException {
         if(implementingClass != com.programm.plugz.object.mapper.property.JsonNodePropertyObjectMapper.class
         && implementingClass != com.programm.plugz.object.mapper.property.PropertyObjectJsonNodeMapper.class) {
@@ -189,7 +265,8 @@ public class WebservSubsystem implements ISubsystem {
 
         MagicMethod mm = manager.buildMagicMethod(instance, method);
 
-        List<RequestParam> requestParams = new ArrayList<>();
+        List<String> pathVariableNames = getPathVariableNames(path);
+        Annotation[] parameterAnnotations = new Annotation[method.getParameterCount()];
         int requestBodyPos = -1;
         Class<?> requestBodyTyp = null;
 
@@ -200,18 +277,33 @@ public class WebservSubsystem implements ISubsystem {
             for(int o=0;o<paramAnnotations.length;o++){
                 if(paramAnnotations[o].annotationType() == RequestParam.class){
                     if(paramTypes[i] != String.class) throw new MagicInstanceException("RequestParams can only be of type String!");
-                    requestParams.add((RequestParam) paramAnnotations[o]);
+                    parameterAnnotations[i] = paramAnnotations[o];
+                    break;
+                }
+                else if(paramAnnotations[o].annotationType() == PathVariable.class){
+                    PathVariable pathVariable = (PathVariable) paramAnnotations[o];
+                    if(paramTypes[i] != String.class && !ValueUtils.isPrimitiveOrBoxed(paramTypes[i])) throw new MagicInstanceException("PathVariables can only be of type String or a primitive type!");
+                    if(!pathVariableNames.contains(pathVariable.value())) throw new MagicInstanceException("PathVariable [" + pathVariable.value() + "] is not declared in the path [" + path + "]!");
+                    parameterAnnotations[i] = pathVariable;
                     break;
                 }
                 else if(paramAnnotations[o].annotationType() == RequestBody.class){
                     if(requestBodyPos != -1) throw new MagicInstanceException("There can not be multiple RequestBody parameters!");
                     requestBodyPos = i;
                     requestBodyTyp = paramTypes[i];
+                    parameterAnnotations[i] = paramAnnotations[o];
                     break;
                 }
             }
+
+            if(parameterAnnotations[i] == null) throw new MagicInstanceException("Parameter [" + i + "] of mapping method [" + method + "] must be annotated with RequestParam, PathVariable or RequestBody!");
         }
 
-        webserver.registerMapping(type, path, new RequestMethodConfig(mm, contentType, requestParams, requestBodyPos, requestBodyTyp));
+        try {
+            webserver.registerMapping(type, path, new RequestMethodConfig(mm, contentType, parameterAnnotations, paramTypes, requestBodyPos, requestBodyTyp));
+        }
+        catch (IllegalStateException e){
+            throw new MagicInstanceException("Failed to register mapping [" + path + "]!", e);
+        }
     }
 }
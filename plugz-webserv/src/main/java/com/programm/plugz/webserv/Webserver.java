@@ -4,8 +4,12 @@ import com.programm.ioutils.log.api.ILogger;
 import com.programm.ioutils.log.api.Logger;
 import com.programm.plugz.api.MagicInstanceException;
 import com.programm.plugz.api.MagicRuntimeException;
+import com.programm.plugz.api.utils.ThreadUtils;
+import com.programm.plugz.api.utils.ValueParseException;
+import com.programm.plugz.api.utils.ValueUtils;
 import com.programm.plugz.files.StringUtils;
 import com.programm.plugz.object.mapper.ObjectMapException;
+import com.programm.plugz.webserv.api.PathVariable;
 import com.programm.plugz.webserv.api.RequestParam;
 import com.programm.plugz.webserv.api.config.IInterceptedRequestAction;
 import com.programm.plugz.webserv.api.config.IRequestHandler;
@@ -18,16 +22,19 @@ import com.programm.plugz.webserv.api.request.InvalidRequestException;
 import com.programm.plugz.webserv.content.ContentHandler;
 import com.programm.plugz.webserv.content.IContentReader;
 import com.programm.plugz.webserv.content.IContentWriter;
+import com.programm.plugz.webserv.content.IStreamingContentReader;
 import com.programm.plugz.webserv.ex.WebservException;
 import lombok.RequiredArgsConstructor;
 
 import java.io.*;
+import java.lang.annotation.Annotation;
 import java.net.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RequiredArgsConstructor
 @Logger("Webserv")
@@ -36,6 +43,7 @@ class Webserver implements IRequestHandler {
     @RequiredArgsConstructor
     private static class ExecutableRequestImpl implements IExecutableRequest {
         private final RequestType type;
+        private final String httpVersion;
         private final String fullQuery;
         private final String query;
         private final Map<String, String> params;
@@ -43,6 +51,8 @@ class Webserver implements IRequestHandler {
         private final Map<String, List<String>> headers;
         private final Map<String, Cookie> cookies;
         private final Map<String, Cookie> newCookies = new HashMap<>();
+        private Map<String, String> pathVariables = Collections.emptyMap();
+        private long contentLength = -1;
 
         @Override
         public RequestType type() {
@@ -59,6 +69,11 @@ class Webserver implements IRequestHandler {
             return params;
         }
 
+        @Override
+        public Map<String, String> pathVariables() {
+            return pathVariables;
+        }
+
         @Override
         public Map<String, List<String>> headers() {
             return headers;
@@ -70,6 +85,16 @@ class Webserver implements IRequestHandler {
             return values.isEmpty() ? null : values.get(0);
         }
 
+        /**
+         * HTTP/1.1 connections are persistent unless the client asks to close them.
+         * HTTP/1.0 connections are only kept alive if the client explicitly asks for it.
+         */
+        public boolean keepAlive(){
+            String connection = getFirstValueOfHeader("Connection");
+            if("HTTP/1.1".equals(httpVersion)) return !"close".equalsIgnoreCase(connection);
+            return "keep-alive".equalsIgnoreCase(connection);
+        }
+
         @Override
         public Map<String, Cookie> cookies() {
             return cookies;
@@ -151,11 +176,14 @@ class Webserver implements IRequestHandler {
 
 
 
+    private static final int REQUEST_INPUT_BUFFER_SIZE = 8192;
+    private static final int MAX_POOLED_BODY_BUFFERS = 64;
+
     private final ILogger log;
     private final ContentHandler contentHandler;
 
-    private final Map<RequestType, Map<String, List<RequestMethodConfig>>> mappings = new HashMap<>();
-    private final Map<String, IRequestInterceptor> pathInterceptors = new HashMap<>();
+    private final Map<RequestType, PathRouter<List<RequestMethodConfig>>> mappings = new EnumMap<>(RequestType.class);
+    private final PathRouter<IRequestInterceptor> pathInterceptors = new PathRouter<>();
     private IRequestInterceptor fallbackInterceptor;
 
     private int port;
@@ -163,70 +191,257 @@ class Webserver implements IRequestHandler {
     private boolean logRequests;
     private boolean logFallback;
 
+    private IOMode ioMode;
+    private int ioAcceptors;
+    private int ioWorkers;
+    private int ioBufferSize;
+    private int maxRequestsPerConnection;
+    private int responseBufferSize;
+    private int maxBodySize;
+    private boolean virtualThreads;
+    private ByteBufferPool bodyBufferPool;
+    private NioConnector nioConnector;
+    private ServerSocket serverSocket;
+    private ExecutorService connectionWorkers;
+
     private boolean running;
 
-    public void init(int port, int clientTimeout, boolean logRequests, boolean logFallback){
+    public void init(int port, int clientTimeout, boolean logRequests, boolean logFallback, IOMode ioMode, int ioAcceptors, int ioWorkers, int ioBufferSize, int maxRequestsPerConnection, int responseBufferSize, int maxBodySize, boolean virtualThreads){
         this.port = port;
         this.clientTimeout = clientTimeout;
         this.logRequests = logRequests;
         this.logFallback = logFallback;
+        this.ioMode = ioMode;
+        this.ioAcceptors = ioAcceptors;
+        this.ioWorkers = ioWorkers;
+        this.ioBufferSize = ioBufferSize;
+        this.maxRequestsPerConnection = maxRequestsPerConnection;
+        this.responseBufferSize = responseBufferSize;
+        this.maxBodySize = maxBodySize;
+        this.virtualThreads = virtualThreads;
+        this.bodyBufferPool = new ByteBufferPool(ioBufferSize, MAX_POOLED_BODY_BUFFERS);
     }
 
     public void start(){
         running = true;
 
+        if(ioMode == IOMode.NIO){
+            startNio();
+            return;
+        }
+
+        if(virtualThreads){
+            connectionWorkers = ThreadUtils.newVirtualThreadPerTaskExecutor();
+        }
+        else {
+            AtomicInteger workerCount = new AtomicInteger();
+            connectionWorkers = Executors.newFixedThreadPool(Math.max(1, ioWorkers), r -> new Thread(r, "Webserv-Connection-" + workerCount.getAndIncrement()));
+        }
+
         try(ServerSocket serverSocket = new ServerSocket(port)) {
-            Thread extraThread = new Thread(() -> waitForClient(serverSocket), "Extra Thread");
-            extraThread.start();
-            waitForClient(serverSocket);
+            this.serverSocket = serverSocket;
+            waitForClients(serverSocket);
         }
         catch (IOException e){
             throw new MagicRuntimeException("Failed to start the server on port [" + port + "].", e);
         }
+        finally {
+            connectionWorkers.shutdown();
+        }
     }
 
-    private void waitForClient(ServerSocket serverSocket){
+    /**
+     * Accepts clients and hands each connection to a worker, so blocking request handlers and idle persistent connections don't stall the accept loop.
+     * In virtual mode every connection gets its own virtual thread.
+     * Otherwise, connections wait for a free worker, which is released at the latest when its connection was idle for the client timeout.
+     */
+    private void waitForClients(ServerSocket serverSocket){
         while(running) {
-            try (Socket client = serverSocket.accept()) {
-                client.setSoTimeout(clientTimeout);
-                handleClient(client);
-            } catch (IOException e) {
-                log.logException("IOException when handling the client: " + e.getMessage(), e);
+            Socket client;
+            try {
+                client = serverSocket.accept();
+            }
+            catch (IOException e) {
+                if(running) log.logException("IOException when accepting the client: " + e.getMessage(), e);
+                continue;
             }
+
+            connectionWorkers.execute(() -> {
+                try (client) {
+                    client.setSoTimeout(clientTimeout);
+                    handleClient(client);
+                }
+                catch (IOException e) {
+                    log.logException("IOException when handling the client: " + e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    private void startNio(){
+        nioConnector = new NioConnector(log, this, port, clientTimeout, ioAcceptors, ioWorkers, ioBufferSize, maxRequestsPerConnection, maxBodySize, virtualThreads);
+
+        try {
+            nioConnector.run();
+        }
+        catch (IOException e){
+            throw new MagicRuntimeException("Failed to start the nio server on port [" + port + "].", e);
         }
     }
 
     public void stop(){
         running = false;
+        if(nioConnector != null) nioConnector.stop();
+
+        if(serverSocket != null){
+            try {
+                serverSocket.close();
+            }
+            catch (IOException ignore){}
+        }
     }
 
+    /**
+     * The output is buffered so the head and body of a response leave in one packet instead of waiting on the ack of the head.
+     * The response writer flushes after every response.
+     */
     private void handleClient(Socket client) throws IOException {
-        try(BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
-            PrintWriter out = new PrintWriter(client.getOutputStream()))
-        {
-            ExecutableRequestImpl request = parseRequest(in);
-            if(logRequests && request.type != RequestType.OPTIONS) log.info("[%7<({})]: {}", request.type, request.fullQuery);
-            handleRequest(in, out, request);
+        handleClient(client.getInputStream(), new BufferedOutputStream(client.getOutputStream(), REQUEST_INPUT_BUFFER_SIZE));
+    }
+
+    /**
+     * Serves all requests of a persistent connection in order until the client or the server decides to close it.
+     * A timeout while waiting for the next request evicts the idle connection.
+     */
+    private void handleClient(InputStream is, OutputStream os) throws IOException {
+        HttpRequestInput in = new HttpRequestInput(is, REQUEST_INPUT_BUFFER_SIZE);
+        HttpResponseWriter out = new HttpResponseWriter(os, responseBufferSize);
+
+        for(int i=0;maxRequestsPerConnection <= 0 || i < maxRequestsPerConnection;i++){
+            boolean allowKeepAlive = maxRequestsPerConnection <= 0 || i + 1 < maxRequestsPerConnection;
+
+            try {
+                if(!serveRequest(in, out, allowKeepAlive)) break;
+            }
+            catch (SocketTimeoutException e){
+                log.trace("Closing idle connection.");
+                break;
+            }
         }
     }
 
-    private ExecutableRequestImpl parseRequest(BufferedReader in) throws IOException {
+    /**
+     * Handles exactly one request read from the input stream and writes the response to the output stream.
+     * Used by the workers of the {@link NioConnector} which split pipelined requests themselves.
+     * @return true if the connection should be kept alive after the response.
+     */
+    boolean serveRequest(InputStream is, OutputStream os, boolean allowKeepAlive) throws IOException {
+        HttpRequestInput in = new HttpRequestInput(is, REQUEST_INPUT_BUFFER_SIZE);
+        HttpResponseWriter out = new HttpResponseWriter(os, responseBufferSize);
+        return serveRequest(in, out, allowKeepAlive);
+    }
+
+    private boolean serveRequest(HttpRequestInput in, HttpResponseWriter out, boolean allowKeepAlive) throws IOException {
+        ExecutableRequestImpl request;
+        try {
+            in.beginHead();
+            request = parseRequest(in);
+        }
+        catch (HttpRequestInput.HeadTooLargeException e){
+            if(logRequests) log.info("Request was rejected: {}", e.getMessage());
+            out.setKeepAlive(false);
+            replyError(out, 431, "Request Header Fields Too Large");
+            return false;
+        }
+
+        if(request == null) return false;
+
+        out.setKeepAlive(allowKeepAlive && request.keepAlive());
+        out.setChunkedAllowed("HTTP/1.1".equals(request.httpVersion));
+        if(logRequests && request.type != RequestType.OPTIONS) log.info("[%7<({})]: {}", request.type, request.fullQuery);
+
+        if(!checkBodyLength(out, request)) return false;
+        in.beginBody(Math.max(0, request.contentLength));
+        handleRequest(in, out, request);
+
+        if(!out.isKeepAlive() || out.checkError()) return false;
+
+        //Skips a request body which was not read by the handling method, so the next request on a persistent connection starts at the right position
+        in.skipBody();
+        return true;
+    }
+
+    /**
+     * Rejects requests with an invalid Content-Length or a body larger than the max body size.
+     * Bodies with a Transfer-Encoding are not supported and rejected as well, as their length is unknown.
+     * The connection is closed afterwards as the body is not read.
+     * @return true if the request can be handled.
+     */
+    private boolean checkBodyLength(HttpResponseWriter out, ExecutableRequestImpl request) {
+        List<String> cLengths = request.headers.get("Content-Length");
+        boolean transferEncoding = request.headers.containsKey("Transfer-Encoding");
+
+        if(transferEncoding){
+            //Content-Length and Transfer-Encoding together can be used to smuggle a request past proxies which prefer the other header
+            boolean both = cLengths != null;
+            if(logRequests) log.info("[%7<({})]: {} was rejected: {}.", request.type, request.fullQuery, both ? "Both Content-Length and Transfer-Encoding" : "Unsupported Transfer-Encoding");
+            out.setKeepAlive(false);
+            if(both) replyError(out, 400, "Bad Request");
+            else replyError(out, 501, "Not Implemented");
+            return false;
+        }
+
+        if(cLengths == null) return true;
+
+        String _cLength = cLengths.get(0);
+        try {
+            request.contentLength = Long.parseLong(_cLength.trim());
+            for(int i=1;i<cLengths.size();i++){
+                //Differing lengths would make the start of the next request ambiguous
+                if(Long.parseLong(cLengths.get(i).trim()) != request.contentLength) request.contentLength = -1;
+            }
+        }
+        catch (NumberFormatException e){
+            request.contentLength = -1;
+        }
+
+        if(request.contentLength < 0){
+            if(logRequests) log.info("[%7<({})]: {} was rejected: Invalid Content-Length {}.", request.type, request.fullQuery, cLengths);
+            out.setKeepAlive(false);
+            replyError(out, 400, "Bad Request");
+            return false;
+        }
+
+        if(maxBodySize > 0 && request.contentLength > maxBodySize){
+            if(logRequests) log.info("[%7<({})]: {} was rejected: Body of [{}] bytes exceeds the max body size of [{}] bytes.", request.type, request.fullQuery, request.contentLength, maxBodySize);
+            out.setKeepAlive(false);
+            replyError(out, 413, "Payload Too Large");
+            return false;
+        }
+
+        return true;
+    }
+
+    private ExecutableRequestImpl parseRequest(HttpRequestInput in) throws IOException {
         boolean init = true;
         RequestType requestMethod = null;
+        String httpVersion = null;
         String fullQuery = null;
         String query = null;
         List<String> requestParamList = null;
         Map<String, String> requestParameters = null;
-        Map<String, List<String>> headers = new HashMap<>();
+        //Header names are case-insensitive
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
         Map<String, Cookie> cookies = new HashMap<>();
 
         String line;
-        while (!(line = in.readLine()).isBlank()) {
+        while ((line = in.readLine()) != null && !line.isBlank()) {
             if(init){
                 String[] split = line.split(" ");
 
                 requestMethod = RequestType.valueOf(split[0]);
                 fullQuery = URLDecoder.decode(split[1], StandardCharsets.UTF_8);
+                httpVersion = split.length > 2 ? split[2] : "HTTP/1.0";
                 String[] querySplit = fullQuery.split("\\?");
                 query = querySplit[0];
 
@@ -235,9 +450,6 @@ class Webserver implements IRequestHandler {
                     requestParameters = getRequestParameters(querySplit[1], requestParamList);
                 }
 
-                //host line - don't need it yet
-                in.readLine();
-
                 init = false;
             }
             //Headers
@@ -250,16 +462,19 @@ class Webserver implements IRequestHandler {
                 String value = line.substring(firstColon + 1);
                 headers.computeIfAbsent(headerName, h -> new ArrayList<>()).add(value);
 
-                if(headerName.equals("Cookie")){
+                if(headerName.equalsIgnoreCase("Cookie")){
                     collectCookies(value, cookies);
                 }
             }
         }
 
+        //Connection was closed before a new request arrived
+        if(init) return null;
+
         if(requestParamList == null) requestParamList = new ArrayList<>();
         if(requestParameters == null) requestParameters = new HashMap<>();
 
-        return new ExecutableRequestImpl(requestMethod, fullQuery, query, requestParameters, requestParamList, headers, cookies);
+        return new ExecutableRequestImpl(requestMethod, httpVersion, fullQuery, query, requestParameters, requestParamList, headers, cookies);
     }
 
     private void collectCookies(String value, Map<String, Cookie> cookieMap){
@@ -300,12 +515,18 @@ class Webserver implements IRequestHandler {
 
 
 
-    private void handleRequest(BufferedReader in, PrintWriter out, ExecutableRequestImpl request) {
-        IRequestInterceptor interceptor = pathInterceptors.get(request.query);
+    private void handleRequest(HttpRequestInput in, HttpResponseWriter out, ExecutableRequestImpl request) {
+        IRequestInterceptor interceptor = null;
+        PathRouter.Match<IRequestInterceptor> match = pathInterceptors.find(request.query);
+        if(match != null){
+            interceptor = match.value;
+            request.pathVariables = match.variables();
+        }
+
         doOrDontInterceptRequest(in, out, request, interceptor, true);
     }
 
-    private void doOrDontInterceptRequest(BufferedReader in, PrintWriter out, ExecutableRequestImpl request, IRequestInterceptor interceptor, boolean withFallback){
+    private void doOrDontInterceptRequest(HttpRequestInput in, HttpResponseWriter out, ExecutableRequestImpl request, IRequestInterceptor interceptor, boolean withFallback){
         if(interceptor == null) {
             continueHandleRequest(in, out, request, null, withFallback);
             return;
@@ -331,16 +552,7 @@ class Webserver implements IRequestHandler {
                         IContentWriter writer = contentHandler.getWriter(contentType);
                         if (writer == null) throw new WebservException("No fitting writer for contentType [" + contentType + "] found!");
 
-                        String _responseBody;
-                        try {
-                            _responseBody = writer.write(responseBody);
-                        }
-                        catch (ObjectMapException e) {
-                            throw new WebservException("Failed to write content!", e);
-                        }
-
-                        replyOkData(out, contentType, requestCookies);
-                        out.print(_responseBody);
+                        replyOkStream(out, contentType, requestCookies, writer, responseBody);
                     }
                 }
                 case CONTINUE ->
@@ -368,7 +580,7 @@ class Webserver implements IRequestHandler {
         }
     }
 
-    private void continueHandleRequest(BufferedReader in, PrintWriter out, ExecutableRequestImpl request, Map<String, Cookie> newCookies, boolean withFallback){
+    private void continueHandleRequest(HttpRequestInput in, HttpResponseWriter out, ExecutableRequestImpl request, Map<String, Cookie> newCookies, boolean withFallback){
         if(request.type == RequestType.OPTIONS){
             String requestingMethod = request.getFirstValueOfHeader("Access-Control-Request-Method");
             log.debug("Preflight request for method type [{}]: {}", requestingMethod, request.query);
@@ -403,8 +615,8 @@ class Webserver implements IRequestHandler {
         }
     }
 
-    private void handleRequest(PrintWriter out, BufferedReader in, ExecutableRequestImpl request, Map<String, Cookie> newCookies, boolean withFallback) throws WebservException, IOException {
-        List<RequestMethodConfig> configs = getConfigs(request.type, request.query);
+    private void handleRequest(HttpResponseWriter out, HttpRequestInput in, ExecutableRequestImpl request, Map<String, Cookie> newCookies, boolean withFallback) throws WebservException, IOException {
+        List<RequestMethodConfig> configs = getConfigs(request);
 
         if(configs == null){
             if(fallbackInterceptor != null && withFallback){
@@ -418,59 +630,20 @@ class Webserver implements IRequestHandler {
             return;
         }
 
-        for(RequestMethodConfig config : configs){
-            handleRequestMappingForConfig(out, in, request, config, newCookies);
-        }
+        //Every config replies, so only the first one registered for the route handles the request
+        handleRequestMappingForConfig(out, in, request, configs.get(0), newCookies);
     }
 
-    private void handleRequestMappingForConfig(PrintWriter out, BufferedReader in, ExecutableRequestImpl request, RequestMethodConfig config, Map<String, Cookie> newCookies) throws WebservException, IOException {
-        List<RequestParam> requestParams = config.requestParamAnnotations;
-        Object[] params = new Object[requestParams.size() + (config.requestBodyAnnotationPos == -1 ? 0 : 1)];
-
-        int bodyPos = config.requestBodyAnnotationPos;
+    private void handleRequestMappingForConfig(HttpResponseWriter out, HttpRequestInput in, ExecutableRequestImpl request, RequestMethodConfig config, Map<String, Cookie> newCookies) throws WebservException, IOException {
+        Annotation[] parameterAnnotations = config.parameterAnnotations;
+        Object[] params = new Object[parameterAnnotations.length];
 
         int countRequestParams = 0;
         for(int i=0;i<params.length;i++){
-            if(i == bodyPos){
-                String _cLength = request.getFirstValueOfHeader("Content-Length");
-                if(_cLength == null) throw new WebservException("No Content-Length header defined but request body is requested!");
-                int cLength = Integer.parseInt(_cLength);
-
-                StringBuilder contentBuilder = new StringBuilder();
-
-                try {
-                    for (int o=0;o<cLength;o++) {
-                        char c = (char) in.read();
-                        contentBuilder.append(c);
-                    }
-                }
-                catch (SocketTimeoutException e){
-                    log.error("Could not read full content length. Probably 'Umlaute' are the problem! [{}] characters less.", (cLength - contentBuilder.length()));
-                }
-
-                String contentType = request.getFirstValueOfHeader("Content-Type");
+            Annotation anno = parameterAnnotations[i];
 
-                IContentReader reader = contentHandler.getReader(contentType);
-
-                if(reader == null) throw new WebservException("No fitting reader for contentType [" + config.contentType + "] found!");
-
-                Object requestBody;
-                try {
-                    requestBody = reader.read(contentBuilder.toString(), config.requestBodyType);
-                }
-                catch (ObjectMapException e){
-                    throw new WebservException("Failed to read request body!", e);
-                }
-
-                params[i] = requestBody;
-            }
-            else if(requestParams.size() <= i){
-                i--;
-                bodyPos--;
-            }
-            else {
-                RequestParam anno = requestParams.get(i);
-                String paramName = anno.value();
+            if(anno instanceof RequestParam requestParam){
+                String paramName = requestParam.value();
 
                 if (paramName.isEmpty()) {
                     if(countRequestParams < request.params.size()) {
@@ -482,6 +655,21 @@ class Webserver implements IRequestHandler {
 
                 countRequestParams++;
             }
+            else if(anno instanceof PathVariable pathVariable){
+                String value = request.pathVariables.get(pathVariable.value());
+
+                try {
+                    params[i] = ValueUtils.parsePrimitive(value, config.parameterTypes[i]);
+                }
+                catch (ValueParseException e){
+                    if(logRequests) log.info("[%7<({})]: {} was rejected: Invalid path variable [{}]: {}", request.type, request.fullQuery, pathVariable.value(), e.getMessage());
+                    replyError(out, 400, "Bad Request", newCookies);
+                    return;
+                }
+            }
+            else {
+                params[i] = readRequestBody(in, request, config);
+            }
         }
 
         Object data;
@@ -500,40 +688,75 @@ class Webserver implements IRequestHandler {
         IContentWriter writer = contentHandler.getWriter(config.contentType);
         if (writer == null) throw new WebservException("No fitting writer for contentType [" + config.contentType + "] found!");
 
-        String _data;
+        replyOkStream(out, config.contentType, newCookies, writer, data);
+    }
+
+    /**
+     * Reads the body with its exact length.
+     * Streaming readers get the body as stream, all other readers get the raw bytes from a pooled buffer if the body fits into one.
+     */
+    private Object readRequestBody(HttpRequestInput in, ExecutableRequestImpl request, RequestMethodConfig config) throws WebservException, IOException {
+        if(request.contentLength < 0) throw new WebservException("No Content-Length header defined but request body is requested!");
+
+        String contentType = request.getFirstValueOfHeader("Content-Type");
+
+        IContentReader reader = contentHandler.getReader(contentType);
+
+        if(reader == null) throw new WebservException("No fitting reader for contentType [" + config.contentType + "] found!");
+
         try {
-            _data = writer.write(data);
-        } catch (ObjectMapException e) {
-            throw new WebservException("Failed to write content!", e);
-        }
+            if(reader instanceof IStreamingContentReader streamingReader){
+                return streamingReader.read(in.body(), request.contentLength, config.requestBodyType);
+            }
+
+            if(request.contentLength > Integer.MAX_VALUE) throw new WebservException("Body of [" + request.contentLength + "] bytes is too large to be read into memory!");
+            int cLength = (int) request.contentLength;
 
-        replyOkData(out, config.contentType, newCookies);
-        out.print(_data);
+            ByteBuffer pooled = cLength <= ioBufferSize ? bodyBufferPool.acquire() : null;
+            byte[] content = pooled != null ? pooled.array() : new byte[cLength];
+
+            try {
+                in.readBody(content, 0, cLength);
+                return reader.read(content, 0, cLength, config.requestBodyType);
+            }
+            finally {
+                if(pooled != null) bodyBufferPool.release(pooled);
+            }
+        }
+        catch (ObjectMapException e){
+            throw new WebservException("Failed to read request body!", e);
+        }
     }
 
     private boolean invalidMapping(RequestType type, String path){
-        Map<String, List<RequestMethodConfig>> specificMappings = mappings.get(type);
+        PathRouter<List<RequestMethodConfig>> specificMappings = mappings.get(type);
 
         if(specificMappings == null) return true;
-        return !specificMappings.containsKey(path);
+        return specificMappings.find(path) == null;
     }
 
-    private List<RequestMethodConfig> getConfigs(RequestType type, String path){
-        Map<String, List<RequestMethodConfig>> specificMappings = mappings.get(type);
-
+    private List<RequestMethodConfig> getConfigs(ExecutableRequestImpl request){
+        PathRouter<List<RequestMethodConfig>> specificMappings = mappings.get(request.type);
         if(specificMappings == null) return null;
-        return specificMappings.get(path);
+
+        PathRouter.Match<List<RequestMethodConfig>> match = specificMappings.find(request.query);
+        if(match == null) return null;
+
+        request.pathVariables = match.variables();
+        return match.value;
     }
 
     public void registerMapping(RequestType type, String path, RequestMethodConfig methodConfig){
-        mappings.computeIfAbsent(type, t -> new HashMap<>())
-                .computeIfAbsent(path, p -> new ArrayList<>())
-                .add(methodConfig);
+        List<RequestMethodConfig> configs = mappings.computeIfAbsent(type, t -> new PathRouter<>())
+                .computeIfAbsent(path, ArrayList::new);
+
+        if(!configs.isEmpty()) log.warn("Multiple mappings for [{}] {}: Only the first one will handle requests.", type, path);
+        configs.add(methodConfig);
     }
 
     public void registerInterceptor(String path, IRequestInterceptor interceptor) {
-        if(pathInterceptors.containsKey(path)) throw new IllegalStateException("Multiple interceptors registered for path [" + path + "]!");
-        pathInterceptors.put(path, interceptor);
+        if(pathInterceptors.contains(path)) throw new IllegalStateException("Multiple interceptors registered for path [" + path + "]!");
+        pathInterceptors.computeIfAbsent(path, () -> interceptor);
     }
 
     public void registerFallbackInterceptor(IRequestInterceptor interceptor) {
@@ -543,7 +766,7 @@ class Webserver implements IRequestHandler {
 
 
 
-    private void forwardRequest(PrintWriter out, String origin, IRequest request, Map<String, List<String>> oldHeaders, Map<String, Cookie> newCookies) throws IOException, WebservException {
+    private void forwardRequest(HttpResponseWriter out, String origin, IRequest request, Map<String, List<String>> oldHeaders, Map<String, Cookie> newCookies) throws IOException, WebservException {
         URL url;
         try {
             String _requestPath = WebUtils.concatPathMapping(origin, request.query());
@@ -630,8 +853,7 @@ class Webserver implements IRequestHandler {
             List<String> contentTypes = headers.get("Content-Type");
             String contentType = contentTypes == null ? null : (contentTypes.isEmpty() ? null : contentTypes.get(0));
 
-            replyOkData(out, contentType, newCookies);
-            out.print(_data);
+            replyOkData(out, contentType, newCookies, _data);
         }
         catch (IOException e){
             throw new WebservException("IOException for url-connection: [" + url + "]:", e);
@@ -651,61 +873,81 @@ class Webserver implements IRequestHandler {
 
 
 
-    private void printSetCookieHeaders(PrintWriter out, Map<String, Cookie> newCookies) {
+    private void printSetCookieHeaders(HttpResponseWriter out, Map<String, Cookie> newCookies) {
         if(newCookies == null) return;
         for(Cookie cookie : newCookies.values()){
-            out.print("Set-Cookie: " + cookie);
+            out.header("Set-Cookie", cookie.toString());
         }
     }
 
-    private void replyOk(PrintWriter out, Map<String, Cookie> newCookies){
-        out.print("HTTP/1.0 200 OK\r\n");
-        out.print("Server: BackendServer/1.0\r\n");
-        out.print("Access-Control-Allow-Origin: *\r\n");
+    private void replyOk(HttpResponseWriter out, Map<String, Cookie> newCookies){
+        out.status(200, "OK");
+        out.header("Access-Control-Allow-Origin", "*");
+        printSetCookieHeaders(out, newCookies);
+        out.end();
+    }
+
+    private void replyOkData(HttpResponseWriter out, String dataType, Map<String, Cookie> newCookies, String data){
+        out.status(200, "OK");
+        out.header("Content-Type", dataType);
+        out.header("Access-Control-Allow-Origin", "*");
         printSetCookieHeaders(out, newCookies);
-        out.print("\r\n"); // End of headers
+        out.end(data);
     }
 
-    private void replyOkData(PrintWriter out, String dataType, Map<String, Cookie> newCookies){
-        out.print("HTTP/1.0 200 OK\r\n");
-        out.print("Server: BackendServer/1.0\r\n");
-        out.print("Content-Type: " + dataType + "\r\n");
-        out.print("Access-Control-Allow-Origin: *\r\n");
+    /**
+     * Writes the data directly into the body stream of the response.
+     * If writing fails before anything was sent, the exception is thrown so an error can be replied instead.
+     * If the response was already partly sent, the connection is closed after it, as the client cannot tell that the body is incomplete otherwise.
+     */
+    private void replyOkStream(HttpResponseWriter out, String dataType, Map<String, Cookie> newCookies, IContentWriter writer, Object data) throws WebservException {
+        out.status(200, "OK");
+        out.header("Content-Type", dataType);
+        out.header("Access-Control-Allow-Origin", "*");
         printSetCookieHeaders(out, newCookies);
-        out.print("\r\n"); // End of headers
+
+        try {
+            writer.write(data, out.beginBody());
+        }
+        catch (ObjectMapException | IOException e) {
+            if(!out.isCommitted()) throw new WebservException("Failed to write content!", e);
+
+            log.logException("Failed to write content after the response was committed: " + e.getMessage(), e);
+            out.fail(e instanceof IOException ioe ? ioe : new IOException("Failed to write content!", e));
+            return;
+        }
+
+        out.endBody();
     }
 
-    private void replyError(PrintWriter out, int status, String msg, Map<String, Cookie> newCookies){
-        out.print("HTTP/1.0 " + status + " " + msg + "\r\n");
-        out.print("Server: BackendServer/1.0\r\n");
-        out.print("Access-Control-Allow-Origin: *\r\n");
+    private void replyError(HttpResponseWriter out, int status, String msg, Map<String, Cookie> newCookies){
+        out.status(status, msg);
+        out.header("Access-Control-Allow-Origin", "*");
         printSetCookieHeaders(out, newCookies);
-        out.print("\r\n");
+        out.end();
     }
 
-    private void replyError(PrintWriter out, int status, String msg){
-        out.print("HTTP/1.0 " + status + " " + msg + "\r\n");
-        out.print("Server: BackendServer/1.0\r\n");
-        out.print("Access-Control-Allow-Origin: *\r\n");
-        out.print("\r\n");
+    private void replyError(HttpResponseWriter out, int status, String msg){
+        out.status(status, msg);
+        out.header("Access-Control-Allow-Origin", "*");
+        out.end();
     }
 
-    private void replyOkOptions(PrintWriter out, Map<String, Cookie> newCookies){
-        out.print("HTTP/1.0 200 OK\r\n");
-        out.print("Server: BackendServer/1.0\r\n");
-        out.print("Accept: application/json;charset=UTF-8\r\n");
-        out.print("Accept-Charset: UTF-8\r\n");
-        out.print("Access-Control-Allow-Origin: *\r\n");
-        out.print("Access-Control-Allow-Headers: Content-Type\r\n");
+    private void replyOkOptions(HttpResponseWriter out, Map<String, Cookie> newCookies){
+        out.status(200, "OK");
+        out.header("Accept", "application/json;charset=UTF-8");
+        out.header("Accept-Charset", "UTF-8");
+        out.header("Access-Control-Allow-Origin", "*");
+        out.header("Access-Control-Allow-Headers", "Content-Type");
         printSetCookieHeaders(out, newCookies);
-        out.print("\r\n"); // End of headers
+        out.end();
     }
 
-    private void replyRedirect(PrintWriter out, String url, Map<String, Cookie> newCookies){
-        out.print("HTTP/1.0 303 See Other\r\n");
-        out.print("Location: " + url + "\r\n");
+    private void replyRedirect(HttpResponseWriter out, String url, Map<String, Cookie> newCookies){
+        out.status(303, "See Other");
+        out.header("Location", url);
         printSetCookieHeaders(out, newCookies);
-        out.print("\r\n"); // End of headers
+        out.end();
     }
 
 
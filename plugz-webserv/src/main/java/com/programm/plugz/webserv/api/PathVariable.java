@@ -0,0 +1,22 @@
+package com.programm.plugz.webserv.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Used to tell that the annotated parameter should be the value of a path-variable with the name [value].
+ * Path-variables are declared in the mapping path by enclosing a segment in curly braces: '/users/{id}'.
+ * The annotated parameter can be a String or a primitive (or boxed) type the value will be parsed into.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PathVariable {
+
+    /**
+     * @return The name of the path-variable.
+     */
+    String value();
+
+}
@@ -3,8 +3,19 @@ package com.programm.plugz.webserv.api.request;
 import com.programm.plugz.webserv.Cookie;
 import com.programm.plugz.webserv.api.config.IInterceptedRequestAction;
 
+import java.util.Map;
+
 public interface IExecutableRequest extends IRequest {
 
+    /**
+     * @return The values of the path-variables of the matched route or interceptor path like '/users/{id}'.
+     */
+    Map<String, String> pathVariables();
+
+    default String pathVariable(String name){
+        return pathVariables().get(name);
+    }
+
     @Override
     IExecutableRequest setCookie(Cookie cookie);
 
@@ -2,6 +2,7 @@ package com.programm.plugz.webserv.content;
 
 import com.programm.plugz.cls.analyzer.ClassAnalyzer;
 import com.programm.plugz.object.mapper.*;
+import com.programm.plugz.object.mapper.codec.JsonCodecs;
 
 import java.util.*;
 
@@ -11,18 +12,21 @@ public class ContentHandler {
     private final Map<String, IContentWriter> writers = new HashMap<>();
 
     private final Map<Class<?>, Map<Class<?>, IObjectMapper<?, ?>>> specializedMappersMap = new HashMap<>();
+    private final JsonCodecs jsonCodecs;
 
     public ContentHandler(){
         ClassAnalyzer analyzer = new ClassAnalyzer(true, false, false);
         ISpecializedObjectMapperLookup mapperLookup = this::getSpecializedMapper;
+        jsonCodecs = new JsonCodecs(analyzer, mapperLookup);
 
         readers.put("application/x-www-form-urlencoded", new PlainTextContentReader());
-        readers.put("application/json", new JsonContentReader(analyzer, mapperLookup));
+        readers.put("application/json", new JsonContentReader(analyzer, mapperLookup, jsonCodecs));
+        readers.put("application/octet-stream", new OctetStreamContentReader());
 
         writers.put("application/text", Objects::toString);
         writers.put("text/html", Objects::toString);
         writers.put("text/plain", Objects::toString);
-        writers.put("application/json", new JsonContentWriter(analyzer, mapperLookup));
+        writers.put("application/json", new JsonContentWriter(analyzer, mapperLookup, jsonCodecs));
     }
 
     public IContentReader getReader(String name) {
@@ -33,6 +37,14 @@ public class ContentHandler {
         return writers.get(name);
     }
 
+    /**
+     * Enables or disables generating json codecs for the mapped classes.
+     * If disabled all classes are mapped through reflection.
+     */
+    public void setJsonCodegen(boolean jsonCodegen){
+        jsonCodecs.setEnabled(jsonCodegen);
+    }
+
     public boolean supportsMimeType(String type){
         return writers.containsKey(type);
     }
@@ -2,8 +2,19 @@ package com.programm.plugz.webserv.content;
 
 import com.programm.plugz.object.mapper.ObjectMapException;
 
+import java.nio.charset.StandardCharsets;
+
 public interface IContentReader {
 
     <T> T read(String content, Class<T> cls) throws ObjectMapException;
 
+    /**
+     * Reads the content from the raw UTF-8 bytes of the request body.
+     * The bytes may belong to a pooled buffer and must not be referenced after this method returns.
+     * Readers which can parse bytes directly should override this method.
+     */
+    default <T> T read(byte[] content, int offset, int length, Class<T> cls) throws ObjectMapException {
+        return read(new String(content, offset, length, StandardCharsets.UTF_8), cls);
+    }
+
 }
@@ -2,8 +2,23 @@ package com.programm.plugz.webserv.content;
 
 import com.programm.plugz.object.mapper.ObjectMapException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
 public interface IContentWriter {
 
     String write(Object object) throws ObjectMapException;
 
+    /**
+     * Writes the object directly to the output stream.
+     * Writers which can serialize without building the whole content in memory first should override this method.
+     * @param object the object to write.
+     * @param out the stream of the response body.
+     */
+    default void write(Object object, OutputStream out) throws ObjectMapException, IOException {
+        String content = write(object);
+        if(content != null) out.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+
 }
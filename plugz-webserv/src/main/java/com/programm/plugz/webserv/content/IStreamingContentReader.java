@@ -0,0 +1,22 @@
+package com.programm.plugz.webserv.content;
+
+import com.programm.plugz.object.mapper.ObjectMapException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reader which consumes the request body as stream, so the body is never buffered as a whole by the webserver.
+ */
+public interface IStreamingContentReader extends IContentReader {
+
+    /**
+     * Reads the content from the body stream.
+     * The stream ends after the body and is only valid until the request method returns.
+     * @param in the stream of the request body.
+     * @param length the declared length of the body.
+     * @param cls the requested type.
+     */
+    <T> T read(InputStream in, long length, Class<T> cls) throws ObjectMapException, IOException;
+
+}
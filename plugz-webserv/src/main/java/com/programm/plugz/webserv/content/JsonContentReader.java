@@ -1,33 +1,43 @@
 package com.programm.plugz.webserv.content;
 
 import com.programm.plugz.cls.analyzer.ClassAnalyzer;
-import com.programm.plugz.files.json.JsonBuilder;
-import com.programm.plugz.files.json.JsonNode;
 import com.programm.plugz.files.json.JsonParseException;
+import com.programm.plugz.files.json.JsonReader;
+import com.programm.plugz.files.json.JsonToken;
 import com.programm.plugz.object.mapper.ISpecializedObjectMapperLookup;
 import com.programm.plugz.object.mapper.ObjectMapException;
+import com.programm.plugz.object.mapper.codec.JsonCodecs;
 import com.programm.plugz.object.mapper.property.JsonNodePropertyObjectMapper;
 
 class JsonContentReader implements IContentReader {
 
     private final JsonNodePropertyObjectMapper reader;
 
-    public JsonContentReader(ClassAnalyzer classAnalyzer, ISpecializedObjectMapperLookup specializedLookup) {
-        this.reader = new JsonNodePropertyObjectMapper(classAnalyzer, specializedLookup);
+    public JsonContentReader(ClassAnalyzer classAnalyzer, ISpecializedObjectMapperLookup specializedLookup, JsonCodecs codecs) {
+        this.reader = new JsonNodePropertyObjectMapper(classAnalyzer, specializedLookup, codecs);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> T read(String content, Class<T> cls) throws ObjectMapException {
-        JsonNode contentNode;
+        return (T) readDocument(new JsonReader(content), cls);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T read(byte[] content, int offset, int length, Class<T> cls) throws ObjectMapException {
+        return (T) readDocument(new JsonReader(content, offset, length), cls);
+    }
+
+    private Object readDocument(JsonReader jsonReader, Class<?> cls) throws ObjectMapException {
         try {
-            contentNode = JsonBuilder.fromString(content);
+            Object value = reader.read(jsonReader, cls);
+            if(jsonReader.nextToken() != JsonToken.END_DOCUMENT) throw new JsonParseException("Unexpected content after the end of the document!");
+            return value;
         }
         catch (JsonParseException e){
-            throw new ObjectMapException("Invalid json content [" + content + "]!", e);
+            throw new ObjectMapException("Invalid json content: " + e.getMessage(), e);
         }
-
-        return (T) reader._read(contentNode, cls);
     }
 
 }
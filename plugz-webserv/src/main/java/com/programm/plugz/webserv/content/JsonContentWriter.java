@@ -4,14 +4,23 @@ import com.programm.plugz.cls.analyzer.ClassAnalyzer;
 import com.programm.plugz.files.json.JsonNode;
 import com.programm.plugz.object.mapper.ISpecializedObjectMapperLookup;
 import com.programm.plugz.object.mapper.ObjectMapException;
+import com.programm.plugz.object.mapper.codec.JsonCodecs;
 import com.programm.plugz.object.mapper.property.PropertyObjectJsonNodeMapper;
+import com.programm.plugz.object.mapper.property.PropertyObjectJsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
 
 class JsonContentWriter implements IContentWriter {
 
+    private static final int STREAM_BUFFER_SIZE = 4096;
+
     private final PropertyObjectJsonNodeMapper writer;
+    private final PropertyObjectJsonWriter streamWriter;
 
-    public JsonContentWriter(ClassAnalyzer analyzer, ISpecializedObjectMapperLookup specializedLookup) {
-        this.writer = new PropertyObjectJsonNodeMapper(analyzer, specializedLookup, true);
+    public JsonContentWriter(ClassAnalyzer analyzer, ISpecializedObjectMapperLookup specializedLookup, JsonCodecs codecs) {
+        this.writer = new PropertyObjectJsonNodeMapper(analyzer, specializedLookup, false);
+        this.streamWriter = new PropertyObjectJsonWriter(analyzer, specializedLookup, codecs, STREAM_BUFFER_SIZE);
     }
 
     @Override
@@ -19,4 +28,9 @@ class JsonContentWriter implements IContentWriter {
         JsonNode node = writer.read(object);
         return node.toString();
     }
+
+    @Override
+    public void write(Object object, OutputStream out) throws ObjectMapException, IOException {
+        streamWriter.write(object, out);
+    }
 }
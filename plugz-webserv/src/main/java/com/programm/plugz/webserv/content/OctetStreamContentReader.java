@@ -0,0 +1,38 @@
+package com.programm.plugz.webserv.content;
+
+import com.programm.plugz.object.mapper.ObjectMapException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads binary bodies as {@link InputStream}, byte[] or String.
+ * Methods with an InputStream body get the connection stream itself and can process uploads of any size.
+ */
+class OctetStreamContentReader implements IStreamingContentReader {
+
+    @Override
+    public <T> T read(String content, Class<T> cls) throws ObjectMapException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+
+        try {
+            return read(new ByteArrayInputStream(bytes), bytes.length, cls);
+        }
+        catch (IOException e){
+            throw new ObjectMapException("Failed to read content!", e);
+        }
+    }
+
+    @Override
+    public <T> T read(InputStream in, long length, Class<T> cls) throws ObjectMapException, IOException {
+        if(cls == InputStream.class) return cls.cast(in);
+        if(length > Integer.MAX_VALUE) throw new ObjectMapException("Content of [" + length + "] bytes is too large for [" + cls.getName() + "]!");
+
+        if(cls == byte[].class) return cls.cast(in.readNBytes((int) length));
+        if(cls == String.class) return cls.cast(new String(in.readNBytes((int) length), StandardCharsets.UTF_8));
+
+        throw new ObjectMapException("Cannot read binary content into [" + cls.getName() + "]!");
+    }
+}
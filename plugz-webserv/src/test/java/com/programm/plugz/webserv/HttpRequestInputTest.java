@@ -0,0 +1,82 @@
+package com.programm.plugz.webserv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpRequestInputTest {
+
+    private static HttpRequestInput input(String data){
+        return new HttpRequestInput(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), 16);
+    }
+
+    @Test
+    @DisplayName("Request-Input [Lines and body]")
+    public void testLinesAndBody() throws Exception {
+        HttpRequestInput in = input("POST / HTTP/1.1\r\nContent-Length: 5\r\n\r\nhelloGET / HTTP/1.1\n");
+
+        in.beginHead();
+        assertEquals("POST / HTTP/1.1", in.readLine());
+        assertEquals("Content-Length: 5", in.readLine());
+        assertEquals("", in.readLine());
+
+        in.beginBody(5);
+        byte[] body = new byte[5];
+        in.readBody(body, 0, 5);
+        assertEquals("hello", new String(body, StandardCharsets.UTF_8));
+
+        in.beginHead();
+        assertEquals("GET / HTTP/1.1", in.readLine());
+        assertNull(in.readLine());
+    }
+
+    @Test
+    @DisplayName("Request-Input [Skip unread body]")
+    public void testSkipBody() throws Exception {
+        HttpRequestInput in = input("0123456789abcdefghijNEXT\r\n");
+
+        in.beginBody(20);
+        in.skipBody();
+        assertEquals("NEXT", in.readLine());
+    }
+
+    @Test
+    @DisplayName("Request-Input [Too large head]")
+    public void testTooLargeHead() throws Exception {
+        String line = "X-Large: " + "a".repeat(HttpRequestInput.MAX_HEAD_SIZE / 2) + "\r\n";
+        HttpRequestInput in = input(line + line + line);
+
+        in.beginHead();
+        assertNotNull(in.readLine());
+        assertThrows(HttpRequestInput.HeadTooLargeException.class, in::readLine);
+    }
+
+    @Test
+    @DisplayName("Request-Input [Body stream ends at the content length]")
+    public void testBodyStream() throws Exception {
+        HttpRequestInput in = input("\u00E4\u20ACxyzNEXT\n");
+
+        in.beginBody(5);
+        byte[] body = in.body().readAllBytes();
+        assertEquals("\u00E4\u20AC", new String(body, StandardCharsets.UTF_8));
+        assertEquals(-1, in.body().read());
+
+        in.beginHead();
+        assertEquals("xyzNEXT", in.readLine());
+    }
+
+    @Test
+    @DisplayName("Request-Input [Connection closed inside the body]")
+    public void testTruncatedBody() {
+        HttpRequestInput in = input("abc");
+
+        in.beginBody(10);
+        assertThrows(EOFException.class, () -> in.readBody(new byte[10], 0, 10));
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.programm.plugz.webserv;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads raw http responses in the tests of the webserver.
+ */
+class HttpTestUtils {
+
+    static class Response {
+        final int status;
+        final Map<String, String> headers;
+        final String body;
+
+        Response(int status, Map<String, String> headers, String body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        String header(String name){
+            return headers.get(name);
+        }
+    }
+
+    /**
+     * Reads exactly one response with a Content-Length or chunked body.
+     * @return the response or null if the stream ended before a response started.
+     */
+    static Response readResponse(InputStream in) throws IOException {
+        String statusLine = readLine(in);
+        if(statusLine == null) return null;
+
+        int status = Integer.parseInt(statusLine.split(" ")[1]);
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        String line;
+        while((line = readLine(in)) != null && !line.isEmpty()){
+            int colon = line.indexOf(':');
+            headers.put(line.substring(0, colon), line.substring(colon + 1).trim());
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if("chunked".equals(headers.get("Transfer-Encoding"))){
+            int size;
+            while((size = Integer.parseInt(readLine(in), 16)) != 0){
+                body.write(readBytes(in, size));
+                readLine(in);
+            }
+            readLine(in);
+        }
+        else {
+            String contentLength = headers.get("Content-Length");
+            if(contentLength != null) body.write(readBytes(in, Integer.parseInt(contentLength)));
+        }
+
+        return new Response(status, headers, body.toString(StandardCharsets.UTF_8));
+    }
+
+    static Response request(Socket socket, String request) throws IOException {
+        socket.getOutputStream().write(request.getBytes(StandardCharsets.UTF_8));
+        socket.getOutputStream().flush();
+        return readResponse(socket.getInputStream());
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Connects to the server on the port, retrying while it is still starting.
+     */
+    static Socket connect(int port) throws IOException, InterruptedException {
+        for(int i=0;;i++){
+            try {
+                Socket socket = new Socket("localhost", port);
+                socket.setSoTimeout(5000);
+                return socket;
+            }
+            catch (IOException e){
+                if(i == 50) throw e;
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int b;
+        while((b = in.read()) != -1 && b != '\n'){
+            if(b != '\r') sb.append((char) b);
+        }
+
+        if(b == -1 && sb.length() == 0) return null;
+        return sb.toString();
+    }
+
+    private static byte[] readBytes(InputStream in, int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if(bytes.length != length) throw new EOFException("Expected [" + length + "] bytes but got [" + bytes.length + "]!");
+        return bytes;
+    }
+
+}
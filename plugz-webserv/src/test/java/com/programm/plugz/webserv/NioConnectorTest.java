@@ -0,0 +1,134 @@
+package com.programm.plugz.webserv;
+
+import com.programm.ioutils.log.api.NullLogger;
+import com.programm.plugz.webserv.content.ContentHandler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NioConnectorTest {
+
+    private static final String BIG_BODY = "x".repeat(100_000);
+
+    private static Webserver startServer(int port, int maxBodySize) {
+        Webserver webserver = new Webserver(new NullLogger(), new ContentHandler());
+        webserver.init(port, 5000, false, false, IOMode.NIO, 1, 2, 1024, 100, 4096, maxBodySize, false);
+        webserver.registerInterceptor("/hello", (handler, request) -> request.doOk("text/plain", "hi"));
+        webserver.registerInterceptor("/big", (handler, request) -> request.doOk("text/plain", BIG_BODY));
+        new Thread(webserver::start, "Test-Server").start();
+        return webserver;
+    }
+
+    @Test
+    @DisplayName("Nio [Pipelined requests]")
+    public void testPipelinedRequests() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = startServer(port, 1024);
+
+        try (Socket socket = HttpTestUtils.connect(port)) {
+            String request = "GET /hello HTTP/1.1\r\nHost: localhost\r\n\r\n";
+            socket.getOutputStream().write((request + request).getBytes(StandardCharsets.UTF_8));
+
+            for(int i=0;i<2;i++){
+                HttpTestUtils.Response response = HttpTestUtils.readResponse(socket.getInputStream());
+                assertNotNull(response);
+                assertEquals(200, response.status);
+                assertEquals("hi", response.body);
+            }
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Nio [Request split into single bytes]")
+    public void testSlowClient() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = startServer(port, 1024);
+
+        try (Socket socket = HttpTestUtils.connect(port)) {
+            socket.setTcpNoDelay(true);
+            OutputStream out = socket.getOutputStream();
+            for(byte b : "GET /hello HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.UTF_8)){
+                out.write(b);
+                out.flush();
+                Thread.sleep(1);
+            }
+
+            HttpTestUtils.Response response = HttpTestUtils.readResponse(socket.getInputStream());
+            assertNotNull(response);
+            assertEquals(200, response.status);
+            assertEquals("hi", response.body);
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Nio [Too large head]")
+    public void testTooLargeHead() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = startServer(port, 1024);
+
+        try (Socket socket = HttpTestUtils.connect(port)) {
+            String header = "X-Large: " + "a".repeat(HttpRequestInput.MAX_HEAD_SIZE) + "\r\n";
+            HttpTestUtils.Response response = HttpTestUtils.request(socket, "GET /hello HTTP/1.1\r\n" + header);
+
+            assertNotNull(response);
+            assertEquals(431, response.status);
+            assertEquals(-1, socket.getInputStream().read());
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Nio [Unbufferable body without max body size]")
+    public void testUnbufferableBody() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = startServer(port, 0);
+
+        try (Socket socket = HttpTestUtils.connect(port)) {
+            HttpTestUtils.Response response = HttpTestUtils.request(socket, "POST /hello HTTP/1.1\r\nContent-Length: 99999999999\r\n\r\n");
+
+            assertNotNull(response);
+            assertEquals(413, response.status);
+            assertEquals(-1, socket.getInputStream().read());
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Nio [Response larger than the write buffer]")
+    public void testStreamedResponse() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = startServer(port, 1024);
+
+        try (Socket socket = HttpTestUtils.connect(port)) {
+            HttpTestUtils.Response response = HttpTestUtils.request(socket, "GET /big HTTP/1.1\r\n\r\n");
+            assertNotNull(response);
+            assertEquals(200, response.status);
+            assertEquals("chunked", response.header("Transfer-Encoding"));
+            assertEquals(BIG_BODY, response.body);
+
+            //The connection stays usable after the streamed response
+            response = HttpTestUtils.request(socket, "GET /hello HTTP/1.1\r\n\r\n");
+            assertNotNull(response);
+            assertEquals("hi", response.body);
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+}
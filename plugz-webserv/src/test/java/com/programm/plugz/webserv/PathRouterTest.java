@@ -0,0 +1,103 @@
+package com.programm.plugz.webserv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathRouterTest {
+
+    private static PathRouter<String> router(String... routes){
+        PathRouter<String> router = new PathRouter<>();
+        for(String route : routes){
+            router.computeIfAbsent(route, () -> route);
+        }
+        return router;
+    }
+
+    @Test
+    @DisplayName("Path-Router [Static routes]")
+    public void testStaticRoutes(){
+        PathRouter<String> router = router("/", "/users", "/users/all");
+
+        assertEquals("/", router.get("/"));
+        assertEquals("/users", router.get("/users"));
+        assertEquals("/users", router.get("users/"));
+        assertEquals("/users/all", router.get("//users//all"));
+        assertNull(router.get("/user"));
+        assertNull(router.get("/users/all/more"));
+    }
+
+    @Test
+    @DisplayName("Path-Router [Variables]")
+    public void testVariables(){
+        PathRouter<String> router = router("/users/{id}", "/users/{id}/posts/{post}");
+
+        PathRouter.Match<String> match = router.find("/users/42/posts/7");
+        assertNotNull(match);
+        assertEquals("/users/{id}/posts/{post}", match.value);
+        assertEquals(Map.of("id", "42", "post", "7"), match.variables());
+
+        match = router.find("/users/42");
+        assertNotNull(match);
+        assertEquals(Map.of("id", "42"), match.variables());
+
+        assertNull(router.find("/users"));
+    }
+
+    @Test
+    @DisplayName("Path-Router [Static before variable before wildcard]")
+    public void testPrecedence(){
+        PathRouter<String> router = router("/users/me", "/users/{id}", "/users/*");
+
+        assertEquals("/users/me", router.get("/users/me"));
+        assertEquals("/users/{id}", router.get("/users/42"));
+        assertEquals("/users/*", router.get("/users/42/posts"));
+        assertEquals("/users/*", router.get("/users"));
+    }
+
+    @Test
+    @DisplayName("Path-Router [Static segment falls back to variable routes]")
+    public void testStaticFallsBackToVariable(){
+        PathRouter<String> router = router("/users/me", "/users/{id}/posts");
+
+        PathRouter.Match<String> match = router.find("/users/me/posts");
+        assertNotNull(match);
+        assertEquals("/users/{id}/posts", match.value);
+        assertEquals(Map.of("id", "me"), match.variables());
+    }
+
+    @Test
+    @DisplayName("Path-Router [Wildcard of a parent]")
+    public void testParentWildcard(){
+        PathRouter<String> router = router("/static/*", "/static/css/main.css");
+
+        assertEquals("/static/css/main.css", router.get("/static/css/main.css"));
+        assertEquals("/static/*", router.get("/static/css/other.css"));
+        assertEquals("/static/*", router.get("/static/js/app/index.js"));
+    }
+
+    @Test
+    @DisplayName("Path-Router [Routes added after a lookup]")
+    public void testAddAfterLookup(){
+        PathRouter<String> router = router("/a");
+        assertNull(router.get("/b"));
+
+        router.computeIfAbsent("/b", () -> "/b");
+        assertEquals("/b", router.get("/b"));
+        assertTrue(router.contains("/b"));
+    }
+
+    @Test
+    @DisplayName("Path-Router [Conflicting variable names]")
+    public void testConflicts(){
+        PathRouter<String> router = router("/users/{id}");
+
+        assertEquals("/users/{id}", router.computeIfAbsent("/users/{id}", () -> "other"));
+        assertThrows(IllegalStateException.class, () -> router.computeIfAbsent("/users/{name}", () -> "other"));
+        assertThrows(IllegalStateException.class, () -> router.computeIfAbsent("/users/*/more", () -> "other"));
+    }
+
+}
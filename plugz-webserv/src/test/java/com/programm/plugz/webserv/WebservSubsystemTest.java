@@ -0,0 +1,53 @@
+package com.programm.plugz.webserv;
+
+import com.programm.ioutils.log.api.NullLogger;
+import com.programm.plugz.api.PlugzConfig;
+import com.programm.plugz.webserv.ex.WebservSetupException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebservSubsystemTest {
+
+    //Calls to get return the configured values
+    private static PlugzConfig config(Map<String, Object> values){
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            if(method.isDefault()) return InvocationHandler.invokeDefault(proxy, method, args);
+            return method.getName().equals("get") ? values.get((String) args[0]) : null;
+        };
+        return (PlugzConfig) Proxy.newProxyInstance(WebservSubsystemTest.class.getClassLoader(), new Class<?>[]{ PlugzConfig.class }, invocationHandler);
+    }
+
+    private static Map<String, Object> configs(int responseBufferSize){
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("webserv.port", 0);
+        configs.put("webserv.client.timeout", 1000);
+        configs.put("webserv.client.max-requests", 100);
+        configs.put("webserv.log.requests", false);
+        configs.put("webserv.log.request.fallback", false);
+        configs.put("webserv.io.mode", "blocking");
+        configs.put("webserv.io.acceptors", 2);
+        configs.put("webserv.io.workers", 8);
+        configs.put("webserv.io.buffer.size", 8192);
+        configs.put("webserv.response.buffer.size", responseBufferSize);
+        configs.put("webserv.request.max-body-size", 10485760);
+        return configs;
+    }
+
+    @Test
+    @DisplayName("Webserv-Subsystem [Response buffers below the minimum size are rejected]")
+    public void testResponseBufferSize() {
+        for(int size : new int[]{ -1, 0, 1023 }){
+            WebservSubsystem subsystem = new WebservSubsystem(new NullLogger(), config(configs(size)), null);
+            WebservSetupException e = assertThrows(WebservSetupException.class, subsystem::startup);
+            assertTrue(e.getMessage().contains("webserv.response.buffer.size"), e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.programm.plugz.webserv;
+
+import com.programm.ioutils.log.api.NullLogger;
+import com.programm.plugz.api.utils.ThreadUtils;
+import com.programm.plugz.webserv.content.ContentHandler;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the request throughput of the server with worker threads and with virtual threads in both io modes
+ * for handlers which block like request handlers waiting on a database.
+ * Every client sends its requests one after another over a persistent connection.
+ * Run the main method manually - it is not part of the test suite.
+ */
+class WebserverBenchmark {
+
+    private static final int CLIENTS = 64;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final long BLOCKING_TIME = 20;
+    private static final int WORKERS = 8;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("Clients: " + CLIENTS + ", requests per client: " + REQUESTS_PER_CLIENT + ", blocking time per request: " + BLOCKING_TIME + "ms, workers: " + WORKERS);
+
+        for(IOMode ioMode : IOMode.values()){
+            run(ioMode, false);
+
+            if(ThreadUtils.isVirtualThreadSupported()) run(ioMode, true);
+            else System.out.printf("[%8s] virtual threads are not supported by this runtime%n", ioMode);
+        }
+    }
+
+    private static void run(IOMode ioMode, boolean virtualThreads) throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = new Webserver(new NullLogger(), new ContentHandler());
+        webserver.init(port, 1000, false, false, ioMode, 2, WORKERS, 8192, 0, 65536, 1024, virtualThreads);
+        webserver.registerInterceptor("/work", (handler, request) -> {
+            try {
+                Thread.sleep(BLOCKING_TIME);
+            }
+            catch (InterruptedException ignore){}
+            return request.doOk("text/plain", "done");
+        });
+        new Thread(webserver::start, "Benchmark-Server").start();
+
+        //Waits until the server accepts connections
+        try (Socket socket = HttpTestUtils.connect(port)) {
+            HttpTestUtils.request(socket, "GET /work HTTP/1.1\r\nConnection: close\r\n\r\n");
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch latch = new CountDownLatch(CLIENTS);
+        AtomicInteger failed = new AtomicInteger();
+        long start = System.nanoTime();
+
+        for(int i=0;i<CLIENTS;i++){
+            clients.execute(() -> {
+                try (Socket socket = HttpTestUtils.connect(port)) {
+                    for(int o=0;o<REQUESTS_PER_CLIENT;o++){
+                        HttpTestUtils.Response response = HttpTestUtils.request(socket, "GET /work HTTP/1.1\r\n\r\n");
+                        if(response == null || response.status != 200) failed.incrementAndGet();
+                    }
+                }
+                catch (IOException | InterruptedException e){
+                    failed.incrementAndGet();
+                }
+                latch.countDown();
+            });
+        }
+
+        latch.await();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        clients.shutdown();
+        webserver.stop();
+
+        int requests = CLIENTS * REQUESTS_PER_CLIENT;
+        System.out.printf("[%8s] virtual: %5s, took %6dms -> %8.1f requests/s, %d failed%n", ioMode, virtualThreads, millis, requests * 1000.0 / Math.max(1, millis), failed.get());
+    }
+
+}
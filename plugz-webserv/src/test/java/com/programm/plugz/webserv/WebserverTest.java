@@ -0,0 +1,273 @@
+package com.programm.plugz.webserv;
+
+import com.programm.ioutils.log.api.NullLogger;
+import com.programm.plugz.api.instance.MagicMethod;
+import com.programm.plugz.webserv.api.PathVariable;
+import com.programm.plugz.webserv.api.RequestBody;
+import com.programm.plugz.webserv.content.ContentHandler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebserverTest {
+
+    public static class UserController {
+        public String user(@PathVariable("id") int id){
+            return "user " + id;
+        }
+
+        public String echo(@RequestBody String body){
+            return body;
+        }
+    }
+
+    private static class CountingMethod implements MagicMethod {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final String result;
+
+        public CountingMethod(String result) {
+            this.result = result;
+        }
+
+        @Override
+        public int argsCount() {
+            return 0;
+        }
+
+        @Override
+        public int magicArgsCount() {
+            return 0;
+        }
+
+        @Override
+        public int nonMagicArgsCount() {
+            return 0;
+        }
+
+        @Override
+        public Object invoke(Object... args) {
+            calls.incrementAndGet();
+            return result != null ? result : "user " + args[0];
+        }
+    }
+
+    private static Webserver startServer(int port, Webserver webserver) {
+        webserver.init(port, 500, false, false, IOMode.BLOCKING, 1, 4, 1024, 100, 4096, 1024, false);
+        webserver.registerInterceptor("/hello", (handler, request) -> request.doOk("text/plain", "hi"));
+        new Thread(webserver::start, "Test-Server").start();
+        return webserver;
+    }
+
+    private static Webserver startServer(int port) {
+        return startServer(port, new Webserver(new NullLogger(), new ContentHandler()));
+    }
+
+    @Test
+    @DisplayName("Webserver [Lower case Content-Length]")
+    public void testLowerCaseContentLength() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = startServer(port);
+
+        try (Socket socket = HttpTestUtils.connect(port)) {
+            //If the body was not skipped it would be read as the next request
+            HttpTestUtils.Response response = HttpTestUtils.request(socket, "POST /hello HTTP/1.1\r\ncontent-length: 22\r\n\r\nGET /evil HTTP/1.1\r\n\r\n");
+            assertNotNull(response);
+            assertEquals(200, response.status);
+            assertEquals("keep-alive", response.header("Connection"));
+
+            response = HttpTestUtils.request(socket, "GET /hello HTTP/1.1\r\nconnection: close\r\n\r\n");
+            assertNotNull(response);
+            assertEquals(200, response.status);
+            assertEquals("close", response.header("Connection"));
+            assertEquals(-1, socket.getInputStream().read());
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Webserver [Chunked request body]")
+    public void testChunkedRequestBody() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = startServer(port);
+
+        try (Socket socket = HttpTestUtils.connect(port)) {
+            HttpTestUtils.Response response = HttpTestUtils.request(socket, "POST /hello HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n16\r\nGET /evil HTTP/1.1\r\n\r\n\r\n0\r\n\r\n");
+            assertNotNull(response);
+            assertEquals(501, response.status);
+            assertEquals(-1, socket.getInputStream().read());
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Webserver [Content-Length and Transfer-Encoding]")
+    public void testContentLengthAndTransferEncoding() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = startServer(port);
+
+        try (Socket socket = HttpTestUtils.connect(port)) {
+            HttpTestUtils.Response response = HttpTestUtils.request(socket, "POST /hello HTTP/1.1\r\nContent-Length: 4\r\ntransfer-encoding: chunked\r\n\r\n0\r\n\r\n");
+            assertNotNull(response);
+            assertEquals(400, response.status);
+            assertEquals(-1, socket.getInputStream().read());
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Webserver [Differing Content-Lengths]")
+    public void testDifferingContentLengths() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = startServer(port);
+
+        try (Socket socket = HttpTestUtils.connect(port)) {
+            HttpTestUtils.Response response = HttpTestUtils.request(socket, "POST /hello HTTP/1.1\r\nContent-Length: 4\r\nContent-Length: 0\r\n\r\ntest");
+            assertNotNull(response);
+            assertEquals(400, response.status);
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Webserver [Idle persistent connections don't block new clients]")
+    public void testIdleConnections() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = startServer(port);
+
+        try (Socket idle1 = HttpTestUtils.connect(port); Socket idle2 = HttpTestUtils.connect(port); Socket client = HttpTestUtils.connect(port)) {
+            assertEquals(200, HttpTestUtils.request(idle1, "GET /hello HTTP/1.1\r\n\r\n").status);
+            assertEquals(200, HttpTestUtils.request(idle2, "GET /hello HTTP/1.1\r\n\r\n").status);
+
+            long start = System.currentTimeMillis();
+            HttpTestUtils.Response response = HttpTestUtils.request(client, "GET /hello HTTP/1.1\r\n\r\n");
+            assertNotNull(response);
+            assertEquals(200, response.status);
+            assertTrue(System.currentTimeMillis() - start < 400, "New client had to wait for an idle connection to time out.");
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Webserver [Multiple mappings reply once]")
+    public void testMultipleMappings() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = new Webserver(new NullLogger(), new ContentHandler());
+        CountingMethod first = new CountingMethod("first");
+        CountingMethod second = new CountingMethod("second");
+        webserver.registerMapping(RequestType.GET, "/mapped", new RequestMethodConfig(first, "text/plain", new Annotation[0], new Class<?>[0], -1, null));
+        webserver.registerMapping(RequestType.GET, "/mapped", new RequestMethodConfig(second, "text/plain", new Annotation[0], new Class<?>[0], -1, null));
+        startServer(port, webserver);
+
+        try (Socket socket = HttpTestUtils.connect(port)) {
+            HttpTestUtils.Response response = HttpTestUtils.request(socket, "GET /mapped HTTP/1.1\r\n\r\n");
+            assertNotNull(response);
+            assertEquals("first", response.body);
+
+            //The next response belongs to the next request
+            response = HttpTestUtils.request(socket, "GET /hello HTTP/1.1\r\n\r\n");
+            assertNotNull(response);
+            assertEquals("hi", response.body);
+
+            assertEquals(1, first.calls.get());
+            assertEquals(0, second.calls.get());
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Webserver [Path variable parameter]")
+    public void testPathVariable() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = new Webserver(new NullLogger(), new ContentHandler());
+        Annotation[] annotations = UserController.class.getMethod("user", int.class).getParameterAnnotations()[0];
+        webserver.registerMapping(RequestType.GET, "/users/{id}", new RequestMethodConfig(new CountingMethod(null), "text/plain", annotations, new Class<?>[]{ int.class }, -1, null));
+        startServer(port, webserver);
+
+        try (Socket socket = HttpTestUtils.connect(port)) {
+            HttpTestUtils.Response response = HttpTestUtils.request(socket, "GET /users/42 HTTP/1.1\r\n\r\n");
+            assertNotNull(response);
+            assertEquals(200, response.status);
+            assertEquals("user 42", response.body);
+
+            response = HttpTestUtils.request(socket, "GET /users/abc HTTP/1.1\r\n\r\n");
+            assertNotNull(response);
+            assertEquals(400, response.status);
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Webserver [Multi byte request bodies]")
+    public void testMultiByteBody() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = new Webserver(new NullLogger(), new ContentHandler());
+        Annotation[] annotations = UserController.class.getMethod("echo", String.class).getParameterAnnotations()[0];
+        webserver.registerMapping(RequestType.POST, "/echo", new RequestMethodConfig(new CountingMethod(null), "text/plain", annotations, new Class<?>[]{ String.class }, 0, String.class));
+        startServer(port, webserver);
+
+        String body = "\u00E4\u20AC body";
+        String request = "POST /echo HTTP/1.1\r\nContent-Type: application/octet-stream\r\nContent-Length: " + body.getBytes(StandardCharsets.UTF_8).length + "\r\n\r\n" + body;
+
+        try (Socket socket = HttpTestUtils.connect(port)) {
+            //Both requests are sent at once so the first body must end exactly at its Content-Length
+            socket.getOutputStream().write((request + request).getBytes(StandardCharsets.UTF_8));
+
+            for(int i=0;i<2;i++){
+                HttpTestUtils.Response response = HttpTestUtils.readResponse(socket.getInputStream());
+                assertNotNull(response);
+                assertEquals(200, response.status);
+                assertEquals("user " + body, response.body);
+            }
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Webserver [Too large and invalid request bodies]")
+    public void testBodyLimits() throws Exception {
+        int port = HttpTestUtils.freePort();
+        Webserver webserver = startServer(port);
+
+        try {
+            try (Socket socket = HttpTestUtils.connect(port)) {
+                HttpTestUtils.Response response = HttpTestUtils.request(socket, "POST /hello HTTP/1.1\r\nContent-Length: 1025\r\n\r\n");
+                assertNotNull(response);
+                assertEquals(413, response.status);
+                assertEquals(-1, socket.getInputStream().read());
+            }
+
+            try (Socket socket = HttpTestUtils.connect(port)) {
+                HttpTestUtils.Response response = HttpTestUtils.request(socket, "POST /hello HTTP/1.1\r\nContent-Length: -4\r\n\r\n");
+                assertNotNull(response);
+                assertEquals(400, response.status);
+                assertEquals(-1, socket.getInputStream().read());
+            }
+        }
+        finally {
+            webserver.stop();
+        }
+    }
+
+}